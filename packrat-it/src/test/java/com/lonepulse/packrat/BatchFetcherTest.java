@@ -0,0 +1,116 @@
+package com.lonepulse.packrat;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.lonepulse.packrat.annotation.Id;
+import com.lonepulse.packrat.annotation.ToOne;
+import com.lonepulse.packrat.metadata.EntityMetadata;
+
+/**
+ * <p>Unit tests for {@link BatchFetcher}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class BatchFetcherTest {
+
+	
+	public static class Day extends Entity<Day> {
+		
+		@Id
+		private Date id;
+	}
+	
+	public static class Shift extends Entity<Shift> {
+		
+		@Id
+		private long id;
+		
+		@ToOne
+		private Lazy<Day> day;
+	}
+	
+	
+	@Test
+	public final void testResolvesConvertedKeys() {
+		
+		SQLiteDatabase database = SQLiteDatabase.create(null);
+		
+		try {
+			
+			database.execSQL("CREATE TABLE Day (id INTEGER PRIMARY KEY);");
+			database.execSQL("CREATE TABLE Shift (id INTEGER PRIMARY KEY, day INTEGER);");
+			database.execSQL("INSERT INTO Day (id) VALUES (86400000);");
+			database.execSQL("INSERT INTO Day (id) VALUES (172800000);");
+			database.execSQL("INSERT INTO Shift (id, day) VALUES (1, 86400000);");
+			database.execSQL("INSERT INTO Shift (id, day) VALUES (2, 172800000);");
+			
+			Shift first = new Shift(), second = new Shift();
+			first.id = 1;
+			first.day = Lazy.reference(Day.class, new Date(86400000L));
+			second.id = 2;
+			second.day = Lazy.reference(Day.class, new Date(172800000L));
+			
+			List<Shift> shifts = Arrays.asList(first, second);
+			
+			BatchFetcher.fetch(database, EntityMetadata.of(Shift.class), shifts, 
+				QueryBuilder.newInstance().fetch("day").build());
+			
+			assertNotNull(first.day.get());
+			assertNotNull(second.day.get());
+			assertEquals(new Date(86400000L), first.day.get().id);
+			assertEquals(new Date(172800000L), second.day.get().id);
+		}
+		finally {
+			
+			database.close();
+		}
+	}
+	
+	@Test
+	public final void testBindsConvertedKeys() {
+		
+		Shift shift = new Shift();
+		shift.day = Lazy.reference(Day.class, new Date(86400000L));
+		
+		assertEquals("86400000", EntityMetadata.of(Shift.class).getProperty("day").toArg(shift));
+		assertNull(EntityMetadata.of(Shift.class).getProperty("day").argOf(null));
+	}
+}
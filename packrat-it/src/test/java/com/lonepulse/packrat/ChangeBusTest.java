@@ -0,0 +1,89 @@
+package com.lonepulse.packrat;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * <p>Unit tests for the delivery of notifications by a {@link ChangeBus}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class ChangeBusTest {
+
+	
+	@Test
+	public final void testFailingObserverDoesNotStopDelivery() throws InterruptedException {
+		
+		ChangeBus changeBus = new ChangeBus(Collections.<Class<Object>>emptySet());
+		
+		final CountDownLatch failures = new CountDownLatch(2), deliveries = new CountDownLatch(2);
+		
+		changeBus.subscribe(new ChangeObserver() {
+			
+			@Override
+			public void onChange(Set<String> tables) {
+				
+				failures.countDown();
+				throw new IllegalStateException("The observer failed. ");
+			}
+			
+		}, "Message");
+		
+		changeBus.subscribe(new ChangeObserver() {
+			
+			@Override
+			public void onChange(Set<String> tables) {
+				
+				assertEquals(Collections.singleton("Message"), tables);
+				deliveries.countDown();
+			}
+			
+		}, "Message");
+		
+		for (int i = 0; i < 2; i++) {
+			
+			changeBus.touch("Message");
+			changeBus.complete(true);
+			
+			Thread.sleep(ChangeBus.WINDOW * 4);
+		}
+		
+		assertTrue(failures.await(2, TimeUnit.SECONDS));
+		assertTrue(deliveries.await(2, TimeUnit.SECONDS));
+	}
+}
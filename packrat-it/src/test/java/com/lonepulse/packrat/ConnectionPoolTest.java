@@ -0,0 +1,164 @@
+package com.lonepulse.packrat;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * <p>Unit tests for waiting on an exhausted {@link ConnectionPool} and for its read transactions.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class ConnectionPoolTest {
+
+	
+	private SQLitePersistenceUnit persistenceUnit;
+	
+	private ConnectionPool connectionPool;
+	
+	private ExecutorService executor;
+	
+	
+	/**
+	 * <p>Creates a pool with capacity for a single reader.
+	 */
+	@Before
+	public final void setUp() {
+		
+		persistenceUnit = new TestPersistenceUnit();
+		connectionPool = new ConnectionPool(persistenceUnit, SQLiteDatabase.create(null), 1);
+		executor = Executors.newSingleThreadExecutor();
+	}
+	
+	@After
+	public final void tearDown() {
+		
+		executor.shutdownNow();
+		connectionPool.close();
+		connectionPool.writer().close();
+		persistenceUnit.close();
+	}
+	
+	@Test
+	public final void testWaiterReceivesReleasedReader() throws Exception {
+		
+		SQLiteDatabase reader = connectionPool.acquire();
+		
+		CountDownLatch waiting = new CountDownLatch(1);
+		Future<SQLiteDatabase> waiter = executor.submit(acquire(waiting));
+		
+		assertTrue(waiting.await(2, TimeUnit.SECONDS));
+		connectionPool.release(reader);
+		
+		assertSame(reader, waiter.get(2, TimeUnit.SECONDS));
+	}
+	
+	@Test
+	public final void testWaiterFailsOnClose() throws Exception {
+		
+		SQLiteDatabase reader = connectionPool.acquire();
+		
+		CountDownLatch waiting = new CountDownLatch(1);
+		Future<SQLiteDatabase> waiter = executor.submit(acquire(waiting));
+		
+		assertTrue(waiting.await(2, TimeUnit.SECONDS));
+		connectionPool.close();
+		
+		try {
+			
+			waiter.get(2, TimeUnit.SECONDS);
+			fail("The waiter acquired a connection from a closed pool. ");
+		}
+		catch(ExecutionException ee) {
+			
+			assertTrue(ee.getCause() instanceof PackratRuntimeException);
+		}
+		finally {
+			
+			connectionPool.release(reader);
+		}
+	}
+	
+	@Test
+	public final void testReadTransaction() {
+		
+		//every in-memory database is the same instance, so the reader is given a pool of its own
+		ConnectionPool snapshots = new ConnectionPool(null, null, 1);
+		SQLiteDatabase reader = connectionPool.writer();
+		
+		assertTrue(snapshots.beginRead(reader));
+		
+		try {
+			
+			reader.execSQL(";BEGIN;");
+			fail("A transaction was begun within the read transaction. ");
+		}
+		catch(SQLException sqle) {}
+		
+		snapshots.endRead(reader);
+		
+		reader.execSQL(";BEGIN;");
+		reader.execSQL(";END;");
+	}
+	
+	/**
+	 * <p>Acquires a connection on another thread, counting down the given latch just before 
+	 * it does. Whether the pool is changed before or after the thread starts to wait, the 
+	 * outcome is the same.
+	 */
+	private Callable<SQLiteDatabase> acquire(final CountDownLatch waiting) {
+		
+		return new Callable<SQLiteDatabase>() {
+			
+			@Override
+			public SQLiteDatabase call() {
+				
+				waiting.countDown();
+				return connectionPool.acquire();
+			}
+		};
+	}
+}
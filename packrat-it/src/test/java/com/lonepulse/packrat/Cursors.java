@@ -0,0 +1,99 @@
+package com.lonepulse.packrat;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import android.database.Cursor;
+
+/**
+ * <p>Creates {@link Cursor}s positioned on a single row of given values, so that the 
+ * hydration of attributes can be tested without a database.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class Cursors {
+
+	/**
+	 * <p>Instantiation is nonsensical.
+	 *
+	 * @since 1.1.0
+	 */
+	private Cursors() {}
+	
+	/**
+	 * <p>Creates a {@link Cursor} over a single row. Each value may be {@code null}, 
+	 * a {@link String}, a {@link Number} or a {@code byte[]}.</p>
+	 *
+	 * @param row
+	 * 			the values of the columns in order
+	 * 
+	 * @return a {@link Cursor} positioned on the row
+	 * 
+	 * @since 1.1.0
+	 */
+	public static Cursor of(final Object... row) {
+		
+		return (Cursor)Proxy.newProxyInstance(Cursor.class.getClassLoader(), 
+			new Class<?>[] { Cursor.class }, new InvocationHandler() {
+			
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				
+				String name = method.getName();
+				
+				if("getCount".equals(name) || "getColumnCount".equals(name)) {
+					
+					return Integer.valueOf("getCount".equals(name)? 1 :row.length);
+				}
+				
+				Object value = row[((Integer)args[0]).intValue()];
+				
+				if("isNull".equals(name)) return Boolean.valueOf(value == null);
+				if("getType".equals(name)) return Integer.valueOf(typeOf(value));
+				if("getBlob".equals(name)) return (byte[])value;
+				if("getString".equals(name)) return value == null? null :value.toString();
+				if("getLong".equals(name)) return Long.valueOf(((Number)value).longValue());
+				if("getInt".equals(name)) return Integer.valueOf(((Number)value).intValue());
+				if("getShort".equals(name)) return Short.valueOf(((Number)value).shortValue());
+				if("getDouble".equals(name)) return Double.valueOf(((Number)value).doubleValue());
+				if("getFloat".equals(name)) return Float.valueOf(((Number)value).floatValue());
+				
+				throw new UnsupportedOperationException(name);
+			}
+		});
+	}
+	
+	private static int typeOf(Object value) {
+		
+		if(value == null) return Cursor.FIELD_TYPE_NULL;
+		if(value instanceof byte[]) return Cursor.FIELD_TYPE_BLOB;
+		if(value instanceof String) return Cursor.FIELD_TYPE_STRING;
+		if(value instanceof Double || value instanceof Float) return Cursor.FIELD_TYPE_FLOAT;
+		
+		return Cursor.FIELD_TYPE_INTEGER;
+	}
+}
@@ -0,0 +1,142 @@
+package com.lonepulse.packrat;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * <p>Unit tests for the conflation of the results of a {@link LiveQuery}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class LiveQueryTest {
+
+	
+	@Test
+	public final void testSlowObserverReceivesLatestResult() throws InterruptedException {
+		
+		ChangeBus changeBus = new ChangeBus(Collections.<Class<Object>>emptySet());
+		
+		final AtomicInteger executions = new AtomicInteger(), revision = new AtomicInteger();
+		
+		LiveQuery<Integer> liveQuery = new LiveQuery<Integer>(changeBus, new String[] {"Message"}, 
+			new LiveQuery.Loader<Integer>() {
+			
+			@Override
+			public Integer load() {
+				
+				executions.incrementAndGet();
+				return Integer.valueOf(revision.get());
+			}
+		});
+		
+		final CountDownLatch delivering = new CountDownLatch(1), proceed = new CountDownLatch(1);
+		final BlockingQueue<Integer> results = new LinkedBlockingQueue<Integer>();
+		
+		liveQuery.subscribe(new ResultObserver<Integer>() {
+			
+			@Override
+			public void onResult(Integer result) {
+				
+				if(result.intValue() == 0) {
+					
+					delivering.countDown();
+					await(proceed);
+				}
+				
+				results.add(result);
+			}
+			
+			@Override
+			public void onError(RuntimeException failure) {}
+		});
+		
+		assertTrue(delivering.await(2, TimeUnit.SECONDS));
+		
+		final CountDownLatch delivered = new CountDownLatch(1);
+		
+		//subscribed after the query, so it is notified once the query has seen every change before it
+		changeBus.subscribe(new ChangeObserver() {
+			
+			@Override
+			public void onChange(Set<String> tables) {
+				
+				delivered.countDown();
+			}
+			
+		}, "Marker");
+		
+		for (int i = 1; i <= 5; i++) {
+			
+			revision.set(i);
+			
+			changeBus.touch("Message");
+			changeBus.complete(true);
+		}
+		
+		changeBus.touch("Marker");
+		changeBus.complete(true);
+		
+		assertTrue(delivered.await(2, TimeUnit.SECONDS));
+		assertEquals(1, executions.get());
+		
+		proceed.countDown();
+		
+		assertEquals(Integer.valueOf(0), results.poll(2, TimeUnit.SECONDS));
+		assertEquals(Integer.valueOf(5), results.poll(2, TimeUnit.SECONDS));
+		assertNull(results.poll(ChangeBus.WINDOW * 4, TimeUnit.MILLISECONDS));
+		assertEquals(2, executions.get());
+		
+		liveQuery.cancel();
+	}
+	
+	private static void await(CountDownLatch latch) {
+		
+		try {
+			
+			latch.await(2, TimeUnit.SECONDS);
+		}
+		catch(InterruptedException ie) {
+			
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package com.lonepulse.packrat;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import com.lonepulse.packrat.annotation.FullText;
+import com.lonepulse.packrat.annotation.Id;
+import com.lonepulse.packrat.annotation.Index;
+import com.lonepulse.packrat.annotation.ToMany;
+import com.lonepulse.packrat.annotation.ToOne;
+import com.lonepulse.packrat.annotation.Version;
+import com.lonepulse.packrat.metadata.EntityMetadata;
+import com.lonepulse.packrat.sql.Aggregate;
+
+/**
+ * <p>Unit tests for the SQL compiled by {@link QueryCompiler}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class QueryCompilerTest {
+
+	
+	public static class Folder extends Entity<Folder> {
+		
+		@Id
+		private long id;
+		
+		private String name;
+		
+		@ToMany(mappedBy = "folder")
+		private Lazy<java.util.List<Mail>> mails;
+	}
+	
+	public static class Mail extends Entity<Mail> {
+		
+		@Id
+		private long id;
+		
+		@Version
+		private long version;
+		
+		@ToOne @Index(name = "idx_Mail_unread", where = "unread = 1")
+		private Lazy<Folder> folder;
+		
+		@FullText
+		private String subject;
+		
+		private boolean unread;
+	}
+	
+	public static class Summary {
+		
+		private String subject;
+	}
+	
+	
+	private static final EntityMetadata<?> MAIL = EntityMetadata.of(Mail.class);
+	
+	
+	@Test
+	public final void testSelect() {
+		
+		assertEquals("SELECT * FROM Mail", QueryCompiler.select(MAIL, null, null));
+		
+		Query query = QueryBuilder.newInstance().select("subject")
+			.where("unread = ?", "1").orderBy("id DESC").limit(10, 20).build();
+		
+		String[] columns = QueryCompiler.columns(MAIL, query);
+		
+		assertArrayEquals(new String[] {"id", "version", "subject"}, columns);
+		assertEquals("SELECT id, version, subject FROM Mail WHERE unread = ? ORDER BY id DESC LIMIT 10,20", 
+			QueryCompiler.select(MAIL, columns, query));
+		assertArrayEquals(new String[] {"1"}, QueryCompiler.args(query));
+	}
+	
+	@Test
+	public final void testColumns() {
+		
+		assertNull(QueryCompiler.columns(MAIL, null));
+		assertArrayEquals(new String[] {"subject"}, 
+			QueryCompiler.columns(MAIL, EntityMetadata.of(Summary.class), null));
+		
+		try {
+			
+			QueryCompiler.columns(MAIL, QueryBuilder.newInstance().select("body").build());
+			fail("selected an undeclared column");
+		}
+		catch(QueryException qe) {}
+	}
+	
+	@Test
+	public final void testAggregate() {
+		
+		assertEquals("SELECT COUNT(*) FROM Mail", QueryCompiler.aggregate(MAIL, Aggregate.COUNT, null, null));
+		
+		Query query = QueryBuilder.newInstance().where("unread = 1").orderBy("id").build();
+		
+		assertEquals("SELECT MAX(id) FROM Mail WHERE unread = 1", 
+			QueryCompiler.aggregate(MAIL, Aggregate.MAX, "id", query));
+		
+		query = QueryBuilder.newInstance().where("unread = 1").orderBy("id").limit(5).build();
+		
+		assertEquals("SELECT SUM(id) FROM (SELECT id FROM Mail WHERE unread = 1 ORDER BY id LIMIT 5)", 
+			QueryCompiler.aggregate(MAIL, Aggregate.SUM, "id", query));
+		
+		try {
+			
+			QueryCompiler.aggregate(MAIL, Aggregate.SUM, "body", null);
+			fail("aggregated an undeclared column");
+		}
+		catch(QueryException qe) {}
+		
+		assertEquals("SELECT COUNT(subject) FROM Mail", QueryCompiler.aggregate(MAIL, Aggregate.COUNT, "subject", null));
+		
+		try {
+			
+			QueryCompiler.aggregate(MAIL, Aggregate.MAX, "subject", null);
+			fail("aggregated a textual column");
+		}
+		catch(QueryException qe) {}
+	}
+	
+	@Test
+	public final void testExists() {
+		
+		assertEquals("SELECT EXISTS (SELECT 1 FROM Mail WHERE unread = 1 LIMIT 1)", 
+			QueryCompiler.exists(MAIL, QueryBuilder.newInstance().where("unread = 1").build()));
+	}
+	
+	@Test
+	public final void testWithinPartialIndex() {
+		
+		Query query = QueryBuilder.newInstance().where("folder = ?", "2").within("idx_Mail_unread").build();
+		
+		assertEquals("SELECT * FROM Mail WHERE (folder = ?) AND (unread = 1)", 
+			QueryCompiler.select(MAIL, null, query));
+		
+		try {
+			
+			QueryCompiler.select(MAIL, null, QueryBuilder.newInstance().within("fk_Mail_folder").build());
+			fail("restricted to an index which is not partial");
+		}
+		catch(QueryException qe) {}
+	}
+	
+	@Test
+	public final void testMatch() {
+		
+		Query query = QueryBuilder.newInstance().where("unread = ?", "1").match("hello").build();
+		
+		assertEquals("SELECT * FROM Mail JOIN (SELECT rowid AS _match_rowid, -length(offsets(Mail_fts)) " + 
+			"AS _match_rank FROM Mail_fts WHERE Mail_fts MATCH ?) AS _match ON Mail.rowid = _match._match_rowid " + 
+			"WHERE unread = ? ORDER BY _match._match_rank", QueryCompiler.select(MAIL, null, query));
+		assertArrayEquals(new String[] {"hello", "1"}, QueryCompiler.args(query));
+		
+		try {
+			
+			QueryCompiler.select(EntityMetadata.of(Folder.class), null, 
+				QueryBuilder.newInstance().match("hello").build());
+			fail("matched an entity without a full-text index");
+		}
+		catch(QueryException qe) {}
+	}
+	
+	@Test
+	public final void testFetch() {
+		
+		Query query = QueryBuilder.newInstance().where("unread = 1").limit(3).build();
+		
+		assertEquals("SELECT * FROM Folder WHERE id IN (SELECT folder FROM Mail WHERE unread = 1 LIMIT 3)", 
+			QueryCompiler.fetch(MAIL, QueryCompiler.relationship(MAIL, "folder"), query));
+		
+		EntityMetadata<?> folder = EntityMetadata.of(Folder.class);
+		
+		assertEquals("SELECT * FROM Mail WHERE folder IN (SELECT id FROM Folder)", 
+			QueryCompiler.fetch(folder, QueryCompiler.relationship(folder, "mails"), null));
+		
+		try {
+			
+			QueryCompiler.relationship(MAIL, "attachments");
+			fail("resolved an undeclared relationship");
+		}
+		catch(QueryException qe) {}
+	}
+}
@@ -0,0 +1,103 @@
+package com.lonepulse.packrat;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+/**
+ * <p>Unit tests for the parsing of imported records by a {@link RecordParser}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class RecordParserTest {
+
+	
+	private static final String[] COLUMNS = {"a", "b"};
+	
+	
+	@Test
+	public final void testJsonLines() throws IOException {
+		
+		RecordParser parser = parser("{\"a\":1, \"b\":\"x\"}\n{\"b\":null}\n");
+		String[] record = new String[COLUMNS.length];
+		
+		assertTrue(parser.next(record));
+		assertArrayEquals(new String[] {"1", "x"}, record);
+		
+		assertTrue(parser.next(record));
+		assertArrayEquals(new String[] {null, null}, record);
+		
+		assertFalse(parser.next(record));
+	}
+	
+	@Test
+	public final void testJsonLinesEmptyObject() throws IOException {
+		
+		String[] record = new String[COLUMNS.length];
+		
+		assertTrue(parser("{ }").next(record));
+		assertArrayEquals(new String[] {null, null}, record);
+	}
+	
+	@Test
+	public final void testJsonLinesTrailingComma() throws IOException {
+		
+		assertMalformed("{\"a\":1,}");
+		assertMalformed("{\"a\":1, }");
+		assertMalformed("{,}");
+	}
+	
+	@Test
+	public final void testJsonLinesMissingComma() throws IOException {
+		
+		assertMalformed("{\"a\":1 \"b\":2}");
+	}
+	
+	private static RecordParser parser(String input) {
+		
+		return RecordParser.newInstance(new StringReader(input), ImportFormat.JSON_LINES, COLUMNS);
+	}
+	
+	private static void assertMalformed(String input) throws IOException {
+		
+		try {
+			
+			parser(input).next(new String[COLUMNS.length]);
+			fail("The malformed line " + input + " was parsed. ");
+		}
+		catch(PackratRuntimeException pre) {
+			
+			assertEquals(PackratRuntimeException.class, pre.getClass());
+		}
+	}
+}
@@ -0,0 +1,248 @@
+package com.lonepulse.packrat;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import com.lonepulse.packrat.annotation.Id;
+import com.lonepulse.packrat.annotation.Version;
+
+/**
+ * <p>Unit tests for {@link SQLiteBatch}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, shadows = ShadowClosingSQLiteStatement.class)
+public class SQLiteBatchTest {
+
+	
+	public static class Reading extends Entity<Reading> {
+		
+		@Id
+		private long id;
+		
+		private long count;
+		
+		private double value;
+		
+		private String label;
+	}
+	
+	public static class Account extends Entity<Account> {
+		
+		@Id
+		private long id;
+		
+		@Version
+		private long version;
+		
+		private long balance;
+	}
+	
+	
+	private SQLitePersistenceUnit persistenceUnit;
+	
+	
+	@Before
+	public final void setUp() {
+		
+		persistenceUnit = new TestPersistenceUnit(Reading.class, Account.class);
+	}
+	
+	@After
+	public final void tearDown() {
+		
+		persistenceUnit.close();
+	}
+	
+	@Test
+	public final void testSumsIntegersExactly() {
+		
+		Batch<Reading> batch = Entity.batch(Reading.class);
+		
+		assertEquals(Long.valueOf(0L), batch.sum("count", null));
+		
+		batch.create(readings(1L << 53, 1L));
+		
+		assertEquals(Long.valueOf((1L << 53) + 1L), batch.sum("count", null));
+		assertEquals(Long.valueOf(1L), batch.min("count", null));
+		assertEquals(Long.valueOf(1L << 53), batch.max("count", null));
+	}
+	
+	@Test
+	public final void testSumsReals() {
+		
+		Batch<Reading> batch = Entity.batch(Reading.class);
+		
+		assertEquals(Double.valueOf(0.0), batch.sum("value", null));
+		assertNull(batch.min("value", null));
+		assertNull(batch.max("value", null));
+		
+		batch.create(readings(1L, 2L));
+		
+		assertEquals(Double.valueOf(1.5), batch.sum("value", null));
+		assertEquals(Double.valueOf(0.5), batch.min("value", null));
+		assertEquals(Double.valueOf(1.0), batch.max("value", null));
+	}
+	
+	@Test
+	public final void testRejectsTextualAggregates() {
+		
+		Batch<Reading> batch = Entity.batch(Reading.class);
+		
+		batch.create(readings(1L));
+		
+		try {
+			
+			batch.max("label", null);
+			fail("The maximum of a textual column was computed. ");
+		}
+		catch(QueryException qe) {}
+		
+		assertEquals(1L, batch.count(null));
+	}
+	
+	@Test
+	public final void testRejectsStaleWrite() {
+		
+		accounts(1L);
+		
+		Account stale = account(1L), fresh = account(1L);
+		
+		fresh.balance = 10L;
+		fresh.update();
+		
+		assertEquals(1L, fresh.version);
+		
+		stale.balance = 20L;
+		
+		try {
+			
+			stale.update();
+			fail("A stale entity overwrote a newer version of its row. ");
+		}
+		catch(VersionConflictException vce) {}
+		
+		assertEquals(0L, stale.version);
+		
+		Account stored = account(1L);
+		
+		assertEquals(1L, stored.version);
+		assertEquals(10L, stored.balance);
+	}
+	
+	@Test
+	public final void testConflictRollsBackBatch() {
+		
+		accounts(1L, 2L);
+		
+		Account first = account(1L), second = account(2L), concurrent = account(2L);
+		
+		concurrent.balance = 5L;
+		concurrent.update();
+		
+		first.balance = 10L;
+		second.balance = 20L;
+		
+		try {
+			
+			Entity.batch(Account.class).update(Arrays.asList(first, second));
+			fail("A batch with a stale entity was updated. ");
+		}
+		catch(VersionConflictException vce) {}
+		
+		assertEquals(0L, first.version);
+		assertEquals(0L, second.version);
+		
+		Account stored = account(1L);
+		
+		assertEquals(0L, stored.version);
+		assertEquals(0L, stored.balance);
+		
+		first.update();
+		
+		assertEquals(1L, first.version);
+		assertEquals(10L, account(1L).balance);
+	}
+	
+	private static List<Reading> readings(long... counts) {
+		
+		List<Reading> readings = new ArrayList<Reading>();
+		
+		for (long count : counts) {
+			
+			Reading reading = new Reading();
+			reading.id = readings.size() + 1;
+			reading.count = count;
+			reading.value = reading.id / 2.0;
+			reading.label = "reading " + reading.id;
+			
+			readings.add(reading);
+		}
+		
+		return readings;
+	}
+	
+	private static void accounts(long... ids) {
+		
+		List<Account> accounts = new ArrayList<Account>();
+		
+		for (long id : ids) {
+			
+			Account account = new Account();
+			account.id = id;
+			
+			accounts.add(account);
+		}
+		
+		Entity.batch(Account.class).create(accounts);
+	}
+	
+	/**
+	 * <p>Reads a new copy of the account with the given identifier.
+	 */
+	private static Account account(long id) {
+		
+		for (Account account : Entity.batch(Account.class).find(null)) {
+			
+			if(account.id == id) return account;
+		}
+		
+		throw new AssertionError("The account " + id + " was not found. ");
+	}
+}
@@ -0,0 +1,159 @@
+package com.lonepulse.packrat;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.lonepulse.packrat.annotation.Id;
+
+/**
+ * <p>Unit tests for {@link SQLitePersistenceUnit}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, shadows = {ShadowClosingSQLiteStatement.class, ShadowLockingSQLiteDatabase.class})
+public class SQLitePersistenceUnitTest {
+
+	
+	public static class Note extends Entity<Note> {
+		
+		@Id
+		private long id;
+		
+		private String text;
+	}
+	
+	
+	@Test
+	public final void testLookupSkipsClosedUnits() {
+		
+		SQLitePersistenceUnit first = new TestPersistenceUnit(Note.class);
+		
+		assertSame(first, SQLitePersistenceUnit.lookup(Note.class));
+		
+		first.close();
+		
+		try {
+			
+			SQLitePersistenceUnit.lookup(Note.class);
+			fail("A closed persistence unit was looked up. ");
+		}
+		catch(PackratRuntimeException pre) {}
+		
+		SQLitePersistenceUnit second = new TestPersistenceUnit(Note.class);
+		
+		try {
+			
+			assertSame(second, SQLitePersistenceUnit.lookup(Note.class));
+		}
+		finally {
+			
+			second.close();
+		}
+	}
+	
+	@Test
+	public final void testReopenedUnitIsLookedUp() {
+		
+		SQLitePersistenceUnit persistenceUnit = new TestPersistenceUnit(Note.class);
+		
+		try {
+			
+			persistenceUnit.close();
+			persistenceUnit.connectionPool();
+			
+			assertSame(persistenceUnit, SQLitePersistenceUnit.lookup(Note.class));
+		}
+		finally {
+			
+			persistenceUnit.close();
+		}
+	}
+	
+	@Test
+	public final void testChangesHeldUntilObservedCommit() throws InterruptedException {
+		
+		SQLitePersistenceUnit persistenceUnit = new TestPersistenceUnit(Note.class);
+		
+		try {
+			
+			final CountDownLatch deliveries = new CountDownLatch(1);
+			
+			persistenceUnit.changes().subscribe(new ChangeObserver() {
+				
+				@Override
+				public void onChange(Set<String> tables) {
+					
+					deliveries.countDown();
+				}
+				
+			}, Note.class);
+			
+			SQLiteDatabase database = persistenceUnit.connectionPool().writer();
+			database.beginTransaction();
+			
+			try {
+				
+				new Note().create();
+				database.setTransactionSuccessful();
+			}
+			finally {
+				
+				database.endTransaction();
+			}
+			
+			assertFalse(deliveries.await(ChangeBus.WINDOW * 4, TimeUnit.MILLISECONDS));
+			
+			persistenceUnit.transaction(new Transaction<Void>() {
+				
+				@Override
+				public Void execute() {
+					
+					return null;
+				}
+			});
+			
+			assertTrue(deliveries.await(2, TimeUnit.SECONDS));
+		}
+		finally {
+			
+			persistenceUnit.close();
+		}
+	}
+}
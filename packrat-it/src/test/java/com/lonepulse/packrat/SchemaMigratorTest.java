@@ -0,0 +1,328 @@
+package com.lonepulse.packrat;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.database.DatabaseUtils;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.lonepulse.packrat.annotation.Id;
+import com.lonepulse.packrat.annotation.Index;
+import com.lonepulse.packrat.annotation.ToOne;
+import com.lonepulse.packrat.annotation.Version;
+import com.lonepulse.packrat.sql.DDLGenerator;
+import com.lonepulse.packrat.sql.DDLScript;
+
+/**
+ * <p>Unit tests for the migration of live schemas by {@link SchemaMigrator}. Each nested 
+ * class holds one revision of the entities, which share their tables with the entities 
+ * of the other revisions.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, shadows = ShadowClosingSQLiteStatement.class)
+public class SchemaMigratorTest {
+
+	
+	public static class V1 {
+		
+		public static class Note {
+			
+			@Id
+			private long id;
+			
+			@Index
+			private String text;
+			
+			private String priority;
+		}
+		
+		public static class Folder extends Entity<Folder> {
+			
+			@Id
+			private long id;
+			
+			private String name;
+			
+			private String color;
+		}
+	}
+	
+	public static class V2 {
+		
+		public static class Note {
+			
+			@Id
+			private long id;
+			
+			@Index
+			private String text;
+			
+			private String priority;
+			
+			private String title;
+		}
+		
+		public static class Folder extends Entity<Folder> {
+			
+			@Id
+			private long id;
+			
+			private String name;
+		}
+	}
+	
+	public static class V3 {
+		
+		public static class Note {
+			
+			@Id
+			private long id;
+			
+			@Index(unique = true)
+			private String text;
+			
+			private int priority;
+		}
+	}
+	
+	public static class Task {
+		
+		@Id
+		private long id;
+		
+		private boolean done;
+		
+		@Version
+		private long version;
+	}
+	
+	public static class Memo extends Entity<Memo> {
+		
+		@Id
+		private long id;
+		
+		@ToOne
+		private Lazy<V1.Folder> folder;
+	}
+	
+	
+	private SQLiteDatabase database;
+	
+	
+	@Before
+	public final void setUp() {
+		
+		database = SQLiteDatabase.create(null);
+	}
+	
+	@After
+	public final void tearDown() {
+		
+		database.close();
+	}
+	
+	@Test
+	public final void testAddsColumnThroughAlter() {
+		
+		synchronize(V1.Note.class);
+		database.execSQL("INSERT INTO Note (id, text, priority) VALUES (1, 'first', 'high');");
+		
+		String script = plan(V2.Note.class);
+		
+		assertTrue(script, script.contains("ALTER TABLE Note ADD COLUMN title TEXT;"));
+		assertFalse(script, script.contains("DROP TABLE"));
+		
+		synchronize(V2.Note.class);
+		
+		assertEquals("first|high|", row("SELECT text || '|' || priority || '|' || IFNULL(title, '') FROM Note"));
+	}
+	
+	@Test
+	public final void testRebuildKeepsRowsOfDroppedColumn() {
+		
+		synchronize(V1.Folder.class);
+		database.execSQL("INSERT INTO Folder (id, name, color) VALUES (1, 'inbox', 'red');");
+		database.execSQL("INSERT INTO Folder (id, name, color) VALUES (2, 'outbox', 'blue');");
+		
+		String script = plan(V2.Folder.class);
+		
+		assertTrue(script, script.contains("DROP TABLE Folder;"));
+		assertTrue(script, script.contains("ALTER TABLE _packrat_Folder RENAME TO Folder;"));
+		
+		synchronize(V2.Folder.class);
+		
+		assertEquals("2", row("SELECT COUNT(*) FROM Folder"));
+		assertEquals("inbox", row("SELECT name FROM Folder WHERE id = 1"));
+		assertFalse(row("SELECT sql FROM sqlite_master WHERE name = 'Folder'").contains("color"));
+		assertEquals("0", row("SELECT COUNT(*) FROM sqlite_master WHERE name = '_packrat_Folder'"));
+	}
+	
+	@Test
+	public final void testRebuildKeepsRowsOfRetypedColumn() {
+		
+		synchronize(V1.Note.class);
+		database.execSQL("INSERT INTO Note (id, text, priority) VALUES (1, 'first', '3');");
+		
+		synchronize(V3.Note.class);
+		
+		assertEquals("first", row("SELECT text FROM Note WHERE id = 1"));
+		assertEquals("integer", row("SELECT typeof(priority) FROM Note WHERE id = 1"));
+		assertEquals("3", row("SELECT priority FROM Note WHERE id = 1"));
+	}
+	
+	@Test
+	public final void testCopiesTextualBooleansAsIntegers() {
+		
+		database.execSQL("CREATE TABLE Task (id INTEGER PRIMARY KEY, done TEXT, version INTEGER NOT NULL);");
+		database.execSQL("INSERT INTO Task (id, done, version) VALUES (1, 'true', 1);");
+		database.execSQL("INSERT INTO Task (id, done, version) VALUES (2, 'false', 1);");
+		
+		synchronize(Task.class);
+		
+		assertEquals("1", row("SELECT done FROM Task WHERE id = 1"));
+		assertEquals("0", row("SELECT done FROM Task WHERE id = 2"));
+		assertEquals("integer", row("SELECT typeof(done) FROM Task WHERE id = 2"));
+	}
+	
+	@Test
+	public final void testCopiesNullVersionsAsZero() {
+		
+		database.execSQL("CREATE TABLE Task (id INTEGER PRIMARY KEY, done INTEGER, version INTEGER);");
+		database.execSQL("INSERT INTO Task (id, done, version) VALUES (1, 1, NULL);");
+		database.execSQL("INSERT INTO Task (id, done, version) VALUES (2, 0, 7);");
+		
+		synchronize(Task.class);
+		
+		assertEquals("0", row("SELECT version FROM Task WHERE id = 1"));
+		assertEquals("7", row("SELECT version FROM Task WHERE id = 2"));
+		
+		try {
+			
+			database.execSQL("INSERT INTO Task (id, done, version) VALUES (3, 1, NULL);");
+			fail("A null version was inserted. ");
+		}
+		catch(SQLException sqle) {}
+	}
+	
+	@Test
+	public final void testRecreatesChangedIndex() {
+		
+		synchronize(V1.Note.class);
+		
+		String index = row("SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = 'Note'");
+		
+		synchronize(V2.Note.class);
+		
+		assertFalse(row("SELECT sql FROM sqlite_master WHERE name = '" + index + "'").contains("UNIQUE"));
+		
+		synchronize(V3.Note.class);
+		
+		assertTrue(row("SELECT sql FROM sqlite_master WHERE name = '" + index + "'").contains("UNIQUE"));
+		assertEquals("1", row("SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND tbl_name = 'Note'"));
+	}
+	
+	@Test
+	public final void testUnchangedIndexIsKept() {
+		
+		synchronize(V1.Note.class);
+		
+		assertFalse(plan(V2.Note.class).contains("INDEX"));
+	}
+	
+	@Test
+	public final void testRebuildsParentOfChildren() {
+		
+		synchronize(V1.Folder.class, Memo.class);
+		database.execSQL("INSERT INTO Folder (id, name, color) VALUES (1, 'inbox', 'red');");
+		database.execSQL("INSERT INTO Memo (id, folder) VALUES (1, 1);");
+		database.execSQL("INSERT INTO Memo (id, folder) VALUES (2, 1);");
+		
+		synchronize(V2.Folder.class, Memo.class);
+		
+		assertEquals("inbox", row("SELECT name FROM Folder WHERE id = 1"));
+		assertEquals("2", row("SELECT COUNT(*) FROM Memo JOIN Folder ON Memo.folder = Folder.id"));
+		assertTrue(row("SELECT sql FROM sqlite_master WHERE name = 'Memo'").contains("REFERENCES Folder"));
+		
+		database.execSQL("PRAGMA foreign_keys = ON;");
+		database.execSQL("INSERT INTO Memo (id, folder) VALUES (3, 1);");
+		
+		try {
+			
+			database.execSQL("INSERT INTO Memo (id, folder) VALUES (4, 2);");
+			fail("A memo was inserted into a folder which does not exist. ");
+		}
+		catch(SQLException sqle) {}
+	}
+	
+	@Test
+	public final void testDropsUndeclaredFullTextIndex() {
+		
+		synchronize(V1.Note.class);
+		
+		database.execSQL("CREATE TABLE Note_fts (text);");
+		database.execSQL("CREATE TRIGGER Note_fts_ai AFTER INSERT ON Note BEGIN " + 
+			"INSERT INTO Note_fts (rowid, text) VALUES (new.rowid, new.text); END;");
+		
+		synchronize(V2.Note.class);
+		
+		assertEquals("0", row("SELECT COUNT(*) FROM sqlite_master WHERE name LIKE 'Note_fts%'"));
+	}
+	
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private void synchronize(Class<?>... entities) {
+		
+		SchemaRegistry.synchronize(database, (Set)new LinkedHashSet<Class<?>>(Arrays.asList(entities)));
+	}
+	
+	private String plan(Class<?> entity) {
+		
+		DDLScript script = DDLScript.newInstance();
+		SchemaMigrator.migrate(database, entity, new DDLGenerator().create(entity).toString().split("\n"), script);
+		
+		return script.toString();
+	}
+	
+	private String row(String query) {
+		
+		return DatabaseUtils.stringForQuery(database, query, null);
+	}
+}
@@ -0,0 +1,93 @@
+package com.lonepulse.packrat;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.shadows.ShadowSQLiteStatement;
+
+import android.database.sqlite.SQLiteStatement;
+
+/**
+ * <p>Shadows {@link SQLiteStatement} for tests which alter the schema. The shadow provided 
+ * by Robolectric leaves the result of a simple query open, after which the connection may 
+ * no longer drop a table. Install it using {@code @Config(shadows = ...)}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@Implements(SQLiteStatement.class)
+public class ShadowClosingSQLiteStatement extends ShadowSQLiteStatement {
+
+	
+	@Override
+	@Implementation
+	public long simpleQueryForLong() {
+		
+		try {
+			
+			ResultSet resultSet = getStatement().executeQuery();
+			
+			try {
+				
+				resultSet.next();
+				return resultSet.getLong(1);
+			}
+			finally {
+				
+				resultSet.close();
+			}
+		}
+		catch(SQLException sqle) {
+			
+			throw new RuntimeException(sqle);
+		}
+	}
+	
+	@Override
+	@Implementation
+	public String simpleQueryForString() {
+		
+		try {
+			
+			ResultSet resultSet = getStatement().executeQuery();
+			
+			try {
+				
+				resultSet.next();
+				return resultSet.getString(1);
+			}
+			finally {
+				
+				resultSet.close();
+			}
+		}
+		catch(SQLException sqle) {
+			
+			throw new RuntimeException(sqle);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.lonepulse.packrat;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.shadows.ShadowSQLiteDatabase;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * <p>Shadows {@link SQLiteDatabase} for tests which nest transactions. The shadow provided 
+ * by Robolectric does not lock the database for the thread which begins a transaction, so 
+ * that thread would never be seen to hold it. Install it using {@code @Config(shadows = ...)}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@Implements(SQLiteDatabase.class)
+public class ShadowLockingSQLiteDatabase extends ShadowSQLiteDatabase {
+
+	
+	@Override
+	@Implementation
+	public void beginTransaction() {
+		
+		super.beginTransaction();
+		lock();
+	}
+	
+	@Override
+	@Implementation
+	public void endTransaction() {
+		
+		try {
+			
+			super.endTransaction();
+		}
+		finally {
+			
+			unlock();
+		}
+	}
+}
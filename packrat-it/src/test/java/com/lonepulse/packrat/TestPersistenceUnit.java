@@ -0,0 +1,113 @@
+package com.lonepulse.packrat;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.Robolectric;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.AssetManager;
+
+/**
+ * <p>An {@link SQLitePersistenceUnit} over an in-memory database which declares the given 
+ * entities. Its <b>packrat.properties</b> only specify the name and the version.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class TestPersistenceUnit extends SQLitePersistenceUnit {
+
+	
+	private static final String PROPERTIES = "name=packrat\nversion=1\n";
+	
+	private final Set<Class<?>> entities;
+	
+	
+	public TestPersistenceUnit(Class<?>... entities) {
+		
+		super(context(PROPERTIES));
+		
+		this.entities = new LinkedHashSet<Class<?>>(Arrays.asList(entities));
+	}
+	
+	/**
+	 * <p>Creates a {@link Context} whose assets contain a <b>packrat.properties</b> with 
+	 * the given content.</p>
+	 *
+	 * @param properties
+	 * 			the content of packrat.properties
+	 * 
+	 * @return a {@link Context} of the test application
+	 * 
+	 * @since 1.1.0
+	 */
+	public static Context context(final String properties) {
+		
+		final AssetManager assets = mock(AssetManager.class);
+		
+		try {
+			
+			when(assets.open(anyString())).thenAnswer(new Answer<InputStream>() {
+				
+				@Override
+				public InputStream answer(InvocationOnMock invocation) {
+					
+					return new ByteArrayInputStream(properties.getBytes());
+				}
+			});
+		}
+		catch(IOException ioe) {
+			
+			throw new IllegalStateException(ioe);
+		}
+		
+		return new ContextWrapper(Robolectric.application) {
+			
+			@Override
+			public AssetManager getAssets() {
+				
+				return assets;
+			}
+		};
+	}
+	
+	@Override
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public <Model> Set<Class<Model>> entities() {
+		
+		return (Set)entities;
+	}
+}
@@ -0,0 +1,190 @@
+package com.lonepulse.packrat;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import com.lonepulse.packrat.annotation.Id;
+
+/**
+ * <p>Unit tests for nesting a {@link Transaction} in {@link SQLitePersistenceUnit#transaction(Transaction)}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, shadows = {ShadowClosingSQLiteStatement.class, ShadowLockingSQLiteDatabase.class})
+public class TransactionTest {
+
+	
+	public static class Note extends Entity<Note> {
+		
+		@Id
+		private long id;
+		
+		private String text;
+	}
+	
+	
+	private SQLitePersistenceUnit persistenceUnit;
+	
+	
+	@Before
+	public final void setUp() {
+		
+		persistenceUnit = new TestPersistenceUnit(Note.class);
+	}
+	
+	@After
+	public final void tearDown() {
+		
+		persistenceUnit.close();
+	}
+	
+	@Test
+	public final void testInnerFailureRollsBackSavepoint() {
+		
+		persistenceUnit.transaction(new Transaction<Void>() {
+			
+			@Override
+			public Void execute() {
+				
+				new Note().create();
+				
+				try {
+					
+					persistenceUnit.transaction(new Transaction<Void>() {
+						
+						@Override
+						public Void execute() {
+							
+							new Note().create();
+							throw new IllegalStateException("The inner transaction failed. ");
+						}
+					});
+					
+					fail("The failure of the inner transaction was not rethrown. ");
+				}
+				catch(IllegalStateException ise) {}
+				
+				new Note().create();
+				
+				return null;
+			}
+		});
+		
+		assertEquals(2L, Entity.batch(Note.class).count(null));
+	}
+	
+	@Test
+	public final void testOuterFailureRollsBackAll() {
+		
+		try {
+			
+			persistenceUnit.transaction(new Transaction<Void>() {
+				
+				@Override
+				public Void execute() {
+					
+					new Note().create();
+					
+					persistenceUnit.transaction(new Transaction<Void>() {
+						
+						@Override
+						public Void execute() {
+							
+							new Note().create();
+							return null;
+						}
+					});
+					
+					throw new IllegalStateException("The outer transaction failed. ");
+				}
+			});
+			
+			fail("The failure of the outer transaction was not rethrown. ");
+		}
+		catch(IllegalStateException ise) {}
+		
+		assertEquals(0L, Entity.batch(Note.class).count(null));
+	}
+	
+	@Test
+	public final void testDepthRestoredAfterFailure() {
+		
+		final Exception cause = new Exception("The transaction failed. ");
+		
+		for (int i = 0; i < 2; i++) {
+			
+			try {
+				
+				persistenceUnit.transaction(new Transaction<Void>() {
+					
+					@Override
+					public Void execute() throws Exception {
+						
+						return persistenceUnit.transaction(new Transaction<Void>() {
+							
+							@Override
+							public Void execute() throws Exception {
+								
+								new Note().create();
+								throw cause;
+							}
+						});
+					}
+				});
+				
+				fail("The checked exception was not wrapped. ");
+			}
+			catch(PackratRuntimeException pre) {
+				
+				assertSame(cause, pre.getCause());
+			}
+			
+			assertFalse(persistenceUnit.connectionPool().writer().inTransaction());
+		}
+		
+		persistenceUnit.transaction(new Transaction<Void>() {
+			
+			@Override
+			public Void execute() {
+				
+				new Note().create();
+				return null;
+			}
+		});
+		
+		assertEquals(1L, Entity.batch(Note.class).count(null));
+	}
+}
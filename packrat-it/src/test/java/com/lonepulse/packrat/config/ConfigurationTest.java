@@ -0,0 +1,105 @@
+package com.lonepulse.packrat.config;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import com.lonepulse.packrat.TestPersistenceUnit;
+import com.lonepulse.packrat.config.PropertyReader.PROPERTY;
+
+/**
+ * <p>Unit tests for the validation of <b>packrat.properties</b> by {@link Configuration}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class ConfigurationTest {
+
+	
+	private static final String REQUIRED = "name=packrat\nversion=1\n";
+	
+	
+	@Test
+	public final void testLoadsTuningProperties() {
+		
+		Configuration configuration = load("page_size=4096\ncache_size=-2000\nmmap_size=0\njournal_mode=WAL\n");
+		
+		assertEquals("4096", configuration.get(PROPERTY.PAGE_SIZE));
+		assertEquals("-2000", configuration.getPragmas().get(PROPERTY.CACHE_SIZE));
+		assertEquals("WAL", configuration.getPragmas().get(PROPERTY.JOURNAL_MODE));
+	}
+	
+	@Test
+	public final void testAcceptsPageSizeBounds() {
+		
+		assertEquals("512", load("page_size=512\n").get(PROPERTY.PAGE_SIZE));
+		assertEquals("65536", load("page_size=65536\n").get(PROPERTY.PAGE_SIZE));
+	}
+	
+	@Test
+	public final void testRejectsMalformedPageSize() {
+		
+		assertMalformed("page_size=big\n");
+		assertMalformed("page_size=3000\n");
+		assertMalformed("page_size=256\n");
+		assertMalformed("page_size=131072\n");
+		assertMalformed("page_size=-4096\n");
+	}
+	
+	@Test
+	public final void testRejectsNonIntegralSizes() {
+		
+		assertMalformed("cache_size=large\n");
+		assertMalformed("mmap_size=all\n");
+		assertMalformed("cache_size=99999999999999999999\n");
+	}
+	
+	@Test
+	public final void testRejectsMalformedPragma() {
+		
+		assertMalformed("journal_mode=WAL; DROP TABLE Note\n");
+	}
+	
+	private static Configuration load(String properties) {
+		
+		return Configuration.load(TestPersistenceUnit.context(REQUIRED + properties));
+	}
+	
+	private static void assertMalformed(String properties) {
+		
+		try {
+			
+			load(properties);
+			fail("The malformed properties " + properties.trim() + " were loaded. ");
+		}
+		catch(PropertyReadException pre) {}
+	}
+}
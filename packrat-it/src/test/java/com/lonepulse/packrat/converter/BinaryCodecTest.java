@@ -0,0 +1,262 @@
+package com.lonepulse.packrat.converter;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.lonepulse.packrat.PackratRuntimeException;
+
+/**
+ * <p>Unit tests for {@link BinaryCodec}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class BinaryCodecTest {
+
+	
+	public static enum Status { ACTIVE, ARCHIVED }
+	
+	/**
+	 * <p>A value object as it was when a value was encoded.
+	 */
+	public static class PointV1 {
+		
+		private int x, y;
+		private String label;
+		private transient int cached = 7;
+	}
+	
+	/**
+	 * <p>The same value object after an attribute was removed and another was added.
+	 */
+	public static class PointV2 {
+		
+		private int x, y;
+		private long z = 3L;
+		private transient int cached = 7;
+	}
+	
+	public static class Unconstructable {
+		
+		private int value;
+		
+		public Unconstructable(int value) {
+			
+			this.value = value;
+		}
+	}
+	
+	
+	@Test
+	public final void testScalars() {
+		
+		Object[] values = { null, Boolean.TRUE, Boolean.FALSE, Byte.valueOf((byte)-7), 
+			Short.valueOf(Short.MIN_VALUE), Integer.valueOf(0), Integer.valueOf(-1), 
+			Integer.valueOf(Integer.MAX_VALUE), Long.valueOf(Long.MIN_VALUE), Float.valueOf(1.5f), 
+			Double.valueOf(-Math.PI), Character.valueOf('\u00e9'), "", "packrat \u00e9\u4e2d", 
+			new Date(1388534400000L), Status.ARCHIVED };
+		
+		for (Object value : values) {
+			
+			assertEquals(value, BinaryCodec.decode(BinaryCodec.encode(value)));
+		}
+		
+		assertArrayEquals(new byte[] { 0, 1, -1 }, 
+			(byte[])BinaryCodec.decode(BinaryCodec.encode(new byte[] { 0, 1, -1 })));
+	}
+	
+	@Test
+	public final void testSmallIntegersTakeOneByte() {
+		
+		assertEquals(3, BinaryCodec.encode(Integer.valueOf(-64)).length);
+		assertEquals(3, BinaryCodec.encode(Long.valueOf(63L)).length);
+		assertEquals(4, BinaryCodec.encode(Integer.valueOf(64)).length);
+	}
+	
+	@Test
+	public final void testCollections() {
+		
+		List<Object> list = new ArrayList<Object>(Arrays.<Object>asList("a", Integer.valueOf(1), null));
+		
+		Set<Object> set = new LinkedHashSet<Object>(Arrays.<Object>asList("z", "y", "x"));
+		
+		Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+		map.put("list", list);
+		map.put("set", set);
+		map.put(Integer.valueOf(2), Status.ACTIVE);
+		
+		Object decoded = BinaryCodec.decode(BinaryCodec.encode(map));
+		
+		assertEquals(map, decoded);
+		assertEquals(new ArrayList<Object>(map.keySet()), new ArrayList<Object>(((Map<?, ?>)decoded).keySet()));
+		assertEquals(Arrays.asList("z", "y", "x"), new ArrayList<Object>((Set<?>)((Map<?, ?>)decoded).get("set")));
+	}
+	
+	@Test
+	public final void testValueObjects() {
+		
+		PointV1 point = new PointV1();
+		point.x = -4;
+		point.y = 9;
+		point.label = "origin";
+		point.cached = 0;
+		
+		PointV1 decoded = (PointV1)BinaryCodec.decode(BinaryCodec.encode(point));
+		
+		assertEquals(-4, decoded.x);
+		assertEquals(9, decoded.y);
+		assertEquals("origin", decoded.label);
+		assertEquals(7, decoded.cached);
+	}
+	
+	@Test
+	public final void testInternsNames() {
+		
+		List<PointV1> one = new ArrayList<PointV1>(), many = new ArrayList<PointV1>();
+		one.add(new PointV1());
+		
+		for (int i = 0; i < 10; i++) {
+			
+			many.add(new PointV1());
+		}
+		
+		int first = BinaryCodec.encode(one).length;
+		int rest = (BinaryCodec.encode(many).length - first) / 9;
+		
+		assertTrue(rest + " bytes per repeated object", rest * 4 < first);
+	}
+	
+	@Test
+	public final void testClassEvolution() throws UnsupportedEncodingException {
+		
+		PointV1 point = new PointV1();
+		point.x = 1;
+		point.y = 2;
+		point.label = "removed";
+		
+		byte[] encoded = BinaryCodec.encode(point);
+		byte[] from = PointV1.class.getName().getBytes("UTF-8"), to = PointV2.class.getName().getBytes("UTF-8");
+		
+		int offset = indexOf(encoded, from);
+		assertTrue(offset > 0);
+		System.arraycopy(to, 0, encoded, offset, to.length);
+		
+		PointV2 evolved = (PointV2)BinaryCodec.decode(encoded);
+		
+		assertEquals(1, evolved.x);
+		assertEquals(2, evolved.y);
+		assertEquals(3L, evolved.z);
+	}
+	
+	@Test
+	public final void testVersion() {
+		
+		byte[] encoded = BinaryCodec.encode("value");
+		assertEquals(1, encoded[0]);
+		
+		encoded[0] = 2;
+		
+		try {
+			
+			BinaryCodec.decode(encoded);
+			fail("decoded an unknown version");
+		}
+		catch(PackratRuntimeException pre) {}
+		
+		try {
+			
+			BinaryCodec.decode(new byte[0]);
+			fail("decoded an empty value");
+		}
+		catch(PackratRuntimeException pre) {}
+	}
+	
+	@Test
+	public final void testMalformed() {
+		
+		byte[] encoded = BinaryCodec.encode(Long.valueOf(Long.MAX_VALUE));
+		
+		try {
+			
+			BinaryCodec.decode(Arrays.copyOf(encoded, encoded.length - 1));
+			fail("decoded a truncated value");
+		}
+		catch(PackratRuntimeException pre) {}
+		
+		try {
+			
+			BinaryCodec.decode(new byte[] { 1, 99 });
+			fail("decoded an unknown tag");
+		}
+		catch(PackratRuntimeException pre) {}
+	}
+	
+	@Test
+	public final void testUnsupported() {
+		
+		try {
+			
+			BinaryCodec.encode(new int[] { 1 });
+			fail("encoded an array");
+		}
+		catch(PackratRuntimeException pre) {}
+		
+		try {
+			
+			BinaryCodec.decode(BinaryCodec.encode(new Unconstructable(1)));
+			fail("decoded an object without a nullary constructor");
+		}
+		catch(PackratRuntimeException pre) {}
+	}
+	
+	private static int indexOf(byte[] bytes, byte[] sequence) {
+		
+		outer: for (int i = 0; i <= bytes.length - sequence.length; i++) {
+			
+			for (int j = 0; j < sequence.length; j++) {
+				
+				if(bytes[i + j] != sequence[j]) continue outer;
+			}
+			
+			return i;
+		}
+		
+		return -1;
+	}
+}
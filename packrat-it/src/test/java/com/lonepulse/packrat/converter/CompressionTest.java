@@ -0,0 +1,143 @@
+package com.lonepulse.packrat.converter;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.lonepulse.packrat.Cursors;
+import com.lonepulse.packrat.annotation.Binary;
+import com.lonepulse.packrat.annotation.Compressed;
+import com.lonepulse.packrat.metadata.EntityMetadata;
+
+/**
+ * <p>Unit tests for {@link Compression} and for reading compressed attributes.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class CompressionTest {
+
+	
+	/**
+	 * <p>A model whose binary and raw attributes were compressed after rows were stored.
+	 */
+	public static class Document {
+		
+		private long id;
+		
+		@Binary @Compressed(threshold = 0)
+		private Map<String, Object> attributes;
+		
+		@Compressed(threshold = 0)
+		private byte[] payload;
+	}
+	
+	
+	@Test
+	public final void testRoundTrip() {
+		
+		Random random = new Random(42);
+		
+		for (int length : new int[] { 0, 1, 15, 16, 100, 4096, 200000 }) {
+			
+			byte[] compressible = new byte[length];
+			Arrays.fill(compressible, (byte)'a');
+			
+			byte[] incompressible = new byte[length];
+			random.nextBytes(incompressible);
+			
+			assertArrayEquals(compressible, Compression.decompress(Compression.compress(compressible, 0)));
+			assertArrayEquals(incompressible, Compression.decompress(Compression.compress(incompressible, 0)));
+		}
+	}
+	
+	@Test
+	public final void testCompressesFromThreshold() {
+		
+		byte[] value = new byte[2048];
+		
+		assertTrue(Compression.compress(value, 1024).length < 100);
+		assertTrue(Compression.compress(value, 4096).length > value.length);
+	}
+	
+	@Test
+	public final void testReadsLegacyValues() {
+		
+		byte[][] legacy = { 
+			
+			{}, { 0 }, { 1 }, { 0, 1, 2, 3 }, { 1, 0, 0, 0, 0 }, { (byte)0xF8, 'P', 'Z' }, 
+			BinaryCodec.encode(Arrays.asList("a", "b")), "text".getBytes() 
+		};
+		
+		for (byte[] value : legacy) {
+			
+			assertArrayEquals(value, Compression.decompress(value));
+		}
+	}
+	
+	@Test
+	public final void testReadsBinaryRowStoredBeforeCompression() {
+		
+		Map<String, Object> attributes = new HashMap<String, Object>();
+		List<Object> tags = new ArrayList<Object>();
+		
+		tags.add("draft");
+		tags.add(Long.valueOf(7));
+		
+		attributes.put("title", "Annual Report");
+		attributes.put("tags", tags);
+		
+		Document document = new Document();
+		EntityMetadata<Document> metadata = EntityMetadata.of(Document.class);
+		
+		metadata.getProperty("attributes").read(Cursors.of(BinaryCodec.encode(attributes)), 0, document);
+		metadata.getProperty("payload").read(Cursors.of(new byte[] { 1, 2, 3 }), 0, document);
+		
+		assertEquals(attributes, document.attributes);
+		assertArrayEquals(new byte[] { 1, 2, 3 }, document.payload);
+	}
+	
+	@Test
+	public final void testReadsCompressedRow() {
+		
+		Map<String, Object> attributes = new HashMap<String, Object>();
+		attributes.put("body", new String(new char[4096]).replace('\0', 'x'));
+		
+		Document document = new Document();
+		EntityMetadata.of(Document.class).getProperty("attributes").read(
+			Cursors.of(Compression.compress(BinaryCodec.encode(attributes), 0)), 0, document);
+		
+		assertEquals(attributes, document.attributes);
+	}
+}
@@ -0,0 +1,139 @@
+package com.lonepulse.packrat.converter;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.lonepulse.packrat.PackratRuntimeException;
+import com.lonepulse.packrat.annotation.Packed.Encoding;
+
+/**
+ * <p>Unit tests for {@link PackedArrays}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class PackedArraysTest {
+
+	
+	private static final int[] INTS = { 0, 1, -1, 63, -64, 64, 1000, Integer.MAX_VALUE, Integer.MIN_VALUE, 5 };
+	
+	private static final long[] LONGS = { 0L, -1L, 1L << 40, Long.MAX_VALUE, Long.MIN_VALUE, 7L };
+	
+	
+	@Test
+	public final void testInts() {
+		
+		for (Encoding encoding : Encoding.values()) {
+			
+			assertArrayEquals(encoding.name(), INTS, PackedArrays.unpackInts(PackedArrays.pack(INTS, encoding)));
+			assertArrayEquals(encoding.name(), new int[0], PackedArrays.unpackInts(PackedArrays.pack(new int[0], encoding)));
+		}
+	}
+	
+	@Test
+	public final void testLongs() {
+		
+		for (Encoding encoding : Encoding.values()) {
+			
+			assertArrayEquals(encoding.name(), LONGS, PackedArrays.unpackLongs(PackedArrays.pack(LONGS, encoding)));
+			assertArrayEquals(encoding.name(), new long[0], PackedArrays.unpackLongs(PackedArrays.pack(new long[0], encoding)));
+		}
+	}
+	
+	@Test
+	public final void testDoubles() {
+		
+		double[] doubles = { 0.0, -0.0, Math.E, Double.NaN, Double.NEGATIVE_INFINITY, Double.MIN_VALUE };
+		
+		assertArrayEquals(doubles, PackedArrays.unpackDoubles(PackedArrays.pack(doubles)), 0.0);
+		assertEquals(Double.doubleToRawLongBits(-0.0), 
+			Double.doubleToRawLongBits(PackedArrays.unpackDoubles(PackedArrays.pack(doubles))[1]));
+	}
+	
+	@Test
+	public final void testFixedIsLittleEndian() {
+		
+		byte[] packed = PackedArrays.pack(new int[] { 0x01020304 }, Encoding.FIXED);
+		
+		assertArrayEquals(new byte[] { 0, 4, 3, 2, 1 }, packed);
+	}
+	
+	@Test
+	public final void testSizes() {
+		
+		int[] ids = new int[1000];
+		
+		for (int i = 0; i < ids.length; i++) {
+			
+			ids[i] = 1000000 + i * 3;
+		}
+		
+		assertEquals(1 + 4 * 1000, PackedArrays.pack(ids, Encoding.FIXED).length);
+		assertEquals(1 + 2 + 3 * 1000, PackedArrays.pack(ids, Encoding.VARINT).length);
+		assertEquals(1 + 2 + 3 + 999, PackedArrays.pack(ids, Encoding.DELTA).length);
+		
+		int[] small = new int[100];
+		Arrays.fill(small, -5);
+		
+		assertEquals(1 + 1 + 100, PackedArrays.pack(small, Encoding.VARINT).length);
+	}
+	
+	@Test
+	public final void testRejectsMalformed() {
+		
+		byte[][] malformed = { new byte[0], new byte[] { 3 }, new byte[] { -1, 0 } };
+		
+		for (byte[] packed : malformed) {
+			
+			try {
+				
+				PackedArrays.unpackInts(packed);
+				fail("unpacked " + Arrays.toString(packed));
+			}
+			catch(PackratRuntimeException pre) {}
+		}
+		
+		byte[] truncated = PackedArrays.pack(new long[] { Long.MAX_VALUE }, Encoding.VARINT);
+		
+		try {
+			
+			PackedArrays.unpackLongs(Arrays.copyOf(truncated, truncated.length - 1));
+			fail("unpacked a truncated array");
+		}
+		catch(PackratRuntimeException pre) {}
+		
+		try {
+			
+			PackedArrays.unpackDoubles(PackedArrays.pack(new long[] { 1L }, Encoding.DELTA));
+			fail("unpacked doubles from varints");
+		}
+		catch(PackratRuntimeException pre) {}
+	}
+}
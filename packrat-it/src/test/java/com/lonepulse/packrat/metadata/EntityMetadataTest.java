@@ -0,0 +1,108 @@
+package com.lonepulse.packrat.metadata;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import com.lonepulse.packrat.annotation.Id;
+
+/**
+ * <p>Unit tests for the order of the attributes described by {@link EntityMetadata}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class EntityMetadataTest {
+
+	
+	public static class Audited {
+		
+		private long modified;
+		
+		private long created;
+	}
+	
+	public static class Membership extends Audited {
+		
+		private String role;
+		
+		@Id(order = 1)
+		private long member;
+		
+		@Id(order = 0)
+		private long group;
+	}
+	
+	public static class Ambiguous {
+		
+		@Id
+		private long first;
+		
+		@Id
+		private long second;
+	}
+	
+	
+	@Test
+	public final void testCompositeKeyFollowsOrder() {
+		
+		List<String> key = new ArrayList<String>();
+		
+		for (Property property : EntityMetadata.of(Membership.class).getKey()) {
+			
+			key.add(property.getColumn());
+		}
+		
+		assertEquals(Arrays.asList("group", "member"), key);
+	}
+	
+	@Test
+	public final void testColumnsOrderedByName() {
+		
+		assertEquals(Arrays.asList("created", "modified", "group", "member", "role"), 
+			Arrays.asList(EntityMetadata.of(Membership.class).getColumns()));
+	}
+	
+	@Test
+	public final void testRejectsAmbiguousCompositeKey() {
+		
+		try {
+			
+			EntityMetadata.of(Ambiguous.class);
+			fail("A composite key without a distinct order was accepted. ");
+		}
+		catch(MetadataException me) {}
+	}
+}
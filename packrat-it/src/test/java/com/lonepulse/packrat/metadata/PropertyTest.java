@@ -0,0 +1,146 @@
+package com.lonepulse.packrat.metadata;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.content.ContentValues;
+
+import com.lonepulse.packrat.annotation.Id;
+import com.lonepulse.packrat.annotation.Ordinal;
+
+/**
+ * <p>Unit tests for writing the textual form of the values of a {@link Property}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class PropertyTest {
+
+	
+	public static enum Priority { LOW, NORMAL, HIGH }
+	
+	public static class Task {
+		
+		@Id
+		private long id;
+		
+		private Date due;
+		
+		private UUID token;
+		
+		private Priority priority;
+		
+		@Ordinal
+		private Priority rank;
+		
+		private byte[] attachment;
+	}
+	
+	
+	private static final EntityMetadata<Task> TASK = EntityMetadata.of(Task.class);
+	
+	
+	@Test
+	public final void testWritesConvertedText() {
+		
+		ContentValues values = new ContentValues();
+		UUID token = UUID.randomUUID();
+		
+		TASK.getProperty("due").writeText(" 1388534400000 ", values);
+		TASK.getProperty("token").writeText(token.toString(), values);
+		
+		assertEquals(Long.valueOf(1388534400000L), values.getAsLong("due"));
+		assertEquals(16, values.getAsByteArray("token").length);
+		
+		try {
+			
+			TASK.getProperty("due").writeText("tomorrow", values);
+			fail("parsed an invalid date");
+		}
+		catch(IllegalArgumentException iae) {}
+	}
+	
+	@Test
+	public final void testWritesEnumText() {
+		
+		ContentValues values = new ContentValues();
+		
+		TASK.getProperty("priority").writeText("HIGH", values);
+		assertEquals("HIGH", values.getAsString("priority"));
+		
+		TASK.getProperty("rank").writeText("HIGH", values);
+		assertEquals(Integer.valueOf(2), values.getAsInteger("rank"));
+		
+		TASK.getProperty("rank").writeText(" 1", values);
+		assertEquals(Integer.valueOf(1), values.getAsInteger("rank"));
+		
+		for (String invalid : new String[] { "3", "-1", "URGENT" }) {
+			
+			try {
+				
+				TASK.getProperty("rank").writeText(invalid, values);
+				fail("parsed the invalid ordinal " + invalid);
+			}
+			catch(IllegalArgumentException iae) {}
+		}
+		
+		try {
+			
+			TASK.getProperty("priority").writeText("1", values);
+			fail("parsed an ordinal of an enum which is stored by name");
+		}
+		catch(IllegalArgumentException iae) {}
+	}
+	
+	@Test
+	public final void testRejectsBlobText() {
+		
+		ContentValues values = new ContentValues();
+		
+		TASK.getProperty("attachment").writeText(null, values);
+		assertTrue(values.containsKey("attachment"));
+		
+		try {
+			
+			TASK.getProperty("attachment").writeText("data", values);
+			fail("parsed the text of a BLOB");
+		}
+		catch(UnsupportedOperationException uoe) {
+			
+			assertTrue(uoe.getMessage().contains("BLOB"));
+		}
+	}
+}
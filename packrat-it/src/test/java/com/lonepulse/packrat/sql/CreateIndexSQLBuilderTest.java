@@ -0,0 +1,91 @@
+package com.lonepulse.packrat.sql;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * <p>Unit tests for {@link CreateIndexSQLBuilder} and {@link DropTableSQLBuilder}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class CreateIndexSQLBuilderTest {
+
+	
+	@Test
+	public final void testBuildsPartialIndex() {
+		
+		String sql = CreateIndexSQLBuilder.newInstance().createIndex("idx_Message_folder").unique().ifNotExists()
+			.onTable("Message").onColumns("folder", "lower(subject)").where("unread = 1").build();
+		
+		assertEquals("CREATE UNIQUE INDEX IF NOT EXISTS idx_Message_folder ON Message " + 
+			"(folder, lower(subject)) WHERE unread = 1;", sql);
+	}
+	
+	@Test
+	public final void testRejectsMalformedSequences() {
+		
+		try {
+			
+			CreateIndexSQLBuilder.newInstance().createIndex("i").onColumns("a");
+			fail("Columns were accepted before the table. ");
+		}
+		catch(MalformedSQLException mse) {}
+		
+		try {
+			
+			CreateIndexSQLBuilder.newInstance().createIndex("i").onTable("t").build();
+			fail("An index without columns was built. ");
+		}
+		catch(MalformedSQLException mse) {}
+		
+		try {
+			
+			CreateIndexSQLBuilder.newInstance().createIndex("i").onTable("t").where("a = 1");
+			fail("A predicate was accepted before the columns. ");
+		}
+		catch(MalformedSQLException mse) {}
+	}
+	
+	@Test
+	public final void testDropsTable() {
+		
+		assertEquals("DROP TABLE Message;", DropTableSQLBuilder.newInstance().dropTable("Message").build());
+		
+		try {
+			
+			DropTableSQLBuilder.newInstance().build();
+			fail("A drop without a table was built. ");
+		}
+		catch(MalformedSQLException mse) {}
+	}
+}
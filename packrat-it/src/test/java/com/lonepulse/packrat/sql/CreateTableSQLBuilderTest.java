@@ -0,0 +1,119 @@
+package com.lonepulse.packrat.sql;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * <p>Unit tests for {@link CreateTableSQLBuilder}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class CreateTableSQLBuilderTest {
+
+	
+	@Test
+	public final void testBuildsTable() {
+		
+		String sql = CreateTableSQLBuilder.newInstance()
+			.createTable("Message").ifNotExists()
+			.addColumn("id", TypeAffinity.INTEGER).withColumnConstraints(ColumnConstraint.PRIMARY_KEY)
+			.addColumn("subject", TypeAffinity.TEXT).withColumnConstraints(ColumnConstraint.NOT_NULL)
+			.addColumn("unread", TypeAffinity.INTEGER).withColumnConstraints(ColumnConstraint.DEFAULT.withArgs("1"))
+			.build();
+		
+		assertEquals("CREATE TABLE IF NOT EXISTS Message ( id INTEGER PRIMARY KEY, " + 
+			"subject TEXT NOT NULL, unread INTEGER DEFAULT 1 );", sql);
+	}
+	
+	@Test
+	public final void testBuildsTableWithoutRowId() {
+		
+		String sql = CreateTableSQLBuilder.newInstance().createTable("Tag")
+			.addColumn("name", TypeAffinity.TEXT).addColumn("owner", TypeAffinity.TEXT)
+			.withTableConstraints(TableConstraint.PRIMARY_KEY.onColumns("name", "owner"))
+			.withoutRowId().build();
+		
+		assertEquals("CREATE TABLE Tag ( name TEXT, owner TEXT, PRIMARY KEY(name,owner) ) WITHOUT ROWID;", sql);
+	}
+	
+	@Test
+	public final void testRejectsMalformedSequences() {
+		
+		assertMalformed(CreateTableSQLBuilder.newInstance(), "addColumn");
+		assertMalformed(CreateTableSQLBuilder.newInstance(), "build");
+		assertMalformed(CreateTableSQLBuilder.newInstance().createTable("t"), "build");
+		assertMalformed(CreateTableSQLBuilder.newInstance().createTable("t"), "createTable");
+		assertMalformed(CreateTableSQLBuilder.newInstance().createTable("t"), "withColumnConstraints");
+		assertMalformed(CreateTableSQLBuilder.newInstance().createTable("t").ifNotExists(), "ifNotExists");
+		assertMalformed(CreateTableSQLBuilder.newInstance().createTable("t")
+			.addColumn("a", TypeAffinity.TEXT).withTableConstraints(TableConstraint.UNIQUE.onColumns("a")), "addColumn");
+		assertMalformed(CreateTableSQLBuilder.newInstance().createTable("t")
+			.addColumn("a", TypeAffinity.TEXT).withoutRowId(), "withoutRowId");
+	}
+	
+	@Test
+	public final void testImmutableOnceBuilt() {
+		
+		CreateTablePolicy policy = CreateTableSQLBuilder.newInstance().createTable("t").addColumn("a", TypeAffinity.TEXT);
+		String sql = policy.build();
+		
+		try {
+			
+			policy.addColumn("b", TypeAffinity.TEXT);
+			fail("A built statement was mutated. ");
+		}
+		catch(MalformedSQLException mse) {
+			
+			fail("An immutable statement was reported as malformed. ");
+		}
+		catch(SQLException sqle) {}
+		
+		assertEquals(sql, policy.getSQLStatement());
+	}
+	
+	private static void assertMalformed(CreateTablePolicy policy, String step) {
+		
+		try {
+			
+			if("createTable".equals(step)) policy.createTable("t");
+			else if("ifNotExists".equals(step)) policy.ifNotExists();
+			else if("addColumn".equals(step)) policy.addColumn("b", TypeAffinity.TEXT);
+			else if("withColumnConstraints".equals(step)) policy.withColumnConstraints(ColumnConstraint.UNIQUE);
+			else if("withoutRowId".equals(step)) policy.withoutRowId();
+			else policy.build();
+			
+			fail(step + "() was accepted on " + policy.getSQLStatement());
+		}
+		catch(MalformedSQLException mse) {}
+	}
+}
@@ -0,0 +1,215 @@
+package com.lonepulse.packrat.sql;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * <p>Compares the cost of composing the DDL of a 40-column table using {@link CreateTableSQLBuilder} 
+ * with that of the builder it replaced, which is reproduced by {@link CopyingBuilder}. The timings 
+ * are reported rather than asserted, since they depend on the machine.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class SQLBuilderBenchmarkTest {
+
+	
+	private static final int COLUMNS = 40;
+	
+	private static final int WARMUP = 5000;
+	
+	private static final int ITERATIONS = 50000;
+	
+	private static final String[] NAMES = new String[COLUMNS];
+	
+	static {
+		
+		for (int i = 0; i < COLUMNS; i++) {
+			
+			NAMES[i] = "column" + i;
+		}
+	}
+	
+	
+	/**
+	 * <p>Reproduces how the builders composed SQL before they became state machines. Each 
+	 * state transition created a new builder which copied the buffer and the flags of its 
+	 * predecessor, every access to the buffer was synchronized, and each step was delegated 
+	 * through a controller which tracked the current builder.</p>
+	 */
+	private static final class CopyingBuilder {
+		
+		private final AtomicBoolean immutable;
+		private final AtomicBoolean corrupted;
+		private final StringBuilder sql;
+		private final boolean columnDefined;
+		
+		private CopyingBuilder() {
+			
+			immutable = new AtomicBoolean(false);
+			corrupted = new AtomicBoolean(true);
+			sql = new StringBuilder();
+			columnDefined = false;
+		}
+		
+		private CopyingBuilder(CopyingBuilder builder, boolean columnDefined) {
+			
+			immutable = new AtomicBoolean(builder.immutable.get());
+			corrupted = new AtomicBoolean(builder.corrupted.get());
+			sql = new StringBuilder(builder.sql.toString());
+			this.columnDefined = columnDefined;
+		}
+		
+		private synchronized StringBuilder sql() {
+			
+			return sql;
+		}
+		
+		private synchronized boolean isImmutable() {
+			
+			return immutable.get();
+		}
+		
+		private CopyingBuilder createTable(String table) {
+			
+			isImmutable();
+			sql().append("CREATE TABLE ").append(table);
+			
+			return new CopyingBuilder(this, false);
+		}
+		
+		private CopyingBuilder ifNotExists() {
+			
+			isImmutable();
+			sql().insert("CREATE TABLE ".length(), "IF NOT EXISTS ");
+			
+			return new CopyingBuilder(this, false);
+		}
+		
+		private CopyingBuilder addColumn(String column, TypeAffinity typeAffinity) {
+			
+			isImmutable();
+			sql().append(columnDefined? ", " :" ( ").append(column).append(" ").append(typeAffinity);
+			corrupted.set(false);
+			
+			return columnDefined? this :new CopyingBuilder(this, true);
+		}
+		
+		private CopyingBuilder withColumnConstraints(SQL... constraints) {
+			
+			for (SQL constraint : constraints) {
+				
+				sql().append(" ").append(constraint);
+			}
+			
+			return this;
+		}
+		
+		private String build() {
+			
+			immutable.set(true);
+			return sql().append(" );").toString();
+		}
+	}
+	
+	/**
+	 * <p>Delegates each step to the current {@link CopyingBuilder}.
+	 */
+	private static final class Controller {
+		
+		private CopyingBuilder builder = new CopyingBuilder();
+	}
+	
+	
+	@Test
+	public final void testComposesLargeTables() {
+		
+		assertEquals(copying(), current());
+		
+		long copying = measure(false);
+		long current = measure(true);
+		
+		System.out.println(new StringBuilder("CREATE TABLE with ").append(COLUMNS).append(" columns: ")
+			.append(current / ITERATIONS).append(" ns/op with CreateTableSQLBuilder, ")
+			.append(copying / ITERATIONS).append(" ns/op with the copying builder. ").toString());
+	}
+	
+	private static long measure(boolean current) {
+		
+		int length = 0;
+		
+		for (int i = 0; i < WARMUP; i++) {
+			
+			length += (current? current() :copying()).length();
+		}
+		
+		long start = System.nanoTime();
+		
+		for (int i = 0; i < ITERATIONS; i++) {
+			
+			length += (current? current() :copying()).length();
+		}
+		
+		long elapsed = System.nanoTime() - start;
+		assertEquals(0, length % (WARMUP + ITERATIONS));
+		
+		return elapsed;
+	}
+	
+	private static String current() {
+		
+		CreateTablePolicy policy = CreateTableSQLBuilder.newInstance().createTable("Wide").ifNotExists();
+		
+		for (int i = 0; i < COLUMNS; i++) {
+			
+			policy.addColumn(NAMES[i], TypeAffinity.TEXT).withColumnConstraints(ColumnConstraint.NOT_NULL);
+		}
+		
+		return policy.build();
+	}
+	
+	private static String copying() {
+		
+		Controller controller = new Controller();
+		controller.builder = controller.builder.createTable("Wide");
+		controller.builder = controller.builder.ifNotExists();
+		
+		for (int i = 0; i < COLUMNS; i++) {
+			
+			controller.builder = controller.builder.addColumn(NAMES[i], TypeAffinity.TEXT);
+			controller.builder = controller.builder.withColumnConstraints(ColumnConstraint.NOT_NULL);
+		}
+		
+		return controller.builder.build();
+	}
+}
@@ -0,0 +1,124 @@
+package com.lonepulse.packrat.sql;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.lonepulse.packrat.Entity;
+import com.lonepulse.packrat.annotation.FullText;
+import com.lonepulse.packrat.annotation.Id;
+import com.lonepulse.packrat.annotation.Index;
+import com.lonepulse.packrat.annotation.WithoutRowId;
+import com.lonepulse.packrat.metadata.EntityMetadata;
+
+/**
+ * <p>Unit tests for {@link SQLiteFeature}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class SQLiteFeatureTest {
+
+	
+	public static class Plain extends Entity<Plain> {
+		
+		@Id
+		private long id;
+		
+		@Index
+		private String name;
+	}
+	
+	public static class Message extends Entity<Message> {
+		
+		@Id
+		private long id;
+		
+		@FullText
+		private String body;
+		
+		@Index(where = "unread = 1")
+		private boolean unread;
+		
+		@Index(expressions = "lower(sender)")
+		private String sender;
+	}
+	
+	@WithoutRowId
+	public static class Setting extends Entity<Setting> {
+		
+		@Id
+		private String key;
+		
+		private String value;
+	}
+	
+	
+	@Test
+	public final void testResolvesFeatures() {
+		
+		assertEquals(Collections.emptyList(), SQLiteFeature.of(EntityMetadata.of(Plain.class)));
+		assertEquals(Arrays.asList(SQLiteFeature.WITHOUT_ROWID), SQLiteFeature.of(EntityMetadata.of(Setting.class)));
+		assertEquals(Arrays.asList(SQLiteFeature.FTS4_EXTERNAL_CONTENT, SQLiteFeature.INDEXES_ON_EXPRESSIONS, 
+			SQLiteFeature.PARTIAL_INDEXES), SQLiteFeature.of(EntityMetadata.of(Message.class)));
+	}
+	
+	@Test
+	public final void testComparesVersions() {
+		
+		assertFalse(SQLiteFeature.FTS4_EXTERNAL_CONTENT.isSupportedBy("3.7.4"));
+		assertTrue(SQLiteFeature.FTS4_EXTERNAL_CONTENT.isSupportedBy("3.7.9"));
+		assertTrue(SQLiteFeature.FTS4_EXTERNAL_CONTENT.isSupportedBy("3.7.11"));
+		assertFalse(SQLiteFeature.WITHOUT_ROWID.isSupportedBy("3.8.1"));
+		assertTrue(SQLiteFeature.WITHOUT_ROWID.isSupportedBy("3.8.10.2"));
+		assertTrue(SQLiteFeature.PARTIAL_INDEXES.isSupportedBy("3.8"));
+		assertFalse(SQLiteFeature.INDEXES_ON_EXPRESSIONS.isSupportedBy("3.8.6"));
+		assertTrue(SQLiteFeature.INDEXES_ON_EXPRESSIONS.isSupportedBy("4.0.0"));
+		assertEquals("3.8.2", SQLiteFeature.WITHOUT_ROWID.getSince());
+	}
+	
+	@Test
+	public final void testRequiresFeatures() {
+		
+		SQLiteFeature.require(EntityMetadata.of(Plain.class), "3.7.4");
+		SQLiteFeature.require(EntityMetadata.of(Message.class), "3.9.2");
+		
+		try {
+			
+			SQLiteFeature.require(EntityMetadata.of(Setting.class), "3.7.4");
+			fail("accepted a table without a rowid on SQLite 3.7.4");
+		}
+		catch(DDLException ddle) {
+			
+			assertTrue(ddle.getMessage(), ddle.getMessage().contains("SQLite 3.8.2 or later"));
+		}
+	}
+}
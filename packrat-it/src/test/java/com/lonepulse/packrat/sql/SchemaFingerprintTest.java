@@ -0,0 +1,123 @@
+package com.lonepulse.packrat.sql;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.lonepulse.packrat.annotation.Id;
+import com.lonepulse.packrat.annotation.Index;
+
+/**
+ * <p>Unit tests for {@link SchemaFingerprint}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class SchemaFingerprintTest {
+
+	
+	public static class Contact {
+		
+		@Id
+		private long id;
+		private String name;
+	}
+	
+	public static class IndexedContact {
+		
+		@Id
+		private long id;
+		
+		@Index
+		private String name;
+	}
+	
+	
+	@Test
+	public final void testDigest() {
+		
+		assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d", SchemaFingerprint.of("abc"));
+		assertEquals("da39a3ee5e6b4b0d3255bfef95601890afd80709", SchemaFingerprint.of(""));
+		assertEquals(SchemaFingerprint.of("\u00e9"), SchemaFingerprint.of(new StringBuilder("\u00e9")));
+	}
+	
+	@Test
+	public final void testTracksDeclaredSchema() {
+		
+		DDLPolicy ddlPolicy = new DDLGenerator();
+		
+		String contact = ddlPolicy.create(Contact.class).toString();
+		String indexed = ddlPolicy.create(IndexedContact.class).toString();
+		
+		assertEquals(SchemaFingerprint.of(contact), SchemaFingerprint.of(ddlPolicy.create(Contact.class)));
+		assertFalse(SchemaFingerprint.of(contact).equals(SchemaFingerprint.of(
+			indexed.replace(IndexedContact.class.getSimpleName(), Contact.class.getSimpleName()))));
+	}
+	
+	@Test
+	public final void testRecordsLatestFingerprint() {
+		
+		SQLiteDatabase database = SQLiteDatabase.create(null);
+		
+		try {
+			
+			String entity = "com.example.O'Brien";
+			
+			database.execSQL(SchemaFingerprint.create());
+			database.execSQL(SchemaFingerprint.create());
+			database.execSQL(SchemaFingerprint.record(entity, "first"));
+			database.execSQL(SchemaFingerprint.record(entity, "second"));
+			
+			Cursor cursor = database.query(SchemaFingerprint.TABLE, 
+				new String[] {SchemaFingerprint.ENTITY, SchemaFingerprint.FINGERPRINT}, null, null, null, null, null);
+			
+			try {
+				
+				assertEquals(1, cursor.getCount());
+				assertTrue(cursor.moveToFirst());
+				assertEquals(entity, cursor.getString(0));
+				assertEquals("second", cursor.getString(1));
+			}
+			finally {
+				
+				cursor.close();
+			}
+		}
+		finally {
+			
+			database.close();
+		}
+	}
+}
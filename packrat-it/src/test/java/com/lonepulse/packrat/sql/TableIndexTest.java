@@ -0,0 +1,102 @@
+package com.lonepulse.packrat.sql;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.lonepulse.packrat.Entity;
+import com.lonepulse.packrat.Lazy;
+import com.lonepulse.packrat.annotation.Id;
+import com.lonepulse.packrat.annotation.Index;
+import com.lonepulse.packrat.annotation.Indexes;
+import com.lonepulse.packrat.annotation.ToOne;
+import com.lonepulse.packrat.metadata.EntityMetadata;
+
+/**
+ * <p>Unit tests for {@link TableIndex}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class TableIndexTest {
+
+	
+	public static class Folder extends Entity<Folder> {
+		
+		@Id
+		private long id;
+	}
+	
+	public static class Message extends Entity<Message> {
+		
+		@Id
+		private long id;
+		
+		@ToOne @Index(where = "unread = 1")
+		private Lazy<Folder> folder;
+		
+		private boolean unread;
+	}
+	
+	@Indexes({ @Index(name = "idx_Duplicate_unread", columns = "unread"), 
+			   @Index(name = "idx_Duplicate_unread", columns = "unread", where = "unread = 1") })
+	public static class Duplicate extends Entity<Duplicate> {
+		
+		@Id
+		private long id;
+		
+		private boolean unread;
+	}
+	
+	
+	@Test
+	public final void testForeignKeyIndexDoesNotCollideWithPartialIndex() {
+		
+		List<TableIndex> indexes = TableIndex.of(EntityMetadata.of(Message.class));
+		
+		assertEquals(2, indexes.size());
+		
+		assertEquals("idx_Message_folder", indexes.get(0).getName());
+		assertEquals("unread = 1", indexes.get(0).getWhere());
+		
+		assertEquals("fk_Message_folder", indexes.get(1).getName());
+		assertNull(indexes.get(1).getWhere());
+	}
+	
+	@Test
+	public final void testRejectsIndexesWithTheSameName() {
+		
+		try {
+			
+			TableIndex.of(EntityMetadata.of(Duplicate.class));
+			fail("Indexes which share a name were accepted. ");
+		}
+		catch(DDLException ddle) {}
+	}
+}
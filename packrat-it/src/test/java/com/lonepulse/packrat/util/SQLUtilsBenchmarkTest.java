@@ -0,0 +1,113 @@
+package com.lonepulse.packrat.util;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * <p>Compares the cost of {@link SQLUtils#quoteIfTextual(String)} on textual arguments with that 
+ * of the classifier it replaced, which parsed each argument as a double and quoted it upon 
+ * catching the {@link NumberFormatException}. The timings are reported rather than asserted, 
+ * since they depend on the machine.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class SQLUtilsBenchmarkTest {
+
+	
+	private static final String[] TEXTUAL = { 
+		
+		"unread", "inbox", "draft", "CURRENT_USER", "en_US", "pending", "UTF-8", "none" 
+	};
+	
+	private static final int WARMUP = 20000;
+	
+	private static final int ITERATIONS = 200000;
+	
+	
+	@Test
+	public final void testClassifiesTextualArguments() {
+		
+		for (String arg : TEXTUAL) {
+			
+			assertEquals(exceptional(arg), SQLUtils.quoteIfTextual(arg));
+		}
+		
+		long exceptional = measure(false);
+		long current = measure(true);
+		
+		System.out.println(new StringBuilder("quoteIfTextual() on textual arguments: ")
+			.append(current / ITERATIONS).append(" ns/op without exceptions, ")
+			.append(exceptional / ITERATIONS).append(" ns/op with NumberFormatException. ").toString());
+	}
+	
+	private static long measure(boolean current) {
+		
+		int length = 0;
+		
+		for (int i = 0; i < WARMUP; i++) {
+			
+			String arg = TEXTUAL[i % TEXTUAL.length];
+			length += (current? SQLUtils.quoteIfTextual(arg) :exceptional(arg)).length();
+		}
+		
+		long start = System.nanoTime();
+		
+		for (int i = 0; i < ITERATIONS; i++) {
+			
+			String arg = TEXTUAL[i % TEXTUAL.length];
+			length += (current? SQLUtils.quoteIfTextual(arg) :exceptional(arg)).length();
+		}
+		
+		long elapsed = System.nanoTime() - start;
+		assertTrue(length > 0);
+		
+		return elapsed;
+	}
+	
+	/**
+	 * <p>The classifier which {@link SQLUtils#quoteIfTextual(String)} replaced.
+	 */
+	private static String exceptional(String potentialTextualArg) {
+		
+		try {
+			
+			if(potentialTextualArg.startsWith("'") && potentialTextualArg.endsWith("'")) {
+				
+				return potentialTextualArg;
+			}
+			
+			Double.parseDouble(potentialTextualArg);
+			
+			return potentialTextualArg;
+		}
+		catch(NumberFormatException nfe) {
+			
+			return "'" + potentialTextualArg + "'";
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.lonepulse.packrat.util;
+
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * <p>Unit tests for {@link SQLUtils}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class SQLUtilsTest {
+
+	
+	@Test
+	public final void testClassifiesNumericLiterals() {
+		
+		for (String numeric : new String[] { "0", "-1", "+42", "3.14", ".5", "5.", "1e10", "2.5E-3" }) {
+			
+			assertTrue(numeric, SQLUtils.isNumeric(numeric));
+		}
+		
+		for (String textual : new String[] { "", "-", ".", "e5", "1e", "1f", "NaN", "Infinity", "0x1F", "1 ", "1,000" }) {
+			
+			assertFalse(textual, SQLUtils.isNumeric(textual));
+		}
+	}
+	
+	@Test
+	public final void testClassifiesStringLiterals() {
+		
+		for (String quoted : new String[] { "''", "'a'", "'it''s'", "'a'''" }) {
+			
+			assertTrue(quoted, SQLUtils.isQuoted(quoted));
+		}
+		
+		for (String textual : new String[] { "'", "a", "'a", "'it's'", "'a''" }) {
+			
+			assertFalse(textual, SQLUtils.isQuoted(textual));
+		}
+	}
+	
+	@Test
+	public final void testQuotesTextualArguments() {
+		
+		assertEquals("42", SQLUtils.quoteIfTextual("42"));
+		assertEquals("'it''s'", SQLUtils.quoteIfTextual("'it''s'"));
+		assertEquals("CURRENT_TIMESTAMP", SQLUtils.quoteIfTextual("CURRENT_TIMESTAMP"));
+		assertEquals("null", SQLUtils.quoteIfTextual("null"));
+		assertEquals("'unread'", SQLUtils.quoteIfTextual("unread"));
+		assertEquals("'''it''s'", SQLUtils.quoteIfTextual("'it's"));
+		assertEquals("'1f'", SQLUtils.quoteIfTextual("1f"));
+	}
+	
+	@Test
+	public final void testFormatsLiteralsByType() {
+		
+		assertEquals("NULL", SQLUtils.literal(null));
+		assertEquals("7", SQLUtils.literal(Integer.valueOf(7)));
+		assertEquals("2.5", SQLUtils.literal(Double.valueOf(2.5)));
+		assertEquals("'NaN'", SQLUtils.literal(Double.valueOf(Double.NaN)));
+		assertEquals("'42'", SQLUtils.literal("42"));
+		assertEquals("X'00FF'", SQLUtils.literal(new byte[] { 0, (byte)0xFF }));
+		assertEquals("'O''Brien'", SQLUtils.literal("O'Brien"));
+	}
+}
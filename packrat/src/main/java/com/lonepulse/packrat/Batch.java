@@ -20,6 +20,7 @@ package com.lonepulse.packrat;
  * #L%
  */
 
+import java.io.Reader;
 import java.util.Collection;
 
 public interface Batch<T extends Entity<T>> {
@@ -34,7 +35,145 @@ public interface Batch<T extends Entity<T>> {
 	
 	Collection<T> find(Query query);
 	
+	/**
+	 * <p>Finds the entities identified by the {@link Query} and hydrates each one into 
+	 * a lightweight <b>projection</b> instead of the entity. Only the columns declared 
+	 * by the projection type (or those selected by the query) are read.
+	 *
+	 * @param query
+	 * 			the {@link Query} which identifies the rows
+	 * 
+	 * @param projectionType
+	 * 			a type with a nullary constructor whose attributes are named after 
+	 * 			a subset of the columns of the entity
+	 * 
+	 * @return the projections of the rows which were found
+	 * 
+	 * @since 1.1.0
+	 */
+	<P> Collection<P> find(Query query, Class<P> projectionType);
+	
 	Collection<T> all();
 	
+	/**
+	 * <p>Counts the rows identified by the {@link Query} without hydrating them.
+	 *
+	 * @param query
+	 * 			the {@link Query} which identifies the rows, or {@code null} for all rows
+	 * 
+	 * @return the number of rows
+	 * 
+	 * @since 1.1.0
+	 */
+	long count(Query query);
+	
+	/**
+	 * <p>Determines if the {@link Query} identifies at least one row, without 
+	 * counting or hydrating them.
+	 *
+	 * @param query
+	 * 			the {@link Query} which identifies the rows, or {@code null} for all rows
+	 * 
+	 * @return {@code true} if at least one row exists
+	 * 
+	 * @since 1.1.0
+	 */
+	boolean exists(Query query);
+	
+	/**
+	 * <p>Sums the values of a column over the rows identified by the {@link Query}. The 
+	 * values of an <b>INTEGER</b> column are summed exactly, and SQLite fails the query 
+	 * rather than overflow; those of any other numeric column are summed as doubles.</p>
+	 *
+	 * @param column
+	 * 			the numeric column to be summed
+	 * 
+	 * @param query
+	 * 			the {@link Query} which identifies the rows, or {@code null} for all rows
+	 * 
+	 * @return the sum as a {@link Long} for an <b>INTEGER</b> column or as a {@link Double} 
+	 * 		   otherwise, which is zero if there are no rows
+	 * 
+	 * @throws QueryException
+	 * 			if the entity does not declare the column or if the column is not numeric
+	 * 
+	 * @since 1.1.0
+	 */
+	Number sum(String column, Query query);
+	
+	/**
+	 * <p>Finds the minimum value of a column over the rows identified by the {@link Query}.
+	 *
+	 * @param column
+	 * 			the numeric column
+	 * 
+	 * @param query
+	 * 			the {@link Query} which identifies the rows, or {@code null} for all rows
+	 * 
+	 * @return the minimum as a {@link Long} if it is stored as an integer or as a {@link Double} 
+	 * 		   otherwise, or {@code null} if there are no non-null values
+	 * 
+	 * @throws QueryException
+	 * 			if the entity does not declare the column or if the column is not numeric
+	 * 
+	 * @since 1.1.0
+	 */
+	Number min(String column, Query query);
+	
+	/**
+	 * <p>Finds the maximum value of a column over the rows identified by the {@link Query}.
+	 *
+	 * @param column
+	 * 			the numeric column
+	 * 
+	 * @param query
+	 * 			the {@link Query} which identifies the rows, or {@code null} for all rows
+	 * 
+	 * @return the maximum as a {@link Long} if it is stored as an integer or as a {@link Double} 
+	 * 		   otherwise, or {@code null} if there are no non-null values
+	 * 
+	 * @throws QueryException
+	 * 			if the entity does not declare the column or if the column is not numeric
+	 * 
+	 * @since 1.1.0
+	 */
+	Number max(String column, Query query);
+	
+	/**
+	 * <p>Creates a {@link LiveQuery} which finds the entities identified by the {@link Query} 
+	 * and finds them again whenever the table of the entity, or that of a relationship in its 
+	 * fetch plan, changes.
+	 *
+	 * @param query
+	 * 			the {@link Query} which identifies the rows, or {@code null} for all rows
+	 * 
+	 * @return a {@link LiveQuery} which is yet to be subscribed to
+	 * 
+	 * @since 1.1.0
+	 */
+	LiveQuery<Collection<T>> observe(Query query);
+	
+	/**
+	 * <p>Streams the records of the given input into the relation of the entity, inserting a row 
+	 * for each one without hydrating any entities. Fields are named after the columns they 
+	 * populate and are converted to the type of each attribute. The input is read incrementally 
+	 * and the rows are committed in chunks, so that inputs of any length can be loaded.</p>
+	 *
+	 * @param input
+	 * 			the {@link Reader} of the records, which is not closed
+	 * 
+	 * @param format
+	 * 			the {@link ImportFormat} of the records
+	 * 
+	 * @return the number of rows which were inserted
+	 * 
+	 * @throws PackratRuntimeException
+	 * 			if the input is malformed or could not be read, or if a record could not be 
+	 * 			inserted, in which case the chunks which were committed remain
+	 * 
+	 * @since 1.1.0
+	 */
+	long load(Reader input, ImportFormat format);
+	
 	void purge();
 }
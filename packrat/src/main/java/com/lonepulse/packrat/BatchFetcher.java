@@ -0,0 +1,217 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.lonepulse.packrat.metadata.EntityMetadata;
+import com.lonepulse.packrat.metadata.Property;
+import com.lonepulse.packrat.metadata.Relationship;
+import com.lonepulse.packrat.metadata.Relationship.Cardinality;
+
+/**
+ * <p>Executes the <b>fetch plan</b> of a {@link Query} by reading each requested 
+ * relationship for <i>all</i> entities which were found using a single query, and 
+ * resolving their {@link Lazy} holders with the results. Reading a relationship of 
+ * <i>n</i> entities therefore takes one query instead of <i>n</i>.</p>
+ * 
+ * <p>Children fetched through a {@code @ToMany} relationship also have their reference 
+ * back to the parent resolved, since the parent is already in memory.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+final class BatchFetcher {
+
+	/**
+	 * <p>Instantiation is nonsensical.
+	 *
+	 * @since 1.1.0
+	 */
+	private BatchFetcher() {}
+	
+	/**
+	 * <p>Fetches all relationships in the fetch plan of the {@link Query} for the given 
+	 * entities, which must be the result of the same query.
+	 *
+	 * @param database
+	 * 			the {@link SQLiteDatabase} to read from
+	 * 
+	 * @param metadata
+	 * 			the {@link EntityMetadata} of the entities
+	 * 
+	 * @param entities
+	 * 			the entities which were found using the query
+	 * 
+	 * @param query
+	 * 			the {@link Query} which specifies the fetch plan
+	 * 
+	 * @throws QueryException
+	 * 			if the fetch plan refers to an unknown relationship
+	 * 
+	 * @since 1.1.0
+	 */
+	static <T> void fetch(SQLiteDatabase database, EntityMetadata<T> metadata, List<T> entities, Query query) {
+		
+		String[] fetch = query == null? null :query.getFetch();
+		
+		if(fetch == null || entities.isEmpty()) {
+			
+			return;
+		}
+		
+		for (String name : fetch) {
+			
+			Relationship relationship = QueryCompiler.relationship(metadata, name);
+			
+			List<?> related = read(database, EntityMetadata.of(relationship.getTarget()), 
+				QueryCompiler.fetch(metadata, relationship, query), QueryCompiler.args(query));
+			
+			if(relationship.getCardinality() == Cardinality.TO_ONE) {
+				
+				resolveReferences(relationship, entities, related);
+			}
+			else {
+				
+				resolveChildren(metadata, relationship, entities, related);
+			}
+		}
+	}
+	
+	private static <E> List<E> read(SQLiteDatabase database, EntityMetadata<E> metadata, String sql, String[] args) {
+		
+		Cursor cursor = database.rawQuery(sql, args);
+		
+		try {
+			
+			Hydrator<E> hydrator = new Hydrator<E>(metadata, cursor);
+			List<E> models = new ArrayList<E>(cursor.getCount());
+			
+			while(cursor.moveToNext()) {
+				
+				models.add(hydrator.hydrate());
+			}
+			
+			return models;
+		}
+		finally {
+			
+			cursor.close();
+		}
+	}
+	
+	/**
+	 * <p>Resolves the {@code @ToOne} holders of each entity using the related 
+	 * entities indexed by their primary key.
+	 */
+	private static void resolveReferences(Relationship relationship, List<?> entities, List<?> related) {
+		
+		Property id = EntityMetadata.of(relationship.getTarget()).getId();
+		Map<String, Object> targets = new HashMap<String, Object>(related.size() * 2);
+		
+		for (Object target : related) {
+			
+			targets.put(id.toArg(target), target);
+		}
+		
+		for (Object entity : entities) {
+			
+			Lazy<?> lazy = relationship.get(entity);
+			
+			if(lazy != null && !lazy.isLoaded()) {
+				
+				Object key = lazy.getKey();
+				resolve(lazy, key == null? null :targets.get(id.argOf(key)));
+			}
+		}
+	}
+	
+	/**
+	 * <p>Resolves the {@code @ToMany} holders of each entity using the related entities 
+	 * grouped by the column which refers back to their parent.
+	 */
+	private static void resolveChildren(
+		EntityMetadata<?> metadata, Relationship relationship, List<?> entities, List<?> related) {
+		
+		EntityMetadata<?> target = EntityMetadata.of(relationship.getTarget());
+		Property reference = target.getProperty(relationship.getMappedBy());
+		Relationship backReference = null;
+		
+		for (Relationship candidate : target.getRelationships()) {
+			
+			if(candidate.getName().equals(relationship.getMappedBy())) backReference = candidate;
+		}
+		
+		Property id = metadata.getId();
+		Map<String, Object> parents = new HashMap<String, Object>(entities.size() * 2);
+		Map<String, List<Object>> children = new HashMap<String, List<Object>>(entities.size() * 2);
+		
+		for (Object entity : entities) {
+			
+			parents.put(id.toArg(entity), entity);
+		}
+		
+		for (Object child : related) {
+			
+			String key = reference.toArg(child);
+			List<Object> siblings = children.get(key);
+			
+			if(siblings == null) {
+				
+				siblings = new ArrayList<Object>();
+				children.put(key, siblings);
+			}
+			
+			siblings.add(child);
+			
+			Lazy<?> parent = backReference == null? null :backReference.get(child);
+			
+			if(parent != null && !parent.isLoaded()) {
+				
+				resolve(parent, parents.get(key));
+			}
+		}
+		
+		for (Object entity : entities) {
+			
+			Lazy<?> lazy = relationship.get(entity);
+			
+			if(lazy != null && !lazy.isLoaded()) {
+				
+				List<Object> siblings = children.get(id.toArg(entity));
+				resolve(lazy, siblings == null? new ArrayList<Object>(0) :siblings);
+			}
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static void resolve(Lazy<?> lazy, Object value) {
+		
+		((Lazy<Object>)lazy).resolve(value);
+	}
+}
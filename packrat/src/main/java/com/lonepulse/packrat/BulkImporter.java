@@ -0,0 +1,197 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+import android.content.ContentValues;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteStatement;
+
+import com.lonepulse.packrat.metadata.EntityMetadata;
+import com.lonepulse.packrat.metadata.Property;
+
+/**
+ * <p>Streams textual records into the relation of an entity without hydrating any entities. 
+ * Each record is bound to a single compiled <b>INSERT</b> statement, and the rows are committed 
+ * in chunks of {@link #CHUNK} so that neither the input nor the transaction journal grows with 
+ * the length of the input. Each chunk becomes a savepoint if the caller has already opened a 
+ * {@link Transaction}.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+final class BulkImporter {
+
+	/**
+	 * <p>The number of rows which are inserted in a single transaction.
+	 */
+	static final int CHUNK = 1000;
+	
+	
+	/**
+	 * <p>Instantiation is nonsensical.
+	 *
+	 * @since 1.1.0
+	 */
+	private BulkImporter() {}
+	
+	/**
+	 * <p>Inserts a row for each record of the input. Columns which a record does not populate 
+	 * are inserted as {@code NULL}, which lets SQLite assign an integral primary key. A missing 
+	 * version starts out at zero.</p>
+	 *
+	 * @param persistenceUnit
+	 * 			the {@link SQLitePersistenceUnit} which declares the entity
+	 * 
+	 * @param metadata
+	 * 			the {@link EntityMetadata} of the entity
+	 * 
+	 * @param input
+	 * 			the {@link Reader} of the records, which is not closed
+	 * 
+	 * @param format
+	 * 			the {@link ImportFormat} of the records
+	 * 
+	 * @return the number of rows which were inserted
+	 * 
+	 * @throws PackratRuntimeException
+	 * 			if the input could not be read or a record could not be inserted, in which case 
+	 * 			the chunk in progress is rolled back
+	 * 
+	 * @since 1.1.0
+	 */
+	static long load(final SQLitePersistenceUnit persistenceUnit, final EntityMetadata<?> metadata, 
+		Reader input, ImportFormat format) {
+		
+		final List<Property> properties = metadata.getProperties();
+		final Property version = metadata.getVersion();
+		final String[] columns = metadata.getColumns();
+		
+		final RecordParser parser = RecordParser.newInstance(input, format, columns);
+		final String[] record = new String[columns.length];
+		final ContentValues values = new ContentValues();
+		
+		final SQLiteStatement statement = persistenceUnit.connectionPool().writer().compileStatement(insert(metadata));
+		
+		try {
+			
+			long count = 0L;
+			int inserted;
+			
+			do {
+				
+				inserted = persistenceUnit.transaction(new Transaction<Integer>() {
+					
+					@Override
+					public Integer execute() {
+						
+						int rows = 0;
+						
+						while(rows < CHUNK && next(parser, record)) {
+							
+							values.clear();
+							
+							for (int i = 0; i < columns.length; i++) {
+								
+								Property property = properties.get(i);
+								String text = record[i] == null && property == version? "0" :record[i];
+								
+								try {
+									
+									property.writeText(text, values);
+								}
+								catch(RuntimeException re) {
+									
+									throw new PackratRuntimeException(new StringBuilder("The column ")
+									.append(columns[i]).append(" on line ").append(parser.getLine())
+									.append(" of the input could not be imported. ").toString(), re);
+								}
+								
+								DatabaseUtils.bindObjectToProgram(statement, i + 1, values.get(columns[i]));
+							}
+							
+							statement.executeInsert();
+							rows++;
+						}
+						
+						if(rows > 0) persistenceUnit.changes().touch(metadata.getTable());
+						
+						return Integer.valueOf(rows);
+					}
+				})
+				.intValue();
+				
+				count += inserted;
+			}
+			while(inserted == CHUNK);
+			
+			return count;
+		}
+		finally {
+			
+			statement.close();
+		}
+	}
+	
+	/**
+	 * <p>Reads the next record, wrapping a failure to read the input.
+	 */
+	private static boolean next(RecordParser parser, String[] record) {
+		
+		try {
+			
+			return parser.next(record);
+		}
+		catch(IOException ioe) {
+			
+			throw new PackratRuntimeException("The input could not be read. ", ioe);
+		}
+	}
+	
+	/**
+	 * <p>Creates the <b>INSERT</b> statement which populates every column of the entity.
+	 */
+	private static String insert(EntityMetadata<?> metadata) {
+		
+		String[] columns = metadata.getColumns();
+		
+		StringBuilder sql = new StringBuilder("INSERT INTO ").append(metadata.getTable()).append(" (");
+		StringBuilder parameters = new StringBuilder();
+		
+		for (int i = 0; i < columns.length; i++) {
+			
+			if(i > 0) {
+				
+				sql.append(", ");
+				parameters.append(", ");
+			}
+			
+			sql.append(columns[i]);
+			parameters.append("?");
+		}
+		
+		return sql.append(") VALUES (").append(parameters).append(");").toString();
+	}
+}
@@ -0,0 +1,404 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import android.util.Log;
+
+import com.lonepulse.packrat.metadata.EntityMetadata;
+import com.lonepulse.packrat.metadata.Property;
+
+/**
+ * <p>Notifies {@link ChangeObserver}s of the tables of a {@link PersistenceUnit} which have 
+ * changed, so that they need not poll for changes. Observers subscribe to entity types or to 
+ * tables and are notified only after the changes are committed; changes which are rolled back 
+ * are never reported.</p>
+ * 
+ * <p>Notifications are coalesced. All tables changed by a single transaction are reported as 
+ * one event, and so are the changes of any transactions which commit within {@link #WINDOW} 
+ * milliseconds of each other. A table which refers to a changed table is considered to have 
+ * changed as well, since deleting its referents may cascade to it.</p>
+ * 
+ * <p>This is also the hook which caches and query results are invalidated through. An observer 
+ * which fails is logged and does not prevent the others from being notified.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class ChangeBus {
+
+	
+	/**
+	 * <p>The number of milliseconds for which committed changes are accumulated before they 
+	 * are delivered.
+	 */
+	public static final long WINDOW = 50L;
+	
+	/**
+	 * <p>The tag under which failing observers are logged.
+	 */
+	private static final String TAG = ChangeBus.class.getSimpleName();
+	
+	
+	/**
+	 * <p>Associates a {@link ChangeObserver} with the tables it observes.
+	 */
+	private static final class Subscription {
+		
+		private final ChangeObserver observer;
+		private final Set<String> tables;
+		
+		private Subscription(ChangeObserver observer, Set<String> tables) {
+			
+			this.observer = observer;
+			this.tables = tables;
+		}
+	}
+	
+	
+	/**
+	 * <p>The tables which refer to each table, directly or through other tables.
+	 */
+	private final Map<String, Set<String>> dependents;
+	
+	/**
+	 * <p>The current {@link Subscription}s.
+	 */
+	private final List<Subscription> subscriptions = new CopyOnWriteArrayList<Subscription>();
+	
+	/**
+	 * <p>The tables which the current thread changed within its open transaction.
+	 */
+	private final ThreadLocal<Set<String>> pending = new ThreadLocal<Set<String>>() {
+		
+		@Override
+		protected Set<String> initialValue() {
+			
+			return new HashSet<String>();
+		}
+	};
+	
+	/**
+	 * <p>The tables whose changes were committed but have yet to be delivered.
+	 */
+	private Set<String> committed = new HashSet<String>();
+	
+	/**
+	 * <p>Whether a delivery of the {@link #committed} changes has been scheduled.
+	 */
+	private boolean scheduled;
+	
+	/**
+	 * <p>Delivers notifications once the coalescing window has elapsed.
+	 */
+	private final ScheduledThreadPoolExecutor dispatcher;
+	
+	
+	/**
+	 * <p>Creates a new {@link ChangeBus} for the given entities.</p>
+	 *
+	 * @param entities
+	 * 			the entities of the {@link PersistenceUnit}
+	 * 
+	 * @since 1.1.0
+	 */
+	ChangeBus(Set<Class<Object>> entities) {
+		
+		this.dependents = dependents(entities);
+		
+		this.dispatcher = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+			
+			@Override
+			public Thread newThread(Runnable runnable) {
+				
+				Thread thread = new Thread(runnable, "packrat-changes");
+				thread.setDaemon(true);
+				
+				return thread;
+			}
+		});
+		
+		this.dispatcher.setKeepAliveTime(1L, TimeUnit.SECONDS);
+		this.dispatcher.allowCoreThreadTimeOut(true);
+	}
+	
+	/**
+	 * <p>Resolves the tables which refer to each table, transitively.</p>
+	 *
+	 * @param entities
+	 * 			the entities of the {@link PersistenceUnit}
+	 * 
+	 * @return the dependent tables of each table which is referred to
+	 * 
+	 * @since 1.1.0
+	 */
+	private static Map<String, Set<String>> dependents(Set<Class<Object>> entities) {
+		
+		Map<String, Set<String>> referrers = new HashMap<String, Set<String>>();
+		
+		for (Class<Object> entity : entities) {
+			
+			EntityMetadata<Object> metadata = EntityMetadata.of(entity);
+			
+			for (Property property : metadata.getProperties()) {
+				
+				if(property.isReference()) {
+					
+					String target = EntityMetadata.of(property.getTarget()).getTable();
+					Set<String> tables = referrers.get(target);
+					
+					if(tables == null) {
+						
+						tables = new HashSet<String>();
+						referrers.put(target, tables);
+					}
+					
+					tables.add(metadata.getTable());
+				}
+			}
+		}
+		
+		Map<String, Set<String>> dependents = new HashMap<String, Set<String>>();
+		
+		for (String table : referrers.keySet()) {
+			
+			Set<String> closure = new HashSet<String>();
+			collect(table, referrers, closure);
+			closure.remove(table);
+			
+			dependents.put(table, closure);
+		}
+		
+		return dependents;
+	}
+	
+	/**
+	 * <p>Collects the tables which refer to the given table, and those which refer to them.</p>
+	 */
+	private static void collect(String table, Map<String, Set<String>> referrers, Set<String> closure) {
+		
+		Set<String> tables = referrers.get(table);
+		
+		if(tables != null) {
+			
+			for (String referrer : tables) {
+				
+				if(closure.add(referrer)) {
+					
+					collect(referrer, referrers, closure);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * <p>Subscribes the given observer to changes in the tables of the given entities.</p>
+	 *
+	 * @param observer
+	 * 			the {@link ChangeObserver} to be notified
+	 * 
+	 * @param entities
+	 * 			the entities whose tables are observed
+	 * 
+	 * @since 1.1.0
+	 */
+	public void subscribe(ChangeObserver observer, Class<?>... entities) {
+		
+		String[] tables = new String[entities.length];
+		
+		for (int i = 0; i < entities.length; i++) {
+			
+			tables[i] = EntityMetadata.of(entities[i]).getTable();
+		}
+		
+		subscribe(observer, tables);
+	}
+	
+	/**
+	 * <p>Subscribes the given observer to changes in the given tables.</p>
+	 *
+	 * @param observer
+	 * 			the {@link ChangeObserver} to be notified
+	 * 
+	 * @param tables
+	 * 			the names of the tables which are observed
+	 * 
+	 * @since 1.1.0
+	 */
+	public void subscribe(ChangeObserver observer, String... tables) {
+		
+		subscriptions.add(new Subscription(observer, 
+			Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(tables)))));
+	}
+	
+	/**
+	 * <p>Removes every subscription of the given observer. It may still receive a notification 
+	 * which was being delivered at the time.</p>
+	 *
+	 * @param observer
+	 * 			the {@link ChangeObserver} which is no longer interested
+	 * 
+	 * @since 1.1.0
+	 */
+	public void unsubscribe(ChangeObserver observer) {
+		
+		for (Subscription subscription : subscriptions) {
+			
+			if(subscription.observer == observer) {
+				
+				subscriptions.remove(subscription);
+			}
+		}
+	}
+	
+	/**
+	 * <p>Records that the current thread changed the given table within its open transaction.</p>
+	 *
+	 * @param table
+	 * 			the name of the table which was changed
+	 * 
+	 * @since 1.1.0
+	 */
+	void touch(String table) {
+		
+		pending.get().add(table);
+	}
+	
+	/**
+	 * <p>Completes the outermost transaction of the current thread, publishing the tables it 
+	 * changed if it was committed and discarding them otherwise.</p>
+	 *
+	 * @param commit
+	 * 			{@code true} if the transaction was committed
+	 * 
+	 * @since 1.1.0
+	 */
+	void complete(boolean commit) {
+		
+		Set<String> tables = pending.get();
+		
+		if(tables.isEmpty()) {
+			
+			return;
+		}
+		
+		if(commit) {
+			
+			publish(tables);
+		}
+		
+		tables.clear();
+	}
+	
+	/**
+	 * <p>Adds committed changes to those awaiting delivery, scheduling a delivery at the end 
+	 * of the window unless one is due already.</p>
+	 */
+	private void publish(Set<String> tables) {
+		
+		synchronized (this) {
+			
+			for (String table : tables) {
+				
+				committed.add(table);
+				
+				Set<String> cascaded = dependents.get(table);
+				
+				if(cascaded != null) {
+					
+					committed.addAll(cascaded);
+				}
+			}
+			
+			if(subscriptions.isEmpty()) {
+				
+				committed.clear();
+				return;
+			}
+			
+			if(scheduled) {
+				
+				return;
+			}
+			
+			scheduled = true;
+		}
+		
+		dispatcher.schedule(new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				deliver();
+			}
+			
+		}, WINDOW, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * <p>Notifies each observer of the committed changes to the tables it observes. An exception 
+	 * thrown by an observer is logged rather than rethrown, since it would otherwise skip the 
+	 * remaining observers and be captured silently by the future of the scheduled delivery.</p>
+	 */
+	private void deliver() {
+		
+		Set<String> tables;
+		
+		synchronized (this) {
+			
+			tables = committed;
+			committed = new HashSet<String>();
+			scheduled = false;
+		}
+		
+		for (Subscription subscription : subscriptions) {
+			
+			Set<String> changed = new LinkedHashSet<String>(subscription.tables);
+			changed.retainAll(tables);
+			
+			if(!changed.isEmpty()) {
+				
+				try {
+					
+					subscription.observer.onChange(Collections.unmodifiableSet(changed));
+				}
+				catch(RuntimeException re) {
+					
+					Log.e(TAG, new StringBuilder("The observer ").append(subscription.observer)
+					.append(" failed to handle changes to ").append(changed).append(". ").toString(), re);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Set;
+
+/**
+ * <p>Receives the notifications of a {@link ChangeBus} for the tables it subscribed to.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public interface ChangeObserver {
+
+	/**
+	 * <p>Invoked on the thread of the {@link ChangeBus} once changes to any of the observed 
+	 * tables have been committed. All changes committed within the coalescing window of the 
+	 * bus are reported together. Observers which update a user interface should post to the 
+	 * main thread from here.</p>
+	 *
+	 * @param tables
+	 * 			the observed tables which have changed
+	 * 
+	 * @since 1.1.0
+	 */
+	void onChange(Set<String> tables);
+}
@@ -0,0 +1,387 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * <p>Pairs the single writable connection of an {@link SQLitePersistenceUnit} with a bounded 
+ * number of read-only connections to the same database file. In <b>WAL</b> mode each reader 
+ * sees the last committed state of the database without waiting on the writer, so queries 
+ * proceed while a long-running write is in progress.</p>
+ * 
+ * <p>A thread which holds an open transaction on the writer is always given the writer, so 
+ * that it reads its own uncommitted changes. Readers are opened on demand up to the capacity 
+ * of the pool; once they are all in use, further threads block until one is released, and fail 
+ * if the pool is closed in the meantime. A pool without any capacity hands out the writer for 
+ * every read, which is how a database that is not in WAL mode is served.</p>
+ * 
+ * <p>The framework keeps a pool of its own for a database in WAL mode, but it only runs a 
+ * transaction on its primary connection, so it cannot hold the snapshot of a read which spans 
+ * several queries. Its secondary connections are opened on demand for queries executed on the 
+ * writer outside a transaction, which this unit routes to the readers of this pool instead, so 
+ * that pool remains all but empty.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+final class ConnectionPool {
+
+	
+	/**
+	 * <p>The savepoint which holds the snapshot of a read transaction on a reader.
+	 */
+	private static final String SNAPSHOT = "packrat_snapshot";
+	
+	/**
+	 * <p>The {@link SQLitePersistenceUnit} which owns the writer and configures each reader.
+	 */
+	private final SQLitePersistenceUnit persistenceUnit;
+	
+	/**
+	 * <p>The writable connection of the {@link #persistenceUnit}.
+	 */
+	private final SQLiteDatabase writer;
+	
+	/**
+	 * <p>The maximum number of readers which may be open at once.
+	 */
+	private final int capacity;
+	
+	/**
+	 * <p>Guards the state of the pool, i.e. {@link #opened}, {@link #readers}, {@link #idle} 
+	 * and {@link #closed}.
+	 */
+	private final Lock lock = new ReentrantLock();
+	
+	/**
+	 * <p>Signalled when a reader becomes idle, when a reader may be opened in place of one 
+	 * which failed to open and when the pool is closed.
+	 */
+	private final Condition available = lock.newCondition();
+	
+	/**
+	 * <p>The number of readers which have been opened or are being opened.
+	 */
+	private int opened;
+	
+	/**
+	 * <p>Every reader which was opened by this pool and is not yet closed.
+	 */
+	private final Set<SQLiteDatabase> readers = new HashSet<SQLiteDatabase>();
+	
+	/**
+	 * <p>The readers which are not in use.
+	 */
+	private final Queue<SQLiteDatabase> idle = new LinkedList<SQLiteDatabase>();
+	
+	/**
+	 * <p>Whether the pool has been closed, after which released readers are closed as well.
+	 */
+	private boolean closed;
+	
+	
+	/**
+	 * <p>Creates a new {@link ConnectionPool} over the given writer.</p>
+	 *
+	 * @param persistenceUnit
+	 * 			the {@link SQLitePersistenceUnit} which owns the writer
+	 * 
+	 * @param writer
+	 * 			the writable {@link SQLiteDatabase} of the persistence unit
+	 * 
+	 * @param capacity
+	 * 			the maximum number of readers, which is zero if the database is not in WAL mode
+	 * 
+	 * @since 1.1.0
+	 */
+	ConnectionPool(SQLitePersistenceUnit persistenceUnit, SQLiteDatabase writer, int capacity) {
+		
+		this.persistenceUnit = persistenceUnit;
+		this.writer = writer;
+		this.capacity = capacity;
+	}
+	
+	/**
+	 * <p>Retrieves the writable connection.</p>
+	 *
+	 * @return the writer
+	 * 
+	 * @since 1.1.0
+	 */
+	SQLiteDatabase writer() {
+		
+		return writer;
+	}
+	
+	/**
+	 * <p>Acquires a connection to read from. This is the writer if the calling thread has a 
+	 * transaction open on it or if the pool has no capacity, and an idle reader otherwise. 
+	 * Each connection which is acquired must be {@link #release(SQLiteDatabase)}d.</p>
+	 *
+	 * @return the {@link SQLiteDatabase} to read from
+	 * 
+	 * @throws PackratRuntimeException
+	 * 			if the pool was closed or the thread was interrupted while waiting for a reader
+	 * 
+	 * @since 1.1.0
+	 */
+	SQLiteDatabase acquire() {
+		
+		if(capacity == 0 || (writer.inTransaction() && writer.isDbLockedByCurrentThread())) {
+			
+			return writer;
+		}
+		
+		lock.lock();
+		
+		try {
+			
+			while(true) {
+				
+				if(closed) {
+					
+					throw new PackratRuntimeException("The connection pool has been closed. ");
+				}
+				
+				SQLiteDatabase reader = idle.poll();
+				
+				if(reader != null) {
+					
+					return reader;
+				}
+				
+				if(opened < capacity) {
+					
+					opened++;
+					break;
+				}
+				
+				available.await();
+			}
+		}
+		catch(InterruptedException ie) {
+			
+			Thread.currentThread().interrupt();
+			throw new PackratRuntimeException("Interrupted while waiting for a connection to read from. ", ie);
+		}
+		finally {
+			
+			lock.unlock();
+		}
+		
+		return open();
+	}
+	
+	/**
+	 * <p>Opens a reader for which a place in the pool was reserved by {@link #acquire()}. The 
+	 * reservation is withdrawn if the reader could not be opened or if the pool was closed 
+	 * in the meantime.</p>
+	 */
+	private SQLiteDatabase open() {
+		
+		SQLiteDatabase reader = null;
+		
+		try {
+			
+			reader = SQLiteDatabase.openDatabase(writer.getPath(), null, SQLiteDatabase.OPEN_READONLY);
+			persistenceUnit.tune(reader);
+		}
+		catch(RuntimeException re) {
+			
+			withdraw(reader);
+			throw re;
+		}
+		
+		lock.lock();
+		
+		try {
+			
+			if(!closed) {
+				
+				readers.add(reader);
+				return reader;
+			}
+		}
+		finally {
+			
+			lock.unlock();
+		}
+		
+		withdraw(reader);
+		throw new PackratRuntimeException("The connection pool was closed while opening a connection. ");
+	}
+	
+	/**
+	 * <p>Closes a reader which could not be handed out and frees its place in the pool.</p>
+	 */
+	private void withdraw(SQLiteDatabase reader) {
+		
+		if(reader != null) {
+			
+			reader.close();
+		}
+		
+		lock.lock();
+		
+		try {
+			
+			opened--;
+			available.signal();
+		}
+		finally {
+			
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * <p>Begins a read transaction on a connection which was {@link #acquire()}d, so that every 
+	 * statement executed on it until {@link #endRead(SQLiteDatabase)} reads the same snapshot of 
+	 * the database. A reader opens a savepoint, which begins a deferred transaction that takes 
+	 * no lock until the first read. Unlike <b>BEGIN</b>, which the framework would take over as 
+	 * an exclusive transaction that a read-only connection cannot begin, the savepoint reaches 
+	 * SQLite as it is. The writer begins a non-exclusive transaction unless the calling thread 
+	 * has one open on it already, in which case it reads its own snapshot anyway.</p>
+	 *
+	 * @param database
+	 * 			the {@link SQLiteDatabase} which was acquired by the calling thread
+	 * 
+	 * @return {@code true} if a transaction was begun, which must be ended using 
+	 * 		   {@link #endRead(SQLiteDatabase)}
+	 * 
+	 * @since 1.1.0
+	 */
+	boolean beginRead(SQLiteDatabase database) {
+		
+		if(database != writer) {
+			
+			database.execSQL("SAVEPOINT " + SNAPSHOT + ";");
+			return true;
+		}
+		
+		if(writer.inTransaction() && writer.isDbLockedByCurrentThread()) {
+			
+			return false;
+		}
+		
+		writer.beginTransactionNonExclusive();
+		return true;
+	}
+	
+	/**
+	 * <p>Ends a read transaction which was begun using {@link #beginRead(SQLiteDatabase)}.</p>
+	 *
+	 * @param database
+	 * 			the {@link SQLiteDatabase} on which the transaction was begun
+	 * 
+	 * @since 1.1.0
+	 */
+	void endRead(SQLiteDatabase database) {
+		
+		if(database != writer) {
+			
+			database.execSQL("RELEASE " + SNAPSHOT + ";");
+			return;
+		}
+		
+		writer.setTransactionSuccessful();
+		writer.endTransaction();
+	}
+	
+	/**
+	 * <p>Returns a connection which was {@link #acquire()}d. Releasing the writer has no effect.</p>
+	 *
+	 * @param database
+	 * 			the {@link SQLiteDatabase} which is no longer in use
+	 * 
+	 * @since 1.1.0
+	 */
+	void release(SQLiteDatabase database) {
+		
+		lock.lock();
+		
+		try {
+			
+			if(!readers.contains(database)) {
+				
+				return;
+			}
+			
+			if(closed) {
+				
+				readers.remove(database);
+				opened--;
+				database.close();
+			}
+			else {
+				
+				idle.offer(database);
+				available.signal();
+			}
+		}
+		finally {
+			
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * <p>Closes every idle reader. Readers which are in use are closed when they are released, 
+	 * and threads which are waiting for a reader are woken to fail with a 
+	 * {@link PackratRuntimeException}. The writer is left to its {@link SQLitePersistenceUnit}.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	void close() {
+		
+		lock.lock();
+		
+		try {
+			
+			closed = true;
+			
+			SQLiteDatabase reader;
+			
+			while((reader = idle.poll()) != null) {
+				
+				readers.remove(reader);
+				opened--;
+				reader.close();
+			}
+			
+			available.signalAll();
+		}
+		finally {
+			
+			lock.unlock();
+		}
+	}
+}
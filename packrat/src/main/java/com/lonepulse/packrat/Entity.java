@@ -20,10 +20,58 @@ package com.lonepulse.packrat;
  * #L%
  */
 
+import java.util.Collections;
+
+import com.lonepulse.packrat.metadata.EntityMetadata;
+
 public abstract class Entity<T extends Entity<T>> implements Record {
 
+	/**
+	 * <p>The columns which were hydrated if this entity was read using a projection, 
+	 * or {@code null} if it was fully hydrated. Only these columns are written when 
+	 * the entity is updated.
+	 */
+	transient String[] projection;
+	
+	
 	public static final <U extends Entity<U>> Batch<U> batch(Class<U> type) {
 		
-		return null;
+		return new SQLiteBatch<U>(SQLitePersistenceUnit.lookup(type), EntityMetadata.of(type));
+	}
+	
+	@Override
+	public void create() {
+		
+		batch().create(Collections.singleton(self()));
+	}
+	
+	@Override
+	public void read() {
+		
+		batch().read(Collections.singleton(self()));
+	}
+	
+	@Override
+	public void update() {
+		
+		batch().update(Collections.singleton(self()));
+	}
+	
+	@Override
+	public void delete() {
+		
+		batch().delete(Collections.singleton(self()));
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Batch<T> batch() {
+		
+		return batch((Class<T>)getClass());
+	}
+	
+	@SuppressWarnings("unchecked")
+	private T self() {
+		
+		return (T)this;
 	}
 }
@@ -0,0 +1,206 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.database.Cursor;
+
+import com.lonepulse.packrat.metadata.EntityMetadata;
+import com.lonepulse.packrat.metadata.Property;
+import com.lonepulse.packrat.metadata.Relationship;
+import com.lonepulse.packrat.metadata.Relationship.Cardinality;
+
+/**
+ * <p>Hydrates models from the rows of a {@link Cursor}. The columns of the cursor 
+ * are bound to the properties of the model <b>once</b>, so that hydrating each row 
+ * only reads the columns which were actually selected.</p>
+ * 
+ * <p>Relationships are never read during hydration. References annotated with 
+ * {@code @ToOne} are hydrated from their column as unloaded {@link Lazy} holders 
+ * and those annotated with {@code @ToMany} are assigned unloaded holders which 
+ * query the related entities on first access.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+final class Hydrator<T> {
+
+	
+	/**
+	 * <p>The {@link EntityMetadata} of the model being hydrated.
+	 */
+	private final EntityMetadata<T> metadata;
+	
+	/**
+	 * <p>The {@link Cursor} whose rows are read.
+	 */
+	private final Cursor cursor;
+	
+	/**
+	 * <p>The properties which are bound to a column of the cursor.
+	 */
+	private final Property[] properties;
+	
+	/**
+	 * <p>The index of the cursor column bound to the property at the same position.
+	 */
+	private final int[] indices;
+	
+	/**
+	 * <p>The relationships annotated with {@code @ToMany} which are assigned 
+	 * unloaded {@link Lazy} holders.
+	 */
+	private final Relationship[] children;
+	
+	/**
+	 * <p>The primary key of the model if it is bound to a column of the cursor, 
+	 * which is required for resolving the {@link #children}.
+	 */
+	private final Property id;
+	
+	
+	/**
+	 * <p>Creates a new {@link Hydrator} by binding the columns of the given {@link Cursor} 
+	 * to the properties of the model. Columns which the model does not declare are ignored.
+	 *
+	 * @param metadata
+	 * 			the {@link EntityMetadata} of the model to be hydrated
+	 * 
+	 * @param cursor
+	 * 			the {@link Cursor} whose rows are to be read
+	 * 
+	 * @since 1.1.0
+	 */
+	Hydrator(EntityMetadata<T> metadata, Cursor cursor) {
+		
+		this.metadata = metadata;
+		this.cursor = cursor;
+		
+		String[] names = cursor.getColumnNames();
+		List<Property> bound = new ArrayList<Property>(names.length);
+		int[] indices = new int[names.length];
+		
+		for (int i = 0; i < names.length; i++) {
+			
+			Property property = metadata.getProperty(names[i]);
+			
+			if(property != null) {
+				
+				indices[bound.size()] = i;
+				bound.add(property);
+			}
+		}
+		
+		this.properties = bound.toArray(new Property[bound.size()]);
+		this.indices = indices;
+		
+		Property id = metadata.hasId()? metadata.getId() :null;
+		this.id = (id != null && bound.contains(id))? id :null;
+		
+		List<Relationship> children = new ArrayList<Relationship>();
+		
+		if(this.id != null) {
+			
+			for (Relationship relationship : metadata.getRelationships()) {
+				
+				if(relationship.getCardinality() == Cardinality.TO_MANY) children.add(relationship);
+			}
+		}
+		
+		this.children = children.toArray(new Relationship[children.size()]);
+	}
+	
+	/**
+	 * <p>Determines if the cursor provides a column for each property of the model.
+	 *
+	 * @return {@code true} if hydrated models are only partially populated
+	 * 
+	 * @since 1.1.0
+	 */
+	boolean isPartial() {
+		
+		return properties.length < metadata.getProperties().size();
+	}
+	
+	/**
+	 * <p>Retrieves the names of the columns which are hydrated.
+	 *
+	 * @return a new array with the names of the hydrated columns
+	 * 
+	 * @since 1.1.0
+	 */
+	String[] getColumns() {
+		
+		String[] columns = new String[properties.length];
+		
+		for (int i = 0; i < columns.length; i++) {
+			
+			columns[i] = properties[i].getColumn();
+		}
+		
+		return columns;
+	}
+	
+	/**
+	 * <p>Creates a new model and hydrates it using the current row of the cursor.
+	 *
+	 * @return the hydrated model
+	 * 
+	 * @since 1.1.0
+	 */
+	T hydrate() {
+		
+		T model = metadata.newInstance();
+		hydrate(model);
+		
+		return model;
+	}
+	
+	/**
+	 * <p>Hydrates an existing model using the current row of the cursor.
+	 *
+	 * @param model
+	 * 			the model to be hydrated
+	 * 
+	 * @since 1.1.0
+	 */
+	void hydrate(T model) {
+		
+		for (int i = 0; i < properties.length; i++) {
+			
+			properties[i].read(cursor, indices[i], model);
+		}
+		
+		for (Relationship relationship : children) {
+			
+			relationship.set(model, children(relationship, id.toArg(model)));
+		}
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Lazy<?> children(Relationship relationship, String key) {
+		
+		return Lazy.children((Class<Entity>)relationship.getTarget(), relationship.getMappedBy(), key);
+	}
+}
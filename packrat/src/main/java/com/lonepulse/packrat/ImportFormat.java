@@ -0,0 +1,50 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * <p>This enum identifies the formats of the textual records which can be loaded into the 
+ * relation of an entity using {@link Batch#load(java.io.Reader, ImportFormat)}. Each field 
+ * of a record is named after the column it populates.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public enum ImportFormat {
+
+	/**
+	 * <p>Comma-separated values as described by <b>RFC 4180</b>, where the first row names 
+	 * the columns. A field which is empty and unquoted is read as {@code NULL}, whereas 
+	 * {@code ""} is read as an empty string.
+	 * 
+	 * @since 1.1.0
+	 */
+	CSV,
+	
+	/**
+	 * <p>One flat <b>JSON</b> object per line, whose members are strings, numbers, booleans 
+	 * or {@code null}. Columns which an object omits are read as {@code NULL}.
+	 * 
+	 * @since 1.1.0
+	 */
+	JSON_LINES;
+}
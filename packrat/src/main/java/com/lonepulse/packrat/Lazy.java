@@ -0,0 +1,314 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Iterator;
+
+import com.lonepulse.packrat.annotation.ToMany;
+import com.lonepulse.packrat.annotation.ToOne;
+import com.lonepulse.packrat.converter.BinaryCodec;
+import com.lonepulse.packrat.converter.Compression;
+import com.lonepulse.packrat.metadata.EntityMetadata;
+import com.lonepulse.packrat.metadata.Property;
+
+/**
+ * <p>A holder for a related entity, or a collection of related entities, which is only 
+ * read from the persistence unit when {@link #get()} is first invoked. Attributes which 
+ * are annotated with {@link ToOne} or {@link ToMany} are declared using this holder, so 
+ * that reading an entity never reads the graph of objects it refers to.</p>
+ * 
+ * <p>Use {@link #of(Object)} to refer to an entity which is already in memory, or 
+ * {@link #reference(Class, Object)} to refer to an entity using only its primary key.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class Lazy<T> {
+
+	
+	/**
+	 * <p>Reads the value of a {@link Lazy} holder on its first access.
+	 */
+	static interface Loader<T> {
+		
+		T load();
+	}
+	
+	
+	/**
+	 * <p>The encoding of compressed text.
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	
+	
+	/**
+	 * <p>The primary key of the related entity if this holder refers to a single 
+	 * entity which has not been read.
+	 */
+	private final Object key;
+	
+	/**
+	 * <p>Determines if the value has been read.
+	 */
+	private volatile boolean loaded;
+	
+	/**
+	 * <p>The value, which is only valid once {@link #loaded} is {@code true}.
+	 */
+	private T value;
+	
+	/**
+	 * <p>The {@link Loader} which reads the value; released once the value is read.
+	 */
+	private Loader<T> loader;
+	
+	
+	/**
+	 * <p>Creates a {@link Lazy} holder for a value which is already in memory.
+	 *
+	 * @param value
+	 * 			the related entity or collection of entities
+	 * 
+	 * @return a {@link Lazy} holder which is already loaded
+	 * 
+	 * @since 1.1.0
+	 */
+	public static <T> Lazy<T> of(T value) {
+		
+		Lazy<T> lazy = new Lazy<T>(null, null);
+		lazy.resolve(value);
+		
+		return lazy;
+	}
+	
+	/**
+	 * <p>Creates a {@link Lazy} holder which refers to an entity using its primary key. 
+	 * The entity is read on the first invocation of {@link #get()}.
+	 *
+	 * @param type
+	 * 			the {@link Class} of the related entity
+	 * 
+	 * @param id
+	 * 			the primary key of the related entity, or {@code null} if there is none
+	 * 
+	 * @return a {@link Lazy} holder which has not been loaded
+	 * 
+	 * @since 1.1.0
+	 */
+	public static <E extends Entity<E>> Lazy<E> reference(final Class<E> type, final Object id) {
+		
+		return new Lazy<E>(id, new Loader<E>() {
+			
+			@Override
+			public E load() {
+				
+				if(id == null) return null;
+				
+				Property key = EntityMetadata.of(type).getId();
+				
+				Iterator<E> entities = Entity.batch(type).find(QueryBuilder.newInstance()
+					.where(key.getColumn() + " = ?", key.argOf(id)).limit(1).build()).iterator();
+				
+				return entities.hasNext()? entities.next() :null;
+			}
+		});
+	}
+	
+	/**
+	 * <p>Creates a {@link Lazy} holder for a value which was encoded using the 
+	 * {@link BinaryCodec}. The value is decoded on the first invocation of {@link #get()}; 
+	 * until then {@link #getKey()} yields the encoding itself.
+	 *
+	 * @param encoding
+	 * 			the encoding of the value
+	 * 
+	 * @return a {@link Lazy} holder which has not been loaded
+	 * 
+	 * @since 1.1.0
+	 */
+	public static <T> Lazy<T> encoded(final byte[] encoding) {
+		
+		return new Lazy<T>(encoding, new Loader<T>() {
+			
+			@Override
+			@SuppressWarnings("unchecked")
+			public T load() {
+				
+				return (T)BinaryCodec.decode(encoding);
+			}
+		});
+	}
+	
+	/**
+	 * <p>Creates a {@link Lazy} holder for a value which was stored using {@link Compression}. 
+	 * The value is decompressed on the first invocation of {@link #get()}; until then 
+	 * {@link #getKey()} yields the stored value itself.
+	 *
+	 * @param stored
+	 * 			the compressed value
+	 * 
+	 * @param type
+	 * 			{@code String.class} or {@code byte[].class} for a textual or binary value, 
+	 * 			or any other type for a value which was encoded using the {@link BinaryCodec}
+	 * 
+	 * @return a {@link Lazy} holder which has not been loaded
+	 * 
+	 * @since 1.1.0
+	 */
+	public static <T> Lazy<T> compressed(final byte[] stored, final Class<?> type) {
+		
+		return new Lazy<T>(stored, new Loader<T>() {
+			
+			@Override
+			@SuppressWarnings("unchecked")
+			public T load() {
+				
+				byte[] value = Compression.decompress(stored);
+				
+				if(byte[].class.equals(type)) return (T)value;
+				if(String.class.equals(type)) return (T)new String(value, UTF_8);
+				
+				return (T)BinaryCodec.decode(value);
+			}
+		});
+	}
+	
+	/**
+	 * <p>Creates a {@link Lazy} holder which refers to all entities whose given column 
+	 * holds the given key. The entities are read on the first invocation of {@link #get()}.
+	 *
+	 * @param type
+	 * 			the {@link Class} of the related entities
+	 * 
+	 * @param column
+	 * 			the column of the related entities which refers back to the parent
+	 * 
+	 * @param key
+	 * 			the primary key of the parent
+	 * 
+	 * @return a {@link Lazy} holder which has not been loaded
+	 * 
+	 * @since 1.1.0
+	 */
+	static <E extends Entity<E>> Lazy<Collection<E>> children(
+		final Class<E> type, final String column, final String key) {
+		
+		return new Lazy<Collection<E>>(null, new Loader<Collection<E>>() {
+			
+			@Override
+			public Collection<E> load() {
+				
+				return Entity.batch(type).find(QueryBuilder.newInstance().where(column + " = ?", key).build());
+			}
+		});
+	}
+	
+	/**
+	 * <p>Creates a new {@link Lazy} holder.
+	 *
+	 * @param key
+	 * 			the primary key of a single related entity, or {@code null}
+	 * 
+	 * @param loader
+	 * 			the {@link Loader} which reads the value on first access
+	 * 
+	 * @since 1.1.0
+	 */
+	Lazy(Object key, Loader<T> loader) {
+		
+		this.key = key;
+		this.loader = loader;
+	}
+	
+	/**
+	 * <p>Retrieves the value, reading it from the persistence unit if this is the 
+	 * first access.
+	 *
+	 * @return the related entity or collection of entities
+	 * 
+	 * @since 1.1.0
+	 */
+	public T get() {
+		
+		if(!loaded) {
+			
+			synchronized (this) {
+				
+				if(!loaded) {
+					
+					resolve(loader.load());
+				}
+			}
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * <p>Determines if the value has already been read.
+	 *
+	 * @return {@code true} if {@link #get()} will not access the persistence unit
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isLoaded() {
+		
+		return loaded;
+	}
+	
+	/**
+	 * <p>Retrieves the primary key of the single entity which this holder refers to, 
+	 * without reading the entity. For a holder of an {@link #encoded(byte[])} or a 
+	 * {@link #compressed(byte[], Class)} value which has not been loaded, this is the 
+	 * value as it is stored.
+	 *
+	 * @return the primary key of the related entity, or {@code null} if there is none
+	 * 
+	 * @since 1.1.0
+	 */
+	public Object getKey() {
+		
+		if(key != null || !loaded || !(value instanceof Entity<?>)) {
+			
+			return key;
+		}
+		
+		return EntityMetadata.of(value.getClass()).getId().get(value);
+	}
+	
+	/**
+	 * <p>Assigns the value which was read and releases the {@link Loader}.
+	 *
+	 * @param value
+	 * 			the value of this holder
+	 * 
+	 * @since 1.1.0
+	 */
+	synchronized void resolve(T value) {
+		
+		this.value = value;
+		this.loader = null;
+		this.loaded = true;
+	}
+}
@@ -0,0 +1,333 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <p>A query whose result is kept up to date. Once subscribed, the query is executed and 
+ * executed again each time the {@link ChangeBus} reports a change to one of the tables it 
+ * reads from; changes to other tables never cause it to run.</p>
+ * 
+ * <p>Results are <i>conflated</i> rather than queued. The query is not executed again until 
+ * the {@link ResultObserver} has returned from the previous result, and all changes which 
+ * arrive meanwhile cause a single execution once it has. A slow observer therefore receives 
+ * the latest result instead of a backlog of stale ones.</p>
+ * 
+ * @param <R>
+ * 			the type of the result
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class LiveQuery<R> {
+
+	
+	/**
+	 * <p>Executes the query of a {@link LiveQuery}.
+	 */
+	static interface Loader<R> {
+		
+		R load();
+	}
+	
+	
+	/**
+	 * <p>The threads on which live queries are executed.
+	 */
+	private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+		
+		@Override
+		public Thread newThread(Runnable runnable) {
+			
+			Thread thread = new Thread(runnable, "packrat-live-query");
+			thread.setDaemon(true);
+			
+			return thread;
+		}
+	});
+	
+	
+	/**
+	 * <p>The {@link ChangeBus} which reports changes to the {@link #tables}.
+	 */
+	private final ChangeBus changeBus;
+	
+	/**
+	 * <p>The tables which the query reads from.
+	 */
+	private final String[] tables;
+	
+	/**
+	 * <p>Executes the query.
+	 */
+	private final Loader<R> loader;
+	
+	/**
+	 * <p>Subscribed to the {@link #changeBus} on behalf of this query.
+	 */
+	private final ChangeObserver changeObserver = new ChangeObserver() {
+		
+		@Override
+		public void onChange(Set<String> tables) {
+			
+			invalidate();
+		}
+	};
+	
+	/**
+	 * <p>The {@link ResultObserver} which receives the results, once subscribed.
+	 */
+	private ResultObserver<R> observer;
+	
+	/**
+	 * <p>The {@link Executor} on which the {@link #observer} is invoked.
+	 */
+	private Executor executor;
+	
+	/**
+	 * <p>Whether the tables changed since the query was last executed.
+	 */
+	private boolean stale;
+	
+	/**
+	 * <p>Whether the query is being executed or its result is being delivered.
+	 */
+	private boolean busy;
+	
+	/**
+	 * <p>Whether the subscription was cancelled.
+	 */
+	private boolean cancelled;
+	
+	
+	/**
+	 * <p>Creates a new {@link LiveQuery}.</p>
+	 *
+	 * @param changeBus
+	 * 			the {@link ChangeBus} of the persistence unit
+	 * 
+	 * @param tables
+	 * 			the tables which the query reads from
+	 * 
+	 * @param loader
+	 * 			the {@link Loader} which executes the query
+	 * 
+	 * @since 1.1.0
+	 */
+	LiveQuery(ChangeBus changeBus, String[] tables, Loader<R> loader) {
+		
+		this.changeBus = changeBus;
+		this.tables = tables;
+		this.loader = loader;
+	}
+	
+	/**
+	 * <p>Subscribes the given observer, which is invoked on the thread which executed the 
+	 * query. See {@link #subscribe(ResultObserver, Executor)}.</p>
+	 *
+	 * @param observer
+	 * 			the {@link ResultObserver} which receives the results
+	 * 
+	 * @since 1.1.0
+	 */
+	public void subscribe(ResultObserver<R> observer) {
+		
+		subscribe(observer, null);
+	}
+	
+	/**
+	 * <p>Subscribes the given observer and executes the query for its initial result. Each 
+	 * result is delivered on the given {@link Executor}, such as one which posts to the main 
+	 * thread.</p>
+	 *
+	 * @param observer
+	 * 			the {@link ResultObserver} which receives the results
+	 * 
+	 * @param executor
+	 * 			the {@link Executor} on which the observer is invoked, or {@code null} to 
+	 * 			invoke it on the thread which executed the query
+	 * 
+	 * @throws IllegalStateException
+	 * 			if this query already has an observer
+	 * 
+	 * @since 1.1.0
+	 */
+	public void subscribe(ResultObserver<R> observer, Executor executor) {
+		
+		synchronized (this) {
+			
+			if(this.observer != null) {
+				
+				throw new IllegalStateException("A live query can only be subscribed to once. ");
+			}
+			
+			this.observer = observer;
+			this.executor = executor;
+		}
+		
+		changeBus.subscribe(changeObserver, tables);
+		invalidate();
+	}
+	
+	/**
+	 * <p>Stops the query from being executed again. A result which is being delivered may 
+	 * still reach the observer.</p>
+	 * 
+	 * @since 1.1.0
+	 */
+	public void cancel() {
+		
+		synchronized (this) {
+			
+			cancelled = true;
+		}
+		
+		changeBus.unsubscribe(changeObserver);
+	}
+	
+	/**
+	 * <p>Marks the result as stale and executes the query unless it is busy, in which case 
+	 * it is executed once the current result has been delivered.</p>
+	 */
+	private void invalidate() {
+		
+		synchronized (this) {
+			
+			stale = true;
+			
+			if(busy || cancelled) {
+				
+				return;
+			}
+			
+			busy = true;
+		}
+		
+		EXECUTOR.execute(new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				execute();
+			}
+		});
+	}
+	
+	/**
+	 * <p>Executes the query and hands its result over for delivery.</p>
+	 */
+	private void execute() {
+		
+		final ResultObserver<R> observer;
+		final Executor executor;
+		
+		synchronized (this) {
+			
+			stale = false;
+			
+			observer = this.observer;
+			executor = this.executor;
+		}
+		
+		R result = null;
+		RuntimeException failure = null;
+		
+		try {
+			
+			result = loader.load();
+		}
+		catch(RuntimeException re) {
+			
+			failure = re;
+		}
+		
+		final R delivery = result;
+		final RuntimeException error = failure;
+		
+		Runnable deliver = new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				try {
+					
+					if(!isCancelled()) {
+						
+						if(error == null) observer.onResult(delivery);
+						else observer.onError(error);
+					}
+				}
+				finally {
+					
+					proceed();
+				}
+			}
+		};
+		
+		if(executor == null) {
+			
+			deliver.run();
+		}
+		else {
+			
+			executor.execute(deliver);
+		}
+	}
+	
+	/**
+	 * <p>Executes the query again if the tables changed while the last result was being 
+	 * produced or delivered.</p>
+	 */
+	private void proceed() {
+		
+		synchronized (this) {
+			
+			if(!stale || cancelled) {
+				
+				busy = false;
+				return;
+			}
+		}
+		
+		EXECUTOR.execute(new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				execute();
+			}
+		});
+	}
+	
+	/**
+	 * <p>Determines if the subscription was cancelled.</p>
+	 */
+	private synchronized boolean isCancelled() {
+		
+		return cancelled;
+	}
+}
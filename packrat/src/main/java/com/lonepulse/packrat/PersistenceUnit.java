@@ -41,4 +41,26 @@ public interface PersistenceUnit {
 	 * @since 1.1.0
 	 */
 	public abstract <Model extends Object> Set<Class<Model>> entities();
+	
+	/**
+	 * <p>Executes the given {@link Transaction} atomically. A transaction which is executed 
+	 * within another becomes a <b>SAVEPOINT</b> of the outer transaction; if it fails only 
+	 * its own work is rolled back and the outer transaction may carry on.</p>
+	 * 
+	 * <p>Since the changes are written to the journal once on commit rather than once per 
+	 * operation, grouping many writes into a single transaction improves their throughput 
+	 * considerably.</p>
+	 *
+	 * @param transaction
+	 * 			the {@link Transaction} to execute
+	 * 
+	 * @return the result of the transaction
+	 * 
+	 * @throws PackratRuntimeException
+	 * 			wrapping the checked exception which caused the transaction to roll back; 
+	 * 			unchecked exceptions are rethrown as they are
+	 * 
+	 * @since 1.1.0
+	 */
+	public abstract <V> V transaction(Transaction<V> transaction);
 }
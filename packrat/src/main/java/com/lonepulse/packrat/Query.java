@@ -20,6 +20,94 @@ package com.lonepulse.packrat;
  * #L%
  */
 
+/**
+ * <p>This contract specifies a selection of rows from the relation of an entity 
+ * along with an optional <b>projection</b> of its columns. Use {@link QueryBuilder} 
+ * to create a {@link Query}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
 public interface Query {
 
+	/**
+	 * <p>Retrieves the names of the columns which should be read. Only these columns 
+	 * are hydrated, leaving all other attributes with their default values.
+	 *
+	 * @return the columns to be read, or {@code null} to read all columns
+	 *
+	 * @since 1.1.0
+	 */
+	String[] getColumns();
+	
+	/**
+	 * <p>Retrieves the <b>WHERE</b> clause (excluding the keyword) which filters 
+	 * the rows. It may contain {@code ?} placeholders for the selection arguments.
+	 *
+	 * @return the selection, or {@code null} to select all rows
+	 *
+	 * @since 1.1.0
+	 */
+	String getSelection();
+	
+	/**
+	 * <p>Retrieves the arguments which are bound to the placeholders in the selection.
+	 *
+	 * @return the selection arguments, or {@code null} if there are none
+	 *
+	 * @since 1.1.0
+	 */
+	String[] getSelectionArgs();
+	
+	/**
+	 * <p>Retrieves the names of the <b>partial indexes</b> which the selection is restricted 
+	 * to. The predicate of each index is added to the selection verbatim, so that the planner 
+	 * recognizes that the query only reads rows which are covered by the index.
+	 *
+	 * @return the names of the partial indexes, or {@code null} if there are none
+	 *
+	 * @since 1.1.0
+	 */
+	String[] getIndexes();
+	
+	/**
+	 * <p>Retrieves the full-text expression which the rows must <b>MATCH</b>. The matching 
+	 * rows are found using the full-text index of the entity and are ordered by their rank 
+	 * after any ordering specified by {@link #getOrderBy()}.
+	 *
+	 * @return the full-text expression, or {@code null} if no match is required
+	 *
+	 * @since 1.1.0
+	 */
+	String getMatch();
+	
+	/**
+	 * <p>Retrieves the <b>ORDER BY</b> clause (excluding the keywords).
+	 *
+	 * @return the ordering of rows, or {@code null} for the natural order
+	 *
+	 * @since 1.1.0
+	 */
+	String getOrderBy();
+	
+	/**
+	 * <p>Retrieves the <b>LIMIT</b> clause (excluding the keyword).
+	 *
+	 * @return the maximum number of rows, or {@code null} for no limit
+	 *
+	 * @since 1.1.0
+	 */
+	String getLimit();
+	
+	/**
+	 * <p>Retrieves the names of the relationships which should be read along with 
+	 * the entities. Each relationship is read for all entities using a single query, 
+	 * instead of one query per entity on first access.
+	 *
+	 * @return the relationships to be fetched, or {@code null} to fetch none
+	 *
+	 * @since 1.1.0
+	 */
+	String[] getFetch();
 }
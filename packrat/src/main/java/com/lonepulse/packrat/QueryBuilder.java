@@ -0,0 +1,298 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * <p>A fluent builder which creates immutable instances of {@link Query}. Use 
+ * {@link QueryBuilder#newInstance()} to obtain a fresh builder. For example, a 
+ * list screen which only needs a few columns of the latest unread messages 
+ * would use:</p>
+ * 
+ * <pre>
+ * Query query = QueryBuilder.newInstance()
+ * 	.select("id", "sender", "subject")
+ * 	.where("unread = ?", "1")
+ * 	.orderBy("received DESC")
+ * 	.limit(20)
+ * 	.fetch("sender")
+ * 	.build();
+ * </pre>
+ * 
+ * <p>The operations on this builder are not synchronized, please employ your own 
+ * mechanisms for thread safety.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class QueryBuilder {
+
+	
+	/**
+	 * <p>An immutable snapshot of the state of a {@link QueryBuilder}.
+	 */
+	private static final class Selection implements Query {
+		
+		private final String[] columns;
+		private final String selection;
+		private final String[] selectionArgs;
+		private final String[] indexes;
+		private final String match;
+		private final String orderBy;
+		private final String limit;
+		private final String[] fetch;
+		
+		private Selection(QueryBuilder builder) {
+			
+			this.columns = builder.columns == null? null :builder.columns.clone();
+			this.selection = builder.selection;
+			this.selectionArgs = builder.selectionArgs == null? null :builder.selectionArgs.clone();
+			this.indexes = builder.indexes == null? null :builder.indexes.clone();
+			this.match = builder.match;
+			this.orderBy = builder.orderBy;
+			this.limit = builder.limit;
+			this.fetch = builder.fetch == null? null :builder.fetch.clone();
+		}
+
+		@Override public String[] getColumns() {
+			return columns == null? null :columns.clone();
+		}
+
+		@Override public String getSelection() {
+			return selection;
+		}
+
+		@Override public String[] getSelectionArgs() {
+			return selectionArgs == null? null :selectionArgs.clone();
+		}
+
+		@Override public String[] getIndexes() {
+			return indexes == null? null :indexes.clone();
+		}
+
+		@Override public String getMatch() {
+			return match;
+		}
+
+		@Override public String getOrderBy() {
+			return orderBy;
+		}
+
+		@Override public String getLimit() {
+			return limit;
+		}
+
+		@Override public String[] getFetch() {
+			return fetch == null? null :fetch.clone();
+		}
+	}
+	
+	
+	private String[] columns;
+	private String selection;
+	private String[] selectionArgs;
+	private String[] indexes;
+	private String match;
+	private String orderBy;
+	private String limit;
+	private String[] fetch;
+	
+	
+	/**
+	 * <p>Creates a new {@link QueryBuilder} which selects all columns of all rows.
+	 *
+	 * @return a new instance of {@link QueryBuilder}
+	 * 
+	 * @since 1.1.0
+	 */
+	public static QueryBuilder newInstance() {
+		
+		return new QueryBuilder();
+	}
+	
+	/**
+	 * <p>Creates a new {@link QueryBuilder}. Visibility is restricted to enforce use 
+	 * of {@link #newInstance()}.
+	 *
+	 * @since 1.1.0
+	 */
+	private QueryBuilder() {}
+	
+	/**
+	 * <p>Restricts the columns which are read to the given subset. The primary key 
+	 * of an entity is always read, so that a partially hydrated entity can still be 
+	 * identified.
+	 *
+	 * @param columns
+	 * 			the names of the columns to be read
+	 * 
+	 * @return the current instance of {@link QueryBuilder}
+	 * 
+	 * @since 1.1.0
+	 */
+	public QueryBuilder select(String... columns) {
+		
+		this.columns = (columns == null || columns.length == 0)? null :columns;
+		return this;
+	}
+	
+	/**
+	 * <p>Filters the rows using the given <b>WHERE</b> clause (excluding the keyword).
+	 *
+	 * @param selection
+	 * 			the selection which may contain {@code ?} placeholders
+	 * 
+	 * @param selectionArgs
+	 * 			the arguments to be bound to the placeholders
+	 * 
+	 * @return the current instance of {@link QueryBuilder}
+	 * 
+	 * @since 1.1.0
+	 */
+	public QueryBuilder where(String selection, String... selectionArgs) {
+		
+		this.selection = selection;
+		this.selectionArgs = (selectionArgs == null || selectionArgs.length == 0)? null :selectionArgs;
+		
+		return this;
+	}
+	
+	/**
+	 * <p>Restricts the rows to those which are covered by the given <b>partial indexes</b>. 
+	 * SQLite only uses a partial index if the selection contains the exact predicate of the 
+	 * index, which is added to the selection on behalf of the query. Note that a predicate 
+	 * with a bound argument, such as {@code "unread = ?"}, does not match the predicate 
+	 * {@code "unread = 1"} of an index.
+	 *
+	 * @param indexes
+	 * 			the names of the partial indexes declared on the entity
+	 * 
+	 * @return the current instance of {@link QueryBuilder}
+	 * 
+	 * @since 1.1.0
+	 */
+	public QueryBuilder within(String... indexes) {
+		
+		this.indexes = (indexes == null || indexes.length == 0)? null :indexes;
+		return this;
+	}
+	
+	/**
+	 * <p>Restricts the rows to those which match the given full-text expression, for 
+	 * example {@code "sqlite AND perf*"}. The entity must declare attributes annotated 
+	 * with {@code @FullText}. Matches are ordered by their rank.
+	 *
+	 * @param expression
+	 * 			the full-text query expression, which is bound as an argument
+	 * 
+	 * @return the current instance of {@link QueryBuilder}
+	 * 
+	 * @since 1.1.0
+	 */
+	public QueryBuilder match(String expression) {
+		
+		this.match = expression;
+		return this;
+	}
+	
+	/**
+	 * <p>Orders the rows using the given <b>ORDER BY</b> clause (excluding the keywords).
+	 *
+	 * @param orderBy
+	 * 			the ordering of the rows, for example {@code "received DESC"}
+	 * 
+	 * @return the current instance of {@link QueryBuilder}
+	 * 
+	 * @since 1.1.0
+	 */
+	public QueryBuilder orderBy(String orderBy) {
+		
+		this.orderBy = orderBy;
+		return this;
+	}
+	
+	/**
+	 * <p>Restricts the number of rows which are read.
+	 *
+	 * @param limit
+	 * 			the maximum number of rows
+	 * 
+	 * @return the current instance of {@link QueryBuilder}
+	 * 
+	 * @since 1.1.0
+	 */
+	public QueryBuilder limit(int limit) {
+		
+		this.limit = String.valueOf(limit);
+		return this;
+	}
+	
+	/**
+	 * <p>Restricts the number of rows which are read after skipping the given number 
+	 * of rows.
+	 *
+	 * @param offset
+	 * 			the number of rows to be skipped
+	 * 
+	 * @param limit
+	 * 			the maximum number of rows
+	 * 
+	 * @return the current instance of {@link QueryBuilder}
+	 * 
+	 * @since 1.1.0
+	 */
+	public QueryBuilder limit(int offset, int limit) {
+		
+		this.limit = new StringBuilder().append(offset).append(",").append(limit).toString();
+		return this;
+	}
+	
+	/**
+	 * <p>Specifies the <b>fetch plan</b> of the query, i.e. the relationships which are 
+	 * read for all entities which are found, using one additional query per relationship. 
+	 * Relationships which are not fetched are read lazily on first access.
+	 *
+	 * @param relationships
+	 * 			the names of the {@code @ToOne} or {@code @ToMany} attributes to be fetched
+	 * 
+	 * @return the current instance of {@link QueryBuilder}
+	 * 
+	 * @since 1.1.0
+	 */
+	public QueryBuilder fetch(String... relationships) {
+		
+		this.fetch = (relationships == null || relationships.length == 0)? null :relationships;
+		return this;
+	}
+	
+	/**
+	 * <p>Creates an immutable {@link Query} from the current state of this builder. 
+	 * The builder can be reused afterwards.
+	 *
+	 * @return a new {@link Query}
+	 * 
+	 * @since 1.1.0
+	 */
+	public Query build() {
+		
+		return new Selection(this);
+	}
+}
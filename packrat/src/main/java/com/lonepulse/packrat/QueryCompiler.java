@@ -0,0 +1,527 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import android.database.sqlite.SQLiteQueryBuilder;
+
+import com.lonepulse.packrat.metadata.EntityMetadata;
+import com.lonepulse.packrat.metadata.Property;
+import com.lonepulse.packrat.metadata.Relationship;
+import com.lonepulse.packrat.metadata.Relationship.Cardinality;
+import com.lonepulse.packrat.sql.Aggregate;
+import com.lonepulse.packrat.sql.FullTextIndex;
+import com.lonepulse.packrat.sql.TableIndex;
+import com.lonepulse.packrat.sql.TypeAffinity;
+
+/**
+ * <p>Compiles a {@link Query} into a <b>SELECT</b> statement for the relation of 
+ * an entity. Projections are validated against the metadata of the entity so that 
+ * only the requested columns are read into the cursor window. Full-text matches are 
+ * resolved through the entity's {@link FullTextIndex} and ranked, and queries which are 
+ * restricted to partial indexes carry the predicates of each {@link TableIndex}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+final class QueryCompiler {
+
+	
+	/**
+	 * <p>The alias of the full-text matches which are joined with the entity's table.
+	 */
+	private static final String MATCH = "_match";
+	
+	/**
+	 * <p>The column of the full-text matches which holds the rowid of a matched row.
+	 */
+	private static final String MATCH_ROWID = "_match_rowid";
+	
+	/**
+	 * <p>The column of the full-text matches which holds the rank of a matched row.
+	 */
+	private static final String MATCH_RANK = "_match_rank";
+	
+
+	/**
+	 * <p>Instantiation is nonsensical.
+	 *
+	 * @since 1.1.0
+	 */
+	private QueryCompiler() {}
+	
+	/**
+	 * <p>Resolves the columns to be read when hydrating the entity itself. If the 
+	 * {@link Query} specifies a projection, the columns of the primary key and the 
+	 * version are added to it unless already present; else {@code null} is returned 
+	 * to read all columns.
+	 *
+	 * @param entity
+	 * 			the {@link EntityMetadata} of the entity being queried
+	 * 
+	 * @param query
+	 * 			the {@link Query} which may specify a projection, or {@code null}
+	 * 
+	 * @return the columns to be read, or {@code null} for all columns
+	 * 
+	 * @throws QueryException
+	 * 			if the projection refers to a column which the entity does not declare
+	 * 
+	 * @since 1.1.0
+	 */
+	static String[] columns(EntityMetadata<?> entity, Query query) {
+		
+		String[] columns = query == null? null :query.getColumns();
+		
+		if(columns == null) {
+			
+			return null;
+		}
+		
+		validate(entity, columns);
+		
+		List<String> withKey = new ArrayList<String>(columns.length + 1);
+		
+		for (Property key : entity.getKey()) {
+			
+			if(!Arrays.asList(columns).contains(key.getColumn())) withKey.add(key.getColumn());
+		}
+		
+		Property version = entity.getVersion();
+		
+		if(version != null && !Arrays.asList(columns).contains(version.getColumn())) {
+			
+			withKey.add(version.getColumn());
+		}
+		
+		if(withKey.isEmpty()) {
+			
+			return columns;
+		}
+		
+		withKey.addAll(Arrays.asList(columns));
+		
+		return withKey.toArray(new String[withKey.size()]);
+	}
+	
+	/**
+	 * <p>Resolves the columns to be read when hydrating a <b>projection</b> of the 
+	 * entity. If the {@link Query} does not specify the columns, all attributes of 
+	 * the projection are read.
+	 *
+	 * @param entity
+	 * 			the {@link EntityMetadata} of the entity being queried
+	 * 
+	 * @param projection
+	 * 			the {@link EntityMetadata} of the projection type
+	 * 
+	 * @param query
+	 * 			the {@link Query} which may specify a projection, or {@code null}
+	 * 
+	 * @return the columns to be read
+	 * 
+	 * @throws QueryException
+	 * 			if a column to be read is not declared by the entity
+	 * 
+	 * @since 1.1.0
+	 */
+	static String[] columns(EntityMetadata<?> entity, EntityMetadata<?> projection, Query query) {
+		
+		String[] columns = query == null? null :query.getColumns();
+		
+		if(columns == null) {
+			
+			List<String> shared = new ArrayList<String>();
+			
+			for (Property property : projection.getProperties()) {
+				
+				shared.add(property.getColumn());
+			}
+			
+			columns = shared.toArray(new String[shared.size()]);
+		}
+		
+		validate(entity, columns);
+		
+		if(columns.length == 0) {
+			
+			throw new QueryException(new StringBuilder("The projection ")
+			.append(projection.getType().getName()).append(" does not declare any columns of ")
+			.append(entity.getTable()).append(". ").toString());
+		}
+		
+		return columns;
+	}
+	
+	/**
+	 * <p>Compiles a <b>SELECT</b> statement which reads the given columns of the rows 
+	 * identified by the {@link Query}.
+	 *
+	 * @param entity
+	 * 			the {@link EntityMetadata} of the entity being queried
+	 * 
+	 * @param columns
+	 * 			the columns to be read, or {@code null} for all columns
+	 * 
+	 * @param query
+	 * 			the {@link Query} which identifies the rows, or {@code null} for all rows
+	 * 
+	 * @return the compiled SQL statement
+	 * 
+	 * @since 1.1.0
+	 */
+	static String select(EntityMetadata<?> entity, String[] columns, Query query) {
+		
+		if(query == null) {
+			
+			return SQLiteQueryBuilder.buildQueryString(
+				false, entity.getTable(), columns, null, null, null, null, null);
+		}
+		
+		return SQLiteQueryBuilder.buildQueryString(false, from(entity, query), columns, 
+			selection(entity, query), null, null, orderBy(query), query.getLimit());
+	}
+	
+	/**
+	 * <p>Compiles a <b>SELECT</b> statement which computes an {@link Aggregate} over 
+	 * the rows identified by the {@link Query}. Rows are only wrapped in a subquery if 
+	 * the query specifies a limit; otherwise the aggregate is computed directly over 
+	 * the selection and any ordering is ignored.
+	 *
+	 * @param entity
+	 * 			the {@link EntityMetadata} of the entity being queried
+	 * 
+	 * @param aggregate
+	 * 			the {@link Aggregate} to be computed
+	 * 
+	 * @param column
+	 * 			the column to which the aggregate is applied, or {@code null} for all rows
+	 * 
+	 * @param query
+	 * 			the {@link Query} which identifies the rows, or {@code null} for all rows
+	 * 
+	 * @return the compiled SQL statement which yields a single value
+	 * 
+	 * @throws QueryException
+	 * 			if the entity does not declare the given column, or if the column is not 
+	 * 			numeric and the aggregate is not a {@link Aggregate#COUNT}
+	 * 
+	 * @since 1.1.0
+	 */
+	static String aggregate(EntityMetadata<?> entity, Aggregate aggregate, String column, Query query) {
+		
+		if(column != null) {
+			
+			validate(entity, new String[] {column});
+			
+			TypeAffinity typeAffinity = entity.getProperty(column).getTypeAffinity();
+			
+			if(aggregate != Aggregate.COUNT && typeAffinity != TypeAffinity.INTEGER 
+				&& typeAffinity != TypeAffinity.REAL && typeAffinity != TypeAffinity.NUMERIC) {
+				
+				throw new QueryException(new StringBuilder("The column ").append(column)
+				.append(" of the entity ").append(entity.getType().getName()).append(" is not numeric")
+				.append(" and cannot be aggregated using ").append(aggregate).append(". ").toString());
+			}
+		}
+		
+		String[] function = {aggregate.on(column).getSQLStatement()};
+		
+		if(query == null) {
+			
+			return SQLiteQueryBuilder.buildQueryString(
+				false, entity.getTable(), function, null, null, null, null, null);
+		}
+		
+		if(query.getLimit() == null) {
+			
+			return SQLiteQueryBuilder.buildQueryString(
+				false, from(entity, query), function, selection(entity, query), null, null, null, null);
+		}
+		
+		String rows = SQLiteQueryBuilder.buildQueryString(false, from(entity, query), 
+			new String[] {column == null? "1" :column}, selection(entity, query), 
+			null, null, orderBy(query), query.getLimit());
+		
+		return new StringBuilder("SELECT ").append(function[0])
+		.append(" FROM (").append(rows).append(")").toString();
+	}
+	
+	/**
+	 * <p>Compiles a <b>SELECT EXISTS</b> statement which yields {@code 1} if the 
+	 * {@link Query} identifies at least one row. SQLite stops at the first match.
+	 *
+	 * @param entity
+	 * 			the {@link EntityMetadata} of the entity being queried
+	 * 
+	 * @param query
+	 * 			the {@link Query} which identifies the rows, or {@code null} for all rows
+	 * 
+	 * @return the compiled SQL statement which yields {@code 0} or {@code 1}
+	 * 
+	 * @since 1.1.0
+	 */
+	static String exists(EntityMetadata<?> entity, Query query) {
+		
+		String rows = SQLiteQueryBuilder.buildQueryString(false, from(entity, query), 
+			new String[] {"1"}, selection(entity, query), null, null, null, "1");
+		
+		return new StringBuilder("SELECT EXISTS (").append(rows).append(")").toString();
+	}
+	
+	/**
+	 * <p>Resolves the relationship with the given name which is to be fetched.
+	 *
+	 * @param entity
+	 * 			the {@link EntityMetadata} of the entity being queried
+	 * 
+	 * @param name
+	 * 			the name of the relationship
+	 * 
+	 * @return the {@link Relationship} with the given name
+	 * 
+	 * @throws QueryException
+	 * 			if the entity does not declare the relationship
+	 * 
+	 * @since 1.1.0
+	 */
+	static Relationship relationship(EntityMetadata<?> entity, String name) {
+		
+		for (Relationship relationship : entity.getRelationships()) {
+			
+			if(relationship.getName().equals(name)) return relationship;
+		}
+		
+		throw new QueryException(new StringBuilder("The entity ").append(entity.getType().getName())
+		.append(" does not declare the relationship ").append(name).append(". ").toString());
+	}
+	
+	/**
+	 * <p>Compiles a <b>SELECT</b> statement which reads the related entities of <i>all</i> 
+	 * rows identified by the {@link Query}. The parent rows are identified using a subquery 
+	 * with the same selection, so the statement takes the same arguments as the query and 
+	 * is not limited by the maximum number of bound parameters.
+	 *
+	 * @param entity
+	 * 			the {@link EntityMetadata} of the entity being queried
+	 * 
+	 * @param relationship
+	 * 			the {@link Relationship} to be fetched
+	 * 
+	 * @param query
+	 * 			the {@link Query} which identifies the parent rows, or {@code null} for all rows
+	 * 
+	 * @return the compiled SQL statement which selects the related rows
+	 * 
+	 * @since 1.1.0
+	 */
+	static String fetch(EntityMetadata<?> entity, Relationship relationship, Query query) {
+		
+		EntityMetadata<?> target = EntityMetadata.of(relationship.getTarget());
+		
+		String parentColumn, targetColumn;
+		
+		if(relationship.getCardinality() == Cardinality.TO_ONE) {
+			
+			parentColumn = relationship.getName();
+			targetColumn = target.getId().getColumn();
+		}
+		else {
+			
+			parentColumn = entity.getId().getColumn();
+			targetColumn = relationship.getMappedBy();
+			
+			if(target.getProperty(targetColumn) == null) {
+				
+				throw new QueryException(new StringBuilder("The relationship ").append(relationship)
+				.append(" is mapped by ").append(targetColumn).append(" which ")
+				.append(target.getType().getName()).append(" does not declare. ").toString());
+			}
+		}
+		
+		String parents = query == null? 
+			SQLiteQueryBuilder.buildQueryString(false, entity.getTable(), 
+				new String[] {parentColumn}, null, null, null, null, null) :
+			SQLiteQueryBuilder.buildQueryString(false, from(entity, query), new String[] {parentColumn}, 
+				selection(entity, query), null, null, orderBy(query), query.getLimit());
+		
+		return SQLiteQueryBuilder.buildQueryString(false, target.getTable(), null, 
+			new StringBuilder(targetColumn).append(" IN (").append(parents).append(")").toString(), 
+			null, null, null, null);
+	}
+	
+	/**
+	 * <p>Retrieves the arguments to be bound to the statement compiled for the {@link Query}.
+	 *
+	 * @param query
+	 * 			the {@link Query} whose arguments are to be retrieved, or {@code null}
+	 * 
+	 * @return the selection arguments, or {@code null} if there are none
+	 * 
+	 * @since 1.1.0
+	 */
+	static String[] args(Query query) {
+		
+		if(query == null) {
+			
+			return null;
+		}
+		
+		String[] selectionArgs = query.getSelectionArgs();
+		
+		if(query.getMatch() == null) {
+			
+			return selectionArgs;
+		}
+		
+		if(selectionArgs == null) {
+			
+			return new String[] {query.getMatch()};
+		}
+		
+		String[] args = new String[selectionArgs.length + 1];
+		args[0] = query.getMatch();
+		System.arraycopy(selectionArgs, 0, args, 1, selectionArgs.length);
+		
+		return args;
+	}
+	
+	/**
+	 * <p>Resolves the <b>FROM</b> clause of the {@link Query}. A query which matches a full-text 
+	 * expression joins the entity's table with the matching rows of its {@link FullTextIndex}, 
+	 * which only exposes the columns {@value #MATCH_ROWID} and {@value #MATCH_RANK} so that the 
+	 * columns of the entity remain unambiguous. The match expression is the first argument.
+	 */
+	private static String from(EntityMetadata<?> entity, Query query) {
+		
+		if(query == null || query.getMatch() == null) {
+			
+			return entity.getTable();
+		}
+		
+		FullTextIndex fullTextIndex = FullTextIndex.of(entity);
+		
+		if(fullTextIndex == null) {
+			
+			throw new QueryException(new StringBuilder("The entity ").append(entity.getType().getName())
+			.append(" cannot be matched since none of its attributes are annotated with @FullText. ")
+			.toString());
+		}
+		
+		String index = fullTextIndex.getTable();
+		
+		return new StringBuilder(entity.getTable()).append(" JOIN (SELECT rowid AS ").append(MATCH_ROWID)
+		.append(", ").append(fullTextIndex.getRank()).append(" AS ").append(MATCH_RANK)
+		.append(" FROM ").append(index).append(" WHERE ").append(index).append(" MATCH ?) AS ")
+		.append(MATCH).append(" ON ").append(entity.getTable()).append(".rowid = ")
+		.append(MATCH).append(".").append(MATCH_ROWID).toString();
+	}
+	
+	/**
+	 * <p>Resolves the <b>WHERE</b> clause of the {@link Query}. The predicate of each partial 
+	 * index which the query is restricted to is added as an <b>AND</b> term, exactly as it 
+	 * was declared, since the planner only uses a partial index whose predicate appears in 
+	 * the selection.
+	 */
+	private static String selection(EntityMetadata<?> entity, Query query) {
+		
+		if(query == null) {
+			
+			return null;
+		}
+		
+		String[] names = query.getIndexes();
+		
+		if(names == null) {
+			
+			return query.getSelection();
+		}
+		
+		List<TableIndex> indexes = TableIndex.of(entity);
+		StringBuilder selection = new StringBuilder();
+		
+		if(query.getSelection() != null) {
+			
+			selection.append("(").append(query.getSelection()).append(")");
+		}
+		
+		for (String name : names) {
+			
+			TableIndex index = null;
+			
+			for (TableIndex tableIndex : indexes) {
+				
+				if(tableIndex.getName().equals(name)) {
+					
+					index = tableIndex;
+					break;
+				}
+			}
+			
+			if(index == null || index.getWhere() == null) {
+				
+				throw new QueryException(new StringBuilder("The entity ").append(entity.getType().getName())
+				.append(" does not declare the partial index ").append(name).append(". ").toString());
+			}
+			
+			if(selection.length() > 0) {
+				
+				selection.append(" AND ");
+			}
+			
+			selection.append("(").append(index.getWhere()).append(")");
+		}
+		
+		return selection.toString();
+	}
+	
+	/**
+	 * <p>Resolves the <b>ORDER BY</b> clause of the {@link Query}. Full-text matches are 
+	 * ordered by their rank, after any ordering specified by the query.
+	 */
+	private static String orderBy(Query query) {
+		
+		if(query.getMatch() == null) {
+			
+			return query.getOrderBy();
+		}
+		
+		String rank = MATCH + "." + MATCH_RANK;
+		
+		return query.getOrderBy() == null? rank :query.getOrderBy() + ", " + rank;
+	}
+	
+	private static void validate(EntityMetadata<?> entity, String[] columns) {
+		
+		for (String column : columns) {
+			
+			if(entity.getProperty(column) == null) {
+				
+				throw new QueryException(new StringBuilder("The entity ").append(entity.getType().getName())
+				.append(" does not declare the column ").append(column).append(". ").toString());
+			}
+		}
+	}
+}
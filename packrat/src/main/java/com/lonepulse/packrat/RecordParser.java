@@ -0,0 +1,575 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Reads the records of an input in one of the {@link ImportFormat}s one at a time. Only 
+ * a fixed buffer and the record at hand are held in memory, so that the input may be of 
+ * any length. A single field may not exceed {@link #MAX_FIELD} characters.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+abstract class RecordParser {
+
+	/**
+	 * <p>The maximum number of characters in a single field.
+	 */
+	static final int MAX_FIELD = 1 << 20;
+	
+	
+	/**
+	 * <p>The input which is being parsed.
+	 */
+	private final Reader input;
+	
+	/**
+	 * <p>The characters which were read from the input but not yet parsed.
+	 */
+	private final char[] buffer = new char[8192];
+	
+	/**
+	 * <p>The position of the next character in the {@link #buffer}.
+	 */
+	private int position;
+	
+	/**
+	 * <p>The number of characters in the {@link #buffer}.
+	 */
+	private int limit;
+	
+	/**
+	 * <p>The line of the input which is being parsed, starting at {@code 1}.
+	 */
+	private int line = 1;
+	
+	/**
+	 * <p>The line of the input on which the record being parsed begins.
+	 */
+	private int recordLine = 1;
+	
+	/**
+	 * <p>The index in a record of each column which can be populated.
+	 */
+	private final Map<String, Integer> columns;
+	
+	/**
+	 * <p>The field which is being parsed.
+	 */
+	protected final StringBuilder field = new StringBuilder();
+	
+	
+	/**
+	 * <p>Creates a new {@link RecordParser} for the given input and format.
+	 *
+	 * @param input
+	 * 			the {@link Reader} of the records, which is not closed by the parser
+	 * 
+	 * @param format
+	 * 			the {@link ImportFormat} of the records
+	 * 
+	 * @param columns
+	 * 			the columns which can be populated, in the order of the fields of a record
+	 * 
+	 * @return a new {@link RecordParser}
+	 * 
+	 * @since 1.1.0
+	 */
+	static RecordParser newInstance(Reader input, ImportFormat format, String[] columns) {
+		
+		return format == ImportFormat.CSV? new CsvParser(input, columns) :new JsonLinesParser(input, columns);
+	}
+	
+	private RecordParser(Reader input, String[] columns) {
+		
+		this.input = input;
+		this.columns = new HashMap<String, Integer>();
+		
+		for (int i = 0; i < columns.length; i++) {
+			
+			this.columns.put(columns[i], Integer.valueOf(i));
+		}
+	}
+	
+	/**
+	 * <p>Reads the next record into the given array, in which each column that the record 
+	 * does not populate is set to {@code null}.</p>
+	 *
+	 * @param record
+	 * 			the array of fields, with one element for each column
+	 * 
+	 * @return {@code true} if a record was read, or {@code false} at the end of the input
+	 * 
+	 * @throws IOException
+	 * 			if the input could not be read
+	 * 
+	 * @throws PackratRuntimeException
+	 * 			if the input is malformed or names an unknown column
+	 * 
+	 * @since 1.1.0
+	 */
+	abstract boolean next(String[] record) throws IOException;
+	
+	/**
+	 * <p>Retrieves the line of the input on which the last record begins, for reporting errors.
+	 *
+	 * @return the line of the last record, starting at {@code 1}
+	 * 
+	 * @since 1.1.0
+	 */
+	int getLine() {
+		
+		return recordLine;
+	}
+	
+	/**
+	 * <p>Marks the beginning of a record on the current line.
+	 */
+	protected void begin() {
+		
+		recordLine = line;
+	}
+	
+	/**
+	 * <p>Consumes the next character of the input.
+	 */
+	protected int read() throws IOException {
+		
+		if(position == limit && !fill()) {
+			
+			return -1;
+		}
+		
+		char c = buffer[position++];
+		
+		if(c == '\n') line++;
+		
+		return c;
+	}
+	
+	/**
+	 * <p>Retrieves the next character of the input without consuming it.
+	 */
+	protected int peek() throws IOException {
+		
+		return (position == limit && !fill())? -1 :buffer[position];
+	}
+	
+	private boolean fill() throws IOException {
+		
+		int count;
+		
+		do {
+			
+			count = input.read(buffer, 0, buffer.length);
+		}
+		while(count == 0);
+		
+		position = 0;
+		limit = Math.max(count, 0);
+		
+		return count > 0;
+	}
+	
+	/**
+	 * <p>Appends a character to the {@link #field} which is being parsed.
+	 */
+	protected void append(int c) {
+		
+		if(field.length() == MAX_FIELD) {
+			
+			throw error(new StringBuilder("A field exceeds ").append(MAX_FIELD).append(" characters").toString());
+		}
+		
+		field.append((char)c);
+	}
+	
+	/**
+	 * <p>Retrieves the index of the given column in a record.
+	 */
+	protected int indexOf(String column) {
+		
+		Integer index = columns.get(column);
+		
+		if(index == null) {
+			
+			throw error(new StringBuilder("The column ").append(column).append(" is unknown").toString());
+		}
+		
+		return index.intValue();
+	}
+	
+	/**
+	 * <p>Creates an exception which reports a malformed input at the current line.
+	 */
+	protected PackratRuntimeException error(String message) {
+		
+		return new PackratRuntimeException(new StringBuilder(message).append(" on line ")
+			.append(recordLine).append(" of the input. ").toString());
+	}
+	
+	
+	/**
+	 * <p>Parses comma-separated values as described by <b>RFC 4180</b>.
+	 */
+	private static final class CsvParser extends RecordParser {
+		
+		/**
+		 * <p>The index in a record of each field of a row, once the header has been read.
+		 */
+		private int[] indices;
+		
+		/**
+		 * <p>The fields of the row which is being parsed.
+		 */
+		private final List<String> fields = new ArrayList<String>();
+		
+		
+		private CsvParser(Reader input, String[] columns) {
+			
+			super(input, columns);
+		}
+		
+		@Override
+		boolean next(String[] record) throws IOException {
+			
+			if(indices == null) {
+				
+				if(!row()) {
+					
+					throw error("The header is missing");
+				}
+				
+				indices = new int[fields.size()];
+				
+				for (int i = 0; i < indices.length; i++) {
+					
+					indices[i] = indexOf(fields.get(i));
+				}
+			}
+			
+			if(!row()) {
+				
+				return false;
+			}
+			
+			if(fields.size() != indices.length) {
+				
+				throw error(new StringBuilder("A row has ").append(fields.size())
+				.append(" fields instead of ").append(indices.length).toString());
+			}
+			
+			Arrays.fill(record, null);
+			
+			for (int i = 0; i < indices.length; i++) {
+				
+				record[indices[i]] = fields.get(i);
+			}
+			
+			return true;
+		}
+		
+		/**
+		 * <p>Parses the fields of the next row which is not blank.
+		 */
+		private boolean row() throws IOException {
+			
+			fields.clear();
+			
+			int c;
+			
+			do {
+				
+				c = read();
+			}
+			while(c == '\r' || c == '\n');
+			
+			if(c == -1) {
+				
+				return false;
+			}
+			
+			begin();
+			
+			while(true) {
+				
+				boolean quoted = c == '"';
+				field.setLength(0);
+				
+				if(quoted) {
+					
+					while(true) {
+						
+						c = read();
+						
+						if(c == -1) {
+							
+							throw error("A quoted field is not terminated");
+						}
+						
+						if(c == '"') {
+							
+							if(peek() != '"') {
+								
+								c = read();
+								break;
+							}
+							
+							read();
+						}
+						
+						append(c);
+					}
+				}
+				else {
+					
+					while(c != ',' && c != '\r' && c != '\n' && c != -1) {
+						
+						append(c);
+						c = read();
+					}
+				}
+				
+				fields.add(quoted || field.length() > 0? field.toString() :null);
+				
+				if(c == ',') {
+					
+					c = read();
+					continue;
+				}
+				
+				if(c == '\r' || c == '\n' || c == -1) {
+					
+					return true;
+				}
+				
+				throw error("A quoted field is followed by more characters");
+			}
+		}
+	}
+	
+	/**
+	 * <p>Parses one flat <b>JSON</b> object per line.
+	 */
+	private static final class JsonLinesParser extends RecordParser {
+		
+		private JsonLinesParser(Reader input, String[] columns) {
+			
+			super(input, columns);
+		}
+		
+		@Override
+		boolean next(String[] record) throws IOException {
+			
+			int c = skipWhitespace();
+			
+			if(c == -1) {
+				
+				return false;
+			}
+			
+			begin();
+			
+			if(c != '{') {
+				
+				throw error("A line does not begin with an object");
+			}
+			
+			Arrays.fill(record, null);
+			c = skipWhitespace();
+			
+			while(c != '}') {
+				
+				if(c != '"') {
+					
+					throw error("A member is not named by a string");
+				}
+				
+				int index = indexOf(string());
+				
+				if(skipWhitespace() != ':') {
+					
+					throw error("A member name is not followed by ':'");
+				}
+				
+				record[index] = value(skipWhitespace());
+				c = skipWhitespace();
+				
+				if(c == ',') {
+					
+					c = skipWhitespace();
+					
+					if(c != '"') {
+						
+						throw error("A ',' is not followed by another member");
+					}
+				}
+				else if(c != '}') {
+					
+					throw error("A member is not followed by ',' or '}'");
+				}
+			}
+			
+			do {
+				
+				c = read();
+			}
+			while(c == ' ' || c == '\t' || c == '\r');
+			
+			if(c != '\n' && c != -1) {
+				
+				throw error("A line holds more than one object");
+			}
+			
+			return true;
+		}
+		
+		/**
+		 * <p>Consumes whitespace and returns the character which follows it.
+		 */
+		private int skipWhitespace() throws IOException {
+			
+			int c;
+			
+			do {
+				
+				c = read();
+			}
+			while(c == ' ' || c == '\t' || c == '\r' || c == '\n');
+			
+			return c;
+		}
+		
+		/**
+		 * <p>Parses a string whose opening quote has been consumed.
+		 */
+		private String string() throws IOException {
+			
+			field.setLength(0);
+			
+			while(true) {
+				
+				int c = read();
+				
+				if(c == -1 || c == '\n') {
+					
+					throw error("A string is not terminated");
+				}
+				
+				if(c == '"') {
+					
+					return field.toString();
+				}
+				
+				if(c == '\\') {
+					
+					c = read();
+					
+					switch(c) {
+					
+						case '"': case '\\': case '/': break;
+						case 'b': c = '\b'; break;
+						case 'f': c = '\f'; break;
+						case 'n': c = '\n'; break;
+						case 'r': c = '\r'; break;
+						case 't': c = '\t'; break;
+						case 'u': c = unicode(); break;
+						
+						default: throw error("A string contains an invalid escape sequence");
+					}
+				}
+				
+				append(c);
+			}
+		}
+		
+		/**
+		 * <p>Parses the four hexadecimal digits of a unicode escape sequence.
+		 */
+		private int unicode() throws IOException {
+			
+			int code = 0;
+			
+			for (int i = 0; i < 4; i++) {
+				
+				int digit = Character.digit(read(), 16);
+				
+				if(digit < 0) {
+					
+					throw error("A string contains an invalid unicode escape sequence");
+				}
+				
+				code = (code << 4) | digit;
+			}
+			
+			return code;
+		}
+		
+		/**
+		 * <p>Parses the value of a member which begins with the given character. Numbers and 
+		 * booleans are returned in their textual form.
+		 */
+		private String value(int c) throws IOException {
+			
+			if(c == '"') {
+				
+				return string();
+			}
+			
+			if(c == '{' || c == '[') {
+				
+				throw error("A member holds a nested value, which cannot be imported");
+			}
+			
+			field.setLength(0);
+			append(c);
+			
+			for (int next = peek(); next != ',' && next != '}' && next != -1 
+				&& !Character.isWhitespace(next); next = peek()) {
+				
+				append(read());
+			}
+			
+			String literal = field.toString();
+			
+			if("null".equals(literal)) {
+				
+				return null;
+			}
+			
+			if(!("true".equals(literal) || "false".equals(literal) || c == '-' || (c >= '0' && c <= '9'))) {
+				
+				throw error(new StringBuilder("A member holds the unknown value ").append(literal).toString());
+			}
+			
+			return literal;
+		}
+	}
+}
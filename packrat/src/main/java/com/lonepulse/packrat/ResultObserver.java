@@ -0,0 +1,57 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * <p>Receives the successive results of a {@link LiveQuery}.</p>
+ * 
+ * @param <R>
+ * 			the type of the result
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public interface ResultObserver<R> {
+
+	/**
+	 * <p>Invoked with the latest result of the query. The query is not executed again until 
+	 * this method returns, and any changes which occur meanwhile are folded into the next 
+	 * result.</p>
+	 *
+	 * @param result
+	 * 			the latest result of the query
+	 * 
+	 * @since 1.1.0
+	 */
+	void onResult(R result);
+	
+	/**
+	 * <p>Invoked if the query failed. The query remains live and is executed again on the 
+	 * next change to its tables.</p>
+	 *
+	 * @param failure
+	 * 			the cause of the failure
+	 * 
+	 * @since 1.1.0
+	 */
+	void onError(RuntimeException failure);
+}
@@ -0,0 +1,624 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.lonepulse.packrat.metadata.EntityMetadata;
+import com.lonepulse.packrat.metadata.Property;
+import com.lonepulse.packrat.sql.Aggregate;
+import com.lonepulse.packrat.sql.TypeAffinity;
+
+/**
+ * <p>A concrete implementation of {@link Batch} which operates on the relation of 
+ * an entity within an {@link SQLitePersistenceUnit}. All write operations on a 
+ * collection of entities are performed within a single {@link Transaction}, which 
+ * becomes a savepoint if the caller has already opened one.</p>
+ * 
+ * <p>Entities which were hydrated using a projection remember the columns which 
+ * were read, so that updating them does not overwrite the columns which were not.</p>
+ * 
+ * <p>Reads are served by the {@link ConnectionPool} of the persistence unit, so that they 
+ * need not wait for a write which is in progress on another thread.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+final class SQLiteBatch<T extends Entity<T>> implements Batch<T> {
+
+	
+	/**
+	 * <p>The {@link SQLitePersistenceUnit} which the entity belongs to.
+	 */
+	private final SQLitePersistenceUnit persistenceUnit;
+	
+	/**
+	 * <p>The {@link EntityMetadata} of the entity.
+	 */
+	private final EntityMetadata<T> metadata;
+	
+	
+	/**
+	 * <p>Creates a new {@link SQLiteBatch} for the given entity.
+	 *
+	 * @param persistenceUnit
+	 * 			the {@link SQLitePersistenceUnit} which declares the entity
+	 * 
+	 * @param metadata
+	 * 			the {@link EntityMetadata} of the entity
+	 * 
+	 * @since 1.1.0
+	 */
+	SQLiteBatch(SQLitePersistenceUnit persistenceUnit, EntityMetadata<T> metadata) {
+		
+		this.persistenceUnit = persistenceUnit;
+		this.metadata = metadata;
+	}
+	
+	/**
+	 * <p>Inserts each entity. A single integral primary key which is {@code null} or zero 
+	 * is left for SQLite to assign and is populated from the <i>rowid</i> afterwards. 
+	 * A version which is {@code null} starts out at zero.
+	 */
+	@Override
+	public void create(final Collection<T> entities) {
+		
+		final Property id = metadata.getKey().size() == 1? metadata.getId() :null;
+		final Property version = metadata.getVersion();
+		
+		persistenceUnit.transaction(new Transaction<Void>() {
+			
+			@Override
+			public Void execute() {
+				
+				SQLiteDatabase database = persistenceUnit.connectionPool().writer();
+				persistenceUnit.changes().touch(metadata.getTable());
+				
+				for (T entity : entities) {
+					
+					if(version != null && version.get(entity) == null) version.setLong(entity, 0L);
+					
+					ContentValues values = dehydrate(entity, null);
+					boolean assigned = id == null || isAssigned(id, entity);
+					
+					if(!assigned) values.remove(id.getColumn());
+					
+					long rowId = database.insertOrThrow(metadata.getTable(), null, values);
+					
+					if(!assigned) id.setRowId(entity, rowId);
+					
+					entity.projection = null;
+				}
+				
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * <p>Refreshes each entity with the current state of its row.
+	 */
+	@Override
+	public void read(Collection<T> entities) {
+		
+		ConnectionPool connectionPool = persistenceUnit.connectionPool();
+		SQLiteDatabase database = connectionPool.acquire();
+		String selection = keySelection();
+		
+		try {
+			
+			for (T entity : entities) {
+				
+				Cursor cursor = database.query(metadata.getTable(), null, 
+					selection, keyArgs(entity), null, null, null);
+				
+				try {
+					
+					if(cursor.moveToFirst()) {
+						
+						new Hydrator<T>(metadata, cursor).hydrate(entity);
+						entity.projection = null;
+					}
+				}
+				finally {
+					
+					cursor.close();
+				}
+			}
+		}
+		finally {
+			
+			connectionPool.release(database);
+		}
+	}
+
+	/**
+	 * <p>Updates the row of each entity. Only the columns which were hydrated are 
+	 * written for entities which were read using a projection.</p>
+	 * 
+	 * <p>The row of a versioned entity is only updated if it still has the version 
+	 * which the entity holds, in which case the version is incremented. The versions 
+	 * of the entities are advanced once all of their rows have been updated.</p>
+	 * 
+	 * @throws VersionConflictException
+	 * 			if the row of a versioned entity was changed or deleted since it was read
+	 */
+	@Override
+	public void update(final Collection<T> entities) {
+		
+		final Property version = metadata.getVersion();
+		final String selection = version == null? 
+			keySelection() :keySelection() + " AND " + version.getColumn() + " = ?";
+		
+		persistenceUnit.transaction(new Transaction<Void>() {
+			
+			@Override
+			public Void execute() {
+				
+				SQLiteDatabase database = persistenceUnit.connectionPool().writer();
+				persistenceUnit.changes().touch(metadata.getTable());
+				
+				if(version == null) {
+					
+					for (T entity : entities) {
+						
+						database.update(metadata.getTable(), dehydrate(entity, entity.projection), 
+							selection, keyArgs(entity));
+					}
+					
+					return null;
+				}
+				
+				long[] versions = new long[entities.size()];
+				int i = 0;
+				
+				for (T entity : entities) {
+					
+					Object current = version.get(entity);
+					long expected = current == null? 0L :((Number)current).longValue();
+					
+					String[] keyArgs = keyArgs(entity);
+					String[] args = new String[keyArgs.length + 1];
+					System.arraycopy(keyArgs, 0, args, 0, keyArgs.length);
+					args[keyArgs.length] = String.valueOf(expected);
+					
+					ContentValues values = dehydrate(entity, entity.projection);
+					values.put(version.getColumn(), Long.valueOf(expected + 1L));
+					
+					if(database.update(metadata.getTable(), values, selection, args) == 0) {
+						
+						throw new VersionConflictException(new StringBuilder("The row of ")
+						.append(metadata.getType().getName()).append(" identified by ")
+						.append(Arrays.toString(keyArgs)).append(" is no longer at version ")
+						.append(expected).append(". It was changed or deleted since it was read. ").toString());
+					}
+					
+					versions[i++] = expected + 1L;
+				}
+				
+				i = 0;
+				
+				for (T entity : entities) {
+					
+					version.setLong(entity, versions[i++]);
+				}
+				
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public void delete(final Collection<T> entities) {
+		
+		final String selection = keySelection();
+		
+		persistenceUnit.transaction(new Transaction<Void>() {
+			
+			@Override
+			public Void execute() {
+				
+				SQLiteDatabase database = persistenceUnit.connectionPool().writer();
+				persistenceUnit.changes().touch(metadata.getTable());
+				
+				for (T entity : entities) {
+					
+					database.delete(metadata.getTable(), selection, keyArgs(entity));
+				}
+				
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * <p>Finds the entities identified by the {@link Query}. If the query specifies 
+	 * a projection only those columns and the primary key are hydrated. Each 
+	 * relationship in the fetch plan of the query is read using one more query, 
+	 * within the same read transaction so that it sees the same snapshot.
+	 */
+	@Override
+	public Collection<T> find(Query query) {
+		
+		String[] columns = QueryCompiler.columns(metadata, query);
+		ConnectionPool connectionPool = persistenceUnit.connectionPool();
+		SQLiteDatabase database = connectionPool.acquire();
+		
+		boolean snapshot = false;
+		
+		try {
+			
+			if(query != null && query.getFetch() != null) {
+				
+				snapshot = connectionPool.beginRead(database);
+			}
+			
+			Cursor cursor = database.rawQuery(
+				QueryCompiler.select(metadata, columns, query), QueryCompiler.args(query));
+			
+			List<T> entities;
+			
+			try {
+				
+				Hydrator<T> hydrator = new Hydrator<T>(metadata, cursor);
+				String[] projection = hydrator.isPartial()? hydrator.getColumns() :null;
+				
+				entities = new ArrayList<T>(cursor.getCount());
+				
+				while(cursor.moveToNext()) {
+					
+					T entity = hydrator.hydrate();
+					entity.projection = projection;
+					
+					entities.add(entity);
+				}
+			}
+			finally {
+				
+				cursor.close();
+			}
+			
+			BatchFetcher.fetch(database, metadata, entities, query);
+			
+			return entities;
+		}
+		finally {
+			
+			try {
+				
+				if(snapshot) connectionPool.endRead(database);
+			}
+			finally {
+				
+				connectionPool.release(database);
+			}
+		}
+	}
+	
+	/**
+	 * <p>Finds the entities identified by the {@link Query} and hydrates each row into 
+	 * an instance of the given projection type, reading only the columns it declares.
+	 */
+	@Override
+	public <P> Collection<P> find(Query query, Class<P> projectionType) {
+		
+		EntityMetadata<P> projection = EntityMetadata.of(projectionType);
+		String[] columns = QueryCompiler.columns(metadata, projection, query);
+		
+		ConnectionPool connectionPool = persistenceUnit.connectionPool();
+		SQLiteDatabase database = connectionPool.acquire();
+		
+		try {
+			
+			Cursor cursor = database.rawQuery(
+				QueryCompiler.select(metadata, columns, query), QueryCompiler.args(query));
+			
+			try {
+				
+				Hydrator<P> hydrator = new Hydrator<P>(projection, cursor);
+				List<P> projections = new ArrayList<P>(cursor.getCount());
+				
+				while(cursor.moveToNext()) {
+					
+					projections.add(hydrator.hydrate());
+				}
+				
+				return projections;
+			}
+			finally {
+				
+				cursor.close();
+			}
+		}
+		finally {
+			
+			connectionPool.release(database);
+		}
+	}
+
+	@Override
+	public Collection<T> all() {
+		
+		return find(null);
+	}
+
+	@Override
+	public long count(Query query) {
+		
+		return longForQuery(QueryCompiler.aggregate(metadata, Aggregate.COUNT, null, query), query);
+	}
+	
+	@Override
+	public boolean exists(Query query) {
+		
+		return longForQuery(QueryCompiler.exists(metadata, query), query) != 0L;
+	}
+	
+	/**
+	 * <p>Uses <b>SUM</b> for an <b>INTEGER</b> column, which is exact, and <b>TOTAL</b> 
+	 * for any other numeric column.</p>
+	 */
+	@Override
+	public Number sum(String column, Query query) {
+		
+		if(isIntegral(column)) {
+			
+			Number sum = aggregate(Aggregate.SUM, column, query);
+			
+			return sum == null? Long.valueOf(0L) :sum;
+		}
+		
+		return aggregate(Aggregate.TOTAL, column, query);
+	}
+	
+	@Override
+	public Number min(String column, Query query) {
+		
+		return aggregate(Aggregate.MIN, column, query);
+	}
+	
+	@Override
+	public Number max(String column, Query query) {
+		
+		return aggregate(Aggregate.MAX, column, query);
+	}
+
+	/**
+	 * <p>Observes the table of the entity and the tables of the relationships which are 
+	 * fetched along with it.
+	 */
+	@Override
+	public LiveQuery<Collection<T>> observe(final Query query) {
+		
+		Set<String> tables = new LinkedHashSet<String>();
+		tables.add(metadata.getTable());
+		
+		String[] fetch = query == null? null :query.getFetch();
+		
+		if(fetch != null) {
+			
+			for (String name : fetch) {
+				
+				tables.add(EntityMetadata.of(QueryCompiler.relationship(metadata, name).getTarget()).getTable());
+			}
+		}
+		
+		return new LiveQuery<Collection<T>>(persistenceUnit.changes(), 
+			tables.toArray(new String[tables.size()]), new LiveQuery.Loader<Collection<T>>() {
+			
+			@Override
+			public Collection<T> load() {
+				
+				return find(query);
+			}
+		});
+	}
+
+	/**
+	 * <p>Streams the records into the relation using a {@link BulkImporter}.
+	 */
+	@Override
+	public long load(Reader input, ImportFormat format) {
+		
+		return BulkImporter.load(persistenceUnit, metadata, input, format);
+	}
+
+	@Override
+	public void purge() {
+		
+		persistenceUnit.transaction(new Transaction<Void>() {
+			
+			@Override
+			public Void execute() {
+				
+				persistenceUnit.changes().touch(metadata.getTable());
+				persistenceUnit.connectionPool().writer().delete(metadata.getTable(), null, null);
+				
+				return null;
+			}
+		});
+	}
+	
+	/**
+	 * <p>Computes an {@link Aggregate} which yields a single numeric value. The value 
+	 * is read as a {@link Long} for an <b>INTEGER</b> column, so that it remains exact, 
+	 * and as a {@link Double} for any other column.
+	 *
+	 * @return the value of the aggregate, or {@code null} if it is {@code NULL}
+	 */
+	private Number aggregate(Aggregate aggregate, String column, Query query) {
+		
+		ConnectionPool connectionPool = persistenceUnit.connectionPool();
+		SQLiteDatabase database = connectionPool.acquire();
+		
+		try {
+			
+			Cursor cursor = database.rawQuery(
+				QueryCompiler.aggregate(metadata, aggregate, column, query), QueryCompiler.args(query));
+			
+			try {
+				
+				if(!cursor.moveToFirst() || cursor.isNull(0)) {
+					
+					return null;
+				}
+				
+				if(isIntegral(column)) {
+					
+					return Long.valueOf(cursor.getLong(0));
+				}
+				
+				return Double.valueOf(cursor.getDouble(0));
+			}
+			finally {
+				
+				cursor.close();
+			}
+		}
+		finally {
+			
+			connectionPool.release(database);
+		}
+	}
+	
+	/**
+	 * <p>Determines whether the given column has <b>INTEGER</b> affinity.
+	 */
+	private boolean isIntegral(String column) {
+		
+		Property property = metadata.getProperty(column);
+		
+		return property != null && property.getTypeAffinity() == TypeAffinity.INTEGER;
+	}
+	
+	/**
+	 * <p>Executes a query which yields a single integral value on a pooled connection.
+	 *
+	 * @return the value in the first column of the first row
+	 */
+	private long longForQuery(String sql, Query query) {
+		
+		ConnectionPool connectionPool = persistenceUnit.connectionPool();
+		SQLiteDatabase database = connectionPool.acquire();
+		
+		try {
+			
+			return DatabaseUtils.longForQuery(database, sql, QueryCompiler.args(query));
+		}
+		finally {
+			
+			connectionPool.release(database);
+		}
+	}
+	
+	/**
+	 * <p>Dehydrates the given entity into {@link ContentValues}.
+	 *
+	 * @param entity
+	 * 			the entity to be dehydrated
+	 * 
+	 * @param columns
+	 * 			the columns to be written, or {@code null} for all columns
+	 * 
+	 * @return the {@link ContentValues} containing the state of the entity
+	 */
+	private ContentValues dehydrate(T entity, String[] columns) {
+		
+		if(columns == null) {
+			
+			List<Property> properties = metadata.getProperties();
+			ContentValues values = new ContentValues(properties.size());
+			
+			for (Property property : properties) {
+				
+				property.write(entity, values);
+			}
+			
+			return values;
+		}
+		
+		ContentValues values = new ContentValues(columns.length);
+		
+		for (String column : columns) {
+			
+			metadata.getProperty(column).write(entity, values);
+		}
+		
+		return values;
+	}
+	
+	/**
+	 * <p>Creates the selection which identifies a single row by its primary key.
+	 */
+	private String keySelection() {
+		
+		StringBuilder selection = new StringBuilder();
+		
+		for (Property key : metadata.getKey()) {
+			
+			if(selection.length() > 0) selection.append(" AND ");
+			selection.append(key.getColumn()).append(" = ?");
+		}
+		
+		return selection.toString();
+	}
+	
+	/**
+	 * <p>Retrieves the arguments of the selection created by {@link #keySelection()}.
+	 */
+	private String[] keyArgs(T entity) {
+		
+		List<Property> key = metadata.getKey();
+		String[] args = new String[key.size()];
+		
+		for (int i = 0; i < args.length; i++) {
+			
+			args[i] = key.get(i).toArg(entity);
+		}
+		
+		return args;
+	}
+	
+	/**
+	 * <p>Determines if the primary key of the given entity has been assigned a value. 
+	 * Integral keys which are {@code null} or zero are considered unassigned.
+	 */
+	private static boolean isAssigned(Property id, Object entity) {
+		
+		Object value = id.get(entity);
+		
+		if(value == null) return false;
+		
+		return !id.isIntegral() || ((Number)value).longValue() != 0L;
+	}
+}
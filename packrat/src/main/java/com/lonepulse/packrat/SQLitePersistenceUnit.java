@@ -20,14 +20,20 @@ package com.lonepulse.packrat;
  * #L%
  */
 
-import java.util.Set;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteDatabase.CursorFactory;
 import android.database.sqlite.SQLiteOpenHelper;
 
-import com.lonepulse.packrat.config.PropertyReader;
+import com.lonepulse.packrat.config.Configuration;
 import com.lonepulse.packrat.config.PropertyReader.PROPERTY;
 
 /**
@@ -44,33 +50,441 @@ implements PersistenceUnit {
 	//TODO support database downgrades?
 	
 	/**
-	 * <p>See {@link SQLiteOpenHelper#SQLiteOpenHelper(Context, String, CursorFactory, int)}.
+	 * <p>All instances of {@link SQLitePersistenceUnit} which have not been closed.
+	 */
+	private static final CopyOnWriteArrayList<SQLitePersistenceUnit> UNITS 
+		= new CopyOnWriteArrayList<SQLitePersistenceUnit>();
+	
+	/**
+	 * <p>The open {@link SQLitePersistenceUnit} which declares each entity that was looked up.
+	 */
+	private static final ConcurrentMap<Class<?>, SQLitePersistenceUnit> ENTITY_UNITS 
+		= new ConcurrentHashMap<Class<?>, SQLitePersistenceUnit>();
+	
+	
+	/**
+	 * <p>The snapshot of <b>packrat.properties</b> which configures this unit.
+	 */
+	private final Configuration configuration;
+	
+	/**
+	 * <p>The {@link ConnectionPool} over the writable database, once it has been opened.
+	 */
+	private volatile ConnectionPool connectionPool;
+	
+	/**
+	 * <p>The {@link ChangeBus} of this unit, once it has been requested.
+	 */
+	private volatile ChangeBus changeBus;
+	
+	/**
+	 * <p>The number of {@link Transaction}s which the current thread has open on this unit.
+	 */
+	private final ThreadLocal<int[]> depth = new ThreadLocal<int[]>() {
+		
+		@Override
+		protected int[] initialValue() {
+			
+			return new int[1];
+		}
+	};
+	
+	
+	/**
+	 * <p>See {@link SQLiteOpenHelper#SQLiteOpenHelper(Context, String, CursorFactory, int)}. 
+	 * Only the application {@link Context} is retained, so that a unit which outlives an 
+	 * <i>Activity</i> does not leak it.</p>
 	 */
 	public SQLitePersistenceUnit(Context context) {
 		
-		super(context, PropertyReader.read(context, PROPERTY.NAME), 
-			  null, Integer.parseInt(PropertyReader.read(context, PROPERTY.VERSION)));
+		super(applicationOf(context), Configuration.of(context).getName(), null, Configuration.of(context).getVersion());
+		
+		this.configuration = Configuration.of(context);
+		UNITS.add(this);
+	}
+	
+	/**
+	 * <p>Retrieves the application {@link Context} of the given context, or the context 
+	 * itself if it is not attached to an application.</p>
+	 *
+	 * @param context
+	 * 			the {@link Context} which was given to the persistence unit
+	 * 
+	 * @return the {@link Context} to be retained by the persistence unit
+	 * 
+	 * @since 1.1.0
+	 */
+	private static Context applicationOf(Context context) {
+		
+		Context applicationContext = context.getApplicationContext();
+		
+		return applicationContext == null? context :applicationContext;
+	}
+	
+	/**
+	 * <p>Retrieves the open {@link SQLitePersistenceUnit} whose {@link #entities()} include 
+	 * the given entity.
+	 *
+	 * @param entity
+	 * 			the {@link Class} of the entity
+	 * 
+	 * @return the {@link SQLitePersistenceUnit} which declares the entity
+	 * 
+	 * @throws PackratRuntimeException
+	 * 			if no persistence unit declares the entity
+	 * 
+	 * @since 1.1.0
+	 */
+	static SQLitePersistenceUnit lookup(Class<?> entity) {
+		
+		SQLitePersistenceUnit persistenceUnit = ENTITY_UNITS.get(entity);
+		
+		if(persistenceUnit != null) {
+			
+			return persistenceUnit;
+		}
+		
+		for (SQLitePersistenceUnit unit : UNITS) {
+			
+			if(unit.entities().contains(entity)) {
+				
+				ENTITY_UNITS.putIfAbsent(entity, unit);
+				return unit;
+			}
+		}
+		
+		throw new PackratRuntimeException(new StringBuilder("No open persistence unit declares the entity ")
+		.append(entity.getName()).append(". Add it to the set of entities() of its persistence unit. ")
+		.toString());
+	}
+	
+	/**
+	 * <p>Retrieves the {@link ConnectionPool} of this unit, opening the writable database if 
+	 * necessary. Readers are pooled only if the writer is in <b>WAL</b> mode; otherwise they 
+	 * would block on the writer regardless.</p>
+	 *
+	 * @return the {@link ConnectionPool} of this unit
+	 * 
+	 * @since 1.1.0
+	 */
+	ConnectionPool connectionPool() {
+		
+		ConnectionPool pool = connectionPool;
+		
+		if(pool == null) {
+			
+			synchronized (this) {
+				
+				pool = connectionPool;
+				
+				if(pool == null) {
+					
+					UNITS.addIfAbsent(this);
+					
+					SQLiteDatabase writer = getWritableDatabase();
+					String journalMode = DatabaseUtils.stringForQuery(writer, "PRAGMA journal_mode;", null);
+					
+					connectionPool = pool = new ConnectionPool(this, writer, 
+						"wal".equalsIgnoreCase(journalMode)? configuration.getPoolSize() :0);
+				}
+			}
+		}
+		
+		return pool;
+	}
+	
+	/**
+	 * <p>Executes the outermost {@link Transaction} of a thread as an exclusive transaction on 
+	 * the writable database, and each nested one as a <b>SAVEPOINT</b>. Since the thread holds 
+	 * the writer for the duration, the reads it performs meanwhile observe its own writes. The 
+	 * tables which were changed are published on the {@link #changes()} bus once the outermost 
+	 * transaction commits. If the outermost transaction was opened directly on the database 
+	 * rather than through this unit, its commit cannot be observed, so the tables are held 
+	 * until the next transaction which this unit opens on the thread is committed.</p>
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <V> V transaction(Transaction<V> transaction) {
+		
+		SQLiteDatabase database = connectionPool().writer();
+		int[] depth = this.depth.get();
+		
+		if(!(database.inTransaction() && database.isDbLockedByCurrentThread())) {
+			
+			database.beginTransaction();
+			depth[0]++;
+			
+			boolean committed = false;
+			
+			try {
+				
+				V result;
+				
+				try {
+					
+					result = execute(transaction);
+					database.setTransactionSuccessful();
+				}
+				finally {
+					
+					depth[0]--;
+					database.endTransaction();
+				}
+				
+				committed = true;
+				return result;
+			}
+			finally {
+				
+				changes().complete(committed);
+			}
+		}
+		
+		String savepoint = "packrat_" + (++depth[0]);
+		
+		try {
+			
+			database.execSQL("SAVEPOINT " + savepoint + ";");
+			
+			boolean committed = false;
+			
+			try {
+				
+				V result = execute(transaction);
+				committed = true;
+				
+				return result;
+			}
+			finally {
+				
+				//the framework mistakes a leading ROLLBACK for the end of its own transaction
+				if(!committed) database.execSQL(";ROLLBACK TO " + savepoint + ";");
+				database.execSQL("RELEASE " + savepoint + ";");
+			}
+		}
+		finally {
+			
+			//the outermost transaction was not opened through this unit and its outcome is unknown, 
+			//so the tables it changed are held until one which this unit opens is committed
+			depth[0]--;
+		}
+	}
+	
+	/**
+	 * <p>Executes the work of a {@link Transaction}, wrapping any checked exception.</p>
+	 *
+	 * @param transaction
+	 * 			the {@link Transaction} to execute
+	 * 
+	 * @return the result of the transaction
+	 * 
+	 * @since 1.1.0
+	 */
+	private static <V> V execute(Transaction<V> transaction) {
+		
+		try {
+			
+			return transaction.execute();
+		}
+		catch(RuntimeException re) {
+			
+			throw re;
+		}
+		catch(Exception e) {
+			
+			throw new PackratRuntimeException("The transaction was rolled back. ", e);
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the {@link ChangeBus} which notifies observers of the committed changes to 
+	 * the tables of this unit.</p>
+	 *
+	 * @return the {@link ChangeBus} of this unit
+	 * 
+	 * @since 1.1.0
+	 */
+	public ChangeBus changes() {
+		
+		ChangeBus bus = changeBus;
+		
+		if(bus == null) {
+			
+			synchronized (this) {
+				
+				bus = changeBus;
+				
+				if(bus == null) {
+					
+					changeBus = bus = new ChangeBus(entities());
+				}
+			}
+		}
+		
+		return bus;
+	}
+	
+	/**
+	 * <p>Closes the pooled readers along with the writable database and withdraws this unit 
+	 * from the lookup of entities, so that neither it nor its {@link Context} is retained by 
+	 * the process. The unit is restored to the lookup if it is used again.</p>
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void close() {
+		
+		UNITS.remove(this);
+		ENTITY_UNITS.values().removeAll(Collections.singleton(this));
+		
+		if(connectionPool != null) {
+			
+			connectionPool.close();
+			connectionPool = null;
+		}
+		
+		super.close();
 	}
 	
 	/**
+	 * <p>Creates the schema of each entity.</p>
+	 * 
 	 * {@inheritDoc}
 	 */
 	@Override
 	public void onCreate(SQLiteDatabase sqLiteDatabase) {
 
-		Set<Class<Object>> entitySet = entities();
+		SchemaRegistry.synchronize(sqLiteDatabase, entities());
+	}
+	
+	/**
+	 * <p>Applies the schema of each entity which has changed since the database was last 
+	 * opened, as identified by its fingerprint. No DDL is executed if nothing has changed. 
+	 * Foreign keys are enforced only once the schema is in place, so that rebuilding a 
+	 * parent table does not trigger the actions of its children. The page size and the 
+	 * tuning properties of the {@link Configuration} are applied before anything else.</p>
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void onOpen(SQLiteDatabase sqLiteDatabase) {
+		
+		super.onOpen(sqLiteDatabase);
+		
+		resize(sqLiteDatabase);
+		tune(sqLiteDatabase);
+		
+		if(!sqLiteDatabase.isReadOnly()) {
+			
+			SchemaRegistry.synchronize(sqLiteDatabase, entities());
+		}
+		
+		sqLiteDatabase.execSQL("PRAGMA foreign_keys = ON;");
+	}
+	
+	/**
+	 * <p>Applies the configured {@link PROPERTY#PAGE_SIZE} by rebuilding the database with a 
+	 * <b>VACUUM</b>. The framework has already created its own metadata table by the time any 
+	 * callback is invoked, so the page size cannot simply be set before the first table is 
+	 * created. Since SQLite cannot change the page size of a database in write-ahead logging 
+	 * mode, this is done before {@link #tune(SQLiteDatabase)} enables it, and has no effect 
+	 * on an existing database which is already in that mode.</p>
+	 *
+	 * @param sqLiteDatabase
+	 * 			the {@link SQLiteDatabase} which was opened
+	 * 
+	 * @since 1.1.0
+	 */
+	void resize(SQLiteDatabase sqLiteDatabase) {
+		
+		String pageSize = configuration.get(PROPERTY.PAGE_SIZE);
+		
+		if(pageSize == null || sqLiteDatabase.isReadOnly() 
+			|| Long.parseLong(pageSize) == sqLiteDatabase.getPageSize()) {
+			
+			return;
+		}
+		
+		Cursor cursor = sqLiteDatabase.rawQuery("PRAGMA journal_mode;", null);
+		
+		try {
+			
+			if(cursor.moveToFirst() && "WAL".equalsIgnoreCase(cursor.getString(0))) {
+				
+				return;
+			}
+		}
+		finally {
+			
+			cursor.close();
+		}
 		
-		//TODO read metadata and create schema
+		sqLiteDatabase.setPageSize(Long.parseLong(pageSize));
+		sqLiteDatabase.execSQL("VACUUM;");
+	}
+	
+	/**
+	 * <p>Applies each tuning property of the {@link Configuration} as a <b>PRAGMA</b> on 
+	 * the given database. Write-ahead logging is enabled through the framework, which would 
+	 * otherwise restore its default journal mode whenever it opens the database, the journal 
+	 * of a read-only database is left as it is and {@link PROPERTY#PAGE_SIZE} is left to 
+	 * {@link #resize(SQLiteDatabase)}. 
+	 * Pragmas are issued as queries since some of them report their new value.</p>
+	 *
+	 * @param sqLiteDatabase
+	 * 			the {@link SQLiteDatabase} which was opened
+	 * 
+	 * @since 1.1.0
+	 */
+	void tune(SQLiteDatabase sqLiteDatabase) {
+		
+		for (Map.Entry<PROPERTY, String> pragma : configuration.getPragmas().entrySet()) {
+			
+			PROPERTY property = pragma.getKey();
+			String value = pragma.getValue();
+			
+			if(property == PROPERTY.PAGE_SIZE) {
+				
+				continue;
+			}
+			
+			if(property == PROPERTY.JOURNAL_MODE) {
+				
+				if(sqLiteDatabase.isReadOnly()) {
+					
+					continue;
+				}
+				
+				if("WAL".equalsIgnoreCase(value)) {
+					
+					sqLiteDatabase.enableWriteAheadLogging();
+					continue;
+				}
+			}
+			
+			Cursor cursor = sqLiteDatabase.rawQuery(new StringBuilder("PRAGMA ")
+				.append(property.getKey()).append(" = ").append(value).append(";").toString(), null);
+			
+			try {
+				
+				cursor.moveToFirst();
+			}
+			finally {
+				
+				cursor.close();
+			}
+		}
 	}
 
 	/**
+	 * <p>Migrates the schema of each entity which has changed, preserving the existing rows.</p>
+	 * 
 	 * {@inheritDoc}
 	 */
 	@Override
 	public void onUpgrade(SQLiteDatabase sqLiteDatabase, int oldVersion, int newVersion) {
 
-		Set<Class<Object>> entitySet = entities();
-		
-		//TODO read metadata and upgrade schema
+		SchemaRegistry.synchronize(sqLiteDatabase, entities());
 	}
 }
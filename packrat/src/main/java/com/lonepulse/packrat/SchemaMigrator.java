@@ -0,0 +1,456 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.lonepulse.packrat.annotation.ToOne;
+import com.lonepulse.packrat.metadata.EntityMetadata;
+import com.lonepulse.packrat.metadata.Property;
+import com.lonepulse.packrat.sql.DDLScript;
+import com.lonepulse.packrat.sql.FullTextIndex;
+import com.lonepulse.packrat.sql.TableIndex;
+import com.lonepulse.packrat.sql.TypeAffinity;
+
+/**
+ * <p>Migrates the live schema of an entity to the schema described by its metadata, while 
+ * preserving its rows. The live columns are read using <b>PRAGMA table_info</b> and diffed 
+ * against the attributes of the entity:</p>
+ * 
+ * <ul>
+ * 	<li>Columns which were added are appended using <b>ALTER TABLE ... ADD COLUMN</b>.</li>
+ * 	<li>Columns which were removed, retyped, whose primary key changed or which became a 
+ * 	<b>NOT NULL</b> version, as well as changes 
+ * 	to the foreign keys read using <b>PRAGMA foreign_key_list</b>, to <b>AUTOINCREMENT</b> 
+ * 	or to <b>WITHOUT ROWID</b>, are incompatible with 
+ * 	<b>ALTER TABLE</b>, so the table is rebuilt by copying the shared columns into a 
+ * 	new table within SQLite, which then replaces the old one.</li>
+ * </ul>
+ * 
+ * <p>Indexes and full-text indexes are compared against their definitions in <b>sqlite_master</b> 
+ * and are only recreated if they differ. The migrator only reads the live schema; the statements 
+ * of a migration are appended to a {@link DDLScript} which is executed by the caller.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+final class SchemaMigrator {
+
+	
+	/**
+	 * <p>The prefix of the table which replaces the table of an entity when it is rebuilt.
+	 */
+	private static final String REBUILD_PREFIX = "_packrat_";
+	
+	
+	/**
+	 * <p>Instantiation is nonsensical.
+	 *
+	 * @since 1.1.0
+	 */
+	private SchemaMigrator() {}
+	
+	/**
+	 * <p>Plans the migration of the schema of the given entity. If the table of the entity does 
+	 * not exist, the DDL is appended to the script as it is.
+	 *
+	 * @param sqLiteDatabase
+	 * 			the writable {@link SQLiteDatabase} whose schema is migrated
+	 * 
+	 * @param entity
+	 * 			the entity whose schema is migrated
+	 * 
+	 * @param ddl
+	 * 			the statements which create the schema of the entity, the first of which 
+	 * 			creates its table
+	 * 
+	 * @param script
+	 * 			the {@link DDLScript} to which the statements of the migration are appended
+	 * 
+	 * @since 1.1.0
+	 */
+	static void migrate(SQLiteDatabase sqLiteDatabase, Class<?> entity, String[] ddl, DDLScript script) {
+		
+		EntityMetadata<?> metadata = EntityMetadata.of(entity);
+		String table = metadata.getTable();
+		
+		String definition = definition(sqLiteDatabase, table).toUpperCase(Locale.US);
+		
+		if(definition.length() == 0) {
+			
+			for (String statement : ddl) {
+				
+				script.append(statement);
+			}
+			
+			return;
+		}
+		
+		Map<String, String[]> live = columns(sqLiteDatabase, table);
+		List<Property> added = new ArrayList<Property>();
+		boolean rebuild = definition.endsWith("WITHOUT ROWID") != metadata.isWithoutRowId();
+		boolean autoIncrement = false;
+		
+		for (Property property : metadata.getProperties()) {
+			
+			autoIncrement |= property.isAutoIncrement();
+			
+			String[] column = live.remove(property.getColumn());
+			
+			if(column == null) {
+				
+				added.add(property);
+				rebuild |= property.isId();
+			}
+			else {
+				
+				boolean primaryKey = !"0".equals(column[1]);
+				
+				rebuild |= !property.getTypeAffinity().toString().equalsIgnoreCase(column[0]);
+				rebuild |= property.isId() != primaryKey;
+				rebuild |= property.isVersion() && "0".equals(column[2]);
+			}
+		}
+		
+		rebuild |= !live.isEmpty();
+		rebuild |= definition.contains(" AUTOINCREMENT") != autoIncrement;
+		rebuild |= !(definition.contains(" REFERENCES ")? 
+			foreignKeys(sqLiteDatabase, table) :new HashSet<String>()).equals(foreignKeys(metadata));
+		
+		if(rebuild) {
+			
+			rebuild(sqLiteDatabase, metadata, ddl, script);
+			return;
+		}
+		
+		for (Property property : added) {
+			
+			script.append(new StringBuilder("ALTER TABLE ").append(table)
+			.append(" ADD COLUMN ").append(property.getColumn()).append(" ")
+			.append(property.getTypeAffinity()).append(property.isVersion()? " NOT NULL DEFAULT 0" :"")
+			.append(";").toString());
+		}
+		
+		migrateIndexes(sqLiteDatabase, metadata, script);
+		migrateFullText(sqLiteDatabase, metadata, script);
+	}
+	
+	/**
+	 * <p>Rebuilds the table of the entity by creating a new table, copying the columns which 
+	 * are shared with the old table, dropping the old table along with its indexes and triggers, 
+	 * and renaming the new table. Any full-text index of the old table is dropped, whether or 
+	 * not the entity still declares one. The indexes and the full-text index are then recreated.
+	 */
+	private static void rebuild(SQLiteDatabase sqLiteDatabase, EntityMetadata<?> metadata, String[] ddl, DDLScript script) {
+		
+		String table = metadata.getTable();
+		String rebuilt = REBUILD_PREFIX + table;
+		
+		for (String statement : FullTextIndex.drop(table)) {
+			
+			script.append(statement);
+		}
+		
+		String createTable = ddl[0];
+		String prefix = "CREATE TABLE IF NOT EXISTS " + table;
+		
+		if(!createTable.startsWith(prefix)) {
+			
+			throw new PackratRuntimeException(new StringBuilder("Cannot rebuild ").append(table)
+			.append(" using the unexpected statement ").append(createTable).toString());
+		}
+		
+		Map<String, String[]> live = columns(sqLiteDatabase, table);
+		StringBuilder shared = new StringBuilder();
+		StringBuilder selected = new StringBuilder();
+		
+		for (Property property : metadata.getProperties()) {
+			
+			String[] column = live.get(property.getColumn());
+			
+			if(column != null) {
+				
+				if(shared.length() > 0) {
+					
+					shared.append(", ");
+					selected.append(", ");
+				}
+				
+				shared.append(property.getColumn());
+				
+				//versions may have been null before the column was declared as one
+				if(property.isVersion()) selected.append("IFNULL(").append(property.getColumn()).append(", 0)");
+				else if(isTextualBoolean(property, column[0])) selected.append("CASE ").append(property.getColumn())
+					.append(" WHEN 'true' THEN 1 WHEN 'false' THEN 0 ELSE ").append(property.getColumn()).append(" END");
+				else selected.append(property.getColumn());
+			}
+		}
+		
+		script.append("DROP TABLE IF EXISTS " + rebuilt + ";");
+		script.append("CREATE TABLE " + rebuilt + createTable.substring(prefix.length()));
+		
+		if(shared.length() > 0) {
+			
+			script.append(new StringBuilder("INSERT INTO ").append(rebuilt).append(" (")
+			.append(shared).append(") SELECT ").append(selected).append(" FROM ").append(table)
+			.append(";").toString());
+		}
+		
+		script.append("DROP TABLE " + table + ";");
+		script.append("ALTER TABLE " + rebuilt + " RENAME TO " + table + ";");
+		
+		for (int i = 1; i < ddl.length; i++) {
+			
+			script.append(ddl[i]);
+		}
+	}
+	
+	/**
+	 * <p>Determines if the given boolean attribute is held in a column which stores booleans 
+	 * as the text {@code true} or {@code false}, as they were before they were stored as integers.
+	 */
+	private static boolean isTextualBoolean(Property property, String type) {
+		
+		Class<?> attribute = property.getType();
+		
+		return (boolean.class.equals(attribute) || Boolean.class.equals(attribute)) 
+			&& TypeAffinity.TEXT.toString().equalsIgnoreCase(type);
+	}
+	
+	/**
+	 * <p>Recreates the indexes whose definitions have changed, creates those which are missing 
+	 * and drops those which are no longer declared. Indexes which SQLite creates automatically 
+	 * for constraints have no definition and are left alone.
+	 */
+	private static void migrateIndexes(SQLiteDatabase sqLiteDatabase, EntityMetadata<?> metadata, DDLScript script) {
+		
+		Map<String, String> live = new HashMap<String, String>();
+		
+		Cursor cursor = sqLiteDatabase.rawQuery("SELECT name, sql FROM sqlite_master " + 
+			"WHERE type = 'index' AND tbl_name = ? AND sql IS NOT NULL", new String[] {metadata.getTable()});
+		
+		try {
+			
+			while(cursor.moveToNext()) {
+				
+				live.put(cursor.getString(0), cursor.getString(1));
+			}
+		}
+		finally {
+			
+			cursor.close();
+		}
+		
+		Set<String> declared = new HashSet<String>();
+		
+		for (TableIndex index : TableIndex.of(metadata)) {
+			
+			String create = index.create();
+			String definition = live.get(index.getName());
+			
+			declared.add(index.getName());
+			
+			if(definition != null && !definition.equals(normalize(create))) {
+				
+				script.append("DROP INDEX " + index.getName() + ";");
+				definition = null;
+			}
+			
+			if(definition == null) {
+				
+				script.append(create);
+			}
+		}
+		
+		for (String name : live.keySet()) {
+			
+			if(!declared.contains(name)) {
+				
+				script.append("DROP INDEX " + name + ";");
+			}
+		}
+	}
+	
+	/**
+	 * <p>Recreates the full-text index if its definition has changed, and creates it if it 
+	 * is missing. Recreating the index repopulates it from the table of the entity. If the 
+	 * entity no longer declares a full-text index, any index which remains is dropped along 
+	 * with the triggers which maintain it.
+	 */
+	private static void migrateFullText(SQLiteDatabase sqLiteDatabase, EntityMetadata<?> metadata, DDLScript script) {
+		
+		FullTextIndex fullTextIndex = FullTextIndex.of(metadata);
+		
+		if(fullTextIndex == null) {
+			
+			String table = metadata.getTable();
+			
+			if(definition(sqLiteDatabase, FullTextIndex.tableOf(table)).length() > 0) {
+				
+				for (String statement : FullTextIndex.drop(table)) {
+					
+					script.append(statement);
+				}
+			}
+			
+			return;
+		}
+		
+		List<String> create = fullTextIndex.create();
+		String definition = definition(sqLiteDatabase, fullTextIndex.getTable());
+		
+		if(definition.equals(normalize(create.get(0)))) {
+			
+			return;
+		}
+		
+		for (String statement : fullTextIndex.drop()) {
+			
+			script.append(statement);
+		}
+		
+		for (String statement : create) {
+			
+			script.append(statement);
+		}
+	}
+	
+	/**
+	 * <p>Reads the definition of the given table from <b>sqlite_master</b>, which is empty if 
+	 * the table does not exist.
+	 */
+	private static String definition(SQLiteDatabase sqLiteDatabase, String table) {
+		
+		return DatabaseUtils.stringForQuery(sqLiteDatabase, 
+			"SELECT COALESCE(MAX(sql), '') FROM sqlite_master WHERE type = 'table' AND name = ?", 
+			new String[] {table});
+	}
+	
+	/**
+	 * <p>Reads the declared type, the primary key position and the <b>NOT NULL</b> flag of each 
+	 * live column of the given table, keyed by the name of the column.
+	 */
+	private static Map<String, String[]> columns(SQLiteDatabase sqLiteDatabase, String table) {
+		
+		Map<String, String[]> columns = new HashMap<String, String[]>();
+		Cursor cursor = sqLiteDatabase.rawQuery("PRAGMA table_info(" + table + ")", null);
+		
+		try {
+			
+			int name = cursor.getColumnIndexOrThrow("name");
+			int type = cursor.getColumnIndexOrThrow("type");
+			int pk = cursor.getColumnIndexOrThrow("pk");
+			int notNull = cursor.getColumnIndexOrThrow("notnull");
+			
+			while(cursor.moveToNext()) {
+				
+				columns.put(cursor.getString(name), new String[] {
+					cursor.getString(type), cursor.getString(pk), cursor.getString(notNull)});
+			}
+		}
+		finally {
+			
+			cursor.close();
+		}
+		
+		return columns;
+	}
+	
+	/**
+	 * <p>Reads the live foreign keys of the given table, each described by its column, the 
+	 * referenced table and column, and the action taken on delete.
+	 */
+	private static Set<String> foreignKeys(SQLiteDatabase sqLiteDatabase, String table) {
+		
+		Set<String> foreignKeys = new HashSet<String>();
+		Cursor cursor = sqLiteDatabase.rawQuery("PRAGMA foreign_key_list(" + table + ")", null);
+		
+		try {
+			
+			int from = cursor.getColumnIndexOrThrow("from");
+			int parent = cursor.getColumnIndexOrThrow("table");
+			int to = cursor.getColumnIndexOrThrow("to");
+			int onDelete = cursor.getColumnIndexOrThrow("on_delete");
+			
+			while(cursor.moveToNext()) {
+				
+				foreignKeys.add(foreignKey(cursor.getString(from), 
+					cursor.getString(parent), cursor.getString(to), cursor.getString(onDelete)));
+			}
+		}
+		finally {
+			
+			cursor.close();
+		}
+		
+		return foreignKeys;
+	}
+	
+	/**
+	 * <p>Describes the foreign keys which are declared by the references of the given entity.
+	 */
+	private static Set<String> foreignKeys(EntityMetadata<?> metadata) {
+		
+		Set<String> foreignKeys = new HashSet<String>();
+		
+		for (Property property : metadata.getProperties()) {
+			
+			if(property.isReference()) {
+				
+				EntityMetadata<?> parent = EntityMetadata.of(property.getTarget());
+				
+				foreignKeys.add(foreignKey(property.getColumn(), parent.getTable(), parent.getId().getColumn(), 
+					property.getField().getAnnotation(ToOne.class).onDelete().getSQLStatement()));
+			}
+		}
+		
+		return foreignKeys;
+	}
+	
+	private static String foreignKey(String column, String parentTable, String parentColumn, String onDelete) {
+		
+		return new StringBuilder(column).append(" REFERENCES ").append(parentTable).append("(")
+		.append(parentColumn).append(") ON DELETE ").append(onDelete).toString();
+	}
+	
+	/**
+	 * <p>Converts a generated <b>CREATE</b> statement into the form in which SQLite records 
+	 * it in <b>sqlite_master</b>, i.e. without the <b>IF NOT EXISTS</b> clause and the 
+	 * terminating semicolon.
+	 */
+	private static String normalize(String create) {
+		
+		String definition = create.replaceFirst(" IF NOT EXISTS ", " ");
+		
+		return definition.endsWith(";")? definition.substring(0, definition.length() - 1) :definition;
+	}
+}
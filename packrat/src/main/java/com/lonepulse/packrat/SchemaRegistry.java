@@ -0,0 +1,188 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.lonepulse.packrat.metadata.EntityMetadata;
+import com.lonepulse.packrat.sql.DDLGenerator;
+import com.lonepulse.packrat.sql.DDLPolicy;
+import com.lonepulse.packrat.sql.DDLScript;
+import com.lonepulse.packrat.sql.SQLiteFeature;
+import com.lonepulse.packrat.sql.SchemaFingerprint;
+
+/**
+ * <p>Applies the schemas of the entities of a {@link PersistenceUnit}, skipping those whose 
+ * {@link SchemaFingerprint} matches the fingerprint which was recorded when they were last 
+ * applied. In the common case where no entity has changed, no DDL is executed at all. The 
+ * schemas which have changed are migrated using the {@link SchemaMigrator}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+final class SchemaRegistry {
+
+	
+	/**
+	 * <p>Instantiation is nonsensical.
+	 *
+	 * @since 1.1.0
+	 */
+	private SchemaRegistry() {}
+	
+	/**
+	 * <p>Migrates the schema of each entity whose schema has changed since it was last applied 
+	 * and records its new fingerprint. Entities are migrated in the order of their dependencies 
+	 * as resolved by the {@link DDLPolicy}. The statements of all changes are assembled into one 
+	 * {@link DDLScript}, which is executed in a single transaction. Before anything is applied, 
+	 * each changed schema is checked for any {@link SQLiteFeature} which the version of SQLite 
+	 * in use does not support.
+	 *
+	 * @param sqLiteDatabase
+	 * 			the writable {@link SQLiteDatabase} to which the schemas are applied
+	 * 
+	 * @param entities
+	 * 			the entities whose schemas are to be applied
+	 * 
+	 * @since 1.1.0
+	 */
+	static void synchronize(SQLiteDatabase sqLiteDatabase, Set<Class<Object>> entities) {
+		
+		DDLPolicy ddlPolicy = new DDLGenerator();
+		Map<String, String> applied = applied(sqLiteDatabase);
+		Map<Class<Object>, String> changes = new LinkedHashMap<Class<Object>, String>();
+		
+		for (Class<Object> entity : ddlPolicy.order(entities)) {
+			
+			String ddl = ddlPolicy.create(entity).toString();
+			
+			if(!SchemaFingerprint.of(ddl).equals(applied.get(entity.getName()))) {
+				
+				changes.put(entity, ddl);
+			}
+		}
+		
+		if(changes.isEmpty()) {
+			
+			return;
+		}
+		
+		String version = DatabaseUtils.stringForQuery(sqLiteDatabase, "SELECT sqlite_version()", null);
+		
+		for (Class<Object> entity : changes.keySet()) {
+			
+			SQLiteFeature.require(EntityMetadata.of(entity), version);
+		}
+		
+		DDLScript script = DDLScript.newInstance().append(SchemaFingerprint.create());
+		
+		for (Map.Entry<Class<Object>, String> change : changes.entrySet()) {
+			
+			SchemaMigrator.migrate(sqLiteDatabase, change.getKey(), change.getValue().split("\n"), script);
+			
+			script.append(SchemaFingerprint.record(
+				change.getKey().getName(), SchemaFingerprint.of(change.getValue())));
+		}
+		
+		execute(sqLiteDatabase, script);
+	}
+	
+	/**
+	 * <p>Executes all statements of the given {@link DDLScript} in a single transaction. 
+	 * If the database is already in a transaction, for example within {@code onCreate()}, 
+	 * the script joins it.
+	 *
+	 * @param sqLiteDatabase
+	 * 			the writable {@link SQLiteDatabase} on which the script is executed
+	 * 
+	 * @param script
+	 * 			the {@link DDLScript} to be executed
+	 * 
+	 * @since 1.1.0
+	 */
+	static void execute(SQLiteDatabase sqLiteDatabase, DDLScript script) {
+		
+		if(script.isEmpty()) {
+			
+			return;
+		}
+		
+		sqLiteDatabase.beginTransaction();
+		
+		try {
+			
+			for (String statement : script) {
+				
+				sqLiteDatabase.execSQL(statement);
+			}
+			
+			sqLiteDatabase.setTransactionSuccessful();
+		}
+		finally {
+			
+			sqLiteDatabase.endTransaction();
+		}
+	}
+	
+	/**
+	 * <p>Reads the recorded fingerprints keyed by the name of their entity. The table of 
+	 * fingerprints may not exist yet, in which case no schema is considered applied.
+	 */
+	private static Map<String, String> applied(SQLiteDatabase sqLiteDatabase) {
+		
+		Map<String, String> applied = new HashMap<String, String>();
+		
+		long exists = DatabaseUtils.longForQuery(sqLiteDatabase, 
+			"SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = ?", 
+			new String[] {SchemaFingerprint.TABLE});
+		
+		if(exists == 0) {
+			
+			return applied;
+		}
+		
+		Cursor cursor = sqLiteDatabase.query(SchemaFingerprint.TABLE, 
+			new String[] {SchemaFingerprint.ENTITY, SchemaFingerprint.FINGERPRINT}, 
+			null, null, null, null, null);
+		
+		try {
+			
+			while(cursor.moveToNext()) {
+				
+				applied.put(cursor.getString(0), cursor.getString(1));
+			}
+		}
+		finally {
+			
+			cursor.close();
+		}
+		
+		return applied;
+	}
+}
@@ -0,0 +1,61 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * <p>A unit of work which is executed atomically by {@link PersistenceUnit#transaction(Transaction)}. 
+ * All {@link Record} and {@link Batch} operations performed within {@link #execute()} are committed 
+ * together, or not at all if it throws.</p>
+ * 
+ * <pre>
+ * persistenceUnit.transaction(new Transaction&lt;Void&gt;() {
+ * 
+ *     public Void execute() {
+ * 
+ *         Entity.batch(Book.class).create(books);
+ *         author.update();
+ * 
+ *         return null;
+ *     }
+ * });
+ * </pre>
+ * 
+ * @param <V>
+ * 			the type of the result of the transaction
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public interface Transaction<V> {
+
+	/**
+	 * <p>Performs the work of this transaction.</p>
+	 *
+	 * @return the result of the transaction, if any
+	 * 
+	 * @throws Exception
+	 * 			if the work failed, in which case it is rolled back
+	 * 
+	 * @since 1.1.0
+	 */
+	V execute() throws Exception;
+}
@@ -0,0 +1,71 @@
+package com.lonepulse.packrat;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * <p>This runtime exception is thrown when an entity annotated with a 
+ * {@link com.lonepulse.packrat.annotation.Version} cannot be updated because its 
+ * row was changed or deleted since the entity was read.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class VersionConflictException extends PackratRuntimeException {
+
+
+	private static final long serialVersionUID = -4215693108374416518L;
+
+	
+	/**
+	 * <p>See {@link PackratRuntimeException#PackratRuntimeException()}.
+	 *
+	 * @since 1.1.0
+	 */
+	public VersionConflictException() {}
+
+	/**
+	 * <p>See {@link PackratRuntimeException#PackratRuntimeException(String)}.
+	 *
+	 * @since 1.1.0
+	 */
+	public VersionConflictException(String detailMessage) {
+		super(detailMessage);
+	}
+
+	/**
+	 * <p>See {@link PackratRuntimeException#PackratRuntimeException(Throwable)}.
+	 *
+	 * @since 1.1.0
+	 */
+	public VersionConflictException(Throwable throwable) {
+		super(throwable);
+	}
+
+	/**
+	 * <p>See {@link PackratRuntimeException#PackratRuntimeException(String, Throwable)}.
+	 *
+	 * @since 1.1.0
+	 */
+	public VersionConflictException(String detailMessage, Throwable throwable) {
+		super(detailMessage, throwable);
+	}
+}
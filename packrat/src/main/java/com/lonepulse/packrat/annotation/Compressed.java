@@ -0,0 +1,54 @@
+package com.lonepulse.packrat.annotation;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Stores a large textual or binary attribute compressed with <b>Deflate</b> in a 
+ * <b>BLOB</b> column. Values smaller than the {@link #threshold()}, and those which do 
+ * not shrink, are stored as they are. The attribute may be a {@link String}, a 
+ * {@code byte[]} or an attribute annotated with {@link Binary}. If it is declared as 
+ * a {@link com.lonepulse.packrat.Lazy} holder, the value is only decompressed on its 
+ * first access. Values which were stored before the attribute was annotated remain 
+ * readable and are compressed when they are next written.
+ * 
+ * <p>Compressed columns are opaque to SQLite, so they cannot be searched, indexed or 
+ * compared in a query.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Compressed {
+
+	/**
+	 * <p>The size in bytes from which values are compressed.
+	 * 
+	 * @since 1.1.0
+	 */
+	int threshold() default 1024;
+}
@@ -0,0 +1,89 @@
+package com.lonepulse.packrat.annotation;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Identifies a textual attribute which is indexed for <b>full-text search</b>. All 
+ * such attributes of an entity are indexed in a single <i>external content</i> FTS 
+ * virtual table which is kept in sync with the entity's table using triggers, so the 
+ * text is never stored twice.</p>
+ * 
+ * <p>The entity itself may be annotated to choose the FTS {@link Module}; the default 
+ * is {@link Module#FTS4}. External content tables require SQLite 3.7.9 (Android 4.1), so 
+ * the schema is rejected with a {@code DDLException} on older platforms.</p>
+ * 
+ * <pre>
+ * &#064;FullText(module = Module.FTS5)
+ * public class Message extends Entity&lt;Message&gt; {
+ * 
+ * 	&#064;FullText
+ * 	private String body;
+ * }
+ * </pre>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.FIELD})
+public @interface FullText {
+	
+	/**
+	 * <p>This enum identifies the SQLite module which implements the full-text index.
+	 * 
+	 * @version 1.1.0
+	 * <br><br>
+	 * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static enum Module {
+		
+		/**
+		 * <p>The FTS4 module, whose external content tables are available from SQLite 3.7.9 
+		 * (Android 4.1). Matches are ranked by the number of phrase matches reported by 
+		 * {@code offsets()}.
+		 * 
+		 * @since 1.1.0
+		 */
+		FTS4,
+		
+		/**
+		 * <p>The FTS5 module, which requires SQLite 3.9.0 and must be compiled into the 
+		 * SQLite library in use. Matches are ranked using its built-in BM25 {@code rank}.
+		 * 
+		 * @since 1.1.0
+		 */
+		FTS5;
+	}
+	
+	/**
+	 * <p>The module which implements the full-text index. This is only read from the 
+	 * annotation on the entity and is ignored on attributes.
+	 * 
+	 * @since 1.1.0
+	 */
+	Module module() default Module.FTS4;
+}
@@ -26,7 +26,22 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * <p>Identifies the attribute in a model which serves as the primary key.
+ * <p>Identifies the attribute in a model which serves as the primary key. Annotating two 
+ * or more attributes declares a <b>composite key</b>, in which case each must declare its 
+ * distinct position using {@link #order()}, since reflection does not preserve the order 
+ * in which the attributes are declared.</p>
+ * 
+ * <pre>
+ * &#064;WithoutRowId
+ * public class Membership extends Entity&lt;Membership&gt; {
+ * 
+ * 	&#064;Id(order = 0)
+ * 	private long group;
+ * 
+ * 	&#064;Id(order = 1)
+ * 	private long member;
+ * }
+ * </pre>
  * 
  * @version 1.1.0
  * <br><br>
@@ -34,4 +49,14 @@ import java.lang.annotation.Target;
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.FIELD)
-public @interface Id {}
+public @interface Id {
+	
+	/**
+	 * <p>The position of the attribute within a composite key, which determines the order 
+	 * of the columns in the <b>PRIMARY KEY</b> constraint. This is ignored for a key which 
+	 * has a single attribute.
+	 * 
+	 * @since 1.1.0
+	 */
+	int order() default 0;
+}
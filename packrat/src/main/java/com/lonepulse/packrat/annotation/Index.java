@@ -0,0 +1,103 @@
+package com.lonepulse.packrat.annotation;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Identifies an attribute whose column is to be <b>indexed</b>, so that lookups on 
+ * the column do not scan the whole table. To index several columns together, declare a 
+ * <b>composite index</b> with its {@link #columns()} on the entity using {@link Indexes}.</p>
+ * 
+ * <p>An index may be restricted to the rows which satisfy a predicate using {@link #where()}, 
+ * which keeps it small when queries only ever look at a fraction of the rows. Expressions 
+ * over the columns, such as {@code lower(email)}, can be indexed using {@link #expressions()}.</p>
+ * 
+ * <p>Partial indexes require SQLite 3.8.0 (Android 5.0) and indexes on expressions require 
+ * SQLite 3.9.0 (Android 7.0), so a schema which declares them is rejected with a 
+ * {@code DDLException} on older platforms.</p>
+ * 
+ * <pre>
+ * &#064;Indexes({ &#064;Index(columns = {"sender", "received"}, where = "unread = 1") })
+ * public class Message extends Entity&lt;Message&gt; {
+ * 
+ * 	&#064;Index(unique = true)
+ * 	private String uuid;
+ * 
+ * 	&#064;Index(expressions = "lower(email)")
+ * 	private String email;
+ * }
+ * </pre>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Index {
+	
+	/**
+	 * <p>The name of the index. If omitted, the name is derived from the table 
+	 * and the indexed columns.
+	 * 
+	 * @since 1.1.0
+	 */
+	String name() default "";
+	
+	/**
+	 * <p>The columns of a composite index in their order of significance. This is 
+	 * only read from indexes declared using {@link Indexes} and is ignored on 
+	 * attributes, which always index their own column.
+	 * 
+	 * @since 1.1.0
+	 */
+	String[] columns() default {};
+	
+	/**
+	 * <p>Determines whether the indexed columns hold a unique set of values.
+	 * 
+	 * @since 1.1.0
+	 */
+	boolean unique() default false;
+	
+	/**
+	 * <p>The expressions over the columns of the entity which are indexed, for example 
+	 * {@code lower(email)}. They follow any {@link #columns()} of a composite index. On 
+	 * an attribute, the expressions are indexed <i>instead</i> of its column.
+	 * 
+	 * @since 1.1.0
+	 */
+	String[] expressions() default {};
+	
+	/**
+	 * <p>The predicate which restricts the index to a subset of the rows, for example 
+	 * {@code unread = 1}. The planner only uses a <b>partial index</b> for queries whose 
+	 * selection contains this exact predicate, which is why queries should be restricted 
+	 * to the index by name using {@code QueryBuilder#within(String...)}.
+	 * 
+	 * @since 1.1.0
+	 */
+	String where() default "";
+}
@@ -0,0 +1,80 @@
+package com.lonepulse.packrat.annotation;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Chooses the encoding of an {@code int[]}, {@code long[]} or {@code List<Long>} attribute, 
+ * which is stored as a single packed <b>BLOB</b>. Without this annotation such attributes, as 
+ * well as {@code double[]} attributes, are packed as {@link Encoding#FIXED} little-endian values.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Packed {
+
+	/**
+	 * <p>Identifies the encoding of the elements of a packed array.
+	 * 
+	 * @version 1.1.0
+	 * <br><br>
+	 * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static enum Encoding {
+		
+		/**
+		 * <p>Each element takes its full width in little-endian byte order, which is the 
+		 * fastest to read.
+		 * 
+		 * @since 1.1.0
+		 */
+		FIXED,
+		
+		/**
+		 * <p>Each element is a zig-zag varint, so that small magnitudes take fewer bytes.
+		 * 
+		 * @since 1.1.0
+		 */
+		VARINT,
+		
+		/**
+		 * <p>Each element is the zig-zag varint of its difference from the previous element, 
+		 * which suits sorted values such as lists of identifiers.
+		 * 
+		 * @since 1.1.0
+		 */
+		DELTA;
+	}
+	
+	/**
+	 * <p>The encoding of the elements.
+	 * 
+	 * @since 1.1.0
+	 */
+	Encoding value() default Encoding.FIXED;
+}
@@ -0,0 +1,55 @@
+package com.lonepulse.packrat.annotation;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Identifies an attribute which refers to <b>many</b> related entities. The attribute 
+ * must be declared as a {@code Lazy<Collection<E>>} or a {@code Lazy<List<E>>}, where 
+ * {@code E} is the related entity which declares a {@link ToOne} attribute referring back 
+ * to this entity. The related entities are only read when {@code Lazy#get()} is first 
+ * invoked.</p>
+ * 
+ * <pre>
+ * &#064;ToMany(mappedBy = "conversation")
+ * private Lazy&lt;Collection&lt;Message&gt;&gt; messages;
+ * </pre>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface ToMany {
+	
+	/**
+	 * <p>The name of the {@link ToOne} attribute on the related entity which 
+	 * refers back to this entity.
+	 * 
+	 * @since 1.1.0
+	 */
+	String mappedBy();
+}
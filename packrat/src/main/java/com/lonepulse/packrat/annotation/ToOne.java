@@ -0,0 +1,58 @@
+package com.lonepulse.packrat.annotation;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.lonepulse.packrat.sql.ReferentialAction;
+
+/**
+ * <p>Identifies an attribute which refers to a <b>single</b> related entity. The attribute 
+ * must be declared as a {@code Lazy<E>}, where {@code E} is the related entity, and is 
+ * mapped to a column which holds the primary key of the related entity. The related entity 
+ * is only read when {@code Lazy#get()} is first invoked.</p>
+ * 
+ * <p>The column is declared as a <b>foreign key</b> of the table of the related entity and 
+ * is indexed, so that deleting a related entity does not scan this table.</p>
+ * 
+ * <pre>
+ * &#064;ToOne(onDelete = ReferentialAction.CASCADE)
+ * private Lazy&lt;Conversation&gt; conversation;
+ * </pre>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface ToOne {
+	
+	/**
+	 * <p>The action which is taken on this entity when the related entity is deleted.
+	 * 
+	 * @since 1.1.0
+	 */
+	ReferentialAction onDelete() default ReferentialAction.NO_ACTION;
+}
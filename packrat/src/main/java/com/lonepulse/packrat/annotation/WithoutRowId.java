@@ -0,0 +1,46 @@
+package com.lonepulse.packrat.annotation;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Identifies an entity whose table is created <b>WITHOUT ROWID</b>, so that its rows are 
+ * stored in the order of the primary key itself rather than in a separate index. This halves 
+ * the cost of lookups and inserts by a key which is textual or composite.</p>
+ * 
+ * <p>The entity must declare a primary key which is not a single integral attribute, since 
+ * such a key already aliases the <i>rowid</i>. An entity without a <i>rowid</i> cannot be 
+ * indexed for full-text search.</p>
+ * 
+ * <p>Tables without a <i>rowid</i> require SQLite 3.8.2 (Android 5.0), so the schema is 
+ * rejected with a {@code DDLException} on older platforms.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface WithoutRowId {}
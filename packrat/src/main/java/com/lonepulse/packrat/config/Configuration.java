@@ -0,0 +1,408 @@
+package com.lonepulse.packrat.config;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+import android.content.Context;
+
+import com.lonepulse.packrat.config.PropertyReader.PROPERTY;
+
+/**
+ * <p>An immutable snapshot of <b>packrat.properties</b>. The file is read from the 
+ * <i>assets</i> directory the first time a snapshot is requested and every subsequent 
+ * request within the same process shares that snapshot.</p>
+ * 
+ * <p>Besides the mandatory {@link PROPERTY#NAME} and {@link PROPERTY#VERSION}, the 
+ * file may specify the tuning properties which are applied as <b>PRAGMA</b>s whenever 
+ * the database is opened, for example:</p>
+ * 
+ * <pre>
+ * name=library
+ * version=3
+ * journal_mode=WAL
+ * synchronous=NORMAL
+ * cache_size=-4096
+ * temp_store=MEMORY
+ * pool_size=4
+ * </pre>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class Configuration {
+
+	
+	/**
+	 * <p>The name of the property file to search for in the assets directory.
+	 */
+	private static final String PROPERTY_FILE = "packrat.properties";
+	
+	/**
+	 * <p>The values which a tuning property may take; a keyword or an integer. These 
+	 * are spliced into a <b>PRAGMA</b>, which cannot take bound arguments.
+	 */
+	private static final Pattern PRAGMA_VALUE = Pattern.compile("-?\\d+|[A-Za-z_]+");
+	
+	/**
+	 * <p>The {@link PROPERTY}s which are applied as <b>PRAGMA</b>s of the same name.
+	 */
+	private static final PROPERTY[] PRAGMAS = {
+		
+		PROPERTY.JOURNAL_MODE, PROPERTY.SYNCHRONOUS, PROPERTY.PAGE_SIZE, 
+		PROPERTY.CACHE_SIZE, PROPERTY.MMAP_SIZE, PROPERTY.TEMP_STORE
+	};
+	
+	/**
+	 * <p>The smallest and the largest page sizes which SQLite supports.
+	 */
+	private static final long MIN_PAGE_SIZE = 512L, MAX_PAGE_SIZE = 65536L;
+	
+	/**
+	 * <p>The number of readers pooled in WAL mode unless {@link PROPERTY#POOL_SIZE} says otherwise.
+	 */
+	private static final int DEFAULT_POOL_SIZE = 3;
+	
+	/**
+	 * <p>The snapshot shared by this process, once it has been loaded.
+	 */
+	private static volatile Configuration instance;
+	
+	
+	/**
+	 * <p>The value of each {@link PROPERTY} which was specified.
+	 */
+	private final Map<PROPERTY, String> properties;
+	
+	
+	/**
+	 * <p>Retrieves the snapshot of <b>packrat.properties</b> for this process, reading 
+	 * the file only if no snapshot has been loaded yet.</p>
+	 *
+	 * @param context
+	 * 			the {@link Context} whose assets contain packrat.properties
+	 * 
+	 * @return the shared {@link Configuration}
+	 * 
+	 * @throws PropertyFileNotFoundException
+	 * 			if <b>packrat.properties</b> is missing from the assets directory
+	 * 
+	 * @throws PropertyReadException
+	 * 			if packrat.properties cannot be read or a tuning property is malformed
+	 * 
+	 * @since 1.1.0
+	 */
+	public static Configuration of(Context context) {
+		
+		Configuration configuration = instance;
+		
+		if(configuration == null) {
+			
+			synchronized (Configuration.class) {
+				
+				configuration = instance;
+				
+				if(configuration == null) {
+					
+					instance = configuration = load(context);
+				}
+			}
+		}
+		
+		return configuration;
+	}
+	
+	/**
+	 * <p>Reads and validates <b>packrat.properties</b>. The numeric tuning properties are 
+	 * checked here, so that a malformed value is reported before the database is opened.</p>
+	 *
+	 * @param context
+	 * 			the {@link Context} whose assets contain packrat.properties
+	 * 
+	 * @return a new {@link Configuration}
+	 * 
+	 * @throws PropertyFileNotFoundException
+	 * 			if <b>packrat.properties</b> is missing from the assets directory
+	 * 
+	 * @throws PropertyReadException
+	 * 			if packrat.properties cannot be read or a tuning property is malformed
+	 * 
+	 * @since 1.1.0
+	 */
+	static Configuration load(Context context) {
+		
+		Properties file = new Properties();
+		
+		try {
+			
+			InputStream inputStream = context.getAssets().open(PROPERTY_FILE);
+			
+			try {
+				
+				file.load(inputStream);
+			}
+			finally {
+				
+				inputStream.close();
+			}
+		}
+		catch(FileNotFoundException fnfe) {
+			
+			throw new PropertyFileNotFoundException(fnfe);
+		}
+		catch(IOException ioe) {
+			
+			throw new PropertyReadException("Failed to read " + PROPERTY_FILE + ". ", ioe);
+		}
+		
+		Map<PROPERTY, String> properties = new EnumMap<PROPERTY, String>(PROPERTY.class);
+		
+		for (PROPERTY property : PROPERTY.values()) {
+			
+			String value = file.getProperty(property.getKey());
+			
+			if(value != null) {
+				
+				properties.put(property, value.trim());
+			}
+		}
+		
+		for (PROPERTY pragma : PRAGMAS) {
+			
+			String value = properties.get(pragma);
+			
+			if(value != null && !PRAGMA_VALUE.matcher(value).matches()) {
+				
+				throw new PropertyReadException(pragma, new IllegalArgumentException(
+					"Expected a keyword or an integer but found \"" + value + "\". "));
+			}
+		}
+		
+		integer(properties, PROPERTY.CACHE_SIZE);
+		integer(properties, PROPERTY.MMAP_SIZE);
+		
+		Long pageSize = integer(properties, PROPERTY.PAGE_SIZE);
+		
+		if(pageSize != null) {
+			
+			long size = pageSize.longValue();
+			
+			if(size < MIN_PAGE_SIZE || size > MAX_PAGE_SIZE || (size & (size - 1)) != 0) {
+				
+				throw new PropertyReadException(PROPERTY.PAGE_SIZE, new IllegalArgumentException(
+					"Expected a power of two from 512 to 65536 but found " + size + ". "));
+			}
+		}
+		
+		return new Configuration(properties);
+	}
+	
+	/**
+	 * <p>Parses the value of a {@link PROPERTY} which must be an integer.</p>
+	 *
+	 * @param properties
+	 * 			the value of each {@link PROPERTY} which was specified
+	 * 
+	 * @param property
+	 * 			the {@link PROPERTY} to be parsed
+	 * 
+	 * @return the value of the property, or {@code null} if it was not specified
+	 * 
+	 * @throws PropertyReadException
+	 * 			if the value is not an integer
+	 * 
+	 * @since 1.1.0
+	 */
+	private static Long integer(Map<PROPERTY, String> properties, PROPERTY property) {
+		
+		String value = properties.get(property);
+		
+		if(value == null) {
+			
+			return null;
+		}
+		
+		try {
+			
+			return Long.valueOf(value);
+		}
+		catch(NumberFormatException nfe) {
+			
+			throw new PropertyReadException(property, nfe);
+		}
+	}
+	
+	/**
+	 * <p>Creates a snapshot of the given properties.</p>
+	 *
+	 * @param properties
+	 * 			the value of each {@link PROPERTY} which was specified
+	 * 
+	 * @since 1.1.0
+	 */
+	private Configuration(Map<PROPERTY, String> properties) {
+		
+		this.properties = Collections.unmodifiableMap(properties);
+	}
+	
+	/**
+	 * <p>Retrieves the value of an optional {@link PROPERTY}.</p>
+	 *
+	 * @param property
+	 * 			the {@link PROPERTY} identifier
+	 * 
+	 * @return the value of the property, or {@code null} if it was not specified
+	 * 
+	 * @since 1.1.0
+	 */
+	public String get(PROPERTY property) {
+		
+		return properties.get(property);
+	}
+	
+	/**
+	 * <p>Retrieves the value of a mandatory {@link PROPERTY}.</p>
+	 *
+	 * @param property
+	 * 			the {@link PROPERTY} identifier
+	 * 
+	 * @return the value of the property
+	 * 
+	 * @throws PropertyNotFoundException
+	 * 			if the property was not specified
+	 * 
+	 * @since 1.1.0
+	 */
+	public String require(PROPERTY property) {
+		
+		String value = properties.get(property);
+		
+		if(value == null) {
+			
+			throw new PropertyNotFoundException(property.getKey());
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * <p>Retrieves the name of the persistence unit.</p>
+	 *
+	 * @return the value of {@link PROPERTY#NAME}
+	 * 
+	 * @since 1.1.0
+	 */
+	public String getName() {
+		
+		return require(PROPERTY.NAME);
+	}
+	
+	/**
+	 * <p>Retrieves the version of the database.</p>
+	 *
+	 * @return the value of {@link PROPERTY#VERSION}
+	 * 
+	 * @throws PropertyReadException
+	 * 			if the version is not an integer
+	 * 
+	 * @since 1.1.0
+	 */
+	public int getVersion() {
+		
+		try {
+			
+			return Integer.parseInt(require(PROPERTY.VERSION));
+		}
+		catch(NumberFormatException nfe) {
+			
+			throw new PropertyReadException(PROPERTY.VERSION, nfe);
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the number of read-only connections to pool in WAL mode.</p>
+	 *
+	 * @return the value of {@link PROPERTY#POOL_SIZE}, or a default if it was not specified
+	 * 
+	 * @throws PropertyReadException
+	 * 			if the pool size is not a non-negative integer
+	 * 
+	 * @since 1.1.0
+	 */
+	public int getPoolSize() {
+		
+		String poolSize = properties.get(PROPERTY.POOL_SIZE);
+		
+		if(poolSize == null) {
+			
+			return DEFAULT_POOL_SIZE;
+		}
+		
+		try {
+			
+			int size = Integer.parseInt(poolSize);
+			
+			if(size < 0) {
+				
+				throw new NumberFormatException("The pool size cannot be negative. ");
+			}
+			
+			return size;
+		}
+		catch(NumberFormatException nfe) {
+			
+			throw new PropertyReadException(PROPERTY.POOL_SIZE, nfe);
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the tuning {@link PROPERTY}s which were specified, in the order in 
+	 * which their <b>PRAGMA</b>s should be applied.</p>
+	 *
+	 * @return the specified tuning properties and their values
+	 * 
+	 * @since 1.1.0
+	 */
+	public Map<PROPERTY, String> getPragmas() {
+		
+		Map<PROPERTY, String> pragmas = new EnumMap<PROPERTY, String>(PROPERTY.class);
+		
+		for (PROPERTY pragma : PRAGMAS) {
+			
+			String value = properties.get(pragma);
+			
+			if(value != null) {
+				
+				pragmas.put(pragma, value);
+			}
+		}
+		
+		return Collections.unmodifiableMap(pragmas);
+	}
+}
@@ -20,14 +20,10 @@ package com.lonepulse.packrat.config;
  * #L%
  */
 
-import java.io.FileNotFoundException;
-import java.io.InputStream;
-import java.util.Properties;
-
 import android.content.Context;
 
 /**
- * <p>This utility class offers services for reading the <b>ickle.orm.properties</b> 
+ * <p>This utility class offers services for reading the <b>packrat.properties</b> 
  * file in the <i>assets</i> directory which contains the configuration information 
  * for a single persistence unit.
  * 
@@ -61,7 +57,66 @@ public final class PropertyReader {
 		 * 
 		 * @since 1.1.0
 		 */
-		VERSION("version");
+		VERSION("version"),
+		
+		/**
+		 * <p>The optional journal mode of the database, such as <b>WAL</b>, <b>TRUNCATE</b> 
+		 * or <b>DELETE</b>. Write-ahead logging lets readers proceed alongside a writer.
+		 * 
+		 * @since 1.1.0
+		 */
+		JOURNAL_MODE("journal_mode"),
+		
+		/**
+		 * <p>The optional synchronization level of the database, i.e. <b>OFF</b>, 
+		 * <b>NORMAL</b>, <b>FULL</b> or its numeric equivalent.
+		 * 
+		 * @since 1.1.0
+		 */
+		SYNCHRONOUS("synchronous"),
+		
+		/**
+		 * <p>The optional page size of the database in bytes, which must be a power of two 
+		 * from 512 to 65536. It is applied by rebuilding the database when it is opened, which 
+		 * is only possible while the database is not in write-ahead logging mode; a database 
+		 * which uses <b>WAL</b> takes it on when it is first created and keeps it thereafter.
+		 * 
+		 * @since 1.1.0
+		 */
+		PAGE_SIZE("page_size"),
+		
+		/**
+		 * <p>The optional size of the page cache as an integer; in pages if positive or in 
+		 * kibibytes if negative.
+		 * 
+		 * @since 1.1.0
+		 */
+		CACHE_SIZE("cache_size"),
+		
+		/**
+		 * <p>The optional number of bytes of the database file which may be memory-mapped, 
+		 * given as an integer. It is ignored by versions of SQLite which predate memory-mapped 
+		 * I/O.
+		 * 
+		 * @since 1.1.0
+		 */
+		MMAP_SIZE("mmap_size"),
+		
+		/**
+		 * <p>The optional store for temporary tables and indexes, i.e. <b>DEFAULT</b>, 
+		 * <b>FILE</b> or <b>MEMORY</b>.
+		 * 
+		 * @since 1.1.0
+		 */
+		TEMP_STORE("temp_store"),
+		
+		/**
+		 * <p>The optional number of read-only connections which serve queries alongside 
+		 * the writer when the database is in <b>WAL</b> mode.
+		 * 
+		 * @since 1.1.0
+		 */
+		POOL_SIZE("pool_size");
 		
 		
 		/**
@@ -96,11 +151,6 @@ public final class PropertyReader {
 	}
 	
 	
-	/**
-	 * <p>The name of the property file to search for in the assets directory.
-	 */
-	private static final String PROPERTY_FILE = "packrat.properties";
-	
 	/**
 	 * <p>Constructor visibility restricted. Instantiation is non-sensical.
 	 *
@@ -110,8 +160,9 @@ public final class PropertyReader {
 	
 	
 	/**
-	 * <p>Takes a {@link PROPERTY} and reads it's value form the ickle.orm.properties 
-	 * file in the asstes directory.
+	 * <p>Takes a {@link PROPERTY} and reads it's value form the packrat.properties 
+	 * file in the asstes directory. The file is parsed only once per process; see 
+	 * {@link Configuration#of(Context)}.
 	 * 
 	 * @param context
 	 * 			the {@link Context} of the caller
@@ -122,42 +173,18 @@ public final class PropertyReader {
 	 * @return the value of the property
 	 * 
 	 * @throws PropertyNotFoundException
-	 * 			if the specified property is missing from ickle.orm.properties
+	 * 			if the specified property is missing from packrat.properties
 	 * 
 	 * @throws PropertyFileNotFoundException
-	 * 			if <b>ickle.orm.properties</b> is missing from the assets directory
+	 * 			if <b>packrat.properties</b> is missing from the assets directory
 	 * 
 	 * @throws PropertyReadException
-	 * 			if the specified property is missing or cannot be read from 
-	 * 			ickle.orm.properties
+	 * 			if packrat.properties cannot be read
 	 *
 	 * @since 1.1.0
 	 */
 	public static final String read(Context context, PROPERTY property) {
 		
-		try {
-		
-			InputStream inputStream = context.getAssets().open(PROPERTY_FILE);
-			
-			Properties properties = new Properties();
-			properties.load(inputStream);
-			
-			inputStream.close();
-			
-			String propertyValue = properties.getProperty(property.getKey());
-			
-			if(propertyValue == null) 
-				throw new PropertyNotFoundException(propertyValue);
-			
-			return propertyValue;
-		}
-		catch(FileNotFoundException fnfe) {
-			
-			throw new PropertyFileNotFoundException(fnfe);
-		}
-		catch (Exception e) {
-			
-			throw new PropertyReadException(property, e);
-		}
+		return Configuration.of(context).require(property);
 	}
 }
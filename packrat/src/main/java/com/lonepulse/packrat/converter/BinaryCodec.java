@@ -0,0 +1,556 @@
+package com.lonepulse.packrat.converter;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.lonepulse.packrat.PackratRuntimeException;
+
+/**
+ * <p>A compact, self-describing binary encoding for nested values such as lists, maps and 
+ * small value objects, which are stored in a single <b>BLOB</b> column. Every value is 
+ * prefixed by a one-byte tag identifying its type; integers are written as zig-zag 
+ * <i>varints</i> so that small magnitudes take a single byte, and lengths and counts are 
+ * varints as well.</p>
+ * 
+ * <p>Value objects are written as their class followed by the name and value of each of 
+ * their persistent attributes. Names are interned within a single encoding, so that a list 
+ * of objects names their class and attributes only once. Attributes which were added to a 
+ * class since a value was encoded keep their defaults and those which were removed are 
+ * skipped, so encoded values survive the evolution of their classes.</p>
+ * 
+ * <p>Supported values are {@code null}, booleans, numbers, characters, strings, byte arrays, 
+ * dates, enums, lists, sets and maps of supported values, and objects which declare a nullary 
+ * constructor and whose attributes are supported values.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class BinaryCodec {
+
+	
+	/**
+	 * <p>The version of the encoding, which is written as its first byte.
+	 */
+	private static final int VERSION = 1;
+	
+	private static final int NULL = 0, FALSE = 1, TRUE = 2, BYTE = 3, SHORT = 4, INTEGER = 5, LONG = 6, 
+		FLOAT = 7, DOUBLE = 8, CHARACTER = 9, STRING = 10, BYTES = 11, DATE = 12, ENUM = 13, 
+		LIST = 14, SET = 15, MAP = 16, OBJECT = 17;
+	
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	
+	/**
+	 * <p>The persistent attributes of each class of value object which has been encoded or decoded.
+	 */
+	private static final ConcurrentMap<Class<?>, Map<String, Field>> FIELDS 
+		= new ConcurrentHashMap<Class<?>, Map<String, Field>>();
+	
+	
+	/**
+	 * <p>Instantiation is nonsensical.
+	 *
+	 * @since 1.1.0
+	 */
+	private BinaryCodec() {}
+	
+	/**
+	 * <p>Encodes the given value.</p>
+	 *
+	 * @param value
+	 * 			the value to be encoded, which may be {@code null}
+	 * 
+	 * @return the encoding of the value
+	 * 
+	 * @throws PackratRuntimeException
+	 * 			if the value or a nested value is not supported
+	 * 
+	 * @since 1.1.0
+	 */
+	public static byte[] encode(Object value) {
+		
+		Writer writer = new Writer();
+		writer.write(VERSION);
+		writer.writeValue(value);
+		
+		return writer.toByteArray();
+	}
+	
+	/**
+	 * <p>Decodes a value which was encoded using {@link #encode(Object)}.</p>
+	 *
+	 * @param bytes
+	 * 			the encoding of a value
+	 * 
+	 * @return the value, with lists, sets and maps decoded as mutable collections which 
+	 * 		   preserve the order of their elements
+	 * 
+	 * @throws PackratRuntimeException
+	 * 			if the encoding is malformed or refers to a class which cannot be instantiated
+	 * 
+	 * @since 1.1.0
+	 */
+	public static Object decode(byte[] bytes) {
+		
+		if(bytes.length == 0 || bytes[0] != VERSION) {
+			
+			throw new PackratRuntimeException("The value was not encoded by this version of the codec. ");
+		}
+		
+		Reader reader = new Reader(bytes);
+		reader.position = 1;
+		
+		return reader.readValue();
+	}
+	
+	/**
+	 * <p>Resolves the persistent attributes of a value object, i.e. those which are neither 
+	 * static, transient nor synthetic, including those which it inherits.</p>
+	 */
+	private static Map<String, Field> fieldsOf(Class<?> type) {
+		
+		Map<String, Field> fields = FIELDS.get(type);
+		
+		if(fields != null) {
+			
+			return fields;
+		}
+		
+		fields = new LinkedHashMap<String, Field>();
+		
+		for(Class<?> current = type; current != null && !Object.class.equals(current); current = current.getSuperclass()) {
+			
+			for (Field field : current.getDeclaredFields()) {
+				
+				int modifiers = field.getModifiers();
+				
+				if(!(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic())) {
+					
+					field.setAccessible(true);
+					
+					if(!fields.containsKey(field.getName())) fields.put(field.getName(), field);
+				}
+			}
+		}
+		
+		Map<String, Field> existing = FIELDS.putIfAbsent(type, fields);
+		
+		return existing == null? fields :existing;
+	}
+	
+	
+	/**
+	 * <p>Writes the encoding of a value, interning the names it contains.
+	 */
+	private static final class Writer extends ByteArrayOutputStream {
+		
+		private final Map<String, Integer> symbols = new HashMap<String, Integer>();
+		
+		private void writeValue(Object value) {
+			
+			if(value == null) {
+				
+				write(NULL);
+			}
+			else if(value instanceof Boolean) {
+				
+				write(((Boolean)value).booleanValue()? TRUE :FALSE);
+			}
+			else if(value instanceof Byte) {
+				
+				write(BYTE);
+				write(((Byte)value).intValue());
+			}
+			else if(value instanceof Short) {
+				
+				write(SHORT);
+				writeSigned(((Short)value).longValue());
+			}
+			else if(value instanceof Integer) {
+				
+				write(INTEGER);
+				writeSigned(((Integer)value).longValue());
+			}
+			else if(value instanceof Long) {
+				
+				write(LONG);
+				writeSigned(((Long)value).longValue());
+			}
+			else if(value instanceof Float) {
+				
+				write(FLOAT);
+				writeFixed(Float.floatToIntBits(((Float)value).floatValue()), 4);
+			}
+			else if(value instanceof Double) {
+				
+				write(DOUBLE);
+				writeFixed(Double.doubleToLongBits(((Double)value).doubleValue()), 8);
+			}
+			else if(value instanceof Character) {
+				
+				write(CHARACTER);
+				writeUnsigned(((Character)value).charValue());
+			}
+			else if(value instanceof String) {
+				
+				write(STRING);
+				writeBlob(((String)value).getBytes(UTF_8));
+			}
+			else if(value instanceof byte[]) {
+				
+				write(BYTES);
+				writeBlob((byte[])value);
+			}
+			else if(value instanceof Date) {
+				
+				write(DATE);
+				writeSigned(((Date)value).getTime());
+			}
+			else if(value instanceof Enum<?>) {
+				
+				write(ENUM);
+				writeSymbol(((Enum<?>)value).getDeclaringClass().getName());
+				writeSymbol(((Enum<?>)value).name());
+			}
+			else if(value instanceof List<?> || value instanceof Set<?>) {
+				
+				Collection<?> collection = (Collection<?>)value;
+				
+				write(value instanceof List<?>? LIST :SET);
+				writeUnsigned(collection.size());
+				
+				for (Object element : collection) {
+					
+					writeValue(element);
+				}
+			}
+			else if(value instanceof Map<?, ?>) {
+				
+				Map<?, ?> map = (Map<?, ?>)value;
+				
+				write(MAP);
+				writeUnsigned(map.size());
+				
+				for (Map.Entry<?, ?> entry : map.entrySet()) {
+					
+					writeValue(entry.getKey());
+					writeValue(entry.getValue());
+				}
+			}
+			else {
+				
+				writeObject(value);
+			}
+		}
+		
+		private void writeObject(Object value) {
+			
+			Class<?> type = value.getClass();
+			
+			if(type.isArray() || value instanceof Collection<?>) {
+				
+				throw new PackratRuntimeException(new StringBuilder("Values of type ")
+				.append(type.getName()).append(" cannot be encoded. Use a List or Set instead. ").toString());
+			}
+			
+			Map<String, Field> fields = fieldsOf(type);
+			
+			write(OBJECT);
+			writeSymbol(type.getName());
+			writeUnsigned(fields.size());
+			
+			try {
+				
+				for (Field field : fields.values()) {
+					
+					writeSymbol(field.getName());
+					writeValue(field.get(value));
+				}
+			}
+			catch(IllegalAccessException iae) {
+				
+				throw new PackratRuntimeException("Failed to encode an instance of " + type.getName() + ". ", iae);
+			}
+		}
+		
+		private void writeSymbol(String symbol) {
+			
+			Integer index = symbols.get(symbol);
+			
+			if(index != null) {
+				
+				writeUnsigned(index.intValue());
+			}
+			else {
+				
+				symbols.put(symbol, Integer.valueOf(symbols.size() + 1));
+				
+				writeUnsigned(0L);
+				writeBlob(symbol.getBytes(UTF_8));
+			}
+		}
+		
+		private void writeBlob(byte[] bytes) {
+			
+			writeUnsigned(bytes.length);
+			write(bytes, 0, bytes.length);
+		}
+		
+		private void writeSigned(long value) {
+			
+			writeUnsigned((value << 1) ^ (value >> 63));
+		}
+		
+		private void writeUnsigned(long value) {
+			
+			while((value & ~0x7FL) != 0L) {
+				
+				write((int)((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			
+			write((int)value);
+		}
+		
+		private void writeFixed(long bits, int length) {
+			
+			for (int i = 0; i < length; i++) {
+				
+				write((int)bits);
+				bits >>>= 8;
+			}
+		}
+	}
+	
+	
+	/**
+	 * <p>Reads a value from its encoding, resolving the names it refers to.
+	 */
+	private static final class Reader {
+		
+		private final byte[] bytes;
+		private final List<String> symbols = new ArrayList<String>();
+		private int position;
+		
+		private Reader(byte[] bytes) {
+			
+			this.bytes = bytes;
+		}
+		
+		private Object readValue() {
+			
+			int tag = read();
+			
+			switch(tag) {
+			
+				case NULL: return null;
+				case FALSE: return Boolean.FALSE;
+				case TRUE: return Boolean.TRUE;
+				case BYTE: return Byte.valueOf((byte)read());
+				case SHORT: return Short.valueOf((short)readSigned());
+				case INTEGER: return Integer.valueOf((int)readSigned());
+				case LONG: return Long.valueOf(readSigned());
+				case FLOAT: return Float.valueOf(Float.intBitsToFloat((int)readFixed(4)));
+				case DOUBLE: return Double.valueOf(Double.longBitsToDouble(readFixed(8)));
+				case CHARACTER: return Character.valueOf((char)readUnsigned());
+				case STRING: return readString();
+				case BYTES: return readBlob();
+				case DATE: return new Date(readSigned());
+				case ENUM: return readEnum();
+				case LIST: return readCollection(new ArrayList<Object>());
+				case SET: return readCollection(new LinkedHashSet<Object>());
+				case MAP: return readMap();
+				case OBJECT: return readObject();
+				
+				default: throw new PackratRuntimeException("Unknown tag " + tag + " at " + (position - 1) + ". ");
+			}
+		}
+		
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private Object readEnum() {
+			
+			Class<?> type = classOf(readSymbol());
+			return Enum.valueOf((Class<? extends Enum>)type, readSymbol());
+		}
+		
+		private Collection<Object> readCollection(Collection<Object> collection) {
+			
+			for (int size = (int)readUnsigned(); size > 0; size--) {
+				
+				collection.add(readValue());
+			}
+			
+			return collection;
+		}
+		
+		private Map<Object, Object> readMap() {
+			
+			int size = (int)readUnsigned();
+			Map<Object, Object> map = new LinkedHashMap<Object, Object>((int)(size / 0.75f) + 1);
+			
+			for (; size > 0; size--) {
+				
+				map.put(readValue(), readValue());
+			}
+			
+			return map;
+		}
+		
+		private Object readObject() {
+			
+			Class<?> type = classOf(readSymbol());
+			Map<String, Field> fields = fieldsOf(type);
+			
+			try {
+				
+				Constructor<?> constructor = type.getDeclaredConstructor();
+				constructor.setAccessible(true);
+				
+				Object object = constructor.newInstance();
+				
+				for (int count = (int)readUnsigned(); count > 0; count--) {
+					
+					Field field = fields.get(readSymbol());
+					Object value = readValue();
+					
+					if(field != null && !(value == null && field.getType().isPrimitive())) {
+						
+						field.set(object, value);
+					}
+				}
+				
+				return object;
+			}
+			catch(PackratRuntimeException pre) {
+				
+				throw pre;
+			}
+			catch(Exception e) {
+				
+				throw new PackratRuntimeException("Failed to decode an instance of " + type.getName() + ". ", e);
+			}
+		}
+		
+		private Class<?> classOf(String name) {
+			
+			try {
+				
+				return Class.forName(name);
+			}
+			catch(ClassNotFoundException cnfe) {
+				
+				throw new PackratRuntimeException("Failed to decode an instance of " + name + ". ", cnfe);
+			}
+		}
+		
+		private String readSymbol() {
+			
+			int index = (int)readUnsigned();
+			
+			if(index == 0) {
+				
+				String symbol = readString();
+				symbols.add(symbol);
+				
+				return symbol;
+			}
+			
+			return symbols.get(index - 1);
+		}
+		
+		private String readString() {
+			
+			int length = (int)readUnsigned();
+			String string = new String(bytes, position, length, UTF_8);
+			position += length;
+			
+			return string;
+		}
+		
+		private byte[] readBlob() {
+			
+			int length = (int)readUnsigned();
+			byte[] copy = new byte[length];
+			
+			System.arraycopy(bytes, position, copy, 0, length);
+			position += length;
+			
+			return copy;
+		}
+		
+		private int read() {
+			
+			if(position >= bytes.length) {
+				
+				throw new PackratRuntimeException("The encoding ended unexpectedly. ");
+			}
+			
+			return bytes[position++] & 0xFF;
+		}
+		
+		private long readSigned() {
+			
+			long value = readUnsigned();
+			return (value >>> 1) ^ -(value & 1L);
+		}
+		
+		private long readUnsigned() {
+			
+			long value = 0L;
+			
+			for (int shift = 0; ; shift += 7) {
+				
+				int b = read();
+				value |= (long)(b & 0x7F) << shift;
+				
+				if((b & 0x80) == 0) return value;
+			}
+		}
+		
+		private long readFixed(int length) {
+			
+			long bits = 0L;
+			
+			for (int i = 0; i < length; i++) {
+				
+				bits |= (long)read() << (8 * i);
+			}
+			
+			return bits;
+		}
+	}
+}
@@ -0,0 +1,257 @@
+package com.lonepulse.packrat.converter;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.lonepulse.packrat.PackratRuntimeException;
+
+/**
+ * <p>Compresses column values using <b>Deflate</b>. Each stored value begins with the 
+ * {@link #MAGIC} prefix and a flag; {@link #STORED} is followed by the value as it is, 
+ * whereas {@link #DEFLATED} is followed by the length of the value as a varint and its raw 
+ * deflate stream. Values which do not begin with the prefix were stored before compression 
+ * was enabled and are read as they are. The prefix begins with a byte which never starts 
+ * UTF-8 text, an encoding of the {@link BinaryCodec} or a packed array, so that such values 
+ * cannot be mistaken for compressed ones.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class Compression {
+
+	
+	/**
+	 * <p>The prefix of every value which was stored using {@link #compress(byte[], int)}.
+	 */
+	private static final byte[] MAGIC = { (byte)0xF8, 'P', 'Z' };
+	
+	/**
+	 * <p>The length of the prefix and the flag which follows it.
+	 */
+	private static final int HEADER = MAGIC.length + 1;
+	
+	/**
+	 * <p>The flag of a value which is stored without compression.
+	 */
+	private static final byte STORED = 0;
+	
+	/**
+	 * <p>The flag of a value which is compressed.
+	 */
+	private static final byte DEFLATED = 1;
+	
+	/**
+	 * <p>The size in bytes below which values never shrink enough to be worth compressing.
+	 */
+	private static final int MINIMUM = 16;
+	
+	
+	/**
+	 * <p>Instantiation is nonsensical.
+	 *
+	 * @since 1.1.0
+	 */
+	private Compression() {}
+	
+	/**
+	 * <p>Compresses the given value if it is at least as large as the threshold and if it 
+	 * shrinks as a result.</p>
+	 *
+	 * @param value
+	 * 			the value to be stored
+	 * 
+	 * @param threshold
+	 * 			the size in bytes from which values are compressed
+	 * 
+	 * @return the value to be stored in the column, including its header
+	 * 
+	 * @since 1.1.0
+	 */
+	public static byte[] compress(byte[] value, int threshold) {
+		
+		if(value.length >= Math.max(threshold, MINIMUM)) {
+			
+			Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+			
+			try {
+				
+				deflater.setInput(value);
+				deflater.finish();
+				
+				byte[] stored = new byte[value.length];
+				
+				int position = header(stored, DEFLATED);
+				int length = value.length;
+				
+				while((length & ~0x7F) != 0) {
+					
+					stored[position++] = (byte)((length & 0x7F) | 0x80);
+					length >>>= 7;
+				}
+				
+				stored[position++] = (byte)length;
+				
+				while(!deflater.finished() && position < stored.length) {
+					
+					position += deflater.deflate(stored, position, stored.length - position);
+				}
+				
+				if(deflater.finished()) {
+					
+					byte[] compressed = new byte[position];
+					System.arraycopy(stored, 0, compressed, 0, position);
+					
+					return compressed;
+				}
+			}
+			finally {
+				
+				deflater.end();
+			}
+		}
+		
+		byte[] stored = new byte[value.length + HEADER];
+		System.arraycopy(value, 0, stored, header(stored, STORED), value.length);
+		
+		return stored;
+	}
+	
+	/**
+	 * <p>Writes the prefix and the given flag at the beginning of a stored value.
+	 * 
+	 * @return the position which follows the header
+	 */
+	private static int header(byte[] stored, byte flag) {
+		
+		System.arraycopy(MAGIC, 0, stored, 0, MAGIC.length);
+		stored[MAGIC.length] = flag;
+		
+		return HEADER;
+	}
+	
+	/**
+	 * <p>Reads the flag of a stored value, or {@code -1} if the value does not begin with 
+	 * a header and so was stored before compression was enabled.
+	 */
+	private static int flagOf(byte[] stored) {
+		
+		if(stored.length < HEADER) {
+			
+			return -1;
+		}
+		
+		for (int i = 0; i < MAGIC.length; i++) {
+			
+			if(stored[i] != MAGIC[i]) return -1;
+		}
+		
+		byte flag = stored[MAGIC.length];
+		
+		return (flag == STORED || flag == DEFLATED)? flag :-1;
+	}
+	
+	/**
+	 * <p>Restores a value which was stored using {@link #compress(byte[], int)}.</p>
+	 *
+	 * @param stored
+	 * 			the value in the column, including its header
+	 * 
+	 * @return the original value
+	 * 
+	 * @throws PackratRuntimeException
+	 * 			if a compressed value is corrupt
+	 * 
+	 * @since 1.1.0
+	 */
+	public static byte[] decompress(byte[] stored) {
+		
+		int flag = flagOf(stored);
+		
+		if(flag == -1) {
+			
+			return stored;
+		}
+		
+		if(flag == STORED) {
+			
+			byte[] value = new byte[stored.length - HEADER];
+			System.arraycopy(stored, HEADER, value, 0, value.length);
+			
+			return value;
+		}
+		
+		int length = 0;
+		int position = HEADER;
+		
+		for (int shift = 0; ; shift += 7) {
+			
+			if(position == stored.length) {
+				
+				throw new PackratRuntimeException("Failed to decompress a truncated value. ");
+			}
+			
+			byte b = stored[position++];
+			length |= (b & 0x7F) << shift;
+			
+			if((b & 0x80) == 0) break;
+		}
+		
+		Inflater inflater = new Inflater(true);
+		
+		try {
+			
+			//the raw stream needs a trailing byte to be consumed completely
+			byte[] input = new byte[stored.length - position + 1];
+			System.arraycopy(stored, position, input, 0, input.length - 1);
+			
+			inflater.setInput(input);
+			
+			byte[] value = new byte[length];
+			int inflated = 0;
+			
+			while(inflated < length) {
+				
+				int count = inflater.inflate(value, inflated, length - inflated);
+				
+				if(count == 0 && (inflater.finished() || inflater.needsInput())) {
+					
+					throw new DataFormatException("The stream ended after " + inflated + " of " + length + " bytes. ");
+				}
+				
+				inflated += count;
+			}
+			
+			return value;
+		}
+		catch(DataFormatException dfe) {
+			
+			throw new PackratRuntimeException("Failed to decompress a corrupt value. ", dfe);
+		}
+		finally {
+			
+			inflater.end();
+		}
+	}
+}
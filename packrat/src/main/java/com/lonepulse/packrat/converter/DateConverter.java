@@ -0,0 +1,69 @@
+package com.lonepulse.packrat.converter;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Date;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+
+import com.lonepulse.packrat.sql.TypeAffinity;
+
+/**
+ * <p>Stores a {@link Date} as an <b>INTEGER</b> holding the milliseconds since the epoch, 
+ * so that dates are compared and indexed as numbers.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+final class DateConverter implements TypeConverter<Date> {
+
+	@Override
+	public TypeAffinity getTypeAffinity() {
+		
+		return TypeAffinity.INTEGER;
+	}
+
+	@Override
+	public Date read(Cursor cursor, int index) {
+		
+		return new Date(cursor.getLong(index));
+	}
+
+	@Override
+	public void write(String column, Date value, ContentValues values) {
+		
+		values.put(column, Long.valueOf(value.getTime()));
+	}
+
+	@Override
+	public String toArg(Date value) {
+		
+		return String.valueOf(value.getTime());
+	}
+
+	@Override
+	public Date parse(String text) {
+		
+		return new Date(Long.parseLong(text.trim()));
+	}
+}
@@ -0,0 +1,352 @@
+package com.lonepulse.packrat.converter;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.lonepulse.packrat.PackratRuntimeException;
+import com.lonepulse.packrat.annotation.Packed.Encoding;
+
+/**
+ * <p>Packs arrays of primitives into a single <b>BLOB</b> and unpacks them directly into 
+ * primitive arrays, without boxing their elements. A packed array begins with the ordinal of 
+ * its {@link Encoding}. {@link Encoding#FIXED} elements follow in little-endian byte order, 
+ * whereas {@link Encoding#VARINT} and {@link Encoding#DELTA} elements are preceded by their 
+ * count as a varint.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class PackedArrays {
+
+	
+	/**
+	 * <p>Instantiation is nonsensical.
+	 *
+	 * @since 1.1.0
+	 */
+	private PackedArrays() {}
+	
+	/**
+	 * <p>Packs an array of {@code int}s.</p>
+	 *
+	 * @param values
+	 * 			the array to be packed
+	 * 
+	 * @param encoding
+	 * 			the {@link Encoding} of the elements
+	 * 
+	 * @return the packed array
+	 * 
+	 * @since 1.1.0
+	 */
+	public static byte[] pack(int[] values, Encoding encoding) {
+		
+		if(encoding == Encoding.FIXED) {
+			
+			ByteBuffer buffer = fixed(encoding, values.length, 4);
+			buffer.asIntBuffer().put(values);
+			
+			return buffer.array();
+		}
+		
+		Varints varints = new Varints(encoding, values.length, 5);
+		long previous = 0L;
+		
+		for (int value : values) {
+			
+			varints.write(value, previous);
+			previous = value;
+		}
+		
+		return varints.toByteArray();
+	}
+	
+	/**
+	 * <p>Packs an array of {@code long}s.</p>
+	 *
+	 * @param values
+	 * 			the array to be packed
+	 * 
+	 * @param encoding
+	 * 			the {@link Encoding} of the elements
+	 * 
+	 * @return the packed array
+	 * 
+	 * @since 1.1.0
+	 */
+	public static byte[] pack(long[] values, Encoding encoding) {
+		
+		if(encoding == Encoding.FIXED) {
+			
+			ByteBuffer buffer = fixed(encoding, values.length, 8);
+			buffer.asLongBuffer().put(values);
+			
+			return buffer.array();
+		}
+		
+		Varints varints = new Varints(encoding, values.length, 10);
+		long previous = 0L;
+		
+		for (long value : values) {
+			
+			varints.write(value, previous);
+			previous = value;
+		}
+		
+		return varints.toByteArray();
+	}
+	
+	/**
+	 * <p>Packs an array of {@code double}s using the {@link Encoding#FIXED} encoding.</p>
+	 *
+	 * @param values
+	 * 			the array to be packed
+	 * 
+	 * @return the packed array
+	 * 
+	 * @since 1.1.0
+	 */
+	public static byte[] pack(double[] values) {
+		
+		ByteBuffer buffer = fixed(Encoding.FIXED, values.length, 8);
+		buffer.asDoubleBuffer().put(values);
+		
+		return buffer.array();
+	}
+	
+	/**
+	 * <p>Unpacks an array of {@code int}s which was packed using {@link #pack(int[], Encoding)}.</p>
+	 *
+	 * @param packed
+	 * 			the packed array
+	 * 
+	 * @return the unpacked array
+	 * 
+	 * @since 1.1.0
+	 */
+	public static int[] unpackInts(byte[] packed) {
+		
+		if(encodingOf(packed) == Encoding.FIXED) {
+			
+			int[] values = new int[(packed.length - 1) / 4];
+			wrap(packed).asIntBuffer().get(values);
+			
+			return values;
+		}
+		
+		Varints varints = new Varints(packed);
+		int[] values = new int[varints.count()];
+		long previous = 0L;
+		
+		for (int i = 0; i < values.length; i++) {
+			
+			previous = varints.read(previous);
+			values[i] = (int)previous;
+		}
+		
+		return values;
+	}
+	
+	/**
+	 * <p>Unpacks an array of {@code long}s which was packed using {@link #pack(long[], Encoding)}.</p>
+	 *
+	 * @param packed
+	 * 			the packed array
+	 * 
+	 * @return the unpacked array
+	 * 
+	 * @since 1.1.0
+	 */
+	public static long[] unpackLongs(byte[] packed) {
+		
+		if(encodingOf(packed) == Encoding.FIXED) {
+			
+			long[] values = new long[(packed.length - 1) / 8];
+			wrap(packed).asLongBuffer().get(values);
+			
+			return values;
+		}
+		
+		Varints varints = new Varints(packed);
+		long[] values = new long[varints.count()];
+		long previous = 0L;
+		
+		for (int i = 0; i < values.length; i++) {
+			
+			values[i] = previous = varints.read(previous);
+		}
+		
+		return values;
+	}
+	
+	/**
+	 * <p>Unpacks an array of {@code double}s which was packed using {@link #pack(double[])}.</p>
+	 *
+	 * @param packed
+	 * 			the packed array
+	 * 
+	 * @return the unpacked array
+	 * 
+	 * @since 1.1.0
+	 */
+	public static double[] unpackDoubles(byte[] packed) {
+		
+		if(encodingOf(packed) != Encoding.FIXED) {
+			
+			throw new PackratRuntimeException("Arrays of doubles can only be packed with a fixed width. ");
+		}
+		
+		double[] values = new double[(packed.length - 1) / 8];
+		wrap(packed).asDoubleBuffer().get(values);
+		
+		return values;
+	}
+	
+	/**
+	 * <p>Allocates a little-endian buffer for a fixed-width array, positioned after its header.</p>
+	 */
+	private static ByteBuffer fixed(Encoding encoding, int length, int width) {
+		
+		ByteBuffer buffer = ByteBuffer.allocate(1 + length * width).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.put((byte)encoding.ordinal());
+		
+		return buffer;
+	}
+	
+	/**
+	 * <p>Wraps a fixed-width array as a little-endian buffer, positioned after its header.</p>
+	 */
+	private static ByteBuffer wrap(byte[] packed) {
+		
+		ByteBuffer buffer = ByteBuffer.wrap(packed).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.position(1);
+		
+		return buffer;
+	}
+	
+	/**
+	 * <p>Reads the {@link Encoding} from the header of a packed array.</p>
+	 */
+	private static Encoding encodingOf(byte[] packed) {
+		
+		Encoding[] encodings = Encoding.values();
+		
+		if(packed.length == 0 || packed[0] < 0 || packed[0] >= encodings.length) {
+			
+			throw new PackratRuntimeException("The value is not a packed array. ");
+		}
+		
+		return encodings[packed[0]];
+	}
+	
+	
+	/**
+	 * <p>Writes and reads the elements of an array packed as zig-zag varints.
+	 */
+	private static final class Varints {
+		
+		private final boolean delta;
+		private byte[] bytes;
+		private int position;
+		
+		/**
+		 * <p>Prepares to pack the given number of elements, each of which takes at most the 
+		 * given number of bytes.
+		 */
+		private Varints(Encoding encoding, int count, int width) {
+			
+			this.delta = encoding == Encoding.DELTA;
+			this.bytes = new byte[1 + 5 + count * width];
+			this.bytes[position++] = (byte)encoding.ordinal();
+			
+			writeUnsigned(count);
+		}
+		
+		/**
+		 * <p>Prepares to unpack the given array.
+		 */
+		private Varints(byte[] packed) {
+			
+			this.delta = encodingOf(packed) == Encoding.DELTA;
+			this.bytes = packed;
+			this.position = 1;
+		}
+		
+		private int count() {
+			
+			return (int)readUnsigned();
+		}
+		
+		private void write(long value, long previous) {
+			
+			long element = delta? value - previous :value;
+			writeUnsigned((element << 1) ^ (element >> 63));
+		}
+		
+		private long read(long previous) {
+			
+			long element = readUnsigned();
+			element = (element >>> 1) ^ -(element & 1L);
+			
+			return delta? previous + element :element;
+		}
+		
+		private void writeUnsigned(long value) {
+			
+			while((value & ~0x7FL) != 0L) {
+				
+				bytes[position++] = (byte)((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			
+			bytes[position++] = (byte)value;
+		}
+		
+		private long readUnsigned() {
+			
+			long value = 0L;
+			
+			for (int shift = 0; ; shift += 7) {
+				
+				if(position >= bytes.length) {
+					
+					throw new PackratRuntimeException("The packed array ended unexpectedly. ");
+				}
+				
+				byte b = bytes[position++];
+				value |= (long)(b & 0x7F) << shift;
+				
+				if((b & 0x80) == 0) return value;
+			}
+		}
+		
+		private byte[] toByteArray() {
+			
+			byte[] packed = new byte[position];
+			System.arraycopy(bytes, 0, packed, 0, position);
+			
+			return packed;
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.lonepulse.packrat.converter;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import android.content.ContentValues;
+import android.database.Cursor;
+
+import com.lonepulse.packrat.sql.TypeAffinity;
+
+/**
+ * <p>Maps the values of a type which SQLite does not store natively to and from a compact 
+ * column representation. A converter which is registered with {@link TypeConverters} is used 
+ * for every attribute of its type, and its {@link TypeAffinity} is used to declare the column.</p>
+ * 
+ * <p>Converters are never invoked for {@code NULL}s, which are handled by the caller.</p>
+ * 
+ * @param <T>
+ * 			the type of the attribute values
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public interface TypeConverter<T> {
+
+	/**
+	 * <p>Retrieves the {@link TypeAffinity} of the columns which hold converted values.</p>
+	 *
+	 * @return the type affinity of the column
+	 * 
+	 * @since 1.1.0
+	 */
+	TypeAffinity getTypeAffinity();
+	
+	/**
+	 * <p>Reads a value from a column which is not {@code NULL}.</p>
+	 *
+	 * @param cursor
+	 * 			the {@link Cursor} positioned at the row to be read
+	 * 
+	 * @param index
+	 * 			the index of the column
+	 * 
+	 * @return the value of the column
+	 * 
+	 * @since 1.1.0
+	 */
+	T read(Cursor cursor, int index);
+	
+	/**
+	 * <p>Writes a value which is not {@code null} into the given column.</p>
+	 *
+	 * @param column
+	 * 			the name of the column
+	 * 
+	 * @param value
+	 * 			the value to be written
+	 * 
+	 * @param values
+	 * 			the {@link ContentValues} to which the value is written
+	 * 
+	 * @since 1.1.0
+	 */
+	void write(String column, T value, ContentValues values);
+	
+	/**
+	 * <p>Converts a value which is not {@code null} into an argument for a selection such as 
+	 * {@code column = ?}. Since arguments are bound as text, this is only supported for 
+	 * converters whose affinity is not {@link TypeAffinity#BLOB}.</p>
+	 *
+	 * @param value
+	 * 			the value to be converted
+	 * 
+	 * @return the textual representation of the column value
+	 * 
+	 * @since 1.1.0
+	 */
+	String toArg(T value);
+	
+	/**
+	 * <p>Parses the textual form of a value, such as a field of an imported record. Values 
+	 * are given in the form which {@link #toArg(Object)} produces or, for converters whose 
+	 * affinity is {@link TypeAffinity#BLOB}, in the canonical textual form of their type.</p>
+	 *
+	 * @param text
+	 * 			the textual form of a value, which is not {@code null}
+	 * 
+	 * @return the parsed value
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if the text is not a valid value
+	 * 
+	 * @since 1.1.0
+	 */
+	T parse(String text);
+}
@@ -0,0 +1,96 @@
+package com.lonepulse.packrat.converter;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>The registry of {@link TypeConverter}s which are used to map attributes whose types 
+ * SQLite does not store natively. Converters for {@link Date} (an <b>INTEGER</b> epoch in 
+ * milliseconds) and {@link UUID} (a 16-byte <b>BLOB</b>) are registered by default.</p>
+ * 
+ * <p>Strings, numbers, booleans, characters, enums and byte arrays are mapped directly 
+ * without a converter. Custom converters must be registered before the metadata of any 
+ * entity which uses them is discovered, since that metadata is cached.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class TypeConverters {
+
+	
+	/**
+	 * <p>The converter registered for each type.
+	 */
+	private static final ConcurrentMap<Class<?>, TypeConverter<?>> CONVERTERS 
+		= new ConcurrentHashMap<Class<?>, TypeConverter<?>>();
+	
+	static {
+		
+		CONVERTERS.put(Date.class, new DateConverter());
+		CONVERTERS.put(UUID.class, new UUIDConverter());
+	}
+	
+	
+	/**
+	 * <p>Instantiation is nonsensical.
+	 *
+	 * @since 1.1.0
+	 */
+	private TypeConverters() {}
+	
+	/**
+	 * <p>Registers the given {@link TypeConverter} for attributes of exactly the given type, 
+	 * replacing any converter which was registered for it.</p>
+	 *
+	 * @param type
+	 * 			the {@link Class} of the attributes to be converted
+	 * 
+	 * @param converter
+	 * 			the {@link TypeConverter} to use
+	 * 
+	 * @since 1.1.0
+	 */
+	public static <T> void register(Class<T> type, TypeConverter<T> converter) {
+		
+		CONVERTERS.put(type, converter);
+	}
+	
+	/**
+	 * <p>Retrieves the {@link TypeConverter} which was registered for the given type.</p>
+	 *
+	 * @param type
+	 * 			the {@link Class} of an attribute
+	 * 
+	 * @return the converter for the type, or {@code null} if there is none
+	 * 
+	 * @since 1.1.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> TypeConverter<T> lookup(Class<T> type) {
+		
+		return (TypeConverter<T>)CONVERTERS.get(type);
+	}
+}
@@ -0,0 +1,94 @@
+package com.lonepulse.packrat.converter;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.UUID;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+
+import com.lonepulse.packrat.sql.TypeAffinity;
+
+/**
+ * <p>Stores a {@link UUID} as a 16-byte big-endian <b>BLOB</b>, less than half the size 
+ * of its textual form.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+final class UUIDConverter implements TypeConverter<UUID> {
+
+	@Override
+	public TypeAffinity getTypeAffinity() {
+		
+		return TypeAffinity.BLOB;
+	}
+
+	@Override
+	public UUID read(Cursor cursor, int index) {
+		
+		byte[] bytes = cursor.getBlob(index);
+		
+		long most = 0L, least = 0L;
+		
+		for (int i = 0; i < 8; i++) {
+			
+			most = (most << 8) | (bytes[i] & 0xFF);
+			least = (least << 8) | (bytes[i + 8] & 0xFF);
+		}
+		
+		return new UUID(most, least);
+	}
+
+	@Override
+	public void write(String column, UUID value, ContentValues values) {
+		
+		byte[] bytes = new byte[16];
+		
+		long most = value.getMostSignificantBits();
+		long least = value.getLeastSignificantBits();
+		
+		for (int i = 7; i >= 0; i--) {
+			
+			bytes[i] = (byte)most;
+			bytes[i + 8] = (byte)least;
+			
+			most >>>= 8;
+			least >>>= 8;
+		}
+		
+		values.put(column, bytes);
+	}
+
+	@Override
+	public String toArg(UUID value) {
+		
+		throw new UnsupportedOperationException(
+			"A UUID is stored as a BLOB and cannot be bound as a textual argument. ");
+	}
+
+	@Override
+	public UUID parse(String text) {
+		
+		return UUID.fromString(text.trim());
+	}
+}
@@ -0,0 +1,561 @@
+package com.lonepulse.packrat.metadata;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.lonepulse.packrat.Entity;
+import com.lonepulse.packrat.annotation.FullText;
+import com.lonepulse.packrat.annotation.Id;
+import com.lonepulse.packrat.annotation.Version;
+import com.lonepulse.packrat.annotation.WithoutRowId;
+
+/**
+ * <p>Describes how a model is mapped to a relation. The metadata of a model is 
+ * discovered only once using reflection and is cached thereafter. Use 
+ * {@link EntityMetadata#of(Class)} to obtain the metadata of a model.</p>
+ * 
+ * <p>The name of the relation is the simple name of the model and each persistent 
+ * attribute is mapped to a column via a {@link Property}. Attributes inherited from 
+ * superclasses are included, with the exception of those declared on {@link Entity}.</p> 
+ * 
+ * <p>Attributes which refer to related entities are described by a {@link Relationship}. 
+ * Those annotated with {@code @ToOne} are also mapped to a column.</p>
+ * 
+ * <p>Any model can be described, including <i>projections</i> which only declare a 
+ * subset of the attributes of an entity.</p> 
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class EntityMetadata<T> {
+
+	
+	/**
+	 * <p>The cache of all metadata which has been discovered so far.
+	 */
+	private static final ConcurrentMap<Class<?>, EntityMetadata<?>> CACHE 
+		= new ConcurrentHashMap<Class<?>, EntityMetadata<?>>();
+	
+	/**
+	 * <p>Orders the fields of a class by name. The order in which reflection reports them is 
+	 * unspecified, and on Android it follows the order of the dex file rather than the source, 
+	 * so the name is the only order which is the same on every platform.
+	 */
+	private static final Comparator<Field> BY_NAME = new Comparator<Field>() {
+		
+		@Override
+		public int compare(Field first, Field second) {
+			
+			return first.getName().compareTo(second.getName());
+		}
+	};
+	
+	/**
+	 * <p>Orders the attributes of a composite key by their declared {@link Id#order()}.
+	 */
+	private static final Comparator<Property> BY_ORDER = new Comparator<Property>() {
+		
+		@Override
+		public int compare(Property first, Property second) {
+			
+			int x = orderOf(first), y = orderOf(second);
+			return x < y? -1 :(x == y? 0 :1);
+		}
+	};
+	
+	
+	/**
+	 * <p>The {@link Class} of the model which this metadata describes.
+	 */
+	private final Class<T> type;
+	
+	/**
+	 * <p>The name of the relation to which the model is mapped.
+	 */
+	private final String table;
+	
+	/**
+	 * <p>The nullary constructor of the model or {@code null} if there is none.
+	 */
+	private final Constructor<T> constructor;
+	
+	/**
+	 * <p>The single {@link Property} annotated with {@code @Id}, or {@code null} if there is 
+	 * none or if the model declares a composite key.
+	 */
+	private final Property id;
+	
+	/**
+	 * <p>All attributes annotated with {@code @Id} in the order given by {@link Id#order()}.
+	 */
+	private final List<Property> key;
+	
+	/**
+	 * <p>The {@link Property} annotated with {@code @Version}, or {@code null} if there is none.
+	 */
+	private final Property version;
+	
+	/**
+	 * <p>All persistent attributes of the model, with those of each class ordered by name.
+	 */
+	private final List<Property> properties;
+	
+	/**
+	 * <p>The persistent attributes of the model indexed by their column names.
+	 */
+	private final Map<String, Property> columns;
+	
+	/**
+	 * <p>All attributes of the model which refer to related entities.
+	 */
+	private final List<Relationship> relationships;
+	
+	/**
+	 * <p>All attributes of the model which are indexed for full-text search.
+	 */
+	private final List<Property> fullText;
+	
+	
+	/**
+	 * <p>Retrieves the {@link EntityMetadata} of the given model, discovering it if 
+	 * this is the first time the model is being described.
+	 *
+	 * @param type
+	 * 			the {@link Class} of the model to be described
+	 * 
+	 * @return the {@link EntityMetadata} of the given model
+	 * 
+	 * @throws MetadataException
+	 * 			if the model contains attributes which cannot be mapped
+	 * 
+	 * @since 1.1.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> EntityMetadata<T> of(Class<T> type) {
+		
+		EntityMetadata<?> metadata = CACHE.get(type);
+		
+		if(metadata == null) {
+			
+			metadata = new EntityMetadata<T>(type);
+			EntityMetadata<?> existing = CACHE.putIfAbsent(type, metadata);
+			
+			if(existing != null) metadata = existing;
+		}
+		
+		return (EntityMetadata<T>)metadata;
+	}
+	
+	/**
+	 * <p>Discovers the metadata of the given model. Visibility is restricted to 
+	 * enforce use of {@link #of(Class)}.
+	 * 
+	 * @param type
+	 * 			the {@link Class} of the model to be described
+	 *
+	 * @since 1.1.0
+	 */
+	private EntityMetadata(Class<T> type) {
+		
+		this.type = type;
+		this.table = type.getSimpleName();
+		this.constructor = constructorOf(type);
+		
+		LinkedList<Field> fields = new LinkedList<Field>();
+		
+		for(Class<?> current = type; 
+			current != null && !Object.class.equals(current) && !Entity.class.equals(current); 
+			current = current.getSuperclass()) {
+			
+			Field[] declared = current.getDeclaredFields();
+			Arrays.sort(declared, BY_NAME);
+			
+			for (int i = declared.length - 1; i >= 0; i--) {
+				
+				if(Property.isPersistent(declared[i])) fields.addFirst(declared[i]);
+			}
+		}
+		
+		List<Property> properties = new ArrayList<Property>(fields.size());
+		Map<String, Property> columns = new HashMap<String, Property>();
+		List<Relationship> relationships = new ArrayList<Relationship>();
+		List<Property> fullText = new ArrayList<Property>();
+		List<Property> key = new ArrayList<Property>();
+		Property version = null;
+		
+		for (Field field : fields) {
+			
+			if(Relationship.isRelationship(field)) {
+				
+				Relationship relationship = new Relationship(field);
+				relationships.add(relationship);
+				
+				if(relationship.getCardinality() == Relationship.Cardinality.TO_MANY) {
+					
+					continue;
+				}
+			}
+			
+			Property property = new Property(field);
+			
+			if(property.isId()) {
+				
+				key.add(property);
+			}
+			
+			if(property.isAutoIncrement() && (!property.isId() || !property.isIntegral())) {
+				
+				throw new MetadataException(new StringBuilder("The attribute ").append(field.getName())
+				.append(" of ").append(type.getName()).append(" must be an integral @Id to be auto-incremented. ")
+				.toString());
+			}
+			
+			if(property.isVersion()) {
+				
+				if(version != null || property.isId() || !property.isIntegral()) {
+					
+					throw new MetadataException(new StringBuilder("The attribute ").append(field.getName())
+					.append(" of ").append(type.getName()).append(" must be the only @Version ")
+					.append("and an integral attribute which is not part of the key. ").toString());
+				}
+				
+				version = property;
+			}
+			
+			if(property.isFullText()) {
+				
+				fullText.add(property);
+			}
+			
+			properties.add(property);
+			columns.put(property.getColumn(), property);
+		}
+		
+		if(key.size() > 1) {
+			
+			Set<Integer> positions = new HashSet<Integer>();
+			
+			for (Property property : key) {
+				
+				if(property.isAutoIncrement()) {
+					
+					throw new MetadataException(new StringBuilder("The model ").append(type.getName())
+					.append(" cannot auto-increment an attribute of its composite key. ").toString());
+				}
+				
+				if(!positions.add(Integer.valueOf(orderOf(property)))) {
+					
+					throw new MetadataException(new StringBuilder("The model ").append(type.getName())
+					.append(" must declare a distinct @Id(order) for each attribute of its composite key. ")
+					.toString());
+				}
+			}
+			
+			Collections.sort(key, BY_ORDER);
+		}
+		
+		if(type.isAnnotationPresent(WithoutRowId.class)) {
+			
+			if(key.isEmpty() || (key.size() == 1 && key.get(0).isIntegral())) {
+				
+				throw new MetadataException(new StringBuilder("The model ").append(type.getName())
+				.append(" must declare a textual or composite key to be stored without a rowid. ").toString());
+			}
+			
+			if(!fullText.isEmpty()) {
+				
+				throw new MetadataException(new StringBuilder("The model ").append(type.getName())
+				.append(" cannot be indexed for full-text search since it is stored without a rowid. ").toString());
+			}
+		}
+		
+		this.id = key.size() == 1? key.get(0) :null;
+		this.key = Collections.unmodifiableList(key);
+		this.version = version;
+		this.properties = Collections.unmodifiableList(properties);
+		this.columns = Collections.unmodifiableMap(columns);
+		this.relationships = Collections.unmodifiableList(relationships);
+		this.fullText = Collections.unmodifiableList(fullText);
+	}
+	
+	private static int orderOf(Property property) {
+		
+		return property.getField().getAnnotation(Id.class).order();
+	}
+	
+	private static <T> Constructor<T> constructorOf(Class<T> type) {
+		
+		try {
+			
+			Constructor<T> constructor = type.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			
+			return constructor;
+		}
+		catch(NoSuchMethodException nsme) {
+			
+			return null;
+		}
+	}
+	
+	/**
+	 * <p>Creates a new instance of the model using its nullary constructor.
+	 *
+	 * @return a new instance of the model
+	 * 
+	 * @throws MetadataException
+	 * 			if the model does not declare a nullary constructor or 
+	 * 			if the instantiation failed
+	 * 
+	 * @since 1.1.0
+	 */
+	public T newInstance() {
+		
+		if(constructor == null) {
+			
+			throw new MetadataException(new StringBuilder("The model ").append(type.getName())
+			.append(" must declare a constructor which takes no arguments. ").toString());
+		}
+		
+		try {
+			
+			return constructor.newInstance();
+		}
+		catch(Exception e) {
+			
+			throw new MetadataException("Failed to instantiate " + type.getName() + ". ", e);
+		}
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Class} of the model which this metadata describes.
+	 *
+	 * @return the type of the model
+	 * 
+	 * @since 1.1.0
+	 */
+	public Class<T> getType() {
+		
+		return type;
+	}
+	
+	/**
+	 * <p>Retrieves the name of the relation to which the model is mapped.
+	 *
+	 * @return the name of the table
+	 * 
+	 * @since 1.1.0
+	 */
+	public String getTable() {
+		
+		return table;
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Property} which serves as the primary key.
+	 *
+	 * @return the primary key property
+	 * 
+	 * @throws MetadataException
+	 * 			if the model does not declare an attribute annotated with {@code @Id}, or 
+	 * 			if it declares a composite key
+	 * 
+	 * @since 1.1.0
+	 */
+	public Property getId() {
+		
+		if(id == null) {
+			
+			throw new MetadataException(new StringBuilder("The model ").append(type.getName())
+			.append(key.isEmpty()? " does not declare an attribute annotated with @Id. " :
+				" declares a composite key and cannot be identified by a single attribute. ").toString());
+		}
+		
+		return id;
+	}
+	
+	/**
+	 * <p>Determines if the model declares a single attribute annotated with {@code @Id}.
+	 *
+	 * @return {@code true} if the model has a primary key which is not composite
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean hasId() {
+		
+		return id != null;
+	}
+	
+	/**
+	 * <p>Retrieves all attributes which make up the primary key, i.e. those annotated with 
+	 * {@code @Id}. Two or more attributes signify a <b>composite key</b>.
+	 *
+	 * @return an unmodifiable list of the key properties in the order given by {@link Id#order()}
+	 * 
+	 * @throws MetadataException
+	 * 			if the model does not declare an attribute annotated with {@code @Id}
+	 * 
+	 * @since 1.1.0
+	 */
+	public List<Property> getKey() {
+		
+		if(key.isEmpty()) {
+			
+			throw new MetadataException(new StringBuilder("The model ").append(type.getName())
+			.append(" does not declare an attribute annotated with @Id. ").toString());
+		}
+		
+		return key;
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Property} which holds the version of the model for optimistic 
+	 * concurrency control, as declared using {@link Version}.
+	 *
+	 * @return the version property, or {@code null} if the model is not versioned
+	 * 
+	 * @since 1.1.0
+	 */
+	public Property getVersion() {
+		
+		return version;
+	}
+	
+	/**
+	 * <p>Determines if the model is stored without a <i>rowid</i>, as declared using 
+	 * {@link WithoutRowId}.
+	 *
+	 * @return {@code true} if the table of the model has no rowid
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isWithoutRowId() {
+		
+		return type.isAnnotationPresent(WithoutRowId.class);
+	}
+	
+	/**
+	 * <p>Retrieves all persistent attributes of the model. Those of a superclass precede those 
+	 * of its subclasses, and the attributes of each class are ordered by name.</p>
+	 *
+	 * @return an unmodifiable list of all {@link Property} instances
+	 * 
+	 * @since 1.1.0
+	 */
+	public List<Property> getProperties() {
+		
+		return properties;
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Property} which is mapped to the given column.
+	 *
+	 * @param column
+	 * 			the name of the column
+	 * 
+	 * @return the {@link Property} mapped to the column, or {@code null} if there is none
+	 * 
+	 * @since 1.1.0
+	 */
+	public Property getProperty(String column) {
+		
+		return columns.get(column);
+	}
+	
+	/**
+	 * <p>Retrieves all attributes of the model which refer to related entities.
+	 *
+	 * @return an unmodifiable list of all {@link Relationship} instances
+	 * 
+	 * @since 1.1.0
+	 */
+	public List<Relationship> getRelationships() {
+		
+		return relationships;
+	}
+	
+	/**
+	 * <p>Retrieves all attributes of the model which are annotated with {@link FullText}.
+	 *
+	 * @return an unmodifiable list of the properties indexed for full-text search
+	 * 
+	 * @since 1.1.0
+	 */
+	public List<Property> getFullText() {
+		
+		return fullText;
+	}
+	
+	/**
+	 * <p>Retrieves the module which implements the full-text index of the model, as 
+	 * declared by a {@link FullText} annotation on the model itself.
+	 *
+	 * @return the declared {@link FullText.Module}, or {@link FullText.Module#FTS4} 
+	 * 		   if the model is not annotated 
+	 * 
+	 * @since 1.1.0
+	 */
+	public FullText.Module getFullTextModule() {
+		
+		FullText declaration = type.getAnnotation(FullText.class);
+		return declaration == null? FullText.Module.FTS4 :declaration.module();
+	}
+	
+	/**
+	 * <p>Retrieves the names of all columns in the order of {@link #getProperties()}.
+	 *
+	 * @return a new array with the names of all columns
+	 * 
+	 * @since 1.1.0
+	 */
+	public String[] getColumns() {
+		
+		String[] names = new String[properties.size()];
+		
+		for (int i = 0; i < names.length; i++) {
+			
+			names[i] = properties.get(i).getColumn();
+		}
+		
+		return names;
+	}
+	
+	@Override
+	public String toString() {
+		
+		return table;
+	}
+}
@@ -0,0 +1,73 @@
+package com.lonepulse.packrat.metadata;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.lonepulse.packrat.PackratRuntimeException;
+
+/**
+ * <p>This exception is thrown due to unrecoverable errors in discovering or 
+ * using the <b>metadata</b> of a model, such as an unmappable attribute or a 
+ * model which cannot be instantiated.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class MetadataException extends PackratRuntimeException {
+
+
+	private static final long serialVersionUID = -3518425497205914381L;
+
+	
+	/**
+	 * <p>See {@link PackratRuntimeException#PackratRuntimeException()}.
+	 *
+	 * @since 1.1.0
+	 */
+	public MetadataException() {}
+
+	/**
+	 * <p>See {@link PackratRuntimeException#PackratRuntimeException(String)}.
+	 *
+	 * @since 1.1.0
+	 */
+	public MetadataException(String detailMessage) {
+		super(detailMessage);
+	}
+
+	/**
+	 * <p>See {@link PackratRuntimeException#PackratRuntimeException(Throwable)}.
+	 *
+	 * @since 1.1.0
+	 */
+	public MetadataException(Throwable throwable) {
+		super(throwable);
+	}
+
+	/**
+	 * <p>See {@link PackratRuntimeException#PackratRuntimeException(String, Throwable)}.
+	 *
+	 * @since 1.1.0
+	 */
+	public MetadataException(String detailMessage, Throwable throwable) {
+		super(detailMessage, throwable);
+	}
+}
@@ -0,0 +1,968 @@
+package com.lonepulse.packrat.metadata;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+
+import com.lonepulse.packrat.Entity;
+import com.lonepulse.packrat.Lazy;
+import com.lonepulse.packrat.annotation.AutoIncrement;
+import com.lonepulse.packrat.annotation.Binary;
+import com.lonepulse.packrat.annotation.Compressed;
+import com.lonepulse.packrat.annotation.FullText;
+import com.lonepulse.packrat.annotation.Id;
+import com.lonepulse.packrat.annotation.Ordinal;
+import com.lonepulse.packrat.annotation.Packed;
+import com.lonepulse.packrat.annotation.Packed.Encoding;
+import com.lonepulse.packrat.annotation.ToOne;
+import com.lonepulse.packrat.annotation.Version;
+import com.lonepulse.packrat.converter.BinaryCodec;
+import com.lonepulse.packrat.converter.Compression;
+import com.lonepulse.packrat.converter.PackedArrays;
+import com.lonepulse.packrat.converter.TypeConverter;
+import com.lonepulse.packrat.converter.TypeConverters;
+import com.lonepulse.packrat.sql.TypeAffinity;
+
+/**
+ * <p>Represents a single attribute of a model which is mapped to a <b>column</b>. 
+ * A {@link Property} knows how to <i>hydrate</i> its attribute from a {@link Cursor} 
+ * and how to <i>dehydrate</i> it into {@link ContentValues}.</p>
+ * 
+ * <p>The column name is the name of the attribute. The strategy used for reading and 
+ * writing the attribute is resolved once when the property is discovered, so that 
+ * hydrating a row does not require any type inspection.</p>
+ * 
+ * <p>Types which SQLite does not store natively, such as dates, are mapped using the 
+ * {@link TypeConverter} registered for them with {@link TypeConverters}. Booleans are 
+ * stored as integers, and enums by name unless annotated with {@link Ordinal}. Nested 
+ * values annotated with {@link Binary} are stored using the {@link BinaryCodec}, and large 
+ * values annotated with {@link Compressed} are stored using {@link Compression}.</p>
+ * 
+ * <p>An attribute annotated with {@link ToOne} is mapped to a column which holds the 
+ * primary key of the related entity. It is hydrated as an unloaded {@link Lazy} holder.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class Property {
+
+	
+	/**
+	 * <p>Identifies the strategy used for reading and writing an attribute.
+	 */
+	private static enum Kind { STRING, LONG, INTEGER, SHORT, BYTE, DOUBLE, FLOAT, BOOLEAN, CHARACTER, BLOB, ENUM, ORDINAL, CONVERTED, BINARY, LAZY_BINARY, LAZY_COMPRESSED, INTS, LONGS, DOUBLES, LONG_LIST, REFERENCE }
+	
+	
+	/**
+	 * <p>The encoding of compressed text.
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	
+	
+	/**
+	 * <p>The attribute which this {@link Property} represents.
+	 */
+	private final Field field;
+	
+	/**
+	 * <p>The name of the column to which the attribute is mapped.
+	 */
+	private final String column;
+	
+	/**
+	 * <p>The {@link TypeAffinity} of the column. For a reference this is resolved 
+	 * lazily from the primary key of the related entity.
+	 */
+	private volatile TypeAffinity typeAffinity;
+	
+	/**
+	 * <p>The strategy used for reading and writing the attribute.
+	 */
+	private final Kind kind;
+	
+	/**
+	 * <p>The value assigned to a <b>primitive</b> attribute when its column is {@code NULL}.
+	 */
+	private final Object nullValue;
+	
+	/**
+	 * <p>The {@link Class} of the related entity if this property is a reference.
+	 */
+	private final Class<?> target;
+	
+	/**
+	 * <p>The {@link TypeConverter} of the attribute if its type is not stored natively.
+	 */
+	private final TypeConverter<Object> converter;
+	
+	/**
+	 * <p>The constants of the enum if the attribute is stored as an ordinal.
+	 */
+	private final Object[] constants;
+	
+	/**
+	 * <p>The size from which values are compressed, or {@code -1} if the attribute is not 
+	 * annotated with {@link Compressed}.
+	 */
+	private final int threshold;
+	
+	/**
+	 * <p>The type of the value held by a {@link Lazy} holder of a compressed value.
+	 */
+	private final Class<?> element;
+	
+	/**
+	 * <p>The {@link Encoding} of the elements if the attribute is a packed array.
+	 */
+	private final Encoding encoding;
+	
+	
+	/**
+	 * <p>Creates a new {@link Property} for the given attribute.
+	 *
+	 * @param field
+	 * 			the attribute which is mapped to a column
+	 * 
+	 * @throws MetadataException
+	 * 			if the type of the attribute cannot be mapped to a column
+	 * 
+	 * @since 1.1.0
+	 */
+	Property(Field field) {
+		
+		this.field = field;
+		this.field.setAccessible(true);
+		
+		this.column = field.getName();
+		this.kind = kindOf(field);
+		this.nullValue = nullValueOf(field.getType());
+		this.converter = kind == Kind.CONVERTED? converterOf(field.getType()) :null;
+		this.constants = kind == Kind.ORDINAL? field.getType().getEnumConstants() :null;
+		this.threshold = field.isAnnotationPresent(Compressed.class)? field.getAnnotation(Compressed.class).threshold() :-1;
+		this.element = kind == Kind.LAZY_COMPRESSED? elementOf(field) :kind == Kind.LAZY_BINARY? Object.class :null;
+		this.encoding = field.isAnnotationPresent(Packed.class)? field.getAnnotation(Packed.class).value() :Encoding.FIXED;
+		
+		if(field.isAnnotationPresent(Packed.class) && !(kind == Kind.INTS || kind == Kind.LONGS || 
+			kind == Kind.LONG_LIST || (kind == Kind.DOUBLES && encoding == Encoding.FIXED))) {
+			
+			throw new MetadataException(new StringBuilder("The attribute ")
+			.append(field.getDeclaringClass().getName()).append(".").append(field.getName())
+			.append(" must be an int[], a long[] or a List<Long> to be packed as varints, ")
+			.append("or a double[] to be packed with a fixed width. ").toString());
+		}
+		
+		if(threshold >= 0 && (isFullText() || !(kind == Kind.STRING || kind == Kind.BLOB || 
+			kind == Kind.BINARY || kind == Kind.LAZY_BINARY || kind == Kind.LAZY_COMPRESSED))) {
+			
+			throw new MetadataException(new StringBuilder("The attribute ")
+			.append(field.getDeclaringClass().getName()).append(".").append(field.getName())
+			.append(" must be textual, binary or annotated with @Binary to be compressed, ")
+			.append("and cannot be indexed for full-text search. ").toString());
+		}
+		
+		if(kind == Kind.REFERENCE) {
+			
+			this.target = new Relationship(field).getTarget();
+		}
+		else {
+			
+			this.target = null;
+			this.typeAffinity = kind == Kind.CONVERTED? converter.getTypeAffinity() :
+				kind == Kind.ORDINAL? TypeAffinity.INTEGER :
+				(kind == Kind.BINARY || kind == Kind.LAZY_BINARY || isPacked() || threshold >= 0)? 
+					TypeAffinity.BLOB :TypeAffinity.resolve(field.getType());
+		}
+		
+		if(isId() && typeAffinity == TypeAffinity.BLOB) {
+			
+			throw new MetadataException(new StringBuilder("The attribute ")
+			.append(field.getDeclaringClass().getName()).append(".").append(field.getName())
+			.append(" cannot be a key since it is stored as a BLOB. ").toString());
+		}
+		
+		if(isFullText() && kind != Kind.STRING) {
+			
+			throw new MetadataException(new StringBuilder("The attribute ")
+			.append(field.getDeclaringClass().getName()).append(".").append(field.getName())
+			.append(" must be a String to be indexed for full-text search. ").toString());
+		}
+	}
+	
+	/**
+	 * <p>Determines if the given attribute should be mapped to a column. Static, 
+	 * transient and synthetic attributes are ignored.
+	 *
+	 * @param field
+	 * 			the attribute to be tested
+	 * 
+	 * @return {@code true} if the attribute should be mapped to a column
+	 * 
+	 * @since 1.1.0
+	 */
+	static boolean isPersistent(Field field) {
+		
+		int modifiers = field.getModifiers();
+		return !(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic());
+	}
+	
+	private static Kind kindOf(Field field) {
+		
+		Class<?> type = field.getType();
+		
+		if(field.isAnnotationPresent(ToOne.class)) return Kind.REFERENCE;
+		if(field.isAnnotationPresent(Binary.class)) return Lazy.class.equals(type)? Kind.LAZY_BINARY :Kind.BINARY;
+		if(field.isAnnotationPresent(Compressed.class) && Lazy.class.equals(type)) return Kind.LAZY_COMPRESSED;
+		if(String.class.equals(type)) return Kind.STRING;
+		if(long.class.equals(type) || Long.class.equals(type)) return Kind.LONG;
+		if(int.class.equals(type) || Integer.class.equals(type)) return Kind.INTEGER;
+		if(short.class.equals(type) || Short.class.equals(type)) return Kind.SHORT;
+		if(byte.class.equals(type) || Byte.class.equals(type)) return Kind.BYTE;
+		if(double.class.equals(type) || Double.class.equals(type)) return Kind.DOUBLE;
+		if(float.class.equals(type) || Float.class.equals(type)) return Kind.FLOAT;
+		if(boolean.class.equals(type) || Boolean.class.equals(type)) return Kind.BOOLEAN;
+		if(char.class.equals(type) || Character.class.equals(type)) return Kind.CHARACTER;
+		if(byte[].class.equals(type)) return Kind.BLOB;
+		if(int[].class.equals(type)) return Kind.INTS;
+		if(long[].class.equals(type)) return Kind.LONGS;
+		if(double[].class.equals(type)) return Kind.DOUBLES;
+		if(List.class.equals(type) && isListOfLongs(field)) return Kind.LONG_LIST;
+		if(type.isEnum()) return field.isAnnotationPresent(Ordinal.class)? Kind.ORDINAL :Kind.ENUM;
+		if(TypeConverters.lookup(type) != null) return Kind.CONVERTED;
+		
+		throw new MetadataException(new StringBuilder("The attribute ")
+		.append(field.getDeclaringClass().getName()).append(".").append(field.getName())
+		.append(" of type ").append(type.getName()).append(" cannot be mapped to a column. ")
+		.append("Register a TypeConverter for its type or declare it as transient to exclude it ")
+		.append("from persistence. ").toString());
+	}
+	
+	/**
+	 * <p>Resolves the type of the value held by a {@link Lazy} holder of a compressed value, 
+	 * which must be a {@link String} or a {@code byte[]}.
+	 */
+	private static Class<?> elementOf(Field field) {
+		
+		Type generic = field.getGenericType();
+		
+		if(generic instanceof ParameterizedType) {
+			
+			Type argument = ((ParameterizedType)generic).getActualTypeArguments()[0];
+			
+			if(String.class.equals(argument)) return String.class;
+			
+			if(byte[].class.equals(argument) || (argument instanceof GenericArrayType && 
+				byte.class.equals(((GenericArrayType)argument).getGenericComponentType()))) {
+				
+				return byte[].class;
+			}
+		}
+		
+		throw new MetadataException(new StringBuilder("The attribute ")
+		.append(field.getDeclaringClass().getName()).append(".").append(field.getName())
+		.append(" must hold a String or a byte[] to be compressed lazily. ").toString());
+	}
+	
+	/**
+	 * <p>Determines if the given attribute is declared as a {@code List<Long>}.
+	 */
+	private static boolean isListOfLongs(Field field) {
+		
+		Type generic = field.getGenericType();
+		
+		return generic instanceof ParameterizedType && 
+			Long.class.equals(((ParameterizedType)generic).getActualTypeArguments()[0]);
+	}
+	
+	/**
+	 * <p>Determines if the attribute is an array which is packed into a single <b>BLOB</b>.
+	 */
+	private boolean isPacked() {
+		
+		return kind == Kind.INTS || kind == Kind.LONGS || kind == Kind.DOUBLES || kind == Kind.LONG_LIST;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static TypeConverter<Object> converterOf(Class<?> type) {
+		
+		return (TypeConverter<Object>)TypeConverters.lookup(type);
+	}
+	
+	private static Object nullValueOf(Class<?> type) {
+		
+		if(!type.isPrimitive()) return null;
+		
+		if(long.class.equals(type)) return Long.valueOf(0L);
+		if(int.class.equals(type)) return Integer.valueOf(0);
+		if(short.class.equals(type)) return Short.valueOf((short)0);
+		if(byte.class.equals(type)) return Byte.valueOf((byte)0);
+		if(double.class.equals(type)) return Double.valueOf(0.0d);
+		if(float.class.equals(type)) return Float.valueOf(0.0f);
+		if(boolean.class.equals(type)) return Boolean.FALSE;
+		
+		return Character.valueOf('\u0000');
+	}
+	
+	/**
+	 * <p>Retrieves the name of the column to which the attribute is mapped.
+	 *
+	 * @return the name of the column
+	 * 
+	 * @since 1.1.0
+	 */
+	public String getColumn() {
+		
+		return column;
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Class} of the attribute.
+	 *
+	 * @return the type of the attribute
+	 * 
+	 * @since 1.1.0
+	 */
+	public Class<?> getType() {
+		
+		return field.getType();
+	}
+	
+	/**
+	 * <p>Retrieves the attribute which this {@link Property} represents.
+	 *
+	 * @return the attribute of the model
+	 * 
+	 * @since 1.1.0
+	 */
+	public Field getField() {
+		
+		return field;
+	}
+	
+	/**
+	 * <p>Retrieves the {@link TypeAffinity} of the column.
+	 *
+	 * @return the type affinity of the column
+	 * 
+	 * @since 1.1.0
+	 */
+	public TypeAffinity getTypeAffinity() {
+		
+		if(typeAffinity == null) {
+			
+			typeAffinity = targetId().getTypeAffinity();
+		}
+		
+		return typeAffinity;
+	}
+	
+	/**
+	 * <p>Determines if the attribute is annotated with {@link ToOne}, in which case 
+	 * its column holds the primary key of the related entity.
+	 *
+	 * @return {@code true} if this property refers to a related entity
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isReference() {
+		
+		return kind == Kind.REFERENCE;
+	}
+	
+	/**
+	 * <p>Retrieves the type of the related entity if the attribute is annotated with {@link ToOne}.
+	 *
+	 * @return the {@link Class} of the related entity, or {@code null} if this property 
+	 * 		   is not a reference
+	 * 
+	 * @since 1.1.0
+	 */
+	public Class<?> getTarget() {
+		
+		return target;
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Property} which is the primary key of the related entity.
+	 */
+	private Property targetId() {
+		
+		return EntityMetadata.of(target).getId();
+	}
+	
+	/**
+	 * <p>Determines if the attribute is annotated with {@link Id}.
+	 *
+	 * @return {@code true} if this property is the primary key
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isId() {
+		
+		return field.isAnnotationPresent(Id.class);
+	}
+	
+	/**
+	 * <p>Determines if the attribute is annotated with {@link AutoIncrement}.
+	 *
+	 * @return {@code true} if this property is an auto-incremented key
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isAutoIncrement() {
+		
+		return field.isAnnotationPresent(AutoIncrement.class);
+	}
+	
+	/**
+	 * <p>Determines if the attribute is annotated with {@link Version}.
+	 *
+	 * @return {@code true} if this property holds the version of the model
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isVersion() {
+		
+		return field.isAnnotationPresent(Version.class);
+	}
+	
+	/**
+	 * <p>Determines if the attribute is annotated with {@link FullText}.
+	 *
+	 * @return {@code true} if this property is indexed for full-text search
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isFullText() {
+		
+		return field.isAnnotationPresent(FullText.class);
+	}
+	
+	/**
+	 * <p>Determines if the attribute is an integral number which SQLite can 
+	 * assign from the <i>rowid</i> of a freshly inserted row.
+	 *
+	 * @return {@code true} if the attribute is an integral number
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isIntegral() {
+		
+		return kind == Kind.LONG || kind == Kind.INTEGER || kind == Kind.SHORT || kind == Kind.BYTE;
+	}
+	
+	/**
+	 * <p>Retrieves the value of this attribute from the given model.
+	 *
+	 * @param model
+	 * 			the model whose attribute is to be read
+	 * 
+	 * @return the value of the attribute
+	 * 
+	 * @since 1.1.0
+	 */
+	public Object get(Object model) {
+		
+		try {
+			
+			return field.get(model);
+		}
+		catch(IllegalAccessException iae) {
+			
+			throw new MetadataException(iae);
+		}
+	}
+	
+	/**
+	 * <p>Assigns a value to this attribute on the given model. A {@code null} value 
+	 * assigns the <i>zero</i> value to primitive attributes. 
+	 *
+	 * @param model
+	 * 			the model whose attribute is to be assigned
+	 * 
+	 * @param value
+	 * 			the value to assign
+	 * 
+	 * @since 1.1.0
+	 */
+	public void set(Object model, Object value) {
+		
+		try {
+			
+			field.set(model, value == null? nullValue :value);
+		}
+		catch(IllegalAccessException iae) {
+			
+			throw new MetadataException(iae);
+		}
+	}
+	
+	/**
+	 * <p>Assigns a <i>rowid</i> to an integral attribute, narrowing it to the 
+	 * type of the attribute.
+	 *
+	 * @param model
+	 * 			the model whose attribute is to be assigned
+	 * 
+	 * @param rowId
+	 * 			the rowid of the row which the model was persisted to
+	 * 
+	 * @since 1.1.0
+	 */
+	public void setRowId(Object model, long rowId) {
+		
+		setLong(model, rowId);
+	}
+	
+	/**
+	 * <p>Assigns a value to an integral attribute, narrowing it to the type of the attribute.
+	 *
+	 * @param model
+	 * 			the model whose attribute is to be assigned
+	 * 
+	 * @param value
+	 * 			the value to be assigned
+	 * 
+	 * @throws MetadataException
+	 * 			if the attribute is not integral
+	 * 
+	 * @since 1.1.0
+	 */
+	public void setLong(Object model, long value) {
+		
+		switch(kind) {
+		
+			case LONG: set(model, Long.valueOf(value)); break;
+			case INTEGER: set(model, Integer.valueOf((int)value)); break;
+			case SHORT: set(model, Short.valueOf((short)value)); break;
+			case BYTE: set(model, Byte.valueOf((byte)value)); break;
+			
+			default: throw new MetadataException("The attribute " + column + " is not integral. ");
+		}
+	}
+	
+	/**
+	 * <p>Hydrates this attribute on the given model using the column at the given 
+	 * index of the {@link Cursor}'s current row. 
+	 *
+	 * @param cursor
+	 * 			the {@link Cursor} positioned at the row to be read
+	 * 
+	 * @param index
+	 * 			the index of this property's column in the {@link Cursor}
+	 * 
+	 * @param model
+	 * 			the model whose attribute is to be hydrated
+	 * 
+	 * @since 1.1.0
+	 */
+	public void read(Cursor cursor, int index, Object model) {
+		
+		set(model, valueOf(cursor, index));
+	}
+	
+	/**
+	 * <p>Reads the value of this attribute from the given column of the cursor.
+	 */
+	private Object valueOf(Cursor cursor, int index) {
+		
+		if(cursor.isNull(index)) {
+			
+			return null;
+		}
+		
+		if(threshold >= 0) {
+			
+			return decompress(cursor, index);
+		}
+		
+		switch(kind) {
+		
+			case STRING: return cursor.getString(index);
+			case LONG: return Long.valueOf(cursor.getLong(index));
+			case INTEGER: return Integer.valueOf(cursor.getInt(index));
+			case SHORT: return Short.valueOf(cursor.getShort(index));
+			case BYTE: return Byte.valueOf((byte)cursor.getInt(index));
+			case DOUBLE: return Double.valueOf(cursor.getDouble(index));
+			case FLOAT: return Float.valueOf(cursor.getFloat(index));
+			case BOOLEAN: return Boolean.valueOf(cursor.getLong(index) != 0L);
+			case CHARACTER: return Character.valueOf(cursor.getString(index).charAt(0));
+			case BLOB: return cursor.getBlob(index);
+			case ENUM: return enumValueOf(cursor.getString(index));
+			case ORDINAL: return constants[cursor.getInt(index)];
+			case CONVERTED: return converter.read(cursor, index);
+			case BINARY: return BinaryCodec.decode(cursor.getBlob(index));
+			case LAZY_BINARY: return Lazy.encoded(cursor.getBlob(index));
+			case INTS: return PackedArrays.unpackInts(cursor.getBlob(index));
+			case LONGS: return PackedArrays.unpackLongs(cursor.getBlob(index));
+			case DOUBLES: return PackedArrays.unpackDoubles(cursor.getBlob(index));
+			case LONG_LIST: return listOf(PackedArrays.unpackLongs(cursor.getBlob(index)));
+			case REFERENCE: return reference(targetId().valueOf(cursor, index));
+			
+			default: return null;
+		}
+	}
+	
+	/**
+	 * <p>Reads a compressed value from the given column of the cursor. Text and binary values 
+	 * which were stored before the attribute was compressed are read as they are.
+	 */
+	private Object decompress(Cursor cursor, int index) {
+		
+		if((kind == Kind.STRING || element == String.class) && cursor.getType(index) == Cursor.FIELD_TYPE_STRING) {
+			
+			String text = cursor.getString(index);
+			return kind == Kind.STRING? text :Lazy.of(text);
+		}
+		
+		byte[] stored = cursor.getBlob(index);
+		
+		switch(kind) {
+		
+			case STRING: return new String(Compression.decompress(stored), UTF_8);
+			case BLOB: return Compression.decompress(stored);
+			case BINARY: return BinaryCodec.decode(Compression.decompress(stored));
+			
+			default: return Lazy.compressed(stored, element);
+		}
+	}
+	
+	/**
+	 * <p>Boxes unpacked elements into a {@code List<Long>}.
+	 */
+	private static List<Long> listOf(long[] elements) {
+		
+		List<Long> list = new ArrayList<Long>(elements.length);
+		
+		for (long element : elements) {
+			
+			list.add(Long.valueOf(element));
+		}
+		
+		return list;
+	}
+	
+	/**
+	 * <p>Unboxes the elements of a {@code List<Long>} to be packed.
+	 */
+	private static long[] elementsOf(List<?> list) {
+		
+		long[] elements = new long[list.size()];
+		int i = 0;
+		
+		for (Object element : list) {
+			
+			elements[i++] = ((Long)element).longValue();
+		}
+		
+		return elements;
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Lazy<?> reference(Object key) {
+		
+		return Lazy.reference((Class<Entity>)target, key);
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object enumValueOf(String name) {
+		
+		return Enum.valueOf((Class<? extends Enum>)field.getType(), name);
+	}
+	
+	/**
+	 * <p>Dehydrates this attribute from the given model into the {@link ContentValues} 
+	 * under the name of its column.
+	 *
+	 * @param model
+	 * 			the model whose attribute is to be dehydrated
+	 * 
+	 * @param values
+	 * 			the {@link ContentValues} to which the value is written
+	 * 
+	 * @since 1.1.0
+	 */
+	public void write(Object model, ContentValues values) {
+		
+		put(column, get(model), values);
+	}
+	
+	/**
+	 * <p>Writes the textual form of a value of this attribute, as found in an imported record, 
+	 * into the {@link ContentValues} under the name of its column. The value is stored exactly 
+	 * as though it had been read from a model, so that it is compressed or referenced alike. 
+	 * Enums are given by name, or also by ordinal if annotated with {@link Ordinal}, and the 
+	 * values of other types are parsed by their {@link TypeConverter}.</p>
+	 *
+	 * @param text
+	 * 			the textual form of the value, or {@code null}
+	 * 
+	 * @param values
+	 * 			the {@link ContentValues} to which the value is written
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			if the text is not a valid value of this attribute
+	 * 
+	 * @throws UnsupportedOperationException
+	 * 			if the attribute is stored in a form which has no textual representation
+	 * 
+	 * @since 1.1.0
+	 */
+	public void writeText(String text, ContentValues values) {
+		
+		put(column, valueOf(text), values);
+	}
+	
+	/**
+	 * <p>Parses the textual form of a value of this attribute.
+	 */
+	private Object valueOf(String text) {
+		
+		if(text == null) {
+			
+			return null;
+		}
+		
+		if(kind == Kind.LAZY_COMPRESSED && element == String.class) {
+			
+			return Lazy.of(text);
+		}
+		
+		switch(kind) {
+		
+			case STRING: return text;
+			case LONG: return Long.valueOf(text.trim());
+			case INTEGER: return Integer.valueOf(text.trim());
+			case SHORT: return Short.valueOf(text.trim());
+			case BYTE: return Byte.valueOf(text.trim());
+			case DOUBLE: return Double.valueOf(text.trim());
+			case FLOAT: return Float.valueOf(text.trim());
+			case BOOLEAN: return booleanOf(text.trim());
+			case ENUM: return enumValueOf(text.trim());
+			case ORDINAL: return ordinalOf(text.trim());
+			case CONVERTED: return converter.parse(text);
+			case REFERENCE: return reference(targetId().valueOf(text));
+			
+			case CHARACTER: {
+				
+				if(text.length() != 1) {
+					
+					throw new IllegalArgumentException(new StringBuilder("\"").append(text)
+					.append("\" is not a single character. ").toString());
+				}
+				
+				return Character.valueOf(text.charAt(0));
+			}
+			
+			default: throw new UnsupportedOperationException(new StringBuilder("The attribute ")
+				.append(column).append(" is stored as a BLOB and has no textual representation. ").toString());
+		}
+	}
+	
+	/**
+	 * <p>Parses a constant of an ordinal enum which is given either by its name or by its ordinal.
+	 */
+	private Object ordinalOf(String text) {
+		
+		if(text.length() == 0 || !Character.isDigit(text.charAt(0))) {
+			
+			return enumValueOf(text);
+		}
+		
+		int ordinal = Integer.parseInt(text);
+		
+		if(ordinal >= constants.length) {
+			
+			throw new IllegalArgumentException(new StringBuilder("\"").append(text)
+			.append("\" is not an ordinal of ").append(field.getType().getName()).append(". ").toString());
+		}
+		
+		return constants[ordinal];
+	}
+	
+	/**
+	 * <p>Parses a boolean which is given as {@code true} or {@code false}, or as {@code 1} or {@code 0}.
+	 */
+	private static Boolean booleanOf(String text) {
+		
+		if("true".equalsIgnoreCase(text) || "1".equals(text)) return Boolean.TRUE;
+		if("false".equalsIgnoreCase(text) || "0".equals(text)) return Boolean.FALSE;
+		
+		throw new IllegalArgumentException(new StringBuilder("\"").append(text)
+		.append("\" is not a boolean. ").toString());
+	}
+	
+	/**
+	 * <p>Writes a value of this attribute into the {@link ContentValues} under the given column.
+	 */
+	private void put(String column, Object value, ContentValues values) {
+		
+		if(value != null && threshold >= 0) {
+			
+			value = compress(value);
+		}
+		
+		if(value == null) {
+			
+			values.putNull(column);
+			return;
+		}
+		
+		if(threshold >= 0) {
+			
+			values.put(column, (byte[])value);
+			return;
+		}
+		
+		switch(kind) {
+		
+			case STRING: values.put(column, (String)value); break;
+			case LONG: values.put(column, (Long)value); break;
+			case INTEGER: values.put(column, (Integer)value); break;
+			case SHORT: values.put(column, (Short)value); break;
+			case BYTE: values.put(column, (Byte)value); break;
+			case DOUBLE: values.put(column, (Double)value); break;
+			case FLOAT: values.put(column, (Float)value); break;
+			case BOOLEAN: values.put(column, Integer.valueOf(((Boolean)value).booleanValue()? 1 :0)); break;
+			case CHARACTER: values.put(column, value.toString()); break;
+			case BLOB: values.put(column, (byte[])value); break;
+			case ENUM: values.put(column, ((Enum<?>)value).name()); break;
+			case ORDINAL: values.put(column, Integer.valueOf(((Enum<?>)value).ordinal())); break;
+			case CONVERTED: converter.write(column, value, values); break;
+			case BINARY: values.put(column, BinaryCodec.encode(value)); break;
+			case LAZY_BINARY: values.put(column, encoding((Lazy<?>)value)); break;
+			case INTS: values.put(column, PackedArrays.pack((int[])value, encoding)); break;
+			case LONGS: values.put(column, PackedArrays.pack((long[])value, encoding)); break;
+			case DOUBLES: values.put(column, PackedArrays.pack((double[])value)); break;
+			case LONG_LIST: values.put(column, PackedArrays.pack(elementsOf((List<?>)value), encoding)); break;
+			case REFERENCE: targetId().put(column, ((Lazy<?>)value).getKey(), values); break;
+		}
+	}
+	
+	/**
+	 * <p>Compresses a value which is not {@code null}. The value held by a {@link Lazy} holder 
+	 * which was never accessed is written back as it was stored.
+	 *
+	 * @return the value to be stored, or {@code null} if a {@link Lazy} holder holds none
+	 */
+	private byte[] compress(Object value) {
+		
+		switch(kind) {
+		
+			case STRING: return Compression.compress(((String)value).getBytes(UTF_8), threshold);
+			case BLOB: return Compression.compress((byte[])value, threshold);
+			case BINARY: return Compression.compress(BinaryCodec.encode(value), threshold);
+			
+			default: {
+				
+				Lazy<?> lazy = (Lazy<?>)value;
+				
+				if(!lazy.isLoaded()) {
+					
+					return (byte[])lazy.getKey();
+				}
+				
+				Object loaded = lazy.get();
+				
+				if(kind == Kind.LAZY_BINARY) return Compression.compress(BinaryCodec.encode(loaded), threshold);
+				if(loaded == null) return null;
+				
+				return Compression.compress(element == String.class? 
+					((String)loaded).getBytes(UTF_8) :(byte[])loaded, threshold);
+			}
+		}
+	}
+	
+	/**
+	 * <p>Encodes the value of a {@link Lazy} holder, reusing the encoding which was read 
+	 * if the value was never accessed and so cannot have changed.
+	 */
+	private static byte[] encoding(Lazy<?> lazy) {
+		
+		return lazy.isLoaded()? BinaryCodec.encode(lazy.get()) :(byte[])lazy.getKey();
+	}
+	
+	/**
+	 * <p>Retrieves the value of this attribute as an argument which can be used in 
+	 * a selection, for example {@code id = ?}.
+	 *
+	 * @param model
+	 * 			the model whose attribute is to be read
+	 * 
+	 * @return the textual representation of the value, or {@code null}
+	 * 
+	 * @since 1.1.0
+	 */
+	public String toArg(Object model) {
+		
+		return argOf(get(model));
+	}
+	
+	/**
+	 * <p>Converts a value of this attribute into an argument which can be used in a selection, 
+	 * exactly as it is stored in the column. The key of a reference is converted by the primary 
+	 * key of its target, so that keys of converted types such as dates are bound as stored.
+	 *
+	 * @param value
+	 * 			the value of the attribute, which may be {@code null}
+	 * 
+	 * @return the textual representation of the value, or {@code null}
+	 * 
+	 * @since 1.1.0
+	 */
+	public String argOf(Object value) {
+		
+		if(value == null) return null;
+		
+		if(isPacked()) {
+			
+			throw new UnsupportedOperationException(new StringBuilder("The attribute ").append(column)
+			.append(" is packed into a BLOB and cannot be bound as a textual argument. ").toString());
+		}
+		
+		switch(kind) {
+		
+			case BOOLEAN: return ((Boolean)value).booleanValue()? "1" :"0";
+			case ENUM: return ((Enum<?>)value).name();
+			case ORDINAL: return String.valueOf(((Enum<?>)value).ordinal());
+			case CONVERTED: return converter.toArg(value);
+			case REFERENCE: return targetId().argOf(((Lazy<?>)value).getKey());
+			
+			default: return value.toString();
+		}
+	}
+	
+	@Override
+	public String toString() {
+		
+		return column;
+	}
+}
@@ -0,0 +1,258 @@
+package com.lonepulse.packrat.metadata;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+import com.lonepulse.packrat.Entity;
+import com.lonepulse.packrat.Lazy;
+import com.lonepulse.packrat.annotation.ToMany;
+import com.lonepulse.packrat.annotation.ToOne;
+
+/**
+ * <p>Describes an attribute which refers to one or more related entities through a 
+ * {@link Lazy} holder. A relationship annotated with {@link ToOne} is also mapped to 
+ * a column as a {@link Property}, whereas one annotated with {@link ToMany} is derived 
+ * from the column of the related entity identified by {@link ToMany#mappedBy()}.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class Relationship {
+
+	
+	/**
+	 * <p>Identifies the number of entities on the other end of a {@link Relationship}.
+	 * 
+	 * @version 1.1.0
+	 * <br><br>
+	 * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+	 */
+	public static enum Cardinality {
+		
+		/**
+		 * <p>Identifies a relationship annotated with {@link ToOne}.
+		 * 
+		 * @since 1.1.0
+		 */
+		TO_ONE,
+		
+		/**
+		 * <p>Identifies a relationship annotated with {@link ToMany}.
+		 * 
+		 * @since 1.1.0
+		 */
+		TO_MANY;
+	}
+	
+	
+	/**
+	 * <p>The attribute which holds the {@link Lazy} reference.
+	 */
+	private final Field field;
+	
+	/**
+	 * <p>The {@link Cardinality} of this relationship.
+	 */
+	private final Cardinality cardinality;
+	
+	/**
+	 * <p>The {@link Class} of the related entity.
+	 */
+	private final Class<?> target;
+	
+	
+	/**
+	 * <p>Creates a new {@link Relationship} for the given attribute.
+	 *
+	 * @param field
+	 * 			an attribute annotated with {@link ToOne} or {@link ToMany}
+	 * 
+	 * @throws MetadataException
+	 * 			if the attribute is not declared using a suitable {@link Lazy} holder
+	 * 
+	 * @since 1.1.0
+	 */
+	Relationship(Field field) {
+		
+		this.field = field;
+		this.field.setAccessible(true);
+		
+		this.cardinality = field.isAnnotationPresent(ToMany.class)? Cardinality.TO_MANY :Cardinality.TO_ONE;
+		this.target = targetOf(field, cardinality);
+	}
+	
+	/**
+	 * <p>Determines if the given attribute is annotated with {@link ToOne} or {@link ToMany}.
+	 *
+	 * @param field
+	 * 			the attribute to be tested
+	 * 
+	 * @return {@code true} if the attribute refers to related entities
+	 * 
+	 * @since 1.1.0
+	 */
+	static boolean isRelationship(Field field) {
+		
+		return field.isAnnotationPresent(ToOne.class) || field.isAnnotationPresent(ToMany.class);
+	}
+	
+	/**
+	 * <p>Resolves the related entity from the generic type of the {@link Lazy} holder.
+	 */
+	private static Class<?> targetOf(Field field, Cardinality cardinality) {
+		
+		Type type = field.getGenericType();
+		
+		if(Lazy.class.equals(field.getType()) && type instanceof ParameterizedType) {
+		
+			Type argument = ((ParameterizedType)type).getActualTypeArguments()[0];
+			
+			if(cardinality == Cardinality.TO_MANY && argument instanceof ParameterizedType) {
+				
+				ParameterizedType collection = (ParameterizedType)argument;
+				
+				if(Collection.class.equals(collection.getRawType()) || List.class.equals(collection.getRawType())) {
+					
+					argument = collection.getActualTypeArguments()[0];
+				}
+			}
+			
+			if(argument instanceof Class<?> && Entity.class.isAssignableFrom((Class<?>)argument)) {
+				
+				return (Class<?>)argument;
+			}
+		}
+		
+		throw new MetadataException(new StringBuilder("The relationship ")
+		.append(field.getDeclaringClass().getName()).append(".").append(field.getName())
+		.append(cardinality == Cardinality.TO_ONE? 
+			" must be declared as a Lazy<E> where E is an Entity. " :
+			" must be declared as a Lazy<Collection<E>> or a Lazy<List<E>> where E is an Entity. ")
+		.toString());
+	}
+	
+	/**
+	 * <p>Retrieves the name of the attribute which holds the relationship. For a 
+	 * relationship annotated with {@link ToOne} this is also the name of its column.
+	 *
+	 * @return the name of the attribute
+	 * 
+	 * @since 1.1.0
+	 */
+	public String getName() {
+		
+		return field.getName();
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Cardinality} of this relationship.
+	 *
+	 * @return the cardinality of the relationship
+	 * 
+	 * @since 1.1.0
+	 */
+	public Cardinality getCardinality() {
+		
+		return cardinality;
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Class} of the related entity.
+	 *
+	 * @return the type of the related entity
+	 * 
+	 * @since 1.1.0
+	 */
+	public Class<?> getTarget() {
+		
+		return target;
+	}
+	
+	/**
+	 * <p>Retrieves the column of the related entity which refers back to this entity. 
+	 *
+	 * @return the column identified by {@link ToMany#mappedBy()}, or {@code null} 
+	 * 		   for a relationship annotated with {@link ToOne}
+	 * 
+	 * @since 1.1.0
+	 */
+	public String getMappedBy() {
+		
+		return cardinality == Cardinality.TO_MANY? field.getAnnotation(ToMany.class).mappedBy() :null;
+	}
+	
+	/**
+	 * <p>Retrieves the {@link Lazy} holder of this relationship from the given model.
+	 *
+	 * @param model
+	 * 			the model whose relationship is to be read
+	 * 
+	 * @return the {@link Lazy} holder, or {@code null} if none was assigned
+	 * 
+	 * @since 1.1.0
+	 */
+	public Lazy<?> get(Object model) {
+		
+		try {
+			
+			return (Lazy<?>)field.get(model);
+		}
+		catch(IllegalAccessException iae) {
+			
+			throw new MetadataException(iae);
+		}
+	}
+	
+	/**
+	 * <p>Assigns the {@link Lazy} holder of this relationship on the given model.
+	 *
+	 * @param model
+	 * 			the model whose relationship is to be assigned
+	 * 
+	 * @param lazy
+	 * 			the {@link Lazy} holder to be assigned
+	 * 
+	 * @since 1.1.0
+	 */
+	public void set(Object model, Lazy<?> lazy) {
+		
+		try {
+			
+			field.set(model, lazy);
+		}
+		catch(IllegalAccessException iae) {
+			
+			throw new MetadataException(iae);
+		}
+	}
+	
+	@Override
+	public String toString() {
+		
+		return field.getName();
+	}
+}
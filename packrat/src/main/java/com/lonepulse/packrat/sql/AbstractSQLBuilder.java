@@ -21,11 +21,11 @@ package com.lonepulse.packrat.sql;
  */
 
 
-import java.util.concurrent.atomic.AtomicBoolean;
-
 /**
  * <p>An abstract implementation of {@link SQLBuilder} which initializes 
- * all switches and common information.
+ * all switches and common information. A single buffer is used for the entire 
+ * build, so implementations should advance their own state instead of copying 
+ * the builder for each operation.
  * 
  * @version 1.1.0
  * <br><br>
@@ -37,13 +37,13 @@ abstract class AbstractSQLBuilder implements SQLBuilder {
 	/**
 	 * <p>This flag determines if the {@link SQLBuilder} has already been immutable.
 	 */
-	private AtomicBoolean immutable;
+	private boolean immutable;
 	
 	/**
-	 * <p>An atomic boolean switch which provides an indication of whether the 
+	 * <p>A boolean switch which provides an indication of whether the 
 	 * internal state of the SQL build is malformed.
 	 */
-	private AtomicBoolean corrupted;
+	private boolean corrupted;
 	
 	/**
 	 * <p>The {@link StringBuilder} which contains the SQL string that is 
@@ -60,28 +60,11 @@ abstract class AbstractSQLBuilder implements SQLBuilder {
 	 */
 	public AbstractSQLBuilder() {
 	
-		corrupted = new AtomicBoolean(true);
-		immutable = new AtomicBoolean(false);
+		corrupted = true;
+		immutable = false;
 		sql = new StringBuilder();
 	}
 	
-	/**
-	 * <p>Creates a new instance of {@link AbstractSQLBuilder} by mirroring the 
-	 * state from the given instance of {@link AbstractSQLBuilder}.
-	 * 
-	 * @param abstractSQLBuilder
-	 * 			the instance of {@link AbstractSQLBuilder} whose state is to be 
-	 * 			mirrored in this instance
-	 *
-	 * @since 1.1.0
-	 */
-	public AbstractSQLBuilder(AbstractSQLBuilder abstractSQLBuilder) {
-		
-		corrupted = new AtomicBoolean(abstractSQLBuilder.corrupted.get());
-		immutable = new AtomicBoolean(abstractSQLBuilder.immutable.get());
-		sql = new StringBuilder(abstractSQLBuilder.sql.toString());
-	}
-	
 	/**
 	 * <p>Retrieves the {@link StringBuilder} which contains the SQL string 
 	 * which is being composed.</p>
@@ -91,7 +74,7 @@ abstract class AbstractSQLBuilder implements SQLBuilder {
 	 * 
 	 * @since 1.1.0
 	 */
-	protected synchronized StringBuilder sql() {
+	protected StringBuilder sql() {
 		
 		return sql;
 	}
@@ -105,9 +88,9 @@ abstract class AbstractSQLBuilder implements SQLBuilder {
 	 * 			
 	 * @since 1.1.0
 	 */
-	protected synchronized void setCorrupted(boolean isCorrupt) {
+	protected void setCorrupted(boolean isCorrupt) {
 		
-		corrupted.set(isCorrupt);
+		corrupted = isCorrupt;
 	}
 
 	/**
@@ -119,9 +102,9 @@ abstract class AbstractSQLBuilder implements SQLBuilder {
 	 * @since 1.1.0
 	 */
 	@Override
-	public synchronized boolean isCorrupted() {
+	public boolean isCorrupted() {
 		
-		return corrupted.get();
+		return corrupted;
 	}
 	
 	/**
@@ -130,9 +113,9 @@ abstract class AbstractSQLBuilder implements SQLBuilder {
 	 * 			
 	 * @since 1.1.0
 	 */
-	protected synchronized void setImmutable() {
+	protected void setImmutable() {
 
-		immutable.set(true);
+		immutable = true;
 	}
 
 	/**
@@ -144,9 +127,9 @@ abstract class AbstractSQLBuilder implements SQLBuilder {
 	 * @since 1.1.0
 	 */
 	@Override
-	public synchronized boolean isImmutable() {
+	public boolean isImmutable() {
 		
-		return immutable.get();
+		return immutable;
 	}
 
 	/**
@@ -0,0 +1,149 @@
+package com.lonepulse.packrat.sql;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * <p>This enum identifies the <b>aggregate functions</b> which can be applied to a 
+ * column of a relation, so that a summary can be computed by SQLite without reading 
+ * the rows into memory. 
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public enum Aggregate implements SQL {
+
+	/**
+	 * <p>Counts the number of rows, or the number of non-null values of a column.
+	 * 
+	 * @since 1.1.0
+	 */
+	COUNT("COUNT"),
+	
+	/**
+	 * <p>Sums the non-null values of a column. The sum is {@code NULL} if there 
+	 * are no non-null values.
+	 * 
+	 * @since 1.1.0
+	 */
+	SUM("SUM"),
+	
+	/**
+	 * <p>Sums the non-null values of a column as a floating point numeral. Unlike 
+	 * {@link #SUM}, the total is {@code 0.0} if there are no non-null values.
+	 * 
+	 * @since 1.1.0
+	 */
+	TOTAL("TOTAL"),
+	
+	/**
+	 * <p>Computes the average of the non-null values of a column.
+	 * 
+	 * @since 1.1.0
+	 */
+	AVG("AVG"),
+	
+	/**
+	 * <p>Finds the minimum value of a column.
+	 * 
+	 * @since 1.1.0
+	 */
+	MIN("MIN"),
+	
+	/**
+	 * <p>Finds the maximum value of a column.
+	 * 
+	 * @since 1.1.0
+	 */
+	MAX("MAX");
+	
+	
+	
+	/**
+	 * <p>The SQL representation of the aggregate function.
+	 */
+	private String sql;
+	
+	
+	/**
+	 * <p>Instantiates a new {@link Aggregate} and initializes 
+	 * its {@link #sql} representation.
+	 * 
+	 * @param function
+	 * 			the SQL representation of this aggregate function
+	 *
+	 * @since 1.1.0
+	 */
+	private Aggregate(String function) {
+		
+		this.sql = function;
+	}
+
+	/**
+	 * <p>Retrieves the SQL representation of this aggregate function. It's 
+	 * safe to use {@link #toString()} for retrieving the SQL as it delegates 
+	 * to this method. 
+	 *
+	 * @return the SQL representation of this aggregate function
+	 */
+	@Override
+	public String getSQLStatement() {
+		
+		return sql;
+	}
+	
+	/**
+	 * <p>Applies this {@link Aggregate} on a column and produces the resulting 
+	 * {@link SQL} segment, for example {@code MAX(received)}. 
+	 *
+	 * @param column
+	 * 			the column on which the aggregate is applied, or {@code null} to 
+	 * 			apply it on all rows as in {@code COUNT(*)}
+	 * 
+	 * @return the {@link SQLStatement} with the column to which the aggregate is applied
+	 * 
+	 * @since 1.1.0
+	 */
+	public SQLStatement on(String column) {
+		
+		final String sqlWithColumn = new StringBuilder(sql).append("(")
+		.append(column == null || column.length() == 0? "*" :column).append(")").toString();
+		
+		return new SQLStatement() {
+			
+			@Override
+			public String getSQLStatement() {
+				
+				return sqlWithColumn;
+			}
+		};
+	}
+
+	/**
+	 * <p>Delegates to {@link #getSQLStatement()}. To apply this aggregate on a 
+	 * column use {@link #on(String)}.
+	 */
+	@Override
+	public String toString() {
+
+		return getSQLStatement();
+	}
+}
@@ -39,6 +39,15 @@ public enum ColumnConstraint implements SQL {
 	 */
 	PRIMARY_KEY("PRIMARY KEY"),
 	
+	/**
+	 * <p>Identifies an <b>INTEGER PRIMARY KEY</b> whose values are never reused, even 
+	 * after the row with the largest key is deleted. This must follow {@link #PRIMARY_KEY} 
+	 * and costs an additional write to <i>sqlite_sequence</i> for each insert.
+	 * 
+	 * @since 1.1.0
+	 */
+	AUTOINCREMENT("AUTOINCREMENT"),
+	
 	/**
 	 * <p>Identifies a column which contains a unique value within the 
 	 * whole table.
@@ -140,6 +149,47 @@ public enum ColumnConstraint implements SQL {
 		};
 	}
 
+	/**
+	 * <p>Allows the use of a {@link ColumnConstraint} with typed values, which are 
+	 * formatted as literals based on their type using {@link SQLUtils#literal(Object)} 
+	 * instead of classifying their textual representation. For example, 
+	 * {@code DEFAULT.withValues("0")} yields {@code DEFAULT '0'}, whereas 
+	 * {@code DEFAULT.withValues(0)} yields {@code DEFAULT 0}.</p>
+	 * 
+	 * <p>Note that SQLite does not accept bound parameters within DDL, so the values 
+	 * are always inlined.</p>
+	 *
+	 * @param values
+	 * 			the values to be applied to the {@link ColumnConstraint}
+	 * 
+	 * @return the {@link SQL} with the values applied
+	 * 
+	 * @since 1.1.0
+	 */
+	public SQL withValues(Object... values) {
+		
+		StringBuilder sqlBuilder = new StringBuilder(sqlStatement.getSQLStatement());
+		
+		if(values != null) {
+			
+			for (Object value : values) {
+				
+				sqlBuilder.append(" ").append(SQLUtils.literal(value));
+			}
+		}
+		
+		final String sqlWithValues = sqlBuilder.toString();
+		
+		return new SQLStatement() {
+			
+			@Override
+			public String getSQLStatement() {
+				
+				return sqlWithValues;
+			}
+		};
+	}
+
 	/**
 	 * <p>Delegates to {@link #sqlStatement#toString()}. To use this column constraint with 
 	 * some arguments use {@code getSql().withArgs(java.lang.String...)}.
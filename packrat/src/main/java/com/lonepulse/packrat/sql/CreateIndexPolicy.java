@@ -0,0 +1,125 @@
+package com.lonepulse.packrat.sql;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+/**
+ * <p>A fluent facade which specifies the services offered for building SQL statements 
+ * that <b>create indexes</b> using rudimentary string manipulation.  
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public interface CreateIndexPolicy extends SQLBuilder {
+
+	/**
+	 * <p>Initializes the SQL build by specifying the name of the index 
+	 * to be created. 
+	 *
+	 * @param indexName
+	 * 			the name of the index to be created
+	 * 
+	 * @return the current state of the {@link CreateIndexPolicy}
+	 * 
+	 * @throws MalformedSQLException
+	 * 			if this operation has resulted in a corrupt SQL statement
+	 * 
+	 * @since 1.1.0
+	 */
+	CreateIndexPolicy createIndex(String indexName) throws MalformedSQLException;
+	
+	/**
+	 * <p>Adds a constraint which specifies that the indexed columns should hold a 
+	 * unique set of values for each row.
+	 *
+	 * @return the current state of the {@link CreateIndexPolicy}
+	 * 
+	 * @throws MalformedSQLException
+	 * 			if this operation has resulted in a corrupt SQL statement
+	 * 
+	 * @since 1.1.0
+	 */
+	CreateIndexPolicy unique() throws MalformedSQLException;
+	
+	/**
+	 * <p>Adds a constraint which specifies that the index should be created 
+	 * only if it does not exist in the database. 
+	 *
+	 * @return the current state of the {@link CreateIndexPolicy}
+	 * 
+	 * @throws MalformedSQLException
+	 * 			if this operation has resulted in a corrupt SQL statement
+	 * 
+	 * @since 1.1.0
+	 */
+	CreateIndexPolicy ifNotExists() throws MalformedSQLException;
+	
+	/**
+	 * <p>Specifies the table whose rows are to be indexed. 
+	 *
+	 * @param tableName
+	 * 			the name of the table to be indexed
+	 * 
+	 * @return the current state of the {@link CreateIndexPolicy}
+	 * 
+	 * @throws MalformedSQLException
+	 * 			if this operation has resulted in a corrupt SQL statement
+	 * 
+	 * @since 1.1.0
+	 */
+	CreateIndexPolicy onTable(String tableName) throws MalformedSQLException;
+	
+	/**
+	 * <p>Specifies the columns which are indexed, in their order of significance. 
+	 * Two or more columns signify a <b>composite index</b>. A column may also be 
+	 * given as an expression over the columns of the table, such as {@code lower(email)}, 
+	 * to create an <b>expression index</b>. 
+	 *
+	 * @param columnNames
+	 * 			the names of the columns or the expressions to be indexed
+	 * 
+	 * @return the current state of the {@link CreateIndexPolicy}
+	 * 
+	 * @throws MalformedSQLException
+	 * 			if this operation has resulted in a corrupt SQL statement
+	 * 
+	 * @since 1.1.0
+	 */
+	CreateIndexPolicy onColumns(String... columnNames) throws MalformedSQLException;
+	
+	/**
+	 * <p>Restricts the index to the rows which satisfy the given predicate to create 
+	 * a <b>partial index</b>. The planner only uses a partial index for queries whose 
+	 * <b>WHERE</b> clause contains the same predicate as one of its <b>AND</b> terms. 
+	 *
+	 * @param predicate
+	 * 			the predicate which identifies the indexed rows (excluding the keyword)
+	 * 
+	 * @return the current state of the {@link CreateIndexPolicy}
+	 * 
+	 * @throws MalformedSQLException
+	 * 			if this operation has resulted in a corrupt SQL statement
+	 * 
+	 * @since 1.1.0
+	 */
+	CreateIndexPolicy where(String predicate) throws MalformedSQLException;
+}
@@ -0,0 +1,366 @@
+package com.lonepulse.packrat.sql;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import android.text.TextUtils;
+
+/**
+ * <p>This concrete implementation of {@link AbstractSQLBuilder} provides an implementation 
+ * of {@link CreateIndexPolicy}. Use {@link CreateIndexSQLBuilder#newInstance()} to obtain a 
+ * fresh copy of the template.</p>
+ * 
+ * <p>The template is a state machine which composes the statement in a single buffer. Each 
+ * operation validates the current {@link State} and advances it, without copying the SQL 
+ * composed so far.</p>
+ * 
+ * <p>The mutable operations on this template are not synchronized, please employ your own 
+ * mechanisms for thread safety.</p>
+ * 
+ * @since 1.1.0
+ * <br><br>
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public class CreateIndexSQLBuilder extends AbstractSQLBuilder implements CreateIndexPolicy {
+
+	/**
+	 * <p>The states of a {@link CreateIndexSQLBuilder} in the order in which they are reached.
+	 */
+	private static enum State {
+		
+		/**
+		 * <p>No index has been defined.
+		 */
+		NASCENT,
+		
+		/**
+		 * <p>The index has been defined, but not the indexed table.
+		 */
+		INDEX_DEFINED,
+		
+		/**
+		 * <p>The indexed table has been specified, but not the indexed columns.
+		 */
+		TABLE_DEFINED,
+		
+		/**
+		 * <p>The indexed columns have been specified.
+		 */
+		COLUMNS_DEFINED,
+		
+		/**
+		 * <p>The indexed rows have been restricted using a predicate.
+		 */
+		ROWS_RESTRICTED;
+	}
+	
+	/**
+	 * <p>The detailed error context which is logged when an operation is invoked after 
+	 * the template has been set to immutable.
+	 */
+	private static final StringBuilder IMMUTABLE_ERROR_CONTEXT = new StringBuilder()
+	.append("The build service has already been invoked and this builder is now immutable. ")
+	.append("Invoke getSQLStatement() to edit the SQL manually.");
+	
+	/**
+	 * <p>The detailed error context which is logged when an operation is invoked before 
+	 * the index has been defined.
+	 */
+	private static final String NASCENT_ERROR_CONTEXT = "Invoke createIndex() to provide the index definition. ";
+	
+	/**
+	 * <p>The leading keywords of every statement composed by this template.
+	 */
+	private static final String CREATE = "CREATE ";
+	
+	
+	/**
+	 * <p>The current {@link State} of this template.
+	 */
+	private State state = State.NASCENT;
+	
+
+	/**
+	 * <p>Creates a new instance of {@link CreateIndexPolicy} by instantiating a 
+	 * {@link CreateIndexSQLBuilder} with its <b>nascent</b> state. 
+	 *
+	 * @return a new instance of {@link CreateIndexSQLBuilder}
+	 * 
+	 * @since 1.1.0
+	 */
+	public static final CreateIndexPolicy newInstance() {
+		
+		return new CreateIndexSQLBuilder();
+	}
+	
+	/**
+	 * <p>Creates a new {@link CreateIndexSQLBuilder}. Visibility is restricted to enforce use 
+	 * of {@link #newInstance()}.
+	 *
+	 * @since 1.1.0
+	 */
+	private CreateIndexSQLBuilder() {}
+	
+	/**
+	 * <p>Advances this template to its <b>post index defined</b> state.</p>
+	 * 
+	 * @see CreateIndexPolicy#createIndex(String)
+	 */
+	@Override
+	public CreateIndexPolicy createIndex(String indexName) throws MalformedSQLException {
+		
+		throwIfImmutable();
+		
+		if(state != State.NASCENT) {
+			
+			throw new MalformedSQLException("Cannot invoke createIndex() twice on the same template. ");
+		}
+		
+		if(TextUtils.isEmpty(indexName)) {
+			
+			return this;
+		}
+		
+		sql().append(CREATE).append("INDEX ").append(indexName);
+		state = State.INDEX_DEFINED;
+		
+		return this;
+	}
+	
+	/**
+	 * <p>Declares the index as <b>unique</b> without changing the state of this template.</p>
+	 * 
+	 * @see CreateIndexPolicy#unique()
+	 */
+	@Override
+	public CreateIndexPolicy unique() throws MalformedSQLException {
+		
+		throwIfImmutable();
+		
+		if(state == State.NASCENT) {
+			
+			throw new MalformedSQLException(NASCENT_ERROR_CONTEXT);
+		}
+		
+		if(sql().indexOf("UNIQUE ") == CREATE.length()) {
+			
+			throw new MalformedSQLException("unique() can only be invoked once. ");
+		}
+		
+		sql().insert(CREATE.length(), "UNIQUE ");
+		
+		return this;
+	}
+
+	/**
+	 * <p>Adds the <b>IF NOT EXISTS</b> constraint without changing the state of this template.</p>
+	 * 
+	 * @see CreateIndexPolicy#ifNotExists()
+	 */
+	@Override
+	public CreateIndexPolicy ifNotExists() throws MalformedSQLException {
+		
+		throwIfImmutable();
+		
+		if(state == State.NASCENT) {
+			
+			throw new MalformedSQLException(NASCENT_ERROR_CONTEXT);
+		}
+		
+		int position = sql().indexOf("INDEX ") + "INDEX ".length();
+		
+		if(sql().indexOf("IF NOT EXISTS ") == position) {
+			
+			throw new MalformedSQLException("ifNotExists() can only be invoked once. ");
+		}
+		
+		sql().insert(position, "IF NOT EXISTS ");
+		
+		return this;
+	}
+
+	/**
+	 * <p>Advances this template to its <b>table defined</b> state.</p>
+	 * 
+	 * @see CreateIndexPolicy#onTable(String)
+	 */
+	@Override
+	public CreateIndexPolicy onTable(String tableName) throws MalformedSQLException {
+		
+		throwIfImmutable();
+		
+		switch(state) {
+		
+			case NASCENT:
+				throw new MalformedSQLException(NASCENT_ERROR_CONTEXT);
+			
+			case INDEX_DEFINED:
+				break;
+				
+			default:
+				throw new MalformedSQLException("Cannot invoke onTable() twice on the same template. ");
+		}
+		
+		if(TextUtils.isEmpty(tableName)) {
+			
+			return this;
+		}
+		
+		sql().append(" ON ").append(tableName);
+		state = State.TABLE_DEFINED;
+		
+		return this;
+	}
+
+	/**
+	 * <p>Advances this template to its <b>columns defined</b> state.</p>
+	 *  
+	 * @see CreateIndexPolicy#onColumns(String...)
+	 */
+	@Override
+	public CreateIndexPolicy onColumns(String... columnNames) throws MalformedSQLException {
+		
+		throwIfImmutable();
+		
+		switch(state) {
+		
+			case NASCENT:
+				throw new MalformedSQLException(NASCENT_ERROR_CONTEXT);
+			
+			case INDEX_DEFINED:
+				throw new MalformedSQLException("Invoke onTable() to specify the table before the columns. ");
+				
+			case TABLE_DEFINED:
+				break;
+				
+			case COLUMNS_DEFINED:
+				throw new MalformedSQLException("All indexed columns must be specified in a single invocation of onColumns(). ");
+				
+			default:
+				throw new MalformedSQLException("Cannot index further columns after restricting the indexed rows. ");
+		}
+		
+		if(columnNames == null || columnNames.length == 0)  {
+			
+			return this;
+		}
+		
+		sql().append(" (").append(columnNames[0]);
+		
+		for (int i = 1; i < columnNames.length; i++) {
+			
+			sql().append(", ").append(columnNames[i]);
+		}
+		
+		sql().append(")");
+		
+		state = State.COLUMNS_DEFINED;
+		setCorrupted(false);
+			
+		return this;
+	}
+	
+	/**
+	 * <p>Advances this template to its <b>rows restricted</b> state.</p>
+	 *  
+	 * @see CreateIndexPolicy#where(String)
+	 */
+	@Override
+	public CreateIndexPolicy where(String predicate) throws MalformedSQLException {
+		
+		throwIfImmutable();
+		
+		switch(state) {
+		
+			case NASCENT:
+				throw new MalformedSQLException(NASCENT_ERROR_CONTEXT);
+			
+			case INDEX_DEFINED:
+				throw new MalformedSQLException("Invoke onTable() and onColumns() before restricting the indexed rows. ");
+				
+			case TABLE_DEFINED:
+				throw new MalformedSQLException("Invoke onColumns() before restricting the indexed rows. ");
+				
+			case COLUMNS_DEFINED:
+				break;
+				
+			default:
+				throw new MalformedSQLException("All conditions of a partial index must be specified in a single invocation of where(). ");
+		}
+		
+		if(TextUtils.isEmpty(predicate)) {
+			
+			return this;
+		}
+		
+		sql().append(" WHERE ").append(predicate);
+		state = State.ROWS_RESTRICTED;
+		
+		return this;
+	}
+
+	/**
+	 * <p>See {@link CreateIndexPolicy#build()}.
+	 */
+	@Override
+	public String build() throws SQLException {
+		
+		throwIfImmutable();
+		
+		switch(state) {
+		
+			case NASCENT:
+				throw new MalformedSQLException(NASCENT_ERROR_CONTEXT);
+			
+			case INDEX_DEFINED:
+				throw new MalformedSQLException("Cannot build this statement without specifying the table. ");
+				
+			case TABLE_DEFINED:
+				throw new MalformedSQLException("Cannot build this statement without indexing a column. ");
+				
+			default:
+				break;
+		}
+		
+		if(isCorrupted()) {
+			
+			throw new MalformedSQLException("Invoke createIndex(), onTable() and onColumns() before building. ");
+		}
+		
+		setImmutable();
+		return sql().append(";").toString();
+	}
+	
+	/**
+	 * <p>Throws an exception if this template cannot be mutated any further. 
+	 *
+	 * @throws SQLException
+	 * 			if this template cannot be mutated any further
+	 */
+	private void throwIfImmutable() throws SQLException {
+		
+		if(isImmutable()) {
+			
+			throw new SQLException(CreateIndexSQLBuilder.IMMUTABLE_ERROR_CONTEXT.toString());
+		}
+	}
+}
@@ -115,4 +115,18 @@ public interface CreateTablePolicy extends SQLBuilder {
 	 * @since 1.1.0
 	 */
 	CreateTablePolicy withTableConstraints(SQL... tableConstraints) throws MalformedSQLException;
+	
+	/**
+	 * <p>Specifies that the table should be created <b>WITHOUT ROWID</b>, i.e. its rows are 
+	 * stored in the order of its primary key. This can be invoked once the columns have 
+	 * been defined, and the table must declare a primary key.
+	 *
+	 * @return the current state of the {@link CreateTablePolicy}
+	 * 
+	 * @throws MalformedSQLException
+	 * 			if this operation has resulted in a corrupt SQL statement
+	 * 
+	 * @since 1.1.0
+	 */
+	CreateTablePolicy withoutRowId() throws MalformedSQLException;
 }
@@ -20,7 +20,6 @@ package com.lonepulse.packrat.sql;
  * #L%
  */
 
-
 import android.text.TextUtils;
 
 /**
@@ -28,6 +27,10 @@ import android.text.TextUtils;
  * of {@link CreateTablePolicy}. Use {@link CreateTableSQLBuilder#newInstance()} to obtain a 
  * fresh copy of the template.</p>
  * 
+ * <p>The template is a state machine which composes the statement in a single buffer. Each 
+ * operation validates the current {@link State} and advances it, without copying the SQL 
+ * composed so far.</p>
+ * 
  * <p>The mutable operations on this template are not synchronized, please employ your own 
  * mechanisms for thread safety.</p>
  * 
@@ -40,53 +43,34 @@ import android.text.TextUtils;
 public class CreateTableSQLBuilder extends AbstractSQLBuilder implements CreateTablePolicy {
 
 	/**
-	 * <p>An implementation of the {@link CreateTablePolicy} which delegates the operations 
-	 * to an internal copy of {@link CreateTableSQLBuilder}. All operations update the internal 
-	 * copy to the next mutable state of the builder. 
+	 * <p>The states of a {@link CreateTableSQLBuilder} in the order in which they are reached.
 	 */
-	private static final class StateController implements CreateTablePolicy {
+	private static enum State {
 		
-		private CreateTablePolicy createTablePolicy;
+		/**
+		 * <p>No table has been defined.
+		 */
+		NASCENT,
 		
-		public StateController(CreateTablePolicy createTablePolicy) { 
-			this.createTablePolicy = createTablePolicy; 
-		}
+		/**
+		 * <p>The table has been defined, but no columns have been added.
+		 */
+		TABLE_DEFINED,
 		
-		@Override public boolean isCorrupted() { 
-			return createTablePolicy.isCorrupted(); 
-		}
-
-		@Override public boolean isImmutable() { 
-			return createTablePolicy.isImmutable(); 
-		}
-
-		@Override public String build() throws SQLException { 
-			return createTablePolicy.build(); 
-		}
-
-		@Override public String getSQLStatement() { 
-			return createTablePolicy.getSQLStatement(); 
-		}
-
-		@Override public CreateTablePolicy createTable(String tableName) throws MalformedSQLException { 
-			return createTablePolicy = createTablePolicy.createTable(tableName); 
-		}
-
-		@Override public CreateTablePolicy ifNotExists() throws MalformedSQLException { 
-			return createTablePolicy = createTablePolicy.ifNotExists(); 
-		}
-
-		@Override public CreateTablePolicy addColumn(String columnName, TypeAffinity typeAffinity) throws MalformedSQLException { 
-			return createTablePolicy = createTablePolicy.addColumn(columnName, typeAffinity); 
-		}
-
-		@Override public CreateTablePolicy withColumnConstraints(SQL... columnConstraints) throws MalformedSQLException { 
-			return createTablePolicy = createTablePolicy.withColumnConstraints(columnConstraints); 
-		}
-
-		@Override public CreateTablePolicy withTableConstraints(SQL... tableConstraints) throws MalformedSQLException { 
-			return createTablePolicy = createTablePolicy.withTableConstraints(tableConstraints); 
-		}
+		/**
+		 * <p>The <b>IF NOT EXISTS</b> constraint has been added, but no columns have been added.
+		 */
+		PRE_COLUMNS_DEFINED,
+		
+		/**
+		 * <p>At least one column has been added.
+		 */
+		COLUMN_DEFINED,
+		
+		/**
+		 * <p>At least one table constraint has been added.
+		 */
+		POST_COLUMNS_DEFINED;
 	}
 	
 	/**
@@ -97,41 +81,35 @@ public class CreateTableSQLBuilder extends AbstractSQLBuilder implements CreateT
 	.append("The build service has already been invoked and this builder is now immutable. ")
 	.append("Invoke getSQLStatement() to edit the SQL manually.");
 	
+	/**
+	 * <p>The detailed error context which is logged when an operation is invoked before 
+	 * the table has been defined.
+	 */
+	private static final String NASCENT_ERROR_CONTEXT = "Invoke createTable() to provide the table definition. ";
+	
+	
+	/**
+	 * <p>The current {@link State} of this template.
+	 */
+	private State state = State.NASCENT;
+	
+	/**
+	 * <p>Determines whether the table is to be created <b>WITHOUT ROWID</b>.
+	 */
+	private boolean withoutRowId;
+	
 
 	/**
 	 * <p>Creates a new instance of {@link CreateTablePolicy} by instantiating a 
 	 * {@link CreateTableSQLBuilder} with its <b>nascent</b> state. 
 	 *
-	 * @return a new instance of {@link CreateTableSQLBuilder} wrapped in a {@link StateController}
+	 * @return a new instance of {@link CreateTableSQLBuilder}
 	 * 
 	 * @since 1.1.0
 	 */
 	public static final CreateTablePolicy newInstance() {
 		
-		return new StateController(new CreateTableSQLBuilder() {
-
-			String errorContext = "Invoke createTable() to provide the table definition. ";
-			
-			@Override public CreateTablePolicy ifNotExists() throws MalformedSQLException {
-				throw new MalformedSQLException(errorContext);
-			}
-
-			@Override public CreateTablePolicy addColumn(String columnName, TypeAffinity typeAffinity) throws MalformedSQLException {
-				throw new MalformedSQLException(errorContext);
-			}
-
-			@Override public CreateTablePolicy withColumnConstraints(SQL... columnConstraints) throws MalformedSQLException {
-				throw new MalformedSQLException(errorContext);
-			}
-
-			@Override public CreateTablePolicy withTableConstraints(SQL... tableConstraints) throws MalformedSQLException {
-				throw new MalformedSQLException(errorContext);
-			}
-			
-			@Override public String build() throws SQLException {
-				throw new MalformedSQLException(errorContext);
-			}
-		});
+		return new CreateTableSQLBuilder();
 	}
 	
 	/**
@@ -143,22 +121,7 @@ public class CreateTableSQLBuilder extends AbstractSQLBuilder implements CreateT
 	private CreateTableSQLBuilder() {}
 	
 	/**
-	 * <p>Creates a new {@link CreateTableSQLBuilder} by mirroring the state of the 
-	 * given {@link CreateTableSQLBuilder}.
-	 * 
-	 * @param createTableSQLBuilder
-	 * 			the instance of {@link CreateTableSQLBuilder} whose state is to be 
-	 * 			mirrored in this instance
-	 *
-	 * @since 1.1.0
-	 */
-	private CreateTableSQLBuilder(CreateTableSQLBuilder createTableSQLBuilder) {
-		
-		super(createTableSQLBuilder);
-	}
-	
-	/**
-	 * <p>Creates a new instance of {@link CreateTablePolicy} with its <b>post table defined</b> state.</p>
+	 * <p>Advances this template to its <b>post table defined</b> state.</p>
 	 * 
 	 * @see CreateTablePolicy#createTable(String)
 	 */
@@ -167,35 +130,24 @@ public class CreateTableSQLBuilder extends AbstractSQLBuilder implements CreateT
 		
 		throwIfImmutable();
 		
+		if(state != State.NASCENT) {
+			
+			throw new MalformedSQLException("Cannot invoke createTable() twice on the same template. ");
+		}
+		
 		if(TextUtils.isEmpty(tableName)) {
 			
 			return this;
 		}
 		
 		sql().append("CREATE TABLE ").append(tableName);
+		state = State.TABLE_DEFINED;
 		
-		return new CreateTableSQLBuilder(this) {
-
-			@Override public CreateTablePolicy createTable(String tableName) throws MalformedSQLException {
-				throw new MalformedSQLException("Cannot invoke createTable() twice on the same template. ");
-			}
-
-			@Override public CreateTablePolicy withColumnConstraints(SQL... columnConstraints) throws MalformedSQLException {
-				throw new MalformedSQLException("Cannot add column constraints without creating a column. ");
-			}
-
-			@Override public CreateTablePolicy withTableConstraints(SQL... tableConstraints) throws MalformedSQLException {
-				throw new MalformedSQLException("Cannot add table constraints without creating a column. ");
-			}
-
-			@Override public String build() throws SQLException { 
-				throw new MalformedSQLException("Cannot build this statement without creating a column. ");
-			}
-		};
+		return this;
 	}
 
 	/**
-	 * <p>Creates a new instance of {@link CreateTablePolicy} with its <b>pre columns defined</b> state.</p>
+	 * <p>Advances this template to its <b>pre columns defined</b> state.</p>
 	 * 
 	 * @see CreateTablePolicy#ifNotExists()
 	 */
@@ -204,35 +156,27 @@ public class CreateTableSQLBuilder extends AbstractSQLBuilder implements CreateT
 		
 		throwIfImmutable();
 		
-		sql().append("IF NOT EXISTS ");
+		switch(state) {
 		
-		return new CreateTableSQLBuilder(this) {
-			
-			@Override public CreateTablePolicy createTable(String tableName) throws MalformedSQLException {
-				throw new MalformedSQLException("Cannot invoke createTable() twice on the same template. ");
-			}
-
-			@Override public CreateTablePolicy ifNotExists() throws MalformedSQLException {
+			case NASCENT:
+				throw new MalformedSQLException(NASCENT_ERROR_CONTEXT);
+				
+			case TABLE_DEFINED:
+				break;
+				
+			default:
 				throw new MalformedSQLException("ifNotExists() can only be invoked once, immediately after createTable(). ");
-			}
-
-			@Override public CreateTablePolicy withColumnConstraints(SQL... columnConstraints) throws MalformedSQLException {
-				throw new MalformedSQLException("Cannot add column constraints without creating a column. ");
-			}
-
-			@Override public CreateTablePolicy withTableConstraints(SQL... tableConstraints) throws MalformedSQLException {
-				throw new MalformedSQLException("Cannot add table constraints without creating a column. ");
-			}
-
-			@Override public String build() throws SQLException {
-				throw new MalformedSQLException("Cannot build this statement without creating a column. ");
-			}
-		};
+		}
+		
+		sql().insert("CREATE TABLE ".length(), "IF NOT EXISTS ");
+		state = State.PRE_COLUMNS_DEFINED;
+		
+		return this;
 	}
 
 	/**
-	 * <p>Creates a new instance of {@link CreateTablePolicy} with its <b>column defined</b> state 
-	 * if this is first column definition; else the same instance is returned.</p>
+	 * <p>Advances this template to its <b>column defined</b> state if this is first column 
+	 * definition.</p>
 	 *  
 	 * @see CreateTablePolicy#addColumn(String, TypeAffinity)
 	 */
@@ -241,48 +185,57 @@ public class CreateTableSQLBuilder extends AbstractSQLBuilder implements CreateT
 		
 		throwIfImmutable();
 		
+		switch(state) {
+		
+			case NASCENT:
+				throw new MalformedSQLException(NASCENT_ERROR_CONTEXT);
+				
+			case POST_COLUMNS_DEFINED:
+				throw new MalformedSQLException("You cannot define any more columns after adding table constraints. ");
+				
+			default:
+				break;
+		}
+		
 		if(TextUtils.isEmpty(columnName) || typeAffinity == null)  {
 			
 			return this;
 		}
 		
-		sql().append(" ( ").append(columnName).append(" ").append(typeAffinity);
+		sql().append(state == State.COLUMN_DEFINED? ", " :" ( ")
+		.append(columnName).append(" ").append(typeAffinity);
+		
+		state = State.COLUMN_DEFINED;
 		setCorrupted(false);
-			
-		return new CreateTableSQLBuilder(this) {
-			
-			@Override public CreateTablePolicy createTable(String tableName) throws MalformedSQLException {
-				throw new MalformedSQLException("Cannot invoke createTable() twice on the same template. ");
-			}
-
-			@Override public CreateTablePolicy ifNotExists() throws MalformedSQLException {
-				throw new MalformedSQLException("ifNotExists() can only be invoked once, immediately after createTable(). ");
-			}
-
-			@Override
-			public CreateTablePolicy addColumn(String columnName, TypeAffinity typeAffinity) throws MalformedSQLException {
-				
-				throwIfImmutable();
-				
-				if(TextUtils.isEmpty(columnName) || typeAffinity == null)  {
-					
-					return this;
-				}
-				
-				sql().append(", ").append(columnName).append(" ").append(typeAffinity);
-				return this;
-			}
-		};
+		
+		return this;
 	}
 	
 	/**
-	 * <p>Returns an instance of {@link CreateTablePolicy} in its <b>column defined</b> state.</p>
+	 * <p>Applies the constraints to the column which was added last.</p>
 	 * 
 	 * @see CreateTablePolicy#withColumnConstraints(SQL...)
 	 */
 	@Override
 	public CreateTablePolicy withColumnConstraints(SQL... columnConstraints) throws MalformedSQLException {
 		
+		throwIfImmutable();
+		
+		switch(state) {
+		
+			case NASCENT:
+				throw new MalformedSQLException(NASCENT_ERROR_CONTEXT);
+				
+			case COLUMN_DEFINED:
+				break;
+				
+			case POST_COLUMNS_DEFINED:
+				throw new MalformedSQLException("You cannot apply any column constraints after adding table constraints. ");
+				
+			default:
+				throw new MalformedSQLException("Cannot add column constraints without creating a column. ");
+		}
+		
 		if(columnConstraints == null || columnConstraints.length == 0) {
 			
 			return this;
@@ -297,14 +250,29 @@ public class CreateTableSQLBuilder extends AbstractSQLBuilder implements CreateT
 	}
 	
 	/**
-	 * <p>Creates a new instance of {@link CreateTablePolicy} with its <b>post columns defined</b> state 
-	 * if this is the first table constraint being added; else the same instance is returned.</p>
+	 * <p>Advances this template to its <b>post columns defined</b> state if this is the first 
+	 * table constraint being added.</p>
 	 *  
-	 * @see CreateTablePolicy#addColumn(String, TypeAffinity)
+	 * @see CreateTablePolicy#withTableConstraints(SQL...)
 	 */
 	@Override
 	public CreateTablePolicy withTableConstraints(SQL... tableConstraints) throws MalformedSQLException {
 		
+		throwIfImmutable();
+		
+		switch(state) {
+		
+			case NASCENT:
+				throw new MalformedSQLException(NASCENT_ERROR_CONTEXT);
+				
+			case TABLE_DEFINED:
+			case PRE_COLUMNS_DEFINED:
+				throw new MalformedSQLException("Cannot add table constraints without creating a column. ");
+				
+			default:
+				break;
+		}
+		
 		if(tableConstraints == null || tableConstraints.length == 0) {
 			
 			return this;
@@ -315,44 +283,43 @@ public class CreateTableSQLBuilder extends AbstractSQLBuilder implements CreateT
 			sql().append(", ").append(constraint);
 		}
 		
-		return new CreateTableSQLBuilder(this) {
-			
-			@Override public CreateTablePolicy createTable(String tableName) throws MalformedSQLException {
-				throwIfImmutable();
-				throw new MalformedSQLException("Cannot invoke createTable() twice on the same template. ");
-			}
-			
-			@Override public CreateTablePolicy ifNotExists() throws MalformedSQLException {
-				throwIfImmutable();
-				throw new MalformedSQLException("ifNotExists() can only be invoked once, immediately after createTable(). ");
-			}
-			
-			@Override public CreateTablePolicy addColumn(String columnName, TypeAffinity typeAffinity) throws MalformedSQLException {
-				throwIfImmutable();
-				throw new MalformedSQLException("You cannot define any more columns after adding table constraints. ");
-			}
-			
-			@Override public CreateTablePolicy withColumnConstraints(SQL... columnConstraints) throws MalformedSQLException {
-				throwIfImmutable(); 
-				throw new MalformedSQLException("You cannot apply any column constraints after adding table constraints. ");
-			}
+		state = State.POST_COLUMNS_DEFINED;
+		
+		return this;
+	}
 
-			@Override public CreateTablePolicy withTableConstraints(SQL... tableConstraints) throws MalformedSQLException {
-				
-				throwIfImmutable();
-				if(tableConstraints == null || tableConstraints.length == 0) {
-					
-					return this;
-				}
+	/**
+	 * <p>Marks the table to be created <b>WITHOUT ROWID</b> without changing the state 
+	 * of this template.</p>
+	 *  
+	 * @see CreateTablePolicy#withoutRowId()
+	 */
+	@Override
+	public CreateTablePolicy withoutRowId() throws MalformedSQLException {
+		
+		throwIfImmutable();
+		
+		switch(state) {
+		
+			case NASCENT:
+				throw new MalformedSQLException(NASCENT_ERROR_CONTEXT);
 				
-				for (SQL constraint : tableConstraints) {
-					
-					sql().append(", ").append(constraint);
-				}
+			case TABLE_DEFINED:
+			case PRE_COLUMNS_DEFINED:
+				throw new MalformedSQLException("Cannot omit the rowid without creating a column. ");
 				
-				return this;
-			}
-		};
+			default:
+				break;
+		}
+		
+		if(withoutRowId) {
+			
+			throw new MalformedSQLException("withoutRowId() can only be invoked once. ");
+		}
+		
+		withoutRowId = true;
+		
+		return this;
 	}
 
 	/**
@@ -363,13 +330,26 @@ public class CreateTableSQLBuilder extends AbstractSQLBuilder implements CreateT
 		
 		throwIfImmutable();
 		
+		switch(state) {
+		
+			case NASCENT:
+				throw new MalformedSQLException(NASCENT_ERROR_CONTEXT);
+				
+			case TABLE_DEFINED:
+			case PRE_COLUMNS_DEFINED:
+				throw new MalformedSQLException("Cannot build this statement without creating a column. ");
+				
+			default:
+				break;
+		}
+		
 		if(isCorrupted()) {
 			
 			throw new MalformedSQLException("Invoke createTable() and add at least one column before building. ");
 		}
 		
 		setImmutable();
-		return sql().append(" );").toString();
+		return sql().append(withoutRowId? " ) WITHOUT ROWID;" :" );").toString();
 	}
 	
 	/**
@@ -20,9 +20,32 @@ package com.lonepulse.packrat.sql;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.lonepulse.packrat.annotation.ToOne;
+import com.lonepulse.packrat.metadata.EntityMetadata;
+import com.lonepulse.packrat.metadata.MetadataException;
+import com.lonepulse.packrat.metadata.Property;
+
 /**
  * <p>A concrete implementation of {@link DDLPolicy} which generates <b>Data 
- * Definition Language</b> statements for creating and altering schemas.
+ * Definition Language</b> statements for creating and altering schemas.</p>
+ * 
+ * <p>The statements for a model are derived from its {@link EntityMetadata}. The first 
+ * statement always creates the table, which is immediately followed by its {@link TableIndex} 
+ * instances. A model with attributes annotated for full-text search also has its 
+ * {@link FullTextIndex} created and dropped. References to related entities are declared 
+ * as foreign keys, and models are {@link #order(Collection) ordered} such that each follows 
+ * the models it refers to.</p>
+ * 
+ * <p>A single integral key is declared as an <b>INTEGER PRIMARY KEY</b> so that it aliases 
+ * the rowid, and is only declared <b>AUTOINCREMENT</b> if annotated as such. Composite keys 
+ * are declared as a table constraint whose columns follow their {@code @Id(order)}, and tables 
+ * may be created <b>WITHOUT ROWID</b>.</p>
  * 
  * @version 1.1.0
  * <br><br>
@@ -37,7 +60,94 @@ public class DDLGenerator implements DDLPolicy {
 	@Override
 	public <Model> StringBuilder create(Class<Model> modelType) throws DDLException {
 		
-		return null;
+		StringBuilder ddl = new StringBuilder();
+		
+		try {
+			
+			EntityMetadata<Model> metadata = EntityMetadata.of(modelType);
+			
+			CreateTablePolicy createTable = CreateTableSQLBuilder.newInstance()
+				.createTable(metadata.getTable()).ifNotExists();
+			
+			List<Property> key = metadata.getKey();
+			
+			for (Property property : metadata.getProperties()) {
+				
+				createTable.addColumn(property.getColumn(), property.getTypeAffinity());
+				
+				if(property.isId() && key.size() == 1) {
+					
+					createTable.withColumnConstraints(ColumnConstraint.PRIMARY_KEY);
+					
+					if(property.isAutoIncrement()) {
+						
+						createTable.withColumnConstraints(ColumnConstraint.AUTOINCREMENT);
+					}
+				}
+				
+				if(property.isVersion()) {
+					
+					createTable.withColumnConstraints(ColumnConstraint.NOT_NULL, 
+						ColumnConstraint.DEFAULT.withValues(0));
+				}
+			}
+			
+			if(key.size() > 1) {
+				
+				String[] columns = new String[key.size()];
+				
+				for (int i = 0; i < columns.length; i++) {
+					
+					columns[i] = key.get(i).getColumn();
+				}
+				
+				createTable.withTableConstraints(TableConstraint.PRIMARY_KEY.onColumns(columns));
+			}
+			
+			for (Property property : metadata.getProperties()) {
+				
+				if(property.isReference()) {
+					
+					ToOne toOne = property.getField().getAnnotation(ToOne.class);
+					EntityMetadata<?> parent = EntityMetadata.of(property.getTarget());
+					
+					createTable.withTableConstraints(TableConstraint.FOREIGN_KEY.references(property.getColumn(), 
+						parent.getTable(), parent.getId().getColumn(), toOne.onDelete()));
+				}
+			}
+			
+			if(metadata.isWithoutRowId()) {
+				
+				createTable.withoutRowId();
+			}
+			
+			append(ddl, createTable.build());
+			
+			for (TableIndex index : TableIndex.of(metadata)) {
+				
+				append(ddl, index.create());
+			}
+			
+			FullTextIndex fullTextIndex = FullTextIndex.of(metadata);
+			
+			if(fullTextIndex != null) {
+				
+				for (String statement : fullTextIndex.create()) {
+					
+					append(ddl, statement);
+				}
+			}
+		}
+		catch(SQLException sqle) {
+			
+			throw new DDLException("Failed to generate the CREATE statements for " + modelType.getName(), sqle);
+		}
+		catch(MetadataException me) {
+			
+			throw new DDLException("Failed to generate the CREATE statements for " + modelType.getName(), me);
+		}
+		
+		return ddl;
 	}
 
 	/**
@@ -46,6 +156,96 @@ public class DDLGenerator implements DDLPolicy {
 	@Override
 	public <Model> StringBuilder drop(Class<Model> modelType) throws DDLException {
 		
-		return null;
+		StringBuilder ddl = new StringBuilder();
+		
+		try {
+			
+			EntityMetadata<Model> metadata = EntityMetadata.of(modelType);
+			FullTextIndex fullTextIndex = FullTextIndex.of(metadata);
+			
+			if(fullTextIndex != null) {
+				
+				for (String statement : fullTextIndex.drop()) {
+					
+					append(ddl, statement);
+				}
+			}
+			
+			append(ddl, DropTableSQLBuilder.newInstance().dropTable(metadata.getTable()).build());
+		}
+		catch(SQLException sqle) {
+			
+			throw new DDLException("Failed to generate the DROP statements for " + modelType.getName(), sqle);
+		}
+		catch(MetadataException me) {
+			
+			throw new DDLException("Failed to generate the DROP statements for " + modelType.getName(), me);
+		}
+		
+		return ddl;
+	}
+	
+	/**
+	 * <p>Orders the models using a depth-first traversal of their references. References 
+	 * to models outside the given collection, references of a model to itself and cyclic 
+	 * references are ignored, since foreign keys are only checked when a transaction commits.</p>
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <Model> List<Class<Model>> order(Collection<Class<Model>> modelTypes) throws DDLException {
+		
+		Set<Class<Model>> ordered = new LinkedHashSet<Class<Model>>();
+		Set<Class<?>> visiting = new LinkedHashSet<Class<?>>();
+		
+		try {
+			
+			for (Class<Model> modelType : modelTypes) {
+				
+				visit(modelType, modelTypes, visiting, ordered);
+			}
+		}
+		catch(MetadataException me) {
+			
+			throw new DDLException("Failed to resolve the dependencies of the models", me);
+		}
+		
+		return new ArrayList<Class<Model>>(ordered);
+	}
+	
+	private static <Model> void visit(Class<Model> modelType, Collection<Class<Model>> modelTypes, 
+		Set<Class<?>> visiting, Set<Class<Model>> ordered) {
+		
+		if(ordered.contains(modelType) || !visiting.add(modelType)) {
+			
+			return;
+		}
+		
+		for (Property property : EntityMetadata.of(modelType).getProperties()) {
+			
+			if(property.isReference()) {
+				
+				for (Class<Model> dependency : modelTypes) {
+					
+					if(dependency.equals(property.getTarget())) {
+						
+						visit(dependency, modelTypes, visiting, ordered);
+					}
+				}
+			}
+		}
+		
+		visiting.remove(modelType);
+		ordered.add(modelType);
+	}
+	
+	/**
+	 * <p>Appends a statement to the given DDL on a separate line.
+	 */
+	private static void append(StringBuilder ddl, String statement) {
+		
+		if(ddl.length() > 0) ddl.append("\n");
+		
+		ddl.append(statement);
 	}
 }
@@ -20,6 +20,8 @@ package com.lonepulse.packrat.sql;
  * #L%
  */
 
+import java.util.Collection;
+import java.util.List;
 
 /**
  * <p>This contract specifies the services offered for generating <b>schemas</b> 
@@ -32,9 +34,6 @@ package com.lonepulse.packrat.sql;
  */
 public interface DDLPolicy {
 
-	//TODO include schema ALTERs? NOTE: SQLite supports column renames and additions only 
-	//TODO look into cascading CREATEs and DROPs.
-	
 	/**
 	 * <p>Generate the <b>CREATE</b> statements for a relation identified by 
 	 * the given model and it's metadata.
@@ -44,7 +43,7 @@ public interface DDLPolicy {
 	 * 			SQL statement(s) are to be generated
 	 * 
 	 * @return a {@link StringBuilder} which contains a concatenation of 
-	 * 		   all the creation statements 
+	 * 		   all the creation statements, each on a separate line
 	 * 
 	 * @throws DDLException
 	 * 			if the SQL statement(s) failed to be generated
@@ -62,7 +61,7 @@ public interface DDLPolicy {
 	 * 			SQL statement(s) are to be generated
 	 * 
 	 * @return a {@link StringBuilder} which contains a concatenation of 
-	 * 		   all the drop statements 
+	 * 		   all the drop statements, each on a separate line
 	 * 
 	 * @throws DDLException
 	 * 			if the SQL statement(s) failed to be generated
@@ -70,4 +69,21 @@ public interface DDLPolicy {
 	 * @since 1.1.0
 	 */
 	<Model extends Object> StringBuilder drop(Class<Model> modelType) throws DDLException;
+	
+	/**
+	 * <p>Orders the given models by their dependencies, such that each model follows the 
+	 * models it refers to. Their <b>CREATE</b> statements should be executed in this order 
+	 * and their <b>DROP</b> statements in the reverse order.
+	 *
+	 * @param modelTypes
+	 * 			the {@link Class}es of the models to be ordered
+	 * 
+	 * @return the models in their order of creation
+	 * 
+	 * @throws DDLException
+	 * 			if the dependencies of a model could not be resolved
+	 * 
+	 * @since 1.1.0
+	 */
+	<Model extends Object> List<Class<Model>> order(Collection<Class<Model>> modelTypes) throws DDLException;
 }
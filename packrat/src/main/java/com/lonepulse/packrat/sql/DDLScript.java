@@ -0,0 +1,146 @@
+package com.lonepulse.packrat.sql;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * <p>An ordered script of DDL statements which is assembled for a schema change and then 
+ * executed as a whole within a <b>single transaction</b>, so that creating or migrating the 
+ * schema costs one commit irrespective of the number of tables, indexes and triggers.</p>
+ * 
+ * <p>Since each statement is executed individually, a statement is never split across lines 
+ * and multiple statements are never joined into one.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class DDLScript implements Iterable<String> {
+
+	
+	/**
+	 * <p>The statements of the script in their order of execution.
+	 */
+	private final List<String> statements = new ArrayList<String>();
+	
+	
+	/**
+	 * <p>Creates a new, empty {@link DDLScript}.
+	 *
+	 * @return a new instance of {@link DDLScript}
+	 * 
+	 * @since 1.1.0
+	 */
+	public static DDLScript newInstance() {
+		
+		return new DDLScript();
+	}
+	
+	/**
+	 * <p>Creates a new {@link DDLScript}. Visibility is restricted to enforce use 
+	 * of {@link #newInstance()}.
+	 *
+	 * @since 1.1.0
+	 */
+	private DDLScript() {}
+	
+	/**
+	 * <p>Appends a single statement to the script.
+	 *
+	 * @param statement
+	 * 			the statement to be appended
+	 * 
+	 * @return the current instance of {@link DDLScript}
+	 * 
+	 * @since 1.1.0
+	 */
+	public DDLScript append(String statement) {
+		
+		statements.add(statement);
+		return this;
+	}
+	
+	/**
+	 * <p>Appends the statements generated by a {@link DDLPolicy}, which are separated by 
+	 * line breaks, to the script.
+	 *
+	 * @param ddl
+	 * 			the statements to be appended
+	 * 
+	 * @return the current instance of {@link DDLScript}
+	 * 
+	 * @since 1.1.0
+	 */
+	public DDLScript appendAll(CharSequence ddl) {
+		
+		for (String statement : ddl.toString().split("\n")) {
+			
+			if(statement.length() > 0) {
+				
+				statements.add(statement);
+			}
+		}
+		
+		return this;
+	}
+	
+	/**
+	 * <p>Determines whether the script contains any statements.
+	 *
+	 * @return {@code true} if there is nothing to execute
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isEmpty() {
+		
+		return statements.isEmpty();
+	}
+	
+	/**
+	 * <p>Iterates over the statements of the script in their order of execution.
+	 */
+	@Override
+	public Iterator<String> iterator() {
+		
+		return Collections.unmodifiableList(statements).iterator();
+	}
+	
+	/**
+	 * <p>Retrieves the statements of the script, each on a separate line.
+	 */
+	@Override
+	public String toString() {
+		
+		StringBuilder script = new StringBuilder();
+		
+		for (String statement : statements) {
+			
+			if(script.length() > 0) script.append("\n");
+			script.append(statement);
+		}
+		
+		return script.toString();
+	}
+}
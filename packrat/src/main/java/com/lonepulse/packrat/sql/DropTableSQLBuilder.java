@@ -25,7 +25,9 @@ import android.text.TextUtils;
 
 /**
  * <p>This concrete implementation of {@link AbstractSQLBuilder} provides an implementation 
- * of {@link CreateTablePolicy}.</p>
+ * of {@link DropTablePolicy}.</p>
+ * 
+ * <p>The template is a state machine which composes the statement in a single buffer.</p>
  * 
  * <p>The operations on this template are not synchronized, please employ your own mechanisms 
  * for thread safety.</p>
@@ -40,37 +42,19 @@ public class DropTableSQLBuilder extends AbstractSQLBuilder implements DropTable
 	
 	
 	/**
-	 * <p>An implementation of the {@link DropTablePolicy} which delegates the operations 
-	 * to an internal copy of {@link DropTableSQLBuilder}. All operations update the internal 
-	 * copy to the next mutable state of the builder. 
+	 * <p>The states of a {@link DropTableSQLBuilder} in the order in which they are reached.
 	 */
-	private static final class StateController implements DropTablePolicy {
+	private static enum State {
 		
-		private DropTablePolicy dropTablePolicy;
+		/**
+		 * <p>No table has been specified.
+		 */
+		NASCENT,
 		
-		public StateController(DropTablePolicy dropTablePolicy) { 
-			this.dropTablePolicy = dropTablePolicy; 
-		}
-
-		@Override public boolean isCorrupted() {
-			return dropTablePolicy.isCorrupted();
-		}
-
-		@Override public boolean isImmutable() {
-			return dropTablePolicy.isImmutable();
-		}
-
-		@Override public String build() throws SQLException {
-			return dropTablePolicy.build();
-		}
-
-		@Override public String getSQLStatement() {
-			return dropTablePolicy.getSQLStatement();
-		}
-
-		@Override public DropTablePolicy dropTable(String tableName) throws MalformedSQLException {
-			return dropTablePolicy = dropTablePolicy.dropTable(tableName);
-		}
+		/**
+		 * <p>The table to be dropped has been specified.
+		 */
+		TABLE_DEFINED;
 	}
 	
 	/**
@@ -83,21 +67,22 @@ public class DropTableSQLBuilder extends AbstractSQLBuilder implements DropTable
 	
 	
 	/**
-	 * <p>Creates a new instance of {@link CreateTablePolicy} by instantiating a {@link CreateTableSQLBuilder} 
+	 * <p>The current {@link State} of this template.
+	 */
+	private State state = State.NASCENT;
+	
+	
+	/**
+	 * <p>Creates a new instance of {@link DropTablePolicy} by instantiating a {@link DropTableSQLBuilder} 
 	 * with its <b>nascent</b> state. 
 	 *
-	 * @return a new instance of {@link CreateTableSQLBuilder} wrapped in a {@link StateController}
+	 * @return a new instance of {@link DropTableSQLBuilder}
 	 * 
 	 * @since 1.1.0
 	 */
 	public static final DropTablePolicy newInstance() {
 		
-		return new StateController(new DropTableSQLBuilder() {
-
-			@Override public String build() throws SQLException {
-				throw new MalformedSQLException("Invoke dropTable() to specify the table to drop before building. ");
-			}
-		});
+		return new DropTableSQLBuilder();
 	}
 	
 	/**
@@ -107,40 +92,29 @@ public class DropTableSQLBuilder extends AbstractSQLBuilder implements DropTable
 	 */
 	private DropTableSQLBuilder() {}
 	
-	/**
-	 * <p>Creates a new {@link DropTableSQLBuilder} by mirroring the state of the given {@link DropTableSQLBuilder}.
-	 * 
-	 * @param dropTableSQLBuilder
-	 * 			the instance of {@link dropTableSQLBuilder} whose state is to be mirrored in this instance
-	 *
-	 * @since 1.1.0
-	 */
-	private DropTableSQLBuilder(DropTableSQLBuilder dropTableSQLBuilder) {
-		
-		super(dropTableSQLBuilder);
-	}
-	
 	/**
 	 * <p>See {@link DropTablePolicy#dropTable(String)}.
 	 */
 	@Override
 	public DropTablePolicy dropTable(String tableName) throws MalformedSQLException {
 		
-		if(!TextUtils.isEmpty(tableName)) {
+		throwIfImmutable();
+		
+		if(state != State.NASCENT) {
+			
+			throw new MalformedSQLException("Cannot invoke dropTable() twice on the same template. ");
+		}
+		
+		if(TextUtils.isEmpty(tableName)) {
 		
 			return this;
 		}
 			
 		sql().append("DROP TABLE ").append(tableName);
+		state = State.TABLE_DEFINED;
 		setCorrupted(false);
 		
-		return new DropTableSQLBuilder() {
-			
-			@Override public DropTablePolicy dropTable(String tableName) throws MalformedSQLException {
-				throwIfImmutable();
-				throw new MalformedSQLException("Cannot invoke dropTable() twice on the same template. ");
-			}
-		};
+		return this;
 	}
 
 	/**
@@ -151,6 +125,11 @@ public class DropTableSQLBuilder extends AbstractSQLBuilder implements DropTable
 		
 		throwIfImmutable();
 		
+		if(state == State.NASCENT) {
+			
+			throw new MalformedSQLException("Invoke dropTable() to specify the table to drop before building. ");
+		}
+		
 		if(isCorrupted()) {
 			
 			throw new MalformedSQLException("Invoke dropTable() before building. ");
@@ -0,0 +1,283 @@
+package com.lonepulse.packrat.sql;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.lonepulse.packrat.annotation.FullText;
+import com.lonepulse.packrat.metadata.EntityMetadata;
+import com.lonepulse.packrat.metadata.Property;
+
+/**
+ * <p>Describes the <b>external content</b> full-text index of an entity whose attributes 
+ * are annotated with {@link FullText}. The index is an FTS virtual table which stores only 
+ * the index itself and reads the text from the entity's table, which is kept in sync using 
+ * triggers. Use {@link FullTextIndex#of(EntityMetadata)} to describe the index of an entity.</p>
+ * 
+ * <p>Each SQL statement produced by this class is a single line, even if it defines a 
+ * trigger with multiple nested statements.</p>
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class FullTextIndex {
+
+	
+	/**
+	 * <p>The name of the entity's table which provides the content.
+	 */
+	private final String content;
+	
+	/**
+	 * <p>The name of the FTS virtual table.
+	 */
+	private final String table;
+	
+	/**
+	 * <p>The columns which are indexed.
+	 */
+	private final String[] columns;
+	
+	/**
+	 * <p>The {@link FullText.Module} which implements the index.
+	 */
+	private final FullText.Module module;
+	
+	
+	/**
+	 * <p>Describes the full-text index of the given entity.
+	 *
+	 * @param entity
+	 * 			the {@link EntityMetadata} of the entity
+	 * 
+	 * @return the {@link FullTextIndex} of the entity, or {@code null} if none of 
+	 * 		   its attributes are annotated with {@link FullText}
+	 * 
+	 * @since 1.1.0
+	 */
+	public static FullTextIndex of(EntityMetadata<?> entity) {
+		
+		List<Property> properties = entity.getFullText();
+		
+		if(properties.isEmpty()) {
+			
+			return null;
+		}
+		
+		String[] columns = new String[properties.size()];
+		
+		for (int i = 0; i < columns.length; i++) {
+			
+			columns[i] = properties.get(i).getColumn();
+		}
+		
+		return new FullTextIndex(entity.getTable(), columns, entity.getFullTextModule());
+	}
+	
+	/**
+	 * <p>Creates a new {@link FullTextIndex}. Visibility is restricted to enforce use 
+	 * of {@link #of(EntityMetadata)}.
+	 *
+	 * @since 1.1.0
+	 */
+	private FullTextIndex(String content, String[] columns, FullText.Module module) {
+		
+		this.content = content;
+		this.table = tableOf(content);
+		this.columns = columns;
+		this.module = module;
+	}
+	
+	/**
+	 * <p>Retrieves the name of the FTS virtual table which indexes the given table.
+	 *
+	 * @param content
+	 * 			the name of the table whose content is indexed
+	 * 
+	 * @return the name of the full-text index table
+	 * 
+	 * @since 1.1.0
+	 */
+	public static String tableOf(String content) {
+		
+		return content + "_fts";
+	}
+	
+	/**
+	 * <p>Produces the statements which drop the triggers and the FTS virtual table which 
+	 * index the given table, should they exist. Unlike {@link #drop()}, this requires no 
+	 * knowledge of the indexed columns, so an index can be dropped once it is no longer 
+	 * declared.
+	 *
+	 * @param content
+	 * 			the name of the table whose content is indexed
+	 * 
+	 * @return the <b>DROP</b> statements in their order of execution
+	 * 
+	 * @since 1.1.0
+	 */
+	public static List<String> drop(String content) {
+		
+		String table = tableOf(content);
+		List<String> statements = new ArrayList<String>();
+		
+		for (String trigger : new String[] {"ai", "ad", "bu", "au"}) {
+			
+			statements.add(new StringBuilder("DROP TRIGGER IF EXISTS ")
+				.append(table).append("_").append(trigger).append(";").toString());
+		}
+		
+		statements.add(new StringBuilder("DROP TABLE IF EXISTS ").append(table).append(";").toString());
+		
+		return statements;
+	}
+	
+	/**
+	 * <p>Retrieves the name of the FTS virtual table.
+	 *
+	 * @return the name of the full-text index table
+	 * 
+	 * @since 1.1.0
+	 */
+	public String getTable() {
+		
+		return table;
+	}
+	
+	/**
+	 * <p>Retrieves an expression which ranks each row of a full-text query on the 
+	 * index table, such that the best match has the <b>lowest</b> rank.
+	 *
+	 * @return the SQL expression which ranks a match
+	 * 
+	 * @since 1.1.0
+	 */
+	public String getRank() {
+		
+		return module == FullText.Module.FTS5? 
+			"rank" :new StringBuilder("-length(offsets(").append(table).append("))").toString();
+	}
+	
+	/**
+	 * <p>Produces the statements which create the index table, populate it with any 
+	 * existing content and create the triggers which keep it in sync.
+	 *
+	 * @return the <b>CREATE</b> statements in their order of execution
+	 * 
+	 * @since 1.1.0
+	 */
+	public List<String> create() {
+		
+		List<String> statements = new ArrayList<String>();
+		
+		StringBuilder virtualTable = new StringBuilder("CREATE VIRTUAL TABLE IF NOT EXISTS ")
+		.append(table).append(" USING ").append(module.name().toLowerCase()).append("(");
+		
+		for (String column : columns) {
+			
+			virtualTable.append(column).append(", ");
+		}
+		
+		virtualTable.append("content=").append(content).append(");");
+		
+		statements.add(virtualTable.toString());
+		statements.add(new StringBuilder("INSERT INTO ").append(table).append("(").append(table)
+			.append(") VALUES('rebuild');").toString());
+		
+		String insert = insert("new");
+		String delete = delete("old");
+		
+		statements.add(trigger("ai", "AFTER INSERT", insert));
+		statements.add(trigger("ad", module == FullText.Module.FTS5? "AFTER DELETE" :"BEFORE DELETE", delete));
+		
+		if(module == FullText.Module.FTS5) {
+			
+			statements.add(trigger("au", "AFTER UPDATE", delete + " " + insert));
+		}
+		else {
+			
+			statements.add(trigger("bu", "BEFORE UPDATE", delete));
+			statements.add(trigger("au", "AFTER UPDATE", insert));
+		}
+		
+		return statements;
+	}
+	
+	/**
+	 * <p>Produces the statements which drop the triggers and the index table.
+	 *
+	 * @return the <b>DROP</b> statements in their order of execution
+	 * 
+	 * @since 1.1.0
+	 */
+	public List<String> drop() {
+		
+		return drop(content);
+	}
+	
+	private String trigger(String suffix, String event, String body) {
+		
+		return new StringBuilder("CREATE TRIGGER IF NOT EXISTS ").append(table).append("_").append(suffix)
+		.append(" ").append(event).append(" ON ").append(content)
+		.append(" BEGIN ").append(body).append(" END;").toString();
+	}
+	
+	private String insert(String row) {
+		
+		StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append("(rowid");
+		appendColumns(sql, null);
+		sql.append(") VALUES(").append(row).append(".rowid");
+		appendColumns(sql, row);
+		
+		return sql.append(");").toString();
+	}
+	
+	private String delete(String row) {
+		
+		if(module == FullText.Module.FTS4) {
+			
+			return new StringBuilder("DELETE FROM ").append(table)
+			.append(" WHERE docid = ").append(row).append(".rowid;").toString();
+		}
+		
+		StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append("(")
+		.append(table).append(", rowid");
+		appendColumns(sql, null);
+		sql.append(") VALUES('delete', ").append(row).append(".rowid");
+		appendColumns(sql, row);
+		
+		return sql.append(");").toString();
+	}
+	
+	private void appendColumns(StringBuilder sql, String row) {
+		
+		for (String column : columns) {
+			
+			sql.append(", ");
+			
+			if(row != null) sql.append(row).append(".");
+			
+			sql.append(column);
+		}
+	}
+}
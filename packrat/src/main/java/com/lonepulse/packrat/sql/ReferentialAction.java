@@ -0,0 +1,111 @@
+package com.lonepulse.packrat.sql;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * <p>Represents the action which is taken on the rows of a child table when the row 
+ * of the parent table which they refer to is deleted or updated.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public enum ReferentialAction implements SQL {
+
+	/**
+	 * <p>Takes no action, which fails the transaction if child rows are left referring 
+	 * to a missing parent when it commits.
+	 * 
+	 * @since 1.1.0
+	 */
+	NO_ACTION("NO ACTION"),
+	
+	/**
+	 * <p>Prohibits the change immediately if child rows refer to the parent.
+	 * 
+	 * @since 1.1.0
+	 */
+	RESTRICT("RESTRICT"),
+	
+	/**
+	 * <p>Sets the referring columns of the child rows to {@code null}.
+	 * 
+	 * @since 1.1.0
+	 */
+	SET_NULL("SET NULL"),
+	
+	/**
+	 * <p>Sets the referring columns of the child rows to their default values.
+	 * 
+	 * @since 1.1.0
+	 */
+	SET_DEFAULT("SET DEFAULT"),
+	
+	/**
+	 * <p>Propagates the change to the child rows, i.e. deleting a parent deletes its children.
+	 * 
+	 * @since 1.1.0
+	 */
+	CASCADE("CASCADE");
+	
+	
+	
+	/**
+	 * <p>The SQL representation of the action.
+	 */
+	private String sql;
+	
+	
+	/**
+	 * <p>Instantiates a new {@link ReferentialAction} and initializes 
+	 * its {@link #sql} representation.
+	 * 
+	 * @param action
+	 * 			the SQL representation of this action
+	 *
+	 * @since 1.1.0
+	 */
+	private ReferentialAction(String action) {
+		
+		this.sql = action;
+	}
+
+	/**
+	 * <p>Retrieves the SQL representation of this action. It's safe to use 
+	 * {@link #toString()} for retrieving the SQL as it delegates to this method. 
+	 *
+	 * @return the SQL representation of this action
+	 */
+	@Override
+	public String getSQLStatement() {
+		
+		return sql;
+	}
+
+	/**
+	 * <p>Delegates to {@link #getSQLStatement()}.
+	 */
+	@Override
+	public String toString() {
+
+		return getSQLStatement();
+	}
+}
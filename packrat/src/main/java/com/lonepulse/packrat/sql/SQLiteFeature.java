@@ -0,0 +1,215 @@
+package com.lonepulse.packrat.sql;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.lonepulse.packrat.annotation.FullText;
+import com.lonepulse.packrat.metadata.EntityMetadata;
+
+/**
+ * <p>Identifies the features of SQLite which a schema may use but which are missing from the 
+ * versions of SQLite shipped with older platforms; Android 4.0.3 ships SQLite 3.7.4. The schema 
+ * of an entity is checked against the version of SQLite in use before it is applied, so that a 
+ * missing feature is reported up front rather than as a syntax error.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public enum SQLiteFeature {
+
+	/**
+	 * <p>The <i>external content</i> FTS4 tables which back a {@link FullText} index, 
+	 * available from SQLite 3.7.9 (Android 4.1).
+	 * 
+	 * @since 1.1.0
+	 */
+	FTS4_EXTERNAL_CONTENT("external content FTS4 tables", 3, 7, 9),
+	
+	/**
+	 * <p>The FTS5 module, available from SQLite 3.9.0 (Android 7.0) if it was compiled in.
+	 * 
+	 * @since 1.1.0
+	 */
+	FTS5("the FTS5 module", 3, 9, 0),
+	
+	/**
+	 * <p>Partial indexes which declare a predicate, available from SQLite 3.8.0 (Android 5.0).
+	 * 
+	 * @since 1.1.0
+	 */
+	PARTIAL_INDEXES("partial indexes", 3, 8, 0),
+	
+	/**
+	 * <p>Tables which are created <b>WITHOUT ROWID</b>, available from SQLite 3.8.2 (Android 5.0).
+	 * 
+	 * @since 1.1.0
+	 */
+	WITHOUT_ROWID("tables without a rowid", 3, 8, 2),
+	
+	/**
+	 * <p>Indexes on expressions, available from SQLite 3.9.0 (Android 7.0).
+	 * 
+	 * @since 1.1.0
+	 */
+	INDEXES_ON_EXPRESSIONS("indexes on expressions", 3, 9, 0);
+	
+	
+	/**
+	 * <p>The description of the feature.
+	 */
+	private final String description;
+	
+	/**
+	 * <p>The major, minor and patch numbers of the first version of SQLite with the feature.
+	 */
+	private final int[] since;
+	
+	
+	/**
+	 * <p>Declares a feature along with the first version of SQLite which supports it.
+	 * 
+	 * @param description
+	 * 			the description of the feature
+	 * 
+	 * @param since
+	 * 			the major, minor and patch numbers of the version
+	 *
+	 * @since 1.1.0
+	 */
+	private SQLiteFeature(String description, int... since) {
+		
+		this.description = description;
+		this.since = since;
+	}
+	
+	/**
+	 * <p>Resolves the features which the schema of the given entity uses.</p>
+	 *
+	 * @param entity
+	 * 			the {@link EntityMetadata} of the entity
+	 * 
+	 * @return the features used by the entity, which may be empty
+	 * 
+	 * @since 1.1.0
+	 */
+	public static List<SQLiteFeature> of(EntityMetadata<?> entity) {
+		
+		List<SQLiteFeature> features = new ArrayList<SQLiteFeature>();
+		
+		if(FullTextIndex.of(entity) != null) {
+			
+			features.add(entity.getFullTextModule() == FullText.Module.FTS5? FTS5 :FTS4_EXTERNAL_CONTENT);
+		}
+		
+		if(entity.isWithoutRowId()) {
+			
+			features.add(WITHOUT_ROWID);
+		}
+		
+		for (TableIndex index : TableIndex.of(entity)) {
+			
+			if(index.getWhere() != null && !features.contains(PARTIAL_INDEXES)) {
+				
+				features.add(PARTIAL_INDEXES);
+			}
+			
+			if(index.isOnExpressions() && !features.contains(INDEXES_ON_EXPRESSIONS)) {
+				
+				features.add(INDEXES_ON_EXPRESSIONS);
+			}
+		}
+		
+		return features;
+	}
+	
+	/**
+	 * <p>Verifies that the given version of SQLite supports every feature which the schema 
+	 * of the given entity uses.</p>
+	 *
+	 * @param entity
+	 * 			the {@link EntityMetadata} of the entity
+	 * 
+	 * @param version
+	 * 			the version of SQLite in use, as reported by {@code sqlite_version()}
+	 * 
+	 * @throws DDLException
+	 * 			if the schema of the entity uses a feature which the version does not support
+	 * 
+	 * @since 1.1.0
+	 */
+	public static void require(EntityMetadata<?> entity, String version) throws DDLException {
+		
+		for (SQLiteFeature feature : of(entity)) {
+			
+			if(!feature.isSupportedBy(version)) {
+				
+				throw new DDLException(new StringBuilder("The entity ").append(entity.getType().getName())
+				.append(" uses ").append(feature.description).append(", which require SQLite ")
+				.append(feature.getSince()).append(" or later, but SQLite ").append(version)
+				.append(" is in use. ").toString());
+			}
+		}
+	}
+	
+	/**
+	 * <p>Determines if the given version of SQLite supports this feature.</p>
+	 *
+	 * @param version
+	 * 			the version of SQLite, such as {@code 3.8.10.2}
+	 * 
+	 * @return {@code true} if the version is the same as or later than the version which 
+	 * 		   introduced this feature
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isSupportedBy(String version) {
+		
+		String[] numbers = version.trim().split("\\.");
+		
+		for (int i = 0; i < since.length; i++) {
+			
+			int number = i < numbers.length? Integer.parseInt(numbers[i]) :0;
+			
+			if(number != since[i]) {
+				
+				return number > since[i];
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * <p>Retrieves the first version of SQLite which supports this feature.</p>
+	 *
+	 * @return the version which introduced this feature, such as {@code 3.8.2}
+	 * 
+	 * @since 1.1.0
+	 */
+	public String getSince() {
+		
+		return new StringBuilder().append(since[0]).append(".")
+		.append(since[1]).append(".").append(since[2]).toString();
+	}
+}
@@ -0,0 +1,147 @@
+package com.lonepulse.packrat.sql;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import android.database.DatabaseUtils;
+
+/**
+ * <p>Computes the <b>fingerprint</b> of the schema of an entity, which is a stable hash 
+ * of the DDL generated for it. The fingerprints of the schemas which have been applied 
+ * are kept in the table {@value #TABLE}, so that the DDL of an entity is only executed 
+ * when its fingerprint changes.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class SchemaFingerprint {
+
+	
+	/**
+	 * <p>The name of the table which holds the fingerprints of the applied schemas.
+	 * 
+	 * @since 1.1.0
+	 */
+	public static final String TABLE = "packrat_schema";
+	
+	/**
+	 * <p>The column which holds the fully qualified name of an entity.
+	 * 
+	 * @since 1.1.0
+	 */
+	public static final String ENTITY = "entity";
+	
+	/**
+	 * <p>The column which holds the fingerprint of the applied schema of an entity.
+	 * 
+	 * @since 1.1.0
+	 */
+	public static final String FINGERPRINT = "fingerprint";
+	
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	
+	
+	/**
+	 * <p>Instantiation is nonsensical.
+	 *
+	 * @since 1.1.0
+	 */
+	private SchemaFingerprint() {}
+	
+	/**
+	 * <p>Produces the statement which creates the table {@value #TABLE} if it does not exist.
+	 *
+	 * @return the <b>CREATE TABLE</b> statement for the fingerprints
+	 * 
+	 * @throws SQLException
+	 * 			if the statement could not be built
+	 * 
+	 * @since 1.1.0
+	 */
+	public static String create() throws SQLException {
+		
+		return CreateTableSQLBuilder.newInstance().createTable(TABLE).ifNotExists()
+			.addColumn(ENTITY, TypeAffinity.TEXT).withColumnConstraints(ColumnConstraint.PRIMARY_KEY)
+			.addColumn(FINGERPRINT, TypeAffinity.TEXT).withColumnConstraints(ColumnConstraint.NOT_NULL)
+			.build();
+	}
+	
+	/**
+	 * <p>Produces the statement which records the fingerprint of the applied schema of an 
+	 * entity, replacing any fingerprint which was recorded earlier.
+	 *
+	 * @param entity
+	 * 			the fully qualified name of the entity
+	 * 
+	 * @param fingerprint
+	 * 			the fingerprint of the schema which was applied
+	 * 
+	 * @return the <b>INSERT OR REPLACE</b> statement for the fingerprint
+	 * 
+	 * @since 1.1.0
+	 */
+	public static String record(String entity, String fingerprint) {
+		
+		return new StringBuilder("INSERT OR REPLACE INTO ").append(TABLE).append(" (").append(ENTITY)
+		.append(", ").append(FINGERPRINT).append(") VALUES (").append(DatabaseUtils.sqlEscapeString(entity))
+		.append(", ").append(DatabaseUtils.sqlEscapeString(fingerprint)).append(");").toString();
+	}
+	
+	/**
+	 * <p>Computes the fingerprint of the given DDL as the hexadecimal <b>SHA-1</b> digest 
+	 * of its UTF-8 encoding.
+	 *
+	 * @param ddl
+	 * 			the DDL generated for an entity
+	 * 
+	 * @return the fingerprint of the DDL
+	 * 
+	 * @since 1.1.0
+	 */
+	public static String of(CharSequence ddl) {
+		
+		try {
+			
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(ddl.toString().getBytes("UTF-8"));
+			char[] fingerprint = new char[digest.length * 2];
+			
+			for (int i = 0; i < digest.length; i++) {
+				
+				fingerprint[i * 2] = HEX[(digest[i] >> 4) & 0x0F];
+				fingerprint[i * 2 + 1] = HEX[digest[i] & 0x0F];
+			}
+			
+			return new String(fingerprint);
+		}
+		catch(NoSuchAlgorithmException nsae) {
+			
+			throw new DDLException(nsae);
+		}
+		catch(UnsupportedEncodingException uee) {
+			
+			throw new DDLException(uee);
+		}
+	}
+}
@@ -46,7 +46,16 @@ public enum TableConstraint implements SQL {
 	 * 
 	 * @since 1.1.0
 	 */
-	UNIQUE("UNIQUE");
+	UNIQUE("UNIQUE"),
+	
+	/**
+	 * <p>Identifies a column whose values refer to the rows of a parent table. Use 
+	 * {@link #references(String, String, String, ReferentialAction)} to specify the 
+	 * parent table and the action taken when a parent is deleted.
+	 * 
+	 * @since 1.1.0
+	 */
+	FOREIGN_KEY("FOREIGN KEY");
 	
 	
 	
@@ -112,7 +121,7 @@ public enum TableConstraint implements SQL {
 		
 		final String sqlWithColumns = sqlBuilder.toString();
 		
-		return new SQL() {
+		return new SQLStatement() {
 			
 			@Override
 			public String getSQLStatement() {
@@ -122,6 +131,52 @@ public enum TableConstraint implements SQL {
 		};
 	}
 
+	/**
+	 * <p>Applies a {@link #FOREIGN_KEY} on a column which refers to a column of the given 
+	 * parent table. The constraint is <b>deferred</b> until the transaction commits, so that 
+	 * related rows can be written in any order within a transaction.
+	 *
+	 * @param column
+	 * 			the column of the child table which holds the reference
+	 * 
+	 * @param parentTable
+	 * 			the table which is referred to
+	 * 
+	 * @param parentColumn
+	 * 			the column of the parent table which is referred to
+	 * 
+	 * @param onDelete
+	 * 			the {@link ReferentialAction} which is taken when a parent row is deleted
+	 * 
+	 * @return the {@link SQL} with the foreign key applied to the column
+	 * 
+	 * @throws MalformedSQLException
+	 * 			if this constraint is not a {@link #FOREIGN_KEY}
+	 * 
+	 * @since 1.1.0
+	 */
+	public SQL references(String column, String parentTable, String parentColumn, ReferentialAction onDelete) 
+	throws MalformedSQLException {
+		
+		if(this != FOREIGN_KEY) {
+			
+			throw new MalformedSQLException("Only a FOREIGN_KEY constraint can refer to another table. ");
+		}
+		
+		final String sqlWithReference = new StringBuilder(sql).append("(").append(column)
+		.append(") REFERENCES ").append(parentTable).append("(").append(parentColumn)
+		.append(") ON DELETE ").append(onDelete).append(" DEFERRABLE INITIALLY DEFERRED").toString();
+		
+		return new SQLStatement() {
+			
+			@Override
+			public String getSQLStatement() {
+				
+				return sqlWithReference;
+			}
+		};
+	}
+
 	/**
 	 * <p>Delegates to {@link #getSQLStatement()}. To use this column constraint with 
 	 * some arguments use {@code getSql().withArgs(java.lang.String...)}.
@@ -0,0 +1,278 @@
+package com.lonepulse.packrat.sql;
+
+/*
+ * #%L
+ * Packrat
+ * %%
+ * Copyright (C) 2013 - 2014 Lonepulse
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.lonepulse.packrat.annotation.Index;
+import com.lonepulse.packrat.annotation.Indexes;
+import com.lonepulse.packrat.metadata.EntityMetadata;
+import com.lonepulse.packrat.metadata.Property;
+
+/**
+ * <p>Describes an index on the table of an entity, as declared using {@link Index} on 
+ * an attribute or using {@link Indexes} on the entity itself. The index may be partial 
+ * and may index expressions as well as columns. Use 
+ * {@link TableIndex#of(EntityMetadata)} to describe all indexes of an entity.
+ * 
+ * @version 1.1.0
+ * <br><br>
+ * @author <a href="mailto:sahan@lonepulse.com">Lahiru Sahan Jayasinghe</a>
+ */
+public final class TableIndex {
+
+	
+	/**
+	 * <p>The name of the index.
+	 */
+	private final String name;
+	
+	/**
+	 * <p>The name of the indexed table.
+	 */
+	private final String table;
+	
+	/**
+	 * <p>The indexed columns in their order of significance.
+	 */
+	private final String[] columns;
+	
+	/**
+	 * <p>Determines whether the indexed columns hold a unique set of values.
+	 */
+	private final boolean unique;
+	
+	/**
+	 * <p>The predicate which restricts the indexed rows, or {@code null} if all rows are indexed.
+	 */
+	private final String where;
+	
+	/**
+	 * <p>Determines whether any of the indexed columns is an expression.
+	 */
+	private final boolean expressions;
+	
+	
+	/**
+	 * <p>Describes all indexes declared on the given entity; those declared on attributes 
+	 * followed by the composite indexes declared on the entity. Each foreign key column which 
+	 * does not lead any of these indexes is then given an index of its own, which is prefixed 
+	 * with <b>fk_</b> rather than <b>idx_</b>. Expressions are not validated here and are left 
+	 * for SQLite to verify when the index is created.
+	 *
+	 * @param entity
+	 * 			the {@link EntityMetadata} of the entity
+	 * 
+	 * @return the {@link TableIndex} instances of the entity, which may be empty
+	 * 
+	 * @throws DDLException
+	 * 			if a composite index refers to a column which the entity does not declare, or 
+	 * 			if two indexes share the same name
+	 * 
+	 * @since 1.1.0
+	 */
+	public static List<TableIndex> of(EntityMetadata<?> entity) {
+		
+		List<TableIndex> indexes = new ArrayList<TableIndex>();
+		
+		for (Property property : entity.getProperties()) {
+			
+			Index index = property.getField().getAnnotation(Index.class);
+			
+			if(index != null) {
+				
+				String[] columns = index.expressions().length > 0? 
+					index.expressions() :new String[] {property.getColumn()};
+				
+				indexes.add(of(entity, index, columns));
+			}
+		}
+		
+		Indexes composites = entity.getType().getAnnotation(Indexes.class);
+		
+		if(composites != null) {
+			
+			for (Index index : composites.value()) {
+				
+				for (String column : index.columns()) {
+					
+					if(entity.getProperty(column) == null) {
+						
+						throw new DDLException(new StringBuilder("The index on ").append(entity.getTable())
+						.append(" refers to the column ").append(column).append(" which ")
+						.append(entity.getType().getName()).append(" does not declare. ").toString());
+					}
+				}
+				
+				String[] columns = new String[index.columns().length + index.expressions().length];
+				System.arraycopy(index.columns(), 0, columns, 0, index.columns().length);
+				System.arraycopy(index.expressions(), 0, columns, index.columns().length, index.expressions().length);
+				
+				indexes.add(of(entity, index, columns));
+			}
+		}
+		
+		for (Property property : entity.getProperties()) {
+			
+			if(property.isReference() && !isLeading(indexes, property.getColumn())) {
+				
+				String[] columns = {property.getColumn()};
+				indexes.add(new TableIndex(entity.getTable(), 
+					nameOf("fk_", entity.getTable(), columns), columns, false, null, false));
+			}
+		}
+		
+		Set<String> names = new HashSet<String>();
+		
+		for (TableIndex index : indexes) {
+			
+			if(!names.add(index.name)) {
+				
+				throw new DDLException(new StringBuilder("More than one index on ").append(entity.getTable())
+				.append(" is named ").append(index.name).append(". Name one of them explicitly. ").toString());
+			}
+		}
+		
+		return indexes;
+	}
+	
+	private static TableIndex of(EntityMetadata<?> entity, Index index, String[] columns) {
+		
+		if(columns.length == 0) {
+			
+			throw new DDLException(new StringBuilder("The composite index on ").append(entity.getTable())
+			.append(" must specify the indexed columns or expressions. ").toString());
+		}
+		
+		String table = entity.getTable();
+		String name = index.name().length() > 0? index.name() :nameOf("idx_", table, columns);
+		
+		return new TableIndex(table, name, columns, index.unique(), 
+			index.where().length() > 0? index.where() :null, index.expressions().length > 0);
+	}
+	
+	/**
+	 * <p>Creates a new {@link TableIndex}. Visibility is restricted to enforce use 
+	 * of {@link #of(EntityMetadata)}.
+	 *
+	 * @since 1.1.0
+	 */
+	private TableIndex(String table, String name, String[] columns, boolean unique, String where, boolean expressions) {
+		
+		this.table = table;
+		this.name = name;
+		this.columns = columns;
+		this.unique = unique;
+		this.where = where;
+		this.expressions = expressions;
+	}
+	
+	/**
+	 * <p>Determines if any of the given indexes can be used to look up the given column, 
+	 * i.e. if the column leads an index which covers all rows.
+	 */
+	private static boolean isLeading(List<TableIndex> indexes, String column) {
+		
+		for (TableIndex index : indexes) {
+			
+			if(index.where == null && index.columns[0].equals(column)) return true;
+		}
+		
+		return false;
+	}
+	
+	private static String nameOf(String prefix, String table, String[] columns) {
+		
+		StringBuilder name = new StringBuilder(prefix).append(table);
+		
+		for (String column : columns) {
+			
+			name.append("_").append(column.replaceAll("\\W+", "_"));
+		}
+		
+		int end = name.length();
+		
+		while(name.charAt(end - 1) == '_') end--;
+		
+		return name.substring(0, end);
+	}
+	
+	/**
+	 * <p>Retrieves the name of the index.
+	 *
+	 * @return the name of the index
+	 * 
+	 * @since 1.1.0
+	 */
+	public String getName() {
+		
+		return name;
+	}
+	
+	/**
+	 * <p>Retrieves the predicate which restricts the indexed rows.
+	 *
+	 * @return the predicate of a partial index, or {@code null} if all rows are indexed
+	 * 
+	 * @since 1.1.0
+	 */
+	public String getWhere() {
+		
+		return where;
+	}
+	
+	/**
+	 * <p>Determines whether the index is on expressions rather than only on columns.
+	 *
+	 * @return {@code true} if any of the indexed columns is an expression
+	 * 
+	 * @since 1.1.0
+	 */
+	public boolean isOnExpressions() {
+		
+		return expressions;
+	}
+	
+	/**
+	 * <p>Produces the statement which creates the index if it does not exist.
+	 *
+	 * @return the <b>CREATE INDEX</b> statement
+	 * 
+	 * @throws SQLException
+	 * 			if the statement could not be built
+	 * 
+	 * @since 1.1.0
+	 */
+	public String create() throws SQLException {
+		
+		CreateIndexPolicy createIndex = CreateIndexSQLBuilder.newInstance().createIndex(name).ifNotExists();
+		
+		if(unique) {
+			
+			createIndex.unique();
+		}
+		
+		return createIndex.onTable(table).onColumns(columns).where(where).build();
+	}
+}
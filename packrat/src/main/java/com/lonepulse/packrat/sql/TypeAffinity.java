@@ -59,6 +59,13 @@ public enum TypeAffinity {
 	 */
 	NUMERIC("NUMERIC"),
 	
+	/**
+	 * <p>To be used on a column which is to store binary data as it is.
+	 * 
+	 * @since 1.1.0
+	 */
+	BLOB("BLOB"),
+	
 	/**
 	 * <p>To be used on a column which shows no interest in any type affinity.
 	 * 
@@ -109,9 +116,29 @@ public enum TypeAffinity {
 		return getSql();
 	}
 	
+	/**
+	 * <p>Resolves the {@link TypeAffinity} of a column which holds values of the given type 
+	 * natively. Booleans are stored as the integers {@code 0} and {@code 1}, byte arrays as 
+	 * blobs and all other types which are not numbers as text.
+	 *
+	 * @param type
+	 * 			the {@link Class} of the values
+	 * 
+	 * @return the type affinity of the column
+	 * 
+	 * @since 1.1.0
+	 */
 	public static TypeAffinity resolve(Class<?> type) {
 		
-		if(byte.class.isAssignableFrom(type) || short.class.isAssignableFrom(type) ||
+		if(boolean.class.equals(type) || Boolean.class.equals(type)) {
+			
+			return INTEGER;
+		}
+		else if(byte[].class.equals(type)) {
+			
+			return BLOB;
+		}
+		else if(byte.class.isAssignableFrom(type) || short.class.isAssignableFrom(type) ||
 		   int.class.isAssignableFrom(type) || long.class.isAssignableFrom(type) ||
 		   Byte.class.isAssignableFrom(type) || Short.class.isAssignableFrom(type) ||
 		   Integer.class.isAssignableFrom(type) || Long.class.isAssignableFrom(type)) {
@@ -31,6 +31,19 @@ package com.lonepulse.packrat.util;
  */
 public final class SQLUtils {
 
+	
+	/**
+	 * <p>The keywords which SQLite accepts as literal values, for example as the 
+	 * default value of a column.
+	 */
+	private static final String[] LITERAL_KEYWORDS = {
+		
+		"NULL", "CURRENT_TIME", "CURRENT_DATE", "CURRENT_TIMESTAMP"
+	};
+	
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+	
+	
 	/**
 	 * <p>Instantiation is nonsensical.
 	 *
@@ -40,7 +53,8 @@ public final class SQLUtils {
 	
 	/**
 	 * <p>Takes an argument and returns a quoted version of it with a 
-	 * prepended and appended single quote.
+	 * prepended and appended single quote. Any single quotes within the 
+	 * argument are escaped by doubling them.
 	 *
 	 * @param textualArg
 	 * 			an argument which is to be enclosed in single quotes
@@ -51,12 +65,24 @@ public final class SQLUtils {
 	 */
 	public static final String quote(String textualArg) {
 		
-		return "'" + textualArg + "'";
+		StringBuilder quoted = new StringBuilder(textualArg.length() + 2).append('\'');
+		
+		for (int i = 0; i < textualArg.length(); i++) {
+			
+			char c = textualArg.charAt(i);
+			
+			if(c == '\'') quoted.append('\'');
+			quoted.append(c);
+		}
+		
+		return quoted.append('\'').toString();
 	}
 	
 	/**
 	 * <p>Takes an argument and returns a single-quoted version if it's textual and 
-	 * not quoted already.
+	 * not quoted already. Numeric literals, well-formed string literals and the 
+	 * keywords {@code NULL}, {@code CURRENT_TIME}, {@code CURRENT_DATE} and 
+	 * {@code CURRENT_TIMESTAMP} are returned as they are.
 	 *
 	 * @param potentialTextualArg
 	 * 			an argument which could be numeric or textual
@@ -67,21 +93,159 @@ public final class SQLUtils {
 	 */
 	public static final String quoteIfTextual(String potentialTextualArg) {
 		
-		try {
+		return isLiteral(potentialTextualArg)? potentialTextualArg :quote(potentialTextualArg);
+	}
+	
+	/**
+	 * <p>Determines if the given argument can be used as an SQL literal as it is, i.e. 
+	 * if it is a numeric literal, a well-formed string literal or a literal keyword. 
+	 * The argument is scanned in place without any allocations.
+	 *
+	 * @param arg
+	 * 			the argument to be classified
+	 * 
+	 * @return {@code true} if the argument need not be quoted
+	 * 
+	 * @since 1.1.0
+	 */
+	public static final boolean isLiteral(String arg) {
+		
+		if(isNumeric(arg) || isQuoted(arg)) {
+			
+			return true;
+		}
+		
+		for (String keyword : LITERAL_KEYWORDS) {
+			
+			if(keyword.equalsIgnoreCase(arg)) return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * <p>Determines if the given argument is a <b>numeric literal</b> as understood by 
+	 * SQLite, i.e. an optionally signed decimal with an optional fraction and exponent.
+	 *
+	 * @param arg
+	 * 			the argument to be classified
+	 * 
+	 * @return {@code true} if the argument is a numeric literal
+	 * 
+	 * @since 1.1.0
+	 */
+	public static final boolean isNumeric(CharSequence arg) {
+		
+		int length = arg.length(), i = 0;
+		
+		if(i < length && (arg.charAt(i) == '+' || arg.charAt(i) == '-')) i++;
+		
+		int digits = 0;
+		
+		while(i < length && isDigit(arg.charAt(i))) { i++; digits++; }
+		
+		if(i < length && arg.charAt(i) == '.') {
 			
-			if(potentialTextualArg.startsWith("'") && potentialTextualArg.endsWith("'")) {
+			i++;
+			while(i < length && isDigit(arg.charAt(i))) { i++; digits++; }
+		}
+		
+		if(digits == 0) {
+			
+			return false;
+		}
+		
+		if(i < length && (arg.charAt(i) == 'e' || arg.charAt(i) == 'E')) {
+			
+			i++;
+			
+			if(i < length && (arg.charAt(i) == '+' || arg.charAt(i) == '-')) i++;
+			
+			int exponent = i;
+			
+			while(i < length && isDigit(arg.charAt(i))) i++;
+			
+			if(i == exponent) return false;
+		}
+		
+		return i == length;
+	}
+	
+	/**
+	 * <p>Determines if the given argument is a well-formed <b>string literal</b>, i.e. it is 
+	 * enclosed in single quotes and any single quotes within it are escaped by doubling them.
+	 *
+	 * @param arg
+	 * 			the argument to be classified
+	 * 
+	 * @return {@code true} if the argument is a string literal
+	 * 
+	 * @since 1.1.0
+	 */
+	public static final boolean isQuoted(CharSequence arg) {
+		
+		int last = arg.length() - 1;
+		
+		if(last < 1 || arg.charAt(0) != '\'' || arg.charAt(last) != '\'') {
+			
+			return false;
+		}
+		
+		for (int i = 1; i < last; i++) {
+			
+			if(arg.charAt(i) == '\'') {
 				
-				return potentialTextualArg;
+				if(arg.charAt(i + 1) != '\'' || i + 1 == last) return false;
+				i++;
 			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * <p>Formats the given value as an SQL literal based on its type rather than its textual 
+	 * representation. Finite numbers are inlined as they are, byte arrays as blob literals, 
+	 * {@code null} as {@code NULL} and all other values are quoted.
+	 *
+	 * @param value
+	 * 			the value to be formatted
+	 * 
+	 * @return the SQL literal which represents the value
+	 * 
+	 * @since 1.1.0
+	 */
+	public static final String literal(Object value) {
+		
+		if(value == null) {
 			
-			Double.parseDouble(potentialTextualArg);
+			return "NULL";
+		}
+		
+		if(value instanceof Number) {
 			
-			return potentialTextualArg;
+			String number = value.toString();
+			return isNumeric(number)? number :quote(number);
 		}
-		catch(NumberFormatException nfe) {
+		
+		if(value instanceof byte[]) {
+			
+			byte[] bytes = (byte[])value;
+			StringBuilder blob = new StringBuilder(bytes.length * 2 + 3).append("X'");
+			
+			for (byte b : bytes) {
+				
+				blob.append(HEX[(b >> 4) & 0x0F]).append(HEX[b & 0x0F]);
+			}
 			
-			return "'" + potentialTextualArg + "'";
+			return blob.append('\'').toString();
 		}
+		
+		return quote(value.toString());
 	}
 	
+	private static boolean isDigit(char c) {
+		
+		return c >= '0' && c <= '9';
+	}
 }